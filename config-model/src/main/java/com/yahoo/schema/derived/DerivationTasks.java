@@ -0,0 +1,54 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.schema.derived;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs independent derivation tasks in parallel and returns their results.
+ * Tasks which the executor has not started when their result is needed are run by the waiting thread instead,
+ * so tasks may themselves run other tasks on the same executor, also when it has fewer threads than there are tasks.
+ *
+ * @author agent
+ */
+public class DerivationTasks {
+
+    private DerivationTasks() { }
+
+    /**
+     * Runs the given tasks using the given executor and returns their results in the same order.
+     *
+     * @throws IllegalArgumentException if a task threw this
+     * @throws IllegalStateException if a task threw any other exception, or the waiting thread was interrupted
+     */
+    public static <T> List<T> runAll(List<? extends Callable<T>> tasks, Executor executor) {
+        List<FutureTask<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            FutureTask<T> future = new FutureTask<>(task);
+            futures.add(future);
+            if (tasks.size() > 1) // The single task is just run below
+                executor.execute(future);
+        }
+        try {
+            List<T> results = new ArrayList<>(futures.size());
+            for (FutureTask<T> future : futures) {
+                future.run(); // Does nothing if the executor has already started the task
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException iArg) throw iArg;
+            if (e.getCause() instanceof IllegalStateException iState) throw iState;
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
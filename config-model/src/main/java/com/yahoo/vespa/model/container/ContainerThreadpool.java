@@ -22,7 +22,7 @@ public abstract class ContainerThreadpool extends SimpleComponent implements Con
     private final String name;
     private final UserOptions options;
 
-    public record UserOptions(Double max, Double min, Double queueSize, boolean isRelative){}
+    public record UserOptions(Double max, Double min, Double queueSize, boolean isRelative, Boolean virtualThreads){}
 
     protected ContainerThreadpool(DeployState ds, String name, Element parent) {
         super(new ComponentModel(
@@ -72,5 +72,8 @@ public abstract class ContainerThreadpool extends SimpleComponent implements Con
                 builder.relativeQueueSize(-1);
             }
         }
+        if (options.virtualThreads() != null) {
+            builder.virtualThreads(options.virtualThreads());
+        }
     }
 }
@@ -81,6 +81,10 @@ public class DefaultThreadpoolProvider extends SimpleComponent implements Thread
         if (userOptions.max() != null) checkTruncation(ds, userOptions.max(), "max");
         if (userOptions.min() != null) checkTruncation(ds, userOptions.min(), "threads");
         if (userOptions.queueSize() != null) checkTruncation(ds, userOptions.queueSize(), "queue");
+        if (userOptions.virtualThreads() != null)
+            ds.getDeployLogger().logApplicationPackage(Level.WARNING,
+                                                       "For <threadpool> in <container>: 'virtual-threads' is ignored, " +
+                                                       "as it is only supported for handler thread pools");
     }
 
     private void checkTruncation(DeployState ds, Double value, String part) {
@@ -19,7 +19,7 @@ import java.util.logging.Level;
  */
 public class ContainerThreadpoolOptionsBuilder {
     public static ContainerThreadpool.UserOptions build(DeployState ds, Element parent) {
-        var options = new ContainerThreadpool.UserOptions(null, null, null, false);
+        var options = new ContainerThreadpool.UserOptions(null, null, null, false, null);
         var threadpoolElem = XmlHelper.getOptionalChild(parent, "threadpool").orElse(null);
         if (threadpoolElem == null)
             return options;
@@ -31,6 +31,8 @@ public class ContainerThreadpoolOptionsBuilder {
         //      The number of threads are scaled up after the queue is full, which is surprising,
         //      as one would expect the pool size to scale before queuing up tasks.
         //      This is a Java limitation in the thread pool class from the standard library.
+        Boolean virtualThreads = XmlHelper.getOptionalAttribute(threadpoolElem, "virtual-threads")
+                .map(Boolean::parseBoolean).orElse(null);
         Double max = null;
         Double min = null;
         Double queue = null;
@@ -89,7 +91,7 @@ public class ContainerThreadpoolOptionsBuilder {
             throw new IllegalArgumentException("For <threadpool>: <queue> must be positive.");
         if (min != null && max != null && min > max)
             throw new IllegalArgumentException("For <threadpool>: 'max' on <threads> must be greater than <threads>.");
-        options = new ContainerThreadpool.UserOptions(max, min, queue, isRelative);
+        options = new ContainerThreadpool.UserOptions(max, min, queue, isRelative, virtualThreads);
         return options;
     }
 }
\ No newline at end of file
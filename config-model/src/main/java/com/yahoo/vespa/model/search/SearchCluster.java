@@ -5,7 +5,9 @@ import com.yahoo.config.ConfigInstance;
 import com.yahoo.config.model.deploy.DeployState;
 import com.yahoo.container.QrSearchersConfig;
 import com.yahoo.schema.DocumentOnlySchema;
+import com.yahoo.schema.Schema;
 import com.yahoo.schema.derived.AttributeFields;
+import com.yahoo.schema.derived.DerivationTasks;
 import com.yahoo.schema.derived.DerivedConfiguration;
 import com.yahoo.search.config.ClusterConfig;
 import com.yahoo.search.config.SchemaInfoConfig;
@@ -17,12 +19,17 @@ import com.yahoo.vespa.configdefinition.IlscriptsConfig;
 import com.yahoo.config.model.producer.AnyConfigProducer;
 import com.yahoo.config.model.producer.TreeConfigProducer;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
 /**
  * Represents a search cluster.
@@ -84,15 +91,34 @@ public abstract class SearchCluster extends TreeConfigProducer<AnyConfigProducer
 
     /**
      * Must be called after cluster is built, to derive schema configs.
-     * Derives the schemas from the application package.
+     * Derives the schemas from the application package, in parallel using the executor of the deploy state.
      * Also stores the document names contained in the schemas.
      */
     public void deriveFromSchemas(DeployState deployState) {
+        List<SchemaInfo> specs = new ArrayList<>();
         for (SchemaInfo spec : schemas().values()) {
             if (spec.fullSchema() instanceof DocumentOnlySchema) continue; // TODO verify if this special handling is necessary
-
+            specs.add(spec);
+        }
+        List<Callable<List<DerivedConfiguration>>> derivations = new ArrayList<>();
+        List<List<SchemaInfo>> families = inheritanceFamilies(specs);
+        for (List<SchemaInfo> family : families) {
+            derivations.add(() -> {
+                List<DerivedConfiguration> deriveds = new ArrayList<>();
+                for (SchemaInfo spec : family)
+                    deriveds.add(new DerivedConfiguration(deployState, spec.fullSchema(), spec.getIndexMode()));
+                return deriveds;
+            });
+        }
+        List<List<DerivedConfiguration>> familyDeriveds = DerivationTasks.runAll(derivations, deployState.getExecutor());
+        Map<SchemaInfo, DerivedConfiguration> deriveds = new IdentityHashMap<>();
+        for (int i = 0; i < families.size(); i++)
+            for (int j = 0; j < families.get(i).size(); j++)
+                deriveds.put(families.get(i).get(j), familyDeriveds.get(i).get(j));
+
+        for (SchemaInfo spec : specs) {
+            DerivedConfiguration derived = deriveds.get(spec);
             String schemaName = spec.fullSchema().getName();
-            var derived = new DerivedConfiguration(deployState, spec.fullSchema(), spec.getIndexMode());
             documentDbs.put(schemaName, new DocumentDatabase(this, schemaName, derived));
             if (spec.getIndexMode() == SchemaInfo.IndexMode.STREAMING) {
                 var parent = (TreeConfigProducer<AnyConfigProducer>)getParent();
@@ -101,6 +127,31 @@ public abstract class SearchCluster extends TreeConfigProducer<AnyConfigProducer
         }
     }
 
+    /**
+     * Returns the given schemas grouped by the topmost schema they inherit, each group ordered with parents
+     * before the schemas inheriting them. Schemas in the same group share state, such as rank profiles
+     * and ONNX models, which is modified when deriving them, so each group must be derived in order by one thread.
+     */
+    static List<List<SchemaInfo>> inheritanceFamilies(List<SchemaInfo> specs) {
+        Map<String, List<SchemaInfo>> families = new LinkedHashMap<>();
+        for (SchemaInfo spec : specs) {
+            Schema root = spec.fullSchema();
+            while (root.inherited().isPresent())
+                root = root.inherited().get();
+            families.computeIfAbsent(root.getName(), __ -> new ArrayList<>()).add(spec);
+        }
+        for (List<SchemaInfo> family : families.values())
+            family.sort(Comparator.comparingInt(spec -> inheritanceDepth(spec.fullSchema())));
+        return List.copyOf(families.values());
+    }
+
+    private static int inheritanceDepth(Schema schema) {
+        int depth = 0;
+        for (Optional<Schema> parent = schema.inherited(); parent.isPresent(); parent = parent.get().inherited())
+            depth++;
+        return depth;
+    }
+
     /** Returns the document databases contained in this cluster */
     public List<DocumentDatabase> getDocumentDbs() {
         return documentDbs.values().stream().toList();
@@ -0,0 +1,65 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.schema.derived;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author agent
+ */
+public class DerivationTasksTestCase {
+
+    @Test
+    void results_are_returned_in_task_order() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int value = i;
+                tasks.add(() -> value);
+            }
+            assertEquals(IntStream.range(0, 100).boxed().toList(), DerivationTasks.runAll(tasks, executor));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nested_tasks_complete_with_fewer_threads_than_tasks() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Callable<Integer>> outer = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                outer.add(() -> {
+                    List<Callable<Integer>> inner = new ArrayList<>();
+                    for (int j = 0; j < 8; j++)
+                        inner.add(() -> 1);
+                    return DerivationTasks.runAll(inner, executor).stream().mapToInt(Integer::intValue).sum();
+                });
+            }
+            assertEquals(List.of(8, 8, 8, 8, 8, 8, 8, 8), DerivationTasks.runAll(outer, executor));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void illegal_argument_exceptions_are_rethrown() {
+        List<Callable<Integer>> tasks = List.of(() -> 1, () -> { throw new IllegalArgumentException("Invalid"); });
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                                  () -> DerivationTasks.runAll(tasks, Runnable::run));
+        assertEquals("Invalid", e.getMessage());
+    }
+
+}
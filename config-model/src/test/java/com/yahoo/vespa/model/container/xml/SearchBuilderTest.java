@@ -239,6 +239,25 @@ public class SearchBuilderTest extends ContainerModelBuilderTestBase {
         assertEquals(50, config.relativeQueueSize());
     }
 
+    @Test
+    void threadpool_can_use_virtual_threads() {
+        Element clusterElem = DomBuilderTest.parse(
+                "<container id='default' version='1.0'>",
+                "  <search>",
+                "    <threadpool virtual-threads='true'>",
+                "      <threads>100</threads>",
+                "    </threadpool>",
+                "  </search>",
+                nodesXml,
+                "</container>");
+        createModel(root, clusterElem);
+        ContainerThreadpoolConfig config = root.getConfig(
+                ContainerThreadpoolConfig.class, "default/component/" + SearchHandler.HANDLER_CLASSNAME + "/threadpool@search-handler");
+        assertTrue(config.virtualThreads());
+        assertEquals(100, config.relativeMaxThreads());
+        assertEquals(40, config.relativeQueueSize());
+    }
+
     @Test
     void ExecutionFactory_gets_same_chains_config_as_SearchHandler() {
         createBasicSearchModel();
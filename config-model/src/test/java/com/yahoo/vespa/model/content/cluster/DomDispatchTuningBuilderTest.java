@@ -92,6 +92,8 @@ public class DomDispatchTuningBuilderTest {
                 newTuningDispatch(dispatchPolicy("latency-amortized-over-requests")).getDispatchPolicy());
         assertEquals(DispatchTuning.DispatchPolicy.LATENCY_AMORTIZED_OVER_TIME,
                 newTuningDispatch(dispatchPolicy("latency-amortized-over-time")).getDispatchPolicy());
+        assertEquals(DispatchTuning.DispatchPolicy.LOAD_AWARE,
+                newTuningDispatch(dispatchPolicy("load-aware")).getDispatchPolicy());
     }
 
 
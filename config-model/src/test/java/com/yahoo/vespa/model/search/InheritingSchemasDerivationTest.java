@@ -0,0 +1,85 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.model.search;
+
+import com.yahoo.config.application.api.ApplicationPackage;
+import com.yahoo.config.model.application.provider.FilesApplicationPackage;
+import com.yahoo.config.model.deploy.DeployState;
+import com.yahoo.io.IOUtils;
+import com.yahoo.path.Path;
+import com.yahoo.schema.derived.SchemaInfo;
+import com.yahoo.vespa.config.search.RankProfilesConfig;
+import com.yahoo.vespa.config.search.core.OnnxModelsConfig;
+import com.yahoo.vespa.model.VespaModel;
+import com.yahoo.vespa.model.test.utils.DeployLoggerStub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests deriving schemas which inherit each other and share ONNX models.
+ *
+ * @author agent
+ */
+public class InheritingSchemasDerivationTest {
+
+    private final Path applicationDir = Path.fromString("src/test/integration/onnx-model-inheritance/");
+
+    @AfterEach
+    public void removeGeneratedModelFiles() {
+        IOUtils.recursiveDeleteDir(applicationDir.append(ApplicationPackage.MODELS_GENERATED_DIR).toFile());
+    }
+
+    @Test
+    void inheriting_schemas_are_derived_in_inheritance_order_by_one_task() throws Exception {
+        SearchCluster cluster = loadModel(new DeployState.Builder()).getSearchClusters().get(0);
+        List<SchemaInfo> specs = new ArrayList<>(cluster.schemas().values());
+        specs.sort((a, b) -> - a.name().compareTo(b.name())); // parent, child2, child1
+
+        List<List<SchemaInfo>> families = SearchCluster.inheritanceFamilies(specs);
+        assertEquals(1, families.size());
+        assertEquals(List.of("parent", "child2", "child1"), families.get(0).stream().map(SchemaInfo::name).toList());
+    }
+
+    @Test
+    void inheriting_schemas_with_onnx_models_derive_the_same_config_in_parallel() throws Exception {
+        Map<String, String> expected = derivedConfig(loadModel(new DeployState.Builder()));
+        assertTrue(expected.get("child1").contains("rankingExpression(my_function)"), expected.get("child1"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 10; i++)
+                assertEquals(expected, derivedConfig(loadModel(new DeployState.Builder().executor(executor))));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private VespaModel loadModel(DeployState.Builder deployState) throws Exception {
+        FilesApplicationPackage applicationPackage = FilesApplicationPackage.fromDir(applicationDir.toFile(), Map.of());
+        return new VespaModel(deployState.applicationPackage(applicationPackage).deployLogger(new DeployLoggerStub()).build());
+    }
+
+    /** Returns the ONNX model and rank profile config of each document database */
+    private static Map<String, String> derivedConfig(VespaModel model) {
+        Map<String, String> configs = new LinkedHashMap<>();
+        for (DocumentDatabase db : model.getSearchClusters().get(0).getDocumentDbs()) {
+            OnnxModelsConfig.Builder onnxModels = new OnnxModelsConfig.Builder();
+            ((OnnxModelsConfig.Producer) db).getConfig(onnxModels);
+            RankProfilesConfig.Builder rankProfiles = new RankProfilesConfig.Builder();
+            ((RankProfilesConfig.Producer) db).getConfig(rankProfiles);
+            configs.put(db.getSchemaName(), new OnnxModelsConfig(onnxModels) + "\n" + new RankProfilesConfig(rankProfiles));
+        }
+        return configs;
+    }
+
+}
@@ -0,0 +1,183 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.proxy;
+
+import com.yahoo.concurrent.DaemonThreadFactory;
+import com.yahoo.slime.Cursor;
+import com.yahoo.slime.Inspector;
+import com.yahoo.slime.Slime;
+import com.yahoo.slime.SlimeUtils;
+import com.yahoo.vespa.config.ConfigKey;
+import com.yahoo.vespa.config.PayloadChecksum;
+import com.yahoo.vespa.config.PayloadChecksums;
+import com.yahoo.vespa.config.RawConfig;
+import com.yahoo.vespa.config.protocol.CompressionType;
+import com.yahoo.vespa.config.protocol.Payload;
+import com.yahoo.vespa.defaults.Defaults;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A copy on disk of the configs in a {@link MemoryCache}, which is read when the proxy starts, so that
+ * configs can be served before the config servers have answered. Each config is written to its own file
+ * in the background when it changes. The payload checksums of a config are stored with it, and files
+ * whose payload does not match its checksums are ignored and removed when read.
+ *
+ * @author agent
+ */
+class DiskCache {
+
+    private static final Logger log = Logger.getLogger(DiskCache.class.getName());
+
+    static final Path DEFAULT_DIR = Path.of(Defaults.getDefaults().underVespaHome("var/vespa/cache/config-proxy"));
+    private static final String suffix = ".json";
+
+    private final Path directory;
+    private final Executor writer;
+
+    DiskCache(Path directory) {
+        this(directory, Executors.newSingleThreadExecutor(new DaemonThreadFactory("config disk cache")));
+    }
+
+    /** Creates a disk cache where all writes are done by the given executor, in the order they are submitted */
+    DiskCache(Path directory, Executor writer) {
+        this.directory = directory;
+        this.writer = writer;
+    }
+
+    /** Writes the given config, replacing any previous version of it */
+    void write(RawConfig config) {
+        writer.execute(() -> writeConfig(config));
+    }
+
+    /** Removes all configs */
+    void clear() {
+        writer.execute(this::deleteAll);
+    }
+
+    /** Returns all configs in this which are intact */
+    List<RawConfig> read() {
+        List<RawConfig> configs = new ArrayList<>();
+        if ( ! Files.isDirectory(directory)) return configs;
+
+        for (Path file : files()) {
+            try {
+                Optional<RawConfig> config = fromSlime(SlimeUtils.jsonToSlimeOrThrow(Files.readAllBytes(file)).get());
+                if (config.isPresent()) {
+                    configs.add(config.get());
+                    continue;
+                }
+                log.log(Level.INFO, "Payload of cached config in '" + file + "' does not match its checksums, removing it");
+            } catch (IOException | RuntimeException e) {
+                log.log(Level.INFO, "Could not read cached config in '" + file + "', removing it: " + e.getMessage());
+            }
+            delete(file);
+        }
+        return configs;
+    }
+
+    private void writeConfig(RawConfig config) {
+        Path file = directory.resolve(fileName(config));
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, "." + file.getFileName(), ".tmp");
+            try {
+                Files.write(tempFile, SlimeUtils.toJsonBytes(toSlime(config)));
+                Files.move(tempFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            log.log(Level.FINE, () -> "Wrote '" + config.getKey() + "' to '" + file + "'");
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.WARNING, "Could not write config to '" + file + "': " + e.getMessage());
+        }
+    }
+
+    private void deleteAll() {
+        if ( ! Files.isDirectory(directory)) return;
+        files().forEach(DiskCache::delete);
+    }
+
+    private List<Path> files() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).toList();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Could not list cached configs in '" + directory + "': " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Could not delete '" + file + "': " + e.getMessage());
+        }
+    }
+
+    private static String fileName(RawConfig config) {
+        return URLEncoder.encode(config.getNamespace() + "." + config.getName() + ":" + config.getConfigId() +
+                                 ":" + config.getDefMd5(), UTF_8) + suffix;
+    }
+
+    private static Slime toSlime(RawConfig config) {
+        Slime slime = new Slime();
+        Cursor root = slime.setObject();
+        root.setString("namespace", config.getNamespace());
+        root.setString("name", config.getName());
+        root.setString("configId", config.getConfigId());
+        root.setString("defMd5", config.getDefMd5());
+        root.setLong("generation", config.getGeneration());
+        root.setBool("applyOnRestart", config.applyOnRestart());
+        Cursor checksums = root.setObject("checksums");
+        for (PayloadChecksum.Type type : PayloadChecksum.Type.values()) {
+            PayloadChecksum checksum = config.getPayloadChecksums().getForType(type);
+            if (checksum != null && ! checksum.isEmpty())
+                checksums.setString(type.name(), checksum.asString());
+        }
+        root.setString("payload", config.getPayload().withCompression(CompressionType.UNCOMPRESSED).getData().toString());
+        return slime;
+    }
+
+    /** Returns the config in the given slime, or empty if its payload does not match its checksums */
+    private static Optional<RawConfig> fromSlime(Inspector root) {
+        Inspector checksumsObject = root.field("checksums");
+        if (checksumsObject.children() == 0) return Optional.empty();
+
+        PayloadChecksum[] checksums = new PayloadChecksum[PayloadChecksum.Type.values().length];
+        for (PayloadChecksum.Type type : PayloadChecksum.Type.values()) {
+            if (checksumsObject.field(type.name()).valid())
+                checksums[type.ordinal()] = new PayloadChecksum(checksumsObject.field(type.name()).asString(), type);
+        }
+        PayloadChecksums payloadChecksums = PayloadChecksums.from(checksums);
+        Payload payload = Payload.from(root.field("payload").asString());
+        if ( ! payloadChecksums.matches(PayloadChecksums.fromPayload(payload))) return Optional.empty();
+
+        ConfigKey<?> key = new ConfigKey<>(root.field("name").asString(),
+                                           root.field("configId").asString(),
+                                           root.field("namespace").asString());
+        return Optional.of(new RawConfig(key,
+                                         root.field("defMd5").asString(),
+                                         payload,
+                                         payloadChecksums,
+                                         root.field("generation").asLong(),
+                                         root.field("applyOnRestart").asBool(),
+                                         List.of(),
+                                         Optional.empty()));
+    }
+
+}
@@ -15,6 +15,7 @@ import java.io.Writer;
 import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -31,6 +32,24 @@ public class MemoryCache {
     private static final String DEFAULT_DUMP_DIR = Defaults.getDefaults().underVespaHome("var/vespa/cache/config");
 
     private final ConcurrentHashMap<ConfigCacheKey, RawConfig> cache = new ConcurrentHashMap<>(500, 0.75f);
+    /** The keys of configs read from disk which have not been updated from a config source since */
+    private final Set<ConfigCacheKey> unverified = ConcurrentHashMap.newKeySet();
+    private final Optional<DiskCache> diskCache;
+
+    public MemoryCache() {
+        this.diskCache = Optional.empty();
+    }
+
+    /** Creates a memory cache which is kept in sync with the given disk cache, starting with the configs on disk */
+    MemoryCache(DiskCache diskCache) {
+        this.diskCache = Optional.of(diskCache);
+        for (RawConfig config : diskCache.read()) {
+            ConfigCacheKey key = new ConfigCacheKey(config.getKey(), config.getDefMd5());
+            cache.put(key, config);
+            unverified.add(key);
+        }
+        log.log(Level.INFO, "Read " + cache.size() + " configs from disk cache");
+    }
 
     public Optional<RawConfig> get(ConfigCacheKey key) {
         return Optional.ofNullable(cache.get(key));
@@ -48,11 +67,32 @@ public class MemoryCache {
         // Do not cache empty configs (which have generation 0), remove everything in cache
         if (config.getGeneration() == 0) {
             cache.clear();
+            unverified.clear();
+            diskCache.ifPresent(DiskCache::clear);
             return;
         }
 
         log.log(Level.FINE, () -> "Putting '" + config + "' into memory cache");
-        cache.put(new ConfigCacheKey(config.getKey(), config.getDefMd5()), config);
+        ConfigCacheKey key = new ConfigCacheKey(config.getKey(), config.getDefMd5());
+        RawConfig previous = cache.put(key, config);
+        unverified.remove(key);
+        if (diskCache.isPresent() && ! isSameConfig(previous, config))
+            diskCache.get().write(config);
+    }
+
+    /**
+     * Returns whether the config with the given key was read from disk, and has not been updated
+     * from a config source since, so that it must be fetched again to be known to be current.
+     */
+    boolean isUnverified(ConfigCacheKey key) {
+        return unverified.contains(key);
+    }
+
+    private static boolean isSameConfig(RawConfig previous, RawConfig config) {
+        return previous != null
+               && previous.getGeneration() == config.getGeneration()
+               && previous.applyOnRestart() == config.applyOnRestart()
+               && previous.getPayloadChecksums().equals(config.getPayloadChecksums());
     }
 
     boolean containsKey(ConfigCacheKey key) {
@@ -69,6 +109,7 @@ public class MemoryCache {
 
     public void clear() {
         cache.clear();
+        unverified.clear();
     }
 
     @Override
@@ -49,12 +49,18 @@ public class ProxyServer implements Runnable {
 
     private final ConfigProxyRpcServer rpcServer;
     private final FileDistributionAndUrlDownload fileDistributionAndUrlDownload;
+    private final Optional<DiskCache> diskCache;
 
     private ConfigSourceSet configSource;
     private volatile ConfigSourceClient configClient;
     private volatile Mode mode = new Mode(DEFAULT);
 
     ProxyServer(Spec spec, ConfigSourceSet source, ConfigSourceClient configClient) {
+        this(spec, source, configClient, Optional.empty());
+    }
+
+    ProxyServer(Spec spec, ConfigSourceSet source, ConfigSourceClient configClient, Optional<DiskCache> diskCache) {
+        this.diskCache = Objects.requireNonNull(diskCache);
         this.configSource = Objects.requireNonNull(source);
         log.log(Level.FINE, () -> "Using config source '" + source);
         this.supervisor = new Supervisor(new Transport("proxy-server", JRT_TRANSPORT_THREADS)).setDropEmptyBuffers(true);
@@ -101,7 +107,7 @@ public class ProxyServer implements Runnable {
                 break;
             case DEFAULT:
                 flush();
-                configClient = createRpcClient(configSource);
+                configClient = createRpcClient(configSource, diskCache);
                 this.mode = new Mode(modeName);
                 break;
             default:
@@ -114,8 +120,9 @@ public class ProxyServer implements Runnable {
         return  (spec == null) ? null : new ConfigProxyRpcServer(this, supervisor, spec); // TODO: Try to avoid first argument being 'this'
     }
 
-    private static RpcConfigSourceClient createRpcClient(ConfigSourceSet source) {
-        return new RpcConfigSourceClient(new ResponseHandler(), source);
+    private static RpcConfigSourceClient createRpcClient(ConfigSourceSet source, Optional<DiskCache> diskCache) {
+        MemoryCache memoryCache = diskCache.map(MemoryCache::new).orElseGet(MemoryCache::new);
+        return new RpcConfigSourceClient(new ResponseHandler(), source, memoryCache);
     }
 
     private void setupSignalHandler() {
@@ -158,7 +165,10 @@ public class ProxyServer implements Runnable {
         Event.started("configproxy");
 
         ConfigSourceSet configSources = new ConfigSourceSet(properties.configSources);
-        ProxyServer proxyServer = new ProxyServer(new Spec(null, port), configSources, createRpcClient(configSources));
+        // Configs are kept on disk, to be able to serve them at once after a restart
+        Optional<DiskCache> diskCache = Optional.of(new DiskCache(DiskCache.DEFAULT_DIR));
+        ProxyServer proxyServer = new ProxyServer(new Spec(null, port), configSources,
+                                                  createRpcClient(configSources, diskCache), diskCache);
         // catch termination and interrupt signal
         proxyServer.setupSignalHandler();
         Thread proxyserverThread = threadFactory.newThread(proxyServer);
@@ -215,7 +225,7 @@ public class ProxyServer implements Runnable {
     void updateSourceConnections(List<String> sources) {
         configSource = new ConfigSourceSet(sources);
         flush();
-        configClient = createRpcClient(configSource);
+        configClient = createRpcClient(configSource, diskCache);
     }
 
     DelayedResponses delayedResponses() {
@@ -62,9 +62,13 @@ class RpcConfigSourceClient implements ConfigSourceClient, Runnable {
     private final ScheduledFuture<?> delayedResponsesFuture;
 
     RpcConfigSourceClient(ResponseHandler responseHandler, ConfigSourceSet configSourceSet) {
+        this(responseHandler, configSourceSet, new MemoryCache());
+    }
+
+    RpcConfigSourceClient(ResponseHandler responseHandler, ConfigSourceSet configSourceSet, MemoryCache memoryCache) {
         this.responseHandler = Objects.requireNonNull(responseHandler);
         this.configSourceSet = Objects.requireNonNull(configSourceSet);
-        this.memoryCache = new MemoryCache();
+        this.memoryCache = Objects.requireNonNull(memoryCache);
         this.delayedResponses = new DelayedResponses();
         checkConfigSources();
         nextConfigFuture = nextConfigScheduler.scheduleAtFixedRate(this, 0, SystemTimer.adjustTimeoutByDetectedHz(Duration.ofMillis(10)).toMillis(), MILLISECONDS);
@@ -132,7 +136,8 @@ class RpcConfigSourceClient implements ConfigSourceClient, Runnable {
                     return cachedConfig;
                 }
             }
-            if (!config.isError() && config.getGeneration() > 0) {
+            // Configs read from disk at startup are served, but must still be fetched to be known to be current
+            if (!config.isError() && config.getGeneration() > 0 && ! memoryCache.isUnverified(configCacheKey)) {
                 needToGetConfig = false;
             }
         }
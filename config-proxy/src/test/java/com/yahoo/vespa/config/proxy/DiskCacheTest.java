@@ -0,0 +1,107 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.proxy;
+
+import com.yahoo.slime.Slime;
+import com.yahoo.vespa.config.ConfigCacheKey;
+import com.yahoo.vespa.config.ConfigKey;
+import com.yahoo.vespa.config.ConfigPayload;
+import com.yahoo.vespa.config.PayloadChecksums;
+import com.yahoo.vespa.config.RawConfig;
+import com.yahoo.vespa.config.protocol.Payload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author agent
+ */
+public class DiskCacheTest {
+
+    private static final ConfigKey<?> configKey = new ConfigKey<>("foo", "id", "bar");
+    // Test with a config id with / in it
+    private static final ConfigKey<?> configKey2 = new ConfigKey<>("baz", "clients/gateways/gateway", "bar");
+
+    @TempDir
+    public Path temporaryFolder;
+
+    @Test
+    void configs_are_read_back_and_must_be_verified() {
+        RawConfig config = createConfig(configKey, "bar \"value\"", 2);
+        RawConfig config2 = createConfig(configKey2, "bar \"value2\"", 2);
+        MemoryCache cache = new MemoryCache(diskCache());
+        cache.update(config);
+        cache.update(config2);
+
+        MemoryCache restarted = new MemoryCache(diskCache());
+        assertEquals(2, restarted.size());
+        RawConfig read = restarted.get(cacheKey(config)).orElseThrow();
+        assertEquals(config.getPayload().toString(), read.getPayload().toString());
+        assertEquals(config.getPayloadChecksums(), read.getPayloadChecksums());
+        assertEquals(2, read.getGeneration());
+        assertEquals(config2.getPayload().toString(), restarted.get(cacheKey(config2)).orElseThrow().getPayload().toString());
+        assertTrue(restarted.isUnverified(cacheKey(config)));
+        assertTrue(restarted.isUnverified(cacheKey(config2)));
+
+        restarted.update(createConfig(configKey, "bar \"value\"", 3));
+        assertFalse(restarted.isUnverified(cacheKey(config)));
+        assertTrue(restarted.isUnverified(cacheKey(config2)));
+        assertEquals(3, new MemoryCache(diskCache()).get(cacheKey(config)).orElseThrow().getGeneration());
+    }
+
+    @Test
+    void configs_not_matching_their_checksums_are_removed() throws IOException {
+        RawConfig config = createConfig(configKey, "bar \"value\"", 2);
+        new MemoryCache(diskCache()).update(config);
+        Path file = files().get(0);
+        Files.writeString(file, Files.readString(file).replace("value", "other"));
+
+        assertEquals(0, new MemoryCache(diskCache()).size());
+        assertEquals(List.of(), files());
+    }
+
+    @Test
+    void configs_are_removed_when_all_configs_are_removed() {
+        MemoryCache cache = new MemoryCache(diskCache());
+        cache.update(createConfig(configKey, "bar \"value\"", 2));
+        cache.clear();
+        assertEquals(1, new MemoryCache(diskCache()).size());
+
+        cache.update(createConfig(configKey2, "bar \"value2\"", 0));
+        assertEquals(0, new MemoryCache(diskCache()).size());
+    }
+
+    private DiskCache diskCache() {
+        return new DiskCache(temporaryFolder, Runnable::run);
+    }
+
+    private List<Path> files() {
+        try (Stream<Path> files = Files.list(temporaryFolder)) {
+            return files.toList();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static ConfigCacheKey cacheKey(RawConfig config) {
+        return new ConfigCacheKey(config.getKey(), config.getDefMd5());
+    }
+
+    private static RawConfig createConfig(ConfigKey<?> key, String value, long generation) {
+        Slime slime = new Slime();
+        slime.setString(value);
+        Payload payload = Payload.from(new ConfigPayload(slime));
+        return new RawConfig(key, "a", payload, PayloadChecksums.fromPayload(payload), generation, false,
+                             List.of("bar string"), Optional.empty());
+    }
+
+}
@@ -19,11 +19,9 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import static java.util.logging.Level.INFO;
@@ -173,18 +171,12 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
     }
 
     private boolean isMapField(NamedBuilder parentBuilder, String name) {
-        ConfigBuilder builder = parentBuilder.builder();
-        try {
-            Field f = builder.getClass().getField(name);
-            return f.getType().getName().equals("java.util.Map");
-        } catch (Exception e) {
-            return false;
-        }
+        return builderClasses.get(parentBuilder.builder().getClass()).isMapField(name);
     }
 
     NamedBuilder createBuilder(NamedBuilder parentBuilder, String name) {
         Object builder = parentBuilder.builder();
-        Object newBuilder = getBuilderForStruct(name, builder.getClass().getDeclaringClass());
+        Object newBuilder = builderClasses.get(builder.getClass()).newStructBuilder(name);
         if (newBuilder == null) return null;
         return new NamedBuilder((ConfigBuilder) newBuilder, name);
     }
@@ -211,17 +203,16 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
         if (rawValue instanceof ConfigBuilder) // Value in a map
             return rawValue;
         Inspector value = (Inspector)rawValue;
-        if (isPathField(builder, methodName))
-            return resolvePath(value.asString());
-        if (isOptionalPathField(builder, methodName)) {
-            String v = value.asString();
-            return resolvePath(v.isEmpty() ? Optional.empty() : Optional.of(v));
-        } else if (isUrlField(builder, methodName))
-            return value.asString().isEmpty() ? "" : resolveUrl(value.asString());
-        else if (isModelField(builder, methodName))
-            return value.asString().isEmpty() ? "" : resolveModel(value.asString());
-        else
-            return getValueFromInspector(value);
+        return switch (builderClasses.get(builder.getClass()).fieldKind(methodName)) {
+            case PATH -> resolvePath(value.asString());
+            case OPTIONAL_PATH -> {
+                String v = value.asString();
+                yield resolvePath(v.isEmpty() ? Optional.empty() : Optional.of(v));
+            }
+            case URL -> value.asString().isEmpty() ? "" : resolveUrl(value.asString());
+            case MODEL -> value.asString().isEmpty() ? "" : resolveModel(value.asString());
+            case OTHER -> getValueFromInspector(value);
+        };
     }
 
     /**
@@ -261,37 +252,9 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
         return model;
     }
 
-    private final Map<String, Method> methodCache = new HashMap<>();
-    private static String methodCacheKey(Object builder, String methodName, Object[] params) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(builder.getClass().getName())
-          .append(".")
-          .append(methodName);
-        for (Object param : params) {
-            sb.append(".").append(param.getClass().getName());
-        }
-        return sb.toString();
-    }
-
-    private Method lookupSetter(Object builder, String methodName, Object ... params) throws NoSuchMethodException {
-        Class<?>[] parameterTypes = new Class<?>[params.length];
-        for (int i = 0; i < params.length; i++) {
-            parameterTypes[i] = params[i].getClass();
-        }
-        Method method = builder.getClass().getDeclaredMethod(methodName, parameterTypes);
-        method.setAccessible(true);
-        return method;
-    }
-
     private void invokeSetter(Object builder, String methodName, Object ... params) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
         // TODO: Does not work for native types.
-        String key = methodCacheKey(builder, methodName, params);
-        Method method = methodCache.get(key);
-        if (method == null) {
-            method = lookupSetter(builder, methodName, params);
-            methodCache.put(key, method);
-        }
-        method.invoke(builder, params);
+        builderClasses.get(builder.getClass()).setter(methodName, params).invoke(builder, params);
     }
 
     private Object getValueFromInspector(Inspector inspector) {
@@ -319,76 +282,120 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
     }
 
 
-    /**
-     * Checks if this field is of type 'path', in which
-     * case some special handling might be needed. Caches the result.
-     */
-    private final Set<String> pathFieldSet = new HashSet<>();
-    private boolean isPathField(Object builder, String methodName) {
-        // Paths are stored as FileReference in Builder.
-        return isFieldType(pathFieldSet, builder, methodName, FileReference.class);
-    }
+    /** The kinds of fields which need their values resolved before they are set */
+    private enum FieldKind { PATH, OPTIONAL_PATH, URL, MODEL, OTHER }
 
     /**
-     * Checks if this field is of type 'path', in which
-     * case some special handling might be needed. Caches the result.
+     * The reflective information about a builder class needed to apply payloads to its instances.
+     * This is looked up once per class and shared by all appliers, as looking it up per value
+     * dominates the time spent applying large payloads.
      */
-    private final Set<String> optionalPathFieldSet = new HashSet<>();
-    private boolean isOptionalPathField(Object builder, String methodName) {
-        // Paths are stored as Optional<FileReference> in Builder.
-        return isFieldType(optionalPathFieldSet, builder, methodName, Optional.class);
-    }
+    private static final ClassValue<BuilderClass> builderClasses = new ClassValue<>() {
+        @Override
+        protected BuilderClass computeValue(Class<?> type) { return new BuilderClass(type); }
+    };
 
-    private final Set<String> urlFieldSet = new HashSet<>();
-    private boolean isUrlField(Object builder, String methodName) {
-        // Urls are stored as UrlReference in Builder.
-        return isFieldType(urlFieldSet, builder, methodName, UrlReference.class);
-    }
+    private static class BuilderClass {
 
-    private final Set<String> modelFieldSet = new HashSet<>();
-    private boolean isModelField(Object builder, String methodName) {
-        // Models are stored as ModelReference in Builder.
-        return isFieldType(modelFieldSet, builder, methodName, ModelReference.class);
-    }
+        private final Class<?> type;
+        private final Map<String, FieldKind> fieldKinds = new ConcurrentHashMap<>();
+        private final Map<String, Boolean> mapFields = new ConcurrentHashMap<>();
+        private final Map<SetterKey, Optional<Method>> setters = new ConcurrentHashMap<>();
+        private final Map<String, Optional<Constructor<?>>> structBuilders = new ConcurrentHashMap<>();
 
-    private boolean isFieldType(Set<String> fieldSet, Object builder, String methodName, java.lang.reflect.Type type) {
-        String key = fieldKey(builder, methodName);
-        if (fieldSet.contains(key)) {
-            return true;
+        BuilderClass(Class<?> type) {
+            this.type = type;
         }
-        boolean isType = false;
-        try {
-            Field field = builder.getClass().getDeclaredField(methodName);
-            java.lang.reflect.Type fieldType = field.getGenericType();
-            if (fieldType instanceof Class<?> && fieldType == type) {
-                isType = true;
-            } else if (fieldType instanceof ParameterizedType) {
-                isType = isParameterizedWith((ParameterizedType) fieldType, type);
+
+        FieldKind fieldKind(String name) {
+            return fieldKinds.computeIfAbsent(name, this::lookupFieldKind);
+        }
+
+        boolean isMapField(String name) {
+            return mapFields.computeIfAbsent(name, this::lookupIsMapField);
+        }
+
+        Method setter(String name, Object ... params) throws NoSuchMethodException {
+            SetterKey key = new SetterKey(name, params[0].getClass(), params.length > 1 ? params[1].getClass() : null);
+            Optional<Method> setter = setters.computeIfAbsent(key, this::lookupSetter);
+            if (setter.isEmpty())
+                throw new NoSuchMethodException(type.getName() + "." + name);
+            return setter.get();
+        }
+
+        /** Returns a new builder for the struct with the given name, or null if there is no such struct */
+        Object newStructBuilder(String name) {
+            Optional<Constructor<?>> constructor = structBuilders.get(name);
+            if (constructor == null) {
+                constructor = Optional.ofNullable(lookupBuilderForStruct(capitalize(name), type.getDeclaringClass()));
+                if (constructor.isEmpty()) return null; // Not cached, to keep logging the missing class
+                structBuilders.put(name, constructor);
+            }
+            try {
+                return constructor.get().newInstance();
+            } catch (Exception e) {
+                throw new RuntimeException("Could not create class '" + "'" + constructor.get().getDeclaringClass().getName() + "'");
             }
-        } catch (NoSuchFieldException e) {
         }
-        if (isType) {
-            fieldSet.add(key);
+
+        private FieldKind lookupFieldKind(String name) {
+            if (isFieldType(name, FileReference.class)) return FieldKind.PATH; // Paths are stored as FileReference in Builder.
+            if (isFieldType(name, Optional.class)) return FieldKind.OPTIONAL_PATH;
+            if (isFieldType(name, UrlReference.class)) return FieldKind.URL;
+            if (isFieldType(name, ModelReference.class)) return FieldKind.MODEL;
+            return FieldKind.OTHER;
+        }
+
+        private boolean isFieldType(String name, java.lang.reflect.Type fieldTypeToMatch) {
+            try {
+                Field field = type.getDeclaredField(name);
+                java.lang.reflect.Type fieldType = field.getGenericType();
+                if (fieldType instanceof Class<?> && fieldType == fieldTypeToMatch)
+                    return true;
+                else if (fieldType instanceof ParameterizedType parameterizedType)
+                    return isParameterizedWith(parameterizedType, fieldTypeToMatch);
+            } catch (NoSuchFieldException e) {
+            }
+            return false;
+        }
+
+        private boolean lookupIsMapField(String name) {
+            try {
+                Field f = type.getField(name);
+                return f.getType().getName().equals("java.util.Map");
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private Optional<Method> lookupSetter(SetterKey key) {
+            Class<?>[] parameterTypes = key.secondType() == null ? new Class<?>[] { key.firstType() }
+                                                                 : new Class<?>[] { key.firstType(), key.secondType() };
+            try {
+                Method method = type.getDeclaredMethod(key.name(), parameterTypes);
+                method.setAccessible(true);
+                return Optional.of(method);
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
         }
-        return isType;
-    }
 
-    private static String fieldKey(Object builder, String methodName) {
-        return builder.getClass().getName() + "." + methodName;
     }
 
-    private boolean isParameterizedWith(ParameterizedType fieldType, java.lang.reflect.Type type) {
+    private record SetterKey(String name, Class<?> firstType, Class<?> secondType) { }
+
+    private static boolean isParameterizedWith(ParameterizedType fieldType, java.lang.reflect.Type type) {
         int numTypeArgs = fieldType.getActualTypeArguments().length;
         if (numTypeArgs > 0)
              return fieldType.getActualTypeArguments()[numTypeArgs - 1] == type;
         return false;
     }
 
-    private String capitalize(String name) {
+    private static String capitalize(String name) {
         return name.substring(0, 1).toUpperCase(java.util.Locale.ROOT) + name.substring(1);
     }
 
-    private Constructor<?> lookupBuilderForStruct(String structName, Class<?> currentClass) {
+    private static Constructor<?> lookupBuilderForStruct(String structName, Class<?> currentClass) {
         String currentClassName = currentClass.getName();
         Class<?> structClass = getInnerClass(currentClass, currentClassName + "$" + structName);
         if (structClass == null) {
@@ -399,7 +406,7 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
         return getStructBuilderConstructor(structClass, currentClassName, structName);
     }
 
-    private Constructor<?> getStructBuilderConstructor(Class<?> structClass, String currentClassName, String builderName) {
+    private static Constructor<?> getStructBuilderConstructor(Class<?> structClass, String currentClassName, String builderName) {
         String structBuilderName = currentClassName + "$" + builderName + "$Builder";
         Class<?> structBuilderClass = getInnerClass(structClass, structBuilderName);
         if (structBuilderClass == null)
@@ -418,7 +425,7 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
      * @param name a name
      * @return class found, or null if no class is found
      */
-    private Class<?> getInnerClass(Class<?> clazz, String name) {
+    private static Class<?> getInnerClass(Class<?> clazz, String name) {
         for (Class<?> cls : clazz.getDeclaredClasses()) {
             if (cls.getName().equals(name))
                 return cls;
@@ -426,27 +433,6 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
         return null;
     }
 
-    private final Map<String, Constructor<?>> constructorCache = new HashMap<>();
-    private static String constructorCacheKey(String builderName, String name, Class<?> currentClass) {
-        return builderName + "." + name + "." + currentClass.getName();
-    }
-
-    private Object getBuilderForStruct(String name, Class<?> currentClass) {
-        String structName = capitalize(name);
-        String key = constructorCacheKey(structName, name, currentClass);
-        Constructor<?> constructor = constructorCache.get(key);
-        if (constructor == null) {
-            constructor = lookupBuilderForStruct(structName, currentClass);
-            if (constructor == null) return null;
-            constructorCache.put(key, constructor);
-        }
-        try {
-            return constructor.newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException("Could not create class '" + "'" + constructor.getDeclaringClass().getName() + "'");
-        }
-    }
-
     /**
      * A class that holds a builder and a stack of names
      */
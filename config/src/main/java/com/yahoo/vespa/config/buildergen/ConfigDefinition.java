@@ -4,8 +4,10 @@ package com.yahoo.vespa.config.buildergen;
 import com.yahoo.config.codegen.DefParser;
 import com.yahoo.config.codegen.InnerCNode;
 import com.yahoo.text.StringUtilities;
+import com.yahoo.vespa.config.util.ConfigUtils;
 
 import java.io.StringReader;
+import java.util.Arrays;
 
 /**
  * Represents a higher level functionality on a config definition to (in the future) hide the InnerCNode class.
@@ -28,4 +30,9 @@ public class ConfigDefinition {
         return cnode;
     }
 
+    /** Returns the md5 of this definition, as sent in requests from clients using the same definition */
+    public String getDefMd5() {
+        return ConfigUtils.getDefMd5(Arrays.asList(defSchema));
+    }
+
 }
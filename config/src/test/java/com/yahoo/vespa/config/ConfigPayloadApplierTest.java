@@ -89,6 +89,24 @@ public class ConfigPayloadApplierTest {
         assertEndsWith("resolvedPath/myPath.txt", config.myModel().toString());
     }
 
+    @Test
+    public void testApplyingWithManyAppliers() {
+        var inputConfig = new ResolvedTypesConfig.Builder();
+        inputConfig.myPath(new FileReference("myPath.txt"));
+        inputConfig.myUrl(new UrlReference("myUrl.txt"));
+        inputConfig.myModel(ModelReference.valueOf("my-id \"\" \"\" myPath.txt"));
+        var payload = ConfigPayload.fromInstance(inputConfig.build());
+
+        var first = new ResolvedTypesConfig.Builder();
+        new ConfigPayloadApplier<>(first, new MockAcquirer(), new MockDownloader()).applyPayload(payload);
+        var second = new ResolvedTypesConfig.Builder();
+        new ConfigPayloadApplier<>(second, new MockAcquirer(), new MockDownloader()).applyPayload(payload);
+
+        assertEquals(first.build(), second.build());
+        assertEndsWith("resolvedPath/myPath.txt", second.build().myPath().toString());
+        assertEndsWith("resolvedUrl/myUrl.txt", second.build().myUrl().toString());
+    }
+
     private void assertEndsWith(String ending, String string) {
         String assertingThat = "'" + string + "' ends with '" + ending + "'";
         try {
@@ -38,7 +38,6 @@ import com.yahoo.config.provision.Zone;
 import com.yahoo.config.provision.exception.ActivationConflictException;
 import com.yahoo.container.jdisc.HttpResponse;
 import com.yahoo.docproc.jdisc.metric.NullMetric;
-import com.yahoo.io.IOUtils;
 import com.yahoo.jdisc.Metric;
 import com.yahoo.path.Path;
 import com.yahoo.slime.Slime;
@@ -111,7 +110,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Clock;
 import java.time.Duration;
@@ -403,15 +401,14 @@ public class ApplicationRepository implements com.yahoo.config.provision.Deploye
 
     public PrepareAndActivateResult prepareAndActivate(CompressedApplicationInputStream in, PrepareParams prepareParams) {
         DeployHandlerLogger logger = DeployHandlerLogger.fromPrepareParams(prepareParams);
-        File tempDir = uncheck(() -> Files.createTempDirectory("deploy")).toFile();
         ThreadLockStats threadLockStats = LockStats.getForCurrentThread();
         PrepareAndActivateResult result;
         try {
             threadLockStats.startRecording("deploy of " + prepareParams.getApplicationId().serializedForm());
-            result = prepareAndActivate(decompressApplication(in, tempDir), prepareParams, logger);
+            long sessionId = createSession(prepareParams.getApplicationId(), prepareParams.getTimeoutBudget(), in, logger);
+            result = prepareAndActivate(sessionId, prepareParams, logger);
         } finally {
             threadLockStats.stopRecording();
-            cleanupTempDirectory(tempDir, logger);
         }
         return result;
     }
@@ -425,6 +422,10 @@ public class ApplicationRepository implements com.yahoo.config.provision.Deploye
                                        prepareParams.getTimeoutBudget(),
                                        applicationDir,
                                        logger);
+        return prepareAndActivate(sessionId, prepareParams, logger);
+    }
+
+    private PrepareAndActivateResult prepareAndActivate(long sessionId, PrepareParams prepareParams, DeployHandlerLogger logger) {
         Deployment deployment = prepare(sessionId, prepareParams, logger);
 
         RuntimeException activationFailure = null;
@@ -1079,14 +1080,19 @@ public class ApplicationRepository implements com.yahoo.config.provision.Deploye
 
     public long createSession(ApplicationId applicationId, TimeoutBudget timeoutBudget, InputStream in,
                               String contentType, DeployLogger logger) {
-        File tempDir = uncheck(() -> Files.createTempDirectory("deploy")).toFile();
-        long sessionId;
-        try {
-            sessionId = createSession(applicationId, timeoutBudget, decompressApplication(in, contentType, tempDir), logger);
-        } finally {
-            cleanupTempDirectory(tempDir, logger);
+        try (CompressedApplicationInputStream application =
+                     CompressedApplicationInputStream.createFromCompressedStream(in, contentType, configserverConfig.maxApplicationPackageSize())) {
+            return createSession(applicationId, timeoutBudget, application, logger);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to decompress data in body", e);
         }
-        return sessionId;
+    }
+
+    private long createSession(ApplicationId applicationId, TimeoutBudget timeoutBudget,
+                               CompressedApplicationInputStream in, DeployLogger deployLogger) {
+        SessionRepository sessionRepository = getTenant(applicationId).getSessionRepository();
+        Session session = sessionRepository.createSessionFromCompressedApplicationPackage(in, applicationId, timeoutBudget, deployLogger);
+        return session.getSessionId();
     }
 
     public long createSession(ApplicationId applicationId, TimeoutBudget timeoutBudget, File applicationDirectory, DeployLogger deployLogger) {
@@ -1197,29 +1203,6 @@ public class ApplicationRepository implements com.yahoo.config.provision.Deploye
         return getTenant(appId).getSessionRepository().activeApplicationVersions(appId);
     }
 
-    private File decompressApplication(InputStream in, String contentType, File tempDir) {
-        try (CompressedApplicationInputStream application =
-                     CompressedApplicationInputStream.createFromCompressedStream(in, contentType, configserverConfig.maxApplicationPackageSize())) {
-            return decompressApplication(application, tempDir);
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Unable to decompress data in body", e);
-        }
-    }
-
-    private File decompressApplication(CompressedApplicationInputStream in, File tempDir) {
-        try {
-            return in.decompress(tempDir);
-        } catch (IOException | UncheckedIOException e) {
-            throw new IllegalArgumentException("Unable to decompress application stream", e);
-        }
-    }
-
-    private void cleanupTempDirectory(File tempDir, DeployLogger logger) {
-        if (!IOUtils.recursiveDeleteDir(tempDir)) {
-            logger.log(Level.WARNING, "Not able to delete tmp dir '" + tempDir + "'");
-        }
-    }
-
     private Session requireActiveSession(Tenant tenant, ApplicationId applicationId) {
         return getActiveSession(tenant, applicationId)
                 .orElseThrow(() -> new IllegalArgumentException("Application '" + applicationId + "' has no active session."));
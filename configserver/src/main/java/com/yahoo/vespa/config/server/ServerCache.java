@@ -8,6 +8,7 @@ import com.yahoo.vespa.config.PayloadChecksum;
 import com.yahoo.vespa.config.buildergen.ConfigDefinition;
 import com.yahoo.vespa.config.protocol.ConfigResponse;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
@@ -16,6 +17,8 @@ import static com.yahoo.vespa.config.PayloadChecksum.Type.XXHASH64;
 
 /**
  * Cache that holds configs and config definitions (builtin and user config definitions).
+ * Configs may be preloaded into an immutable snapshot, which is read without any locking.
+ * Configs not in the snapshot are built and cached when first requested.
  *
  * @author vegardh
  */
@@ -24,17 +27,16 @@ public class ServerCache {
     private final ConfigDefinitionRepo builtinConfigDefinitions;
     private final ConfigDefinitionRepo userConfigDefinitions;
 
+    /** Preloaded configs, which are never modified, as the snapshot is replaced as a whole */
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), 0);
+
     // NOTE: The reason we do a double mapping here is to de-dupe configs that have the same checksum.
     private final Map<ConfigCacheKey, PayloadChecksum> checksums = new ConcurrentHashMap<>();
     private final Map<PayloadChecksum, ConfigResponse> checksumToConfig = new ConcurrentHashMap<>();
-    private final Object [] stripedLocks = new Object[113];
 
     public ServerCache(ConfigDefinitionRepo builtinConfigDefinitions, ConfigDefinitionRepo userConfigDefinitions) {
         this.builtinConfigDefinitions = builtinConfigDefinitions;
         this.userConfigDefinitions = userConfigDefinitions;
-        for (int i = 0; i < stripedLocks.length; i++) {
-            stripedLocks[i] = new Object();
-        }
     }
 
     // For testing only
@@ -42,13 +44,16 @@ public class ServerCache {
         this(new StaticConfigDefinitionRepo(), new UserConfigDefinitionRepo());
     }
 
-    private void put(ConfigCacheKey key, ConfigResponse config) {
+    private PayloadChecksum put(ConfigResponse config) {
         PayloadChecksum xxhash64 = config.getPayloadChecksums().getForType(XXHASH64);
-        checksums.put(key, xxhash64);
         checksumToConfig.put(xxhash64, config);
+        return xxhash64;
     }
 
     ConfigResponse get(ConfigCacheKey key) {
+        ConfigResponse config = snapshot.configs().get(key);
+        if (config != null) return config;
+
         PayloadChecksum xxhash64 = checksums.get(key);
         if (xxhash64 == null) return null;
         return checksumToConfig.get(xxhash64);
@@ -59,15 +64,20 @@ public class ServerCache {
         if (config != null) {
             return config;
         }
-        synchronized (stripedLocks[Math.abs(key.hashCode()%stripedLocks.length)]) {
-            PayloadChecksum xxhash64 = checksums.get(key);
-            if (xxhash64 == null) {
-                config = mappingFunction.apply(key);
-                put(key, config);
-                return config;
-            }
-            return checksumToConfig.get(xxhash64);
-        }
+        PayloadChecksum xxhash64 = checksums.computeIfAbsent(key, __ -> put(mappingFunction.apply(key)));
+        return checksumToConfig.get(xxhash64);
+    }
+
+    /**
+     * Replaces the preloaded configs of this by the given ones, which are then served without building them again.
+     * Configs with the same checksum share a single response.
+     */
+    public void preload(Map<ConfigCacheKey, ConfigResponse> configs) {
+        Map<PayloadChecksum, ConfigResponse> distinct = new HashMap<>();
+        Map<ConfigCacheKey, ConfigResponse> deduplicated = new HashMap<>();
+        configs.forEach((key, config) -> deduplicated.put(key, distinct.computeIfAbsent(config.getPayloadChecksums().getForType(XXHASH64),
+                                                                                         __ -> config)));
+        snapshot = new Snapshot(Map.copyOf(deduplicated), distinct.size());
     }
 
     @Override
@@ -76,6 +86,7 @@ public class ServerCache {
         sb.append("Cache\n");
         sb.append("builtin defs: ").append(builtinConfigDefinitions.getConfigDefinitions().size()).append("\n");
         sb.append("user defs:    ").append(userConfigDefinitions.getConfigDefinitions().size()).append("\n");
+        sb.append("preloaded:    ").append(snapshot.configs().size()).append("\n");
         sb.append("md5sums:      ").append(checksums.size()).append("\n");
         sb.append("md5ToConfig:  ").append(checksumToConfig.size()).append("\n");
 
@@ -92,7 +103,7 @@ public class ServerCache {
      * @return elems
      */
     public int configElems() {
-        return checksumToConfig.size();
+        return snapshot.distinctConfigs() + checksumToConfig.size();
     }
     
     /**
@@ -100,7 +111,9 @@ public class ServerCache {
      * @return elems
      */
     public int checkSumElems() {
-        return checksums.size();
+        return snapshot.configs().size() + checksums.size();
     }
 
+    private record Snapshot(Map<ConfigCacheKey, ConfigResponse> configs, int distinctConfigs) { }
+
 }
@@ -16,6 +16,7 @@ import com.yahoo.vespa.config.ConfigPayload;
 import com.yahoo.vespa.config.ConfigPayloadBuilder;
 import com.yahoo.vespa.config.GenericConfig;
 import com.yahoo.vespa.config.GetConfigRequest;
+import com.yahoo.vespa.config.PayloadChecksums;
 import com.yahoo.vespa.config.buildergen.ConfigDefinition;
 import com.yahoo.vespa.config.protocol.ConfigResponse;
 import com.yahoo.vespa.config.protocol.DefContent;
@@ -29,6 +30,13 @@ import com.yahoo.vespa.config.server.tenant.TenantRepository;
 import com.yahoo.vespa.config.util.ConfigUtils;
 import com.yahoo.yolean.Exceptions;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.Objects;
 import java.util.Set;
@@ -124,6 +132,56 @@ public class Application implements ModelResult {
         return config;
     }
 
+    /**
+     * Builds responses for all configs produced by the model, using the config definitions known by the cache
+     * of this, and preloads the cache with them. The responses are built in parallel using the given executor.
+     * Configs which cannot be built here are left to be resolved when requested.
+     */
+    public void preloadConfigs(ConfigResponseFactory responseFactory, Executor executor) {
+        preloadConfigs(buildConfigs(responseFactory, executor));
+    }
+
+    /**
+     * Builds responses for all configs produced by the model which can be built using the config definitions
+     * known by the cache of this, in parallel using the given executor, without adding them to the cache.
+     */
+    public Map<ConfigCacheKey, ConfigResponse> buildConfigs(ConfigResponseFactory responseFactory, Executor executor) {
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Optional<Map.Entry<ConfigCacheKey, ConfigResponse>>>> responses = new ArrayList<>();
+        for (ConfigKey<?> configKey : allConfigsProduced()) {
+            ConfigDefinition def = cache.getDef(new ConfigDefinitionKey(configKey.getName(), configKey.getNamespace()));
+            if (def == null) continue;
+            responses.add(CompletableFuture.supplyAsync(() -> preloadedConfigResponse(configKey, def, responseFactory), executor));
+        }
+        Map<ConfigCacheKey, ConfigResponse> configs = new HashMap<>();
+        responses.forEach(response -> response.join().ifPresent(entry -> configs.put(entry.getKey(), entry.getValue())));
+        log.log(Level.FINE, () -> TenantRepository.logPre(getId()) + "Built " + configs.size() + " of " + responses.size() +
+                                  " configs for generation " + applicationGeneration + " in " + (System.currentTimeMillis() - start) + " ms");
+        return configs;
+    }
+
+    /** Preloads the cache of this with the given configs, built by {@link #buildConfigs} */
+    public void preloadConfigs(Map<ConfigCacheKey, ConfigResponse> configs) {
+        cache.preload(configs);
+        metricUpdater.setCacheConfigElems(cache.configElems());
+        metricUpdater.setCacheChecksumElems(cache.checkSumElems());
+    }
+
+    private Optional<Map.Entry<ConfigCacheKey, ConfigResponse>> preloadedConfigResponse(ConfigKey<?> configKey,
+                                                                                        ConfigDefinition def,
+                                                                                        ConfigResponseFactory responseFactory) {
+        try {
+            var payload = createPayload(configKey, def);
+            // Empty checksums of all types in the request gives all types in the response, which all clients understand
+            var response = responseFactory.createResponse(payload.getFirst(), applicationGeneration, payload.getSecond(),
+                                                          PayloadChecksums.empty());
+            return Optional.of(Map.entry(new ConfigCacheKey(configKey, def.getDefMd5()), response));
+        } catch (RuntimeException e) {
+            log.log(Level.FINE, () -> TenantRepository.logPre(getId()) + "Not preloading " + configKey + ": " + Exceptions.toMessageString(e));
+            return Optional.empty();
+        }
+    }
+
     private ConfigResponse createConfigResponse(ConfigKey<?> configKey, GetConfigRequest req, ConfigResponseFactory responseFactory) {
         ConfigDefinition def = getTargetDef(req);
         if (def == null) {
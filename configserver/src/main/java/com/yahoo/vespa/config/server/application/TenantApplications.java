@@ -10,6 +10,7 @@ import com.yahoo.config.provision.ApplicationId;
 import com.yahoo.config.provision.TenantName;
 import com.yahoo.path.Path;
 import com.yahoo.transaction.Transaction;
+import com.yahoo.vespa.config.ConfigCacheKey;
 import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.GetConfigRequest;
 import com.yahoo.vespa.config.protocol.ConfigResponse;
@@ -40,6 +41,7 @@ import java.time.Duration;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
@@ -68,6 +70,7 @@ public class TenantApplications implements RequestHandler, HostValidator {
     private final ApplicationCuratorDatabase database;
     private final Curator.DirectoryCache directoryCache;
     private final Executor zkWatcherExecutor;
+    private final Executor configPreloadExecutor;
     private final Metrics metrics;
     private final TenantName tenant;
     private final ConfigActivationListener configActivationListener;
@@ -81,13 +84,15 @@ public class TenantApplications implements RequestHandler, HostValidator {
     private final ListFlag<String> incompatibleVersions;
 
     public TenantApplications(TenantName tenant, Curator curator, StripedExecutor<TenantName> zkWatcherExecutor,
-                              ExecutorService zkCacheExecutor, Metrics metrics, ConfigActivationListener configActivationListener,
+                              ExecutorService zkCacheExecutor, Executor configPreloadExecutor,
+                              Metrics metrics, ConfigActivationListener configActivationListener,
                               ConfigserverConfig configserverConfig, HostRegistry hostRegistry,
                               TenantFileSystemDirs tenantFileSystemDirs, Clock clock, FlagSource flagSource) {
         this.curator = curator;
         this.database = new ApplicationCuratorDatabase(tenant, curator, configserverConfig);
         this.tenant = tenant;
         this.zkWatcherExecutor = command -> zkWatcherExecutor.execute(tenant, command);
+        this.configPreloadExecutor = configPreloadExecutor;
         this.directoryCache = database.createApplicationsPathCache(zkCacheExecutor);
         this.directoryCache.addListener(this::childEvent);
         this.directoryCache.start();
@@ -254,13 +259,20 @@ public class TenantApplications implements RequestHandler, HostValidator {
      */
     public void activateApplication(ApplicationVersions applicationVersions, long activeSessionId) {
         ApplicationId id = applicationVersions.getId();
+        // Nodes of an application already served re-request all their configs on activation, so build those up front.
+        // This may take a while, so it is done before taking the lock, and the configs are added when activating below.
+        List<Map<ConfigCacheKey, ConfigResponse>> preloadedConfigs =
+                hasApplication(id) ? applicationVersions.applications().stream()
+                                                        .map(application -> application.buildConfigs(responseFactory, configPreloadExecutor))
+                                                        .toList()
+                                   : List.of();
         try (@SuppressWarnings("unused") Lock lock = lock(id)) {
             if ( ! exists(id))
                 return; // Application was deleted before activation.
             if (applicationVersions.applicationGeneration() != activeSessionId)
                 return; // Application activated a new session before we got here.
 
-            setActiveApp(applicationVersions);
+            setActiveApp(applicationVersions, preloadedConfigs);
         }
     }
 
@@ -303,8 +315,11 @@ public class TenantApplications implements RequestHandler, HostValidator {
         configActivationListener.applicationRemoved(applicationId);
     }
 
-    private void setActiveApp(ApplicationVersions applicationVersions) {
+    /** Activates the given application versions, with the given configs, given in the order of its applications, preloaded */
+    private void setActiveApp(ApplicationVersions applicationVersions, List<Map<ConfigCacheKey, ConfigResponse>> preloadedConfigs) {
         ApplicationId applicationId = applicationVersions.getId();
+        for (int i = 0; i < preloadedConfigs.size(); i++)
+            applicationVersions.applications().get(i).preloadConfigs(preloadedConfigs.get(i));
         Collection<String> hostsForApp = applicationVersions.allHosts();
         hostRegistry.update(applicationId, hostsForApp);
         applicationVersions.updateHostMetrics();
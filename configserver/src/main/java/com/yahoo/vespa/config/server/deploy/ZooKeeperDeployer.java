@@ -18,16 +18,19 @@ import com.yahoo.vespa.config.ConfigDefinitionKey;
 import com.yahoo.vespa.config.server.filedistribution.FileDBRegistry;
 import com.yahoo.vespa.config.server.zookeeper.ZKApplicationPackage;
 import com.yahoo.vespa.curator.Curator;
+import com.yahoo.vespa.curator.transaction.CuratorWriteBatch;
 import com.yahoo.yolean.Exceptions;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static com.yahoo.config.application.api.ApplicationPackage.APPLICATION_DEFINITION_FILE;
 import static com.yahoo.config.application.api.ApplicationPackage.DEPLOYMENT_FILE;
@@ -85,12 +88,16 @@ public class ZooKeeperDeployer {
 
     /**
      * Reads and writes application package to and from ZooKeeper.
+     * The nodes written in each step are batched into as few ZooKeeper requests as possible.
      *
      * @author hmusum
      */
     public static class Client {
 
+        private static final Logger log = Logger.getLogger(Client.class.getName());
+
         private final Curator curator;
+        private final CuratorWriteBatch batch;
         private final DeployLogger logger;
         private final Path sessionPath; // session id
 
@@ -98,6 +105,7 @@ public class ZooKeeperDeployer {
 
         public Client(Curator curator, DeployLogger logger, Path sessionPath) {
             this.curator = curator;
+            this.batch = new CuratorWriteBatch(curator);
             this.logger = logger;
             this.sessionPath = sessionPath;
         }
@@ -107,15 +115,17 @@ public class ZooKeeperDeployer {
          * This is the first operation on ZK during deploy.
          */
         void initialize() {
-            curator.create(sessionPath);
+            StepStart start = startStep();
+            batch.create(sessionPath);
 
             for (String subPath : List.of(DEFCONFIGS_ZK_SUBPATH,
                                           USER_DEFCONFIGS_ZK_SUBPATH,
                                           USERAPP_ZK_SUBPATH,
                                           ZKApplicationPackage.fileRegistryNode)) {
                 // TODO: The replaceFirst below is hackish.
-                curator.create(getZooKeeperAppPath().append(subPath.replaceFirst("/", "")));
+                batch.create(getZooKeeperAppPath().append(subPath.replaceFirst("/", "")));
             }
+            commit("initialize session", start);
         }
 
         /**
@@ -125,12 +135,15 @@ public class ZooKeeperDeployer {
          */
         void writeApplicationPackage(ApplicationPackage app) {
             try {
+                StepStart start = startStep();
                 writeUserDefs(app);
                 writeSomeOf(app);
                 writeSchemas(app);
                 writeUserIncludeDirs(app, app.getUserIncludeDirs());
                 writeMetadata(app.getMetaData());
+                commit("write application package", start);
             } catch (Exception e) {
+                batch.clear();
                 throw new IllegalStateException("Unable to write vespa model to config server(s) " + System.getProperty("configsources") + "\n" +
                                                 "Please ensure that config server is started " +
                                                 "and check the vespa log for configserver errors. ", e);
@@ -142,12 +155,12 @@ public class ZooKeeperDeployer {
             if (schemas.isEmpty()) return;
 
             Path zkPath = getZooKeeperAppPath(USERAPP_ZK_SUBPATH).append(SCHEMAS_DIR);
-            curator.create(zkPath);
+            batch.create(zkPath);
             // Ensures that ranking expressions and other files are also written
             writeDir(app.getFile(ApplicationPackage.SEARCH_DEFINITIONS_DIR), zkPath);
             writeDir(app.getFile(ApplicationPackage.SCHEMAS_DIR), zkPath);
             for (NamedReader sd : schemas) {
-                curator.set(zkPath.append(sd.getName()), Utf8.toBytes(com.yahoo.io.IOUtils.readAll(sd.getReader())));
+                batch.set(zkPath.append(sd.getName()), Utf8.toBytes(com.yahoo.io.IOUtils.readAll(sd.getReader())));
                 sd.getReader().close();
             }
         }
@@ -199,7 +212,7 @@ public class ZooKeeperDeployer {
                 String name = file.getPath().getName();
                 if (name.startsWith(".")) continue; //.svn , .git ...
                 if (file.isDirectory()) {
-                    curator.create(path.append(name));
+                    batch.create(path.append(name));
                     writeDir(file, path.append(name), filenameFilter);
                 } else {
                     writeFile(file, path);
@@ -235,7 +248,7 @@ public class ZooKeeperDeployer {
             try (InputStream inputStream = file.createInputStream()) {
                 inputStream.transferTo(baos);
                 baos.flush();
-                curator.set(zkPath.append(file.getPath().getName()), baos.toByteArray());
+                batch.set(zkPath.append(file.getPath().getName()), baos.toByteArray());
             }
         }
 
@@ -244,7 +257,7 @@ public class ZooKeeperDeployer {
                 ApplicationFile dir = applicationPackage.getFile(Path.fromString(userInclude));
                 final List<ApplicationFile> files = dir.listFiles();
                 if (files == null || files.isEmpty()) {
-                    curator.create(getZooKeeperAppPath(USERAPP_ZK_SUBPATH + "/" + userInclude));
+                    batch.create(getZooKeeperAppPath(USERAPP_ZK_SUBPATH + "/" + userInclude));
                 }
                 writeDir(dir, getZooKeeperAppPath(USERAPP_ZK_SUBPATH + "/" + userInclude), xmlFilter);
             }
@@ -267,13 +280,13 @@ public class ZooKeeperDeployer {
         }
 
         private void writeConfigDefinition(String name, String namespace, Path path, String data) {
-            curator.set(path.append(namespace + "." + name), Utf8.toBytes(data));
+            batch.set(path.append(namespace + "." + name), Utf8.toBytes(data));
         }
 
         private void write(Version vespaVersion, FileRegistry fileRegistry) {
             String exportedRegistry = FileDBRegistry.exportRegistry(fileRegistry);
-            curator.set(getZooKeeperAppPath(ZKApplicationPackage.fileRegistryNode).append(vespaVersion.toFullString()),
-                        Utf8.toBytes(exportedRegistry));
+            batch.set(getZooKeeperAppPath(ZKApplicationPackage.fileRegistryNode).append(vespaVersion.toFullString()),
+                      Utf8.toBytes(exportedRegistry));
         }
 
         /**
@@ -283,7 +296,7 @@ public class ZooKeeperDeployer {
          * @param metaData The application metadata.
          */
         private void writeMetadata(ApplicationMetaData metaData) {
-            curator.set(getZooKeeperAppPath(META_ZK_PATH), metaData.asJsonBytes());
+            batch.set(getZooKeeperAppPath(META_ZK_PATH), metaData.asJsonBytes());
         }
 
         void cleanupZooKeeper() {
@@ -318,16 +331,45 @@ public class ZooKeeperDeployer {
         }
 
         public void write(AllocatedHosts hosts) throws IOException {
-            curator.set(sessionPath.append(ZKApplicationPackage.allocatedHostsNode),
-                        AllocatedHostsSerializer.toJson(hosts));
+            StepStart start = startStep();
+            batch.set(sessionPath.append(ZKApplicationPackage.allocatedHostsNode),
+                      AllocatedHostsSerializer.toJson(hosts));
+            commit("write allocated hosts", start);
         }
 
         public void write(Map<Version, FileRegistry> fileRegistryMap) {
-            for (Map.Entry<Version, FileRegistry> versionFileRegistryEntry : fileRegistryMap.entrySet()) {
-                write(versionFileRegistryEntry.getKey(), versionFileRegistryEntry.getValue());
+            StepStart start = startStep();
+            try {
+                for (Map.Entry<Version, FileRegistry> versionFileRegistryEntry : fileRegistryMap.entrySet()) {
+                    write(versionFileRegistryEntry.getKey(), versionFileRegistryEntry.getValue());
+                }
+            } catch (RuntimeException e) {
+                batch.clear();
+                throw e;
             }
+            commit("write file registries", start);
+        }
+
+        private StepStart startStep() {
+            return new StepStart(System.nanoTime(), batch.writeCount(), batch.operationCount(), batch.requestCount());
         }
 
+        /**
+         * Writes the nodes added to the batch in the given step, and logs the number of ZooKeeper requests used,
+         * including those the batch committed while nodes were added to it
+         */
+        private void commit(String step, StepStart start) {
+            batch.commit();
+            log.log(Level.FINE, () -> "Session " + sessionPath.getName() + ": " + step + ": Wrote " +
+                                      (batch.writeCount() - start.writes()) + " nodes using " +
+                                      (batch.operationCount() - start.operations()) + " operations in " +
+                                      (batch.requestCount() - start.requests()) + " ZooKeeper requests in " +
+                                      Duration.ofNanos(System.nanoTime() - start.nanos()).toMillis() + " ms");
+        }
+
+        /** The time and the counters of the batch when a step started */
+        private record StepStart(long nanos, int writes, int operations, int requests) { }
+
     }
 
 }
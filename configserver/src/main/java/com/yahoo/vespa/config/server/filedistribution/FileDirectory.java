@@ -10,6 +10,7 @@ import com.yahoo.config.FileReference;
 import com.yahoo.io.IOUtils;
 import com.yahoo.text.Utf8;
 import com.yahoo.vespa.defaults.Defaults;
+import net.jpountz.xxhash.StreamingXXHash64;
 import net.jpountz.xxhash.XXHash64;
 import net.jpountz.xxhash.XXHashFactory;
 import java.io.File;
@@ -17,6 +18,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
@@ -27,6 +29,7 @@ import java.time.Clock;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import java.util.logging.Logger;
 
 import static com.yahoo.yolean.Exceptions.uncheck;
@@ -106,23 +109,36 @@ public class FileDirectory extends AbstractComponent {
     private Long computeHash(File file) throws IOException {
         XXHash64 hasher = XXHashFactory.fastestInstance().hash64();
         if (file.isDirectory()) {
-            return Files.walk(file.toPath(), 100).map(path -> {
-                try {
-                    log.log(FINEST, () -> "Calculating hash for '" + path + "'");
-                    return hash(path.toFile(), hasher);
-                } catch (IOException e) {
-                    log.log(WARNING, "Failed getting hash from '" + path + "'");
-                    return 0;
-                }
-            }).mapToLong(Number::longValue).sum();
+            try (Stream<Path> paths = Files.walk(file.toPath(), 100)) {
+                return paths.map(path -> {
+                    try {
+                        log.log(FINEST, () -> "Calculating hash for '" + path + "'");
+                        return hash(path.toFile(), hasher);
+                    } catch (IOException e) {
+                        log.log(WARNING, "Failed getting hash from '" + path + "'");
+                        return 0;
+                    }
+                }).mapToLong(Number::longValue).sum();
+            }
         } else {
             return hash(file, hasher);
         }
     }
 
     private long hash(File file, XXHash64 hasher) throws IOException {
-        byte[] wholeFile = file.isDirectory() ?  new byte[0] : IOUtils.readFileBytes(file);
-        return hasher.hash(ByteBuffer.wrap(wholeFile), hasher.hash(ByteBuffer.wrap(Utf8.toBytes(file.getName())), 0));
+        long seed = hasher.hash(ByteBuffer.wrap(Utf8.toBytes(file.getName())), 0);
+        if (file.isDirectory()) return hasher.hash(ByteBuffer.wrap(new byte[0]), seed);
+
+        // Hash the content while reading it, which gives the same hash as hashing the whole file at once,
+        // without having to hold large files (e.g. models) in memory
+        try (StreamingXXHash64 streamingHasher = XXHashFactory.fastestInstance().newStreamingHash64(seed);
+             InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) != -1)
+                streamingHasher.update(buffer, 0, read);
+            return streamingHasher.getValue();
+        }
     }
 
     public FileReference addFile(File source) throws IOException {
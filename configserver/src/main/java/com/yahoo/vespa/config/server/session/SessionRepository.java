@@ -28,6 +28,7 @@ import com.yahoo.vespa.config.server.TimeoutBudget;
 import com.yahoo.vespa.config.server.application.InheritableApplications;
 import com.yahoo.vespa.config.server.application.Application;
 import com.yahoo.vespa.config.server.application.ApplicationVersions;
+import com.yahoo.vespa.config.server.application.CompressedApplicationInputStream;
 import com.yahoo.vespa.config.server.application.TenantApplications;
 import com.yahoo.vespa.config.server.configchange.ConfigChangeActions;
 import com.yahoo.vespa.config.server.deploy.TenantFileSystemDirs;
@@ -116,6 +117,8 @@ public class SessionRepository {
 
     private static final Logger log = Logger.getLogger(SessionRepository.class.getName());
     private static final FilenameFilter sessionApplicationsFilter = (dir, name) -> name.matches("\\d+");
+    private static final String uploadDirectoryPrefix = "upload";
+    private static final FilenameFilter uploadDirectoriesFilter = (dir, name) -> name.startsWith(uploadDirectoryPrefix);
     private static final long nonExistingActiveSessionId = 0;
 
     private final Object monitor = new Object();
@@ -195,6 +198,7 @@ public class SessionRepository {
         this.readSessionData = Flags.READ_CONFIG_SERVER_SESSION_DATA_AS_ONE_BLOB.bindTo(flagSource);
         this.inheritableApplications = inheritableApplications;
 
+        deleteStaleUploadDirectories();
         loadSessions(); // Needs to be done before creating cache below
         this.directoryCache = curator.createDirectoryCache(sessionsPath.getAbsolute(), false, false, zkCacheExecutor);
         this.directoryCache.addListener(this::childEvent);
@@ -310,6 +314,7 @@ public class SessionRepository {
         LocalSession session = createSessionFromApplication(existingApp,
                                                             applicationId,
                                                             internalRedeploy,
+                                                            false,
                                                             timeoutBudget,
                                                             deployLogger,
                                                             created);
@@ -330,19 +335,73 @@ public class SessionRepository {
                                                             ApplicationId applicationId,
                                                             TimeoutBudget timeoutBudget,
                                                             DeployLogger deployLogger) {
-        LocalSession session = createSessionFromApplication(applicationDirectory, applicationId, false, timeoutBudget,
+        LocalSession session = createSessionFromApplication(applicationDirectory, applicationId, false, false, timeoutBudget,
                                             deployLogger, clock.instant());
         tenantApplications.createApplication(applicationId);
         return session;
     }
 
+    /**
+     * Creates a new deployment session from a compressed application package. The package is decompressed into
+     * a temporary directory next to the session directories, and then moved into place instead of being copied.
+     *
+     * @param in the compressed application package
+     * @param applicationId application id for this new session.
+     * @param timeoutBudget Timeout for creating session and waiting for other servers.
+     * @return a new session
+     */
+    public LocalSession createSessionFromCompressedApplicationPackage(CompressedApplicationInputStream in,
+                                                                      ApplicationId applicationId,
+                                                                      TimeoutBudget timeoutBudget,
+                                                                      DeployLogger deployLogger) {
+        File applicationDirectory = uncheck(() -> createTempDirectory(tenantFileSystemDirs.sessionsPath().toPath(), uploadDirectoryPrefix)).toFile();
+        try {
+            decompressApplication(in, applicationDirectory);
+            LocalSession session = createSessionFromApplication(applicationDirectory, applicationId, false, true, timeoutBudget,
+                                                                deployLogger, clock.instant());
+            tenantApplications.createApplication(applicationId);
+            return session;
+        } finally {
+            // Already moved into the session directory, unless creating the session failed
+            IOUtils.recursiveDeleteDir(applicationDirectory);
+        }
+    }
+
+    /**
+     * Deletes directories left behind by uploads which were interrupted, e.g. by a restart, before their session
+     * was created. These are not session directories, so they are never considered when deleting expired sessions.
+     */
+    private void deleteStaleUploadDirectories() {
+        File[] uploads = tenantFileSystemDirs.sessionsPath().listFiles(uploadDirectoriesFilter);
+        if (uploads == null) return;
+
+        for (File upload : uploads) {
+            try {
+                if (Files.getLastModifiedTime(upload.toPath()).toInstant().plus(sessionLifeTime()).isBefore(clock.instant())) {
+                    log.log(Level.FINE, () -> "Deleting stale upload directory " + upload);
+                    IOUtils.recursiveDeleteDir(upload);
+                }
+            } catch (IOException e) {
+                log.log(Level.FINE, "Unable to find last modified time for " + upload.toPath());
+            }
+        }
+    }
+
+    private static void decompressApplication(CompressedApplicationInputStream in, File applicationDirectory) {
+        try {
+            in.decompress(applicationDirectory);
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalArgumentException("Unable to decompress application stream", e);
+        }
+    }
+
     /**
      * Creates a local session based on a remote session and the distributed application package.
      * Does not wait for session being created on other servers.
      */
     private void createLocalSession(File applicationFile, ApplicationId applicationId, long sessionId) {
         try {
-            ApplicationPackage applicationPackage = createApplicationPackage(applicationFile, applicationId, sessionId, false, Optional.empty());
+            ApplicationPackage applicationPackage = createApplicationPackage(applicationFile, applicationId, sessionId, false, false, Optional.empty());
             createLocalSession(sessionId, applicationPackage);
         } catch (Exception e) {
             throw new RuntimeException("Error creating session " + sessionId, e);
@@ -658,6 +717,8 @@ public class SessionRepository {
     // ---------------- Common stuff ----------------------------------------------------------------
 
     public void deleteExpiredRemoteAndLocalSessions(Predicate<Session> sessionIsActiveForApplication, int maxSessionsToDelete) {
+        deleteStaleUploadDirectories();
+
         // All known sessions, both local (file) and remote (zookeeper)
         List<Long> sessions = new ArrayList<>(getLocalSessionsIdsFromFileSystem());
         sessions.addAll(getRemoteSessionsFromZooKeeper());
@@ -883,13 +944,15 @@ public class SessionRepository {
     private LocalSession createSessionFromApplication(File applicationDirectory,
                                                       ApplicationId applicationId,
                                                       boolean internalRedeploy,
+                                                      boolean moveApplicationDirectory,
                                                       TimeoutBudget timeoutBudget,
                                                       DeployLogger deployLogger,
                                                       Instant created) {
         long sessionId = getNextSessionId();
         try {
             ensureSessionPathDoesNotExist(sessionId);
-            ApplicationPackage app = createApplicationPackage(applicationDirectory, applicationId, sessionId, internalRedeploy, Optional.of(deployLogger));
+            ApplicationPackage app = createApplicationPackage(applicationDirectory, applicationId, sessionId, internalRedeploy,
+                                                              moveApplicationDirectory, Optional.of(deployLogger));
             log.log(Level.FINE, () -> TenantRepository.logPre(tenantName) + "Creating session " + sessionId + " in ZooKeeper");
             SessionZooKeeperClient sessionZKClient = createSessionZooKeeperClient(sessionId);
             sessionZKClient.createNewSession(created);
@@ -907,13 +970,17 @@ public class SessionRepository {
                                                         ApplicationId applicationId,
                                                         long sessionId,
                                                         boolean internalRedeploy,
+                                                        boolean moveApplicationDirectory,
                                                         Optional<DeployLogger> deployLogger) throws IOException {
         // Synchronize to avoid threads trying to create an application package concurrently
         // (e.g. a maintainer and an external deployment)
         synchronized (monitor) {
             Optional<Long> activeSessionId = getActiveSessionId(applicationId);
             File userApplicationDir = getSessionAppDir(sessionId);
-            copyApp(applicationDirectory, userApplicationDir);
+            if (moveApplicationDirectory)
+                moveApp(applicationDirectory, userApplicationDir);
+            else
+                copyApp(applicationDirectory, userApplicationDir);
             ApplicationPackage applicationPackage = createApplication(userApplicationDir,
                                                                       applicationId,
                                                                       sessionId,
@@ -964,6 +1031,18 @@ public class SessionRepository {
         }
     }
 
+    /** Moves an application from a temporary directory on the same file system as the destination dir */
+    private void moveApp(File sourceDir, File destinationDir) throws IOException {
+        if (destinationDir.exists()) {
+            log.log(Level.INFO, "Destination dir " + destinationDir + " already exists, app has already been copied");
+            return;
+        }
+
+        moveSearchDefinitionsToSchemasDir(sourceDir.toPath());
+        log.log(Level.FINE, "Moving " + sourceDir.getAbsolutePath() + " to " + destinationDir.getAbsolutePath());
+        Files.move(sourceDir.toPath(), destinationDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
     // TODO: Remove on Vespa 9 (when we don't allow files in SEARCH_DEFINITIONS_DIR)
     // Copies schemas from searchdefinitions/ to schemas/ if searchdefinitions/ exists
     private void moveSearchDefinitionsToSchemasDir(java.nio.file.Path applicationDir) throws IOException {
@@ -108,6 +108,8 @@ public class TenantRepository {
     private final StripedExecutor<TenantName> zkApplicationWatcherExecutor;
     private final FileDistributionFactory fileDistributionFactory;
     private final ExecutorService deployHelperExecutor;
+    private final ExecutorService configPreloadExecutor =
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new DaemonThreadFactory("preload-configs-"));
     private final FlagSource flagSource;
     private final HostProvisionerProvider hostProvisionerProvider;
     private final ConfigserverConfig configserverConfig;
@@ -353,6 +355,7 @@ public class TenantRepository {
                                        curator,
                                        zkApplicationWatcherExecutor,
                                        zkCacheExecutor,
+                                       configPreloadExecutor,
                                        metrics,
                                        configActivationListener,
                                        configserverConfig,
@@ -573,6 +576,7 @@ public class TenantRepository {
             checkForRemovedApplicationsService.shutdown();
             zkApplicationWatcherExecutor.shutdownAndWait();
             zkSessionWatcherExecutor.shutdownAndWait();
+            configPreloadExecutor.shutdown();
             zkCacheExecutor.awaitTermination(50, TimeUnit.SECONDS);
             checkForRemovedApplicationsService.awaitTermination(50, TimeUnit.SECONDS);
         }
@@ -12,6 +12,8 @@ import com.yahoo.vespa.config.protocol.SlimeConfigResponse;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Map;
+
 import static com.yahoo.vespa.config.PayloadChecksum.Type.XXHASH64;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -77,6 +79,23 @@ public class ServerCacheTest {
         assertSame(cache.get(fooBarCacheKey), cache.get(bazQuuxCacheKey));
     }
 
+    @Test
+    public void testThatPreloadedConfigsAreServedAndDeduplicated() {
+        ConfigCacheKey preloadedKey = new ConfigCacheKey(new ConfigKey<>("foo", "id3", "bar"), defMd5);
+        ConfigCacheKey otherPreloadedKey = new ConfigCacheKey(new ConfigKey<>("foo", "id4", "bar"), defMd5);
+        cache.preload(Map.of(preloadedKey, createResponse(xxhash64_2),
+                             otherPreloadedKey, createResponse(xxhash64_2),
+                             fooBarCacheKey, createResponse(xxhash64_2)));
+
+        assertSame(cache.get(preloadedKey), cache.get(otherPreloadedKey));
+        assertSame(cache.get(preloadedKey),
+                   cache.computeIfAbsent(preloadedKey, (ConfigCacheKey key) -> { throw new AssertionError("Should be preloaded"); }));
+        assertEquals(xxhash64_2, cache.get(fooBarCacheKey).getPayloadChecksums().getForType(XXHASH64).asString());
+        assertEquals(xxhash64, cache.get(bazQuuxCacheKey).getPayloadChecksums().getForType(XXHASH64).asString());
+        assertEquals(3, cache.configElems());
+        assertEquals(6, cache.checkSumElems());
+    }
+
     SlimeConfigResponse createResponse(String xxhash64) {
         return SlimeConfigResponse.fromConfigPayload(ConfigPayload.empty(), 2, false,
                                                      PayloadChecksums.from("", xxhash64));
@@ -30,6 +30,7 @@ import com.yahoo.vespa.config.server.UnknownConfigDefinitionException;
 import com.yahoo.vespa.config.server.UserConfigDefinitionRepo;
 import com.yahoo.vespa.config.server.monitoring.MetricUpdater;
 import com.yahoo.vespa.config.server.monitoring.Metrics;
+import com.yahoo.vespa.config.server.rpc.UncompressedConfigResponseFactory;
 import com.yahoo.vespa.model.VespaModel;
 import org.junit.Before;
 import org.junit.Test;
@@ -148,9 +149,27 @@ public class ApplicationTest {
         assertSame(response, cached_response);
     }
 
+    @Test
+    public void require_that_preloaded_configs_are_served_without_being_resolved_again() {
+        handler.preloadConfigs(new UncompressedConfigResponseFactory(), Runnable::run);
+        int preloaded = handler.getCache().checkSumElems();
+        assertTrue(preloaded > 0);
+
+        ConfigKey<?> logdKey = handler.allConfigsProduced().stream()
+                                      .filter(key -> key.getName().equals(LogdConfig.CONFIG_DEF_NAME))
+                                      .findFirst().orElseThrow();
+        assertNotNull(handler.resolveConfig(createRequest(LogdConfig.CONFIG_DEF_NAME, logdKey.getConfigId(),
+                                                          LogdConfig.CONFIG_DEF_NAMESPACE, LogdConfig.CONFIG_DEF_SCHEMA)));
+        assertEquals(preloaded, handler.getCache().checkSumElems());
+    }
+
     private static GetConfigRequest createRequest(String name, String namespace, String[] schema) {
+        return createRequest(name, "admin/model", namespace, schema);
+    }
+
+    private static GetConfigRequest createRequest(String name, String configId, String namespace, String[] schema) {
         Request request =
-                JRTClientConfigRequestV3.createWithParams(new ConfigKey<>(name, "admin/model", namespace, null),
+                JRTClientConfigRequestV3.createWithParams(new ConfigKey<>(name, configId, namespace, null),
                                                           DefContent.fromArray(schema), "fromHost",
                                                           PayloadChecksums.empty(), 0, 100,
                                                           Trace.createDummy(), CompressionType.UNCOMPRESSED,
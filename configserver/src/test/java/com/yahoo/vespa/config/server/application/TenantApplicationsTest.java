@@ -16,6 +16,8 @@ import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.server.ConfigActivationListener;
 import com.yahoo.vespa.config.server.ConfigServerDB;
 import com.yahoo.vespa.config.server.ServerCache;
+import com.yahoo.vespa.config.server.TestConfigDefinitionRepo;
+import com.yahoo.vespa.config.server.UserConfigDefinitionRepo;
 import com.yahoo.vespa.config.server.deploy.TenantFileSystemDirs;
 import com.yahoo.vespa.config.server.host.HostRegistry;
 import com.yahoo.vespa.config.server.model.TestModelFactory;
@@ -47,6 +49,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
@@ -151,13 +156,17 @@ public class TenantApplicationsTest {
     }
 
     private static ApplicationVersions createApplicationVersions(ApplicationId id, Version version) throws IOException, SAXException {
+        return createApplicationVersions(id, version, new ServerCache());
+    }
+
+    private static ApplicationVersions createApplicationVersions(ApplicationId id, Version version, ServerCache cache) throws IOException, SAXException {
         VespaModel model = new VespaModel(new NullConfigModelRegistry(),
                                           new DeployState.Builder().wantedNodeVespaVersion(version)
                                                                    .properties(new TestProperties())
                                                                    .applicationPackage(FilesApplicationPackage.fromDir(new File("src/test/apps/app"), Map.of()))
                                                                    .build());
         return ApplicationVersions.from(new Application(model,
-                                                        new ServerCache(),
+                                                        cache,
                                                         1,
                                                         Version.emptyVersion,
                                                         MetricUpdater.createTestUpdater(),
@@ -192,6 +201,40 @@ public class TenantApplicationsTest {
         assertTrue("Node is compatible after upgrading", applications.compatibleWith(Optional.of(nodeVersion1), app1));
     }
 
+    @Test
+    public void configs_are_preloaded_when_activating_a_new_generation_of_a_served_application() throws Exception {
+        AtomicInteger preloadTasks = new AtomicInteger();
+        ExecutorService preloadExecutor = Executors.newFixedThreadPool(2);
+        TenantApplications applications = createTenantApplications(tenantName, curator, configserverConfig,
+                                                                   new MockConfigActivationListener(), new InMemoryFlagSource(),
+                                                                   command -> {
+                                                                       preloadTasks.incrementAndGet();
+                                                                       preloadExecutor.execute(command);
+                                                                   });
+        try {
+            ApplicationId app1 = createApplicationId("myapp");
+            applications.createApplication(app1);
+            writeActiveTransaction(applications, app1, 1);
+
+            ApplicationVersions first = createApplicationVersions(app1, vespaVersion, preloadableConfigsCache());
+            applications.activateApplication(first, 1);
+            assertEquals("Applications not yet served are not preloaded", 0, preloadTasks.get());
+            assertEquals(0, first.applications().get(0).getCache().checkSumElems());
+
+            ApplicationVersions second = createApplicationVersions(app1, vespaVersion, preloadableConfigsCache());
+            applications.activateApplication(second, 1);
+            assertTrue(preloadTasks.get() > 0);
+            assertTrue(second.applications().get(0).getCache().checkSumElems() > 0);
+        }
+        finally {
+            preloadExecutor.shutdown();
+        }
+    }
+
+    private static ServerCache preloadableConfigsCache() {
+        return new ServerCache(new TestConfigDefinitionRepo(), new UserConfigDefinitionRepo());
+    }
+
     public static class MockConfigActivationListener implements ConfigActivationListener {
         public final AtomicInteger activated = new AtomicInteger(0);
         final AtomicInteger removed = new AtomicInteger(0);
@@ -318,10 +361,19 @@ public class TenantApplicationsTest {
                                                         Curator curator,
                                                         ConfigserverConfig configserverConfig,
                                                         ConfigActivationListener configActivationListener, InMemoryFlagSource flagSource) {
+        return createTenantApplications(tenantName, curator, configserverConfig, configActivationListener, flagSource, Runnable::run);
+    }
+
+    private TenantApplications createTenantApplications(TenantName tenantName,
+                                                        Curator curator,
+                                                        ConfigserverConfig configserverConfig,
+                                                        ConfigActivationListener configActivationListener, InMemoryFlagSource flagSource,
+                                                        Executor configPreloadExecutor) {
         return new TenantApplications(tenantName,
                                       curator,
                                       new StripedExecutor<>(new InThreadExecutorService()),
                                       new InThreadExecutorService(),
+                                      configPreloadExecutor,
                                       Metrics.createTestMetrics(),
                                       configActivationListener,
                                       configserverConfig,
@@ -43,6 +43,19 @@ public class FileDirectoryTest {
         assertEquals("2b8e97f15c854e1d", bar.value());
     }
 
+    @Test
+    public void requireThatFileReferenceOfLargeFileIsHashOfWholeFile() throws IOException {
+        byte[] content = new byte[300000]; // Larger than what is read at a time when hashing
+        for (int i = 0; i < content.length; i++)
+            content[i] = (byte) ((i * 31 + 7) % 251);
+        File file = temporaryFolder.newFile("model.onnx");
+        Files.write(file.toPath(), content);
+
+        FileReference fileReference = fileDirectory.addFile(file);
+        assertTrue(fileDirectory.getFile(fileReference).get().exists());
+        assertEquals("e4bbfc37943b7001", fileReference.value());
+    }
+
     @Test
     public void requireThatFileReferenceWithSubDirectoriesWorks() throws IOException {
         String subdirName = "subdir";
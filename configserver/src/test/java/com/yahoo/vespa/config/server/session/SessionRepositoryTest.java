@@ -11,6 +11,7 @@ import com.yahoo.config.model.api.ModelContext;
 import com.yahoo.config.model.api.ModelCreateResult;
 import com.yahoo.config.model.api.ModelFactory;
 import com.yahoo.config.model.api.ValidationParameters;
+import com.yahoo.config.model.application.provider.BaseDeployLogger;
 import com.yahoo.config.model.deploy.DeployState;
 import com.yahoo.config.model.deploy.TestProperties;
 import com.yahoo.config.model.test.MockApplicationPackage;
@@ -20,7 +21,10 @@ import com.yahoo.io.reader.NamedReader;
 import com.yahoo.path.Path;
 import com.yahoo.text.Utf8;
 import com.yahoo.vespa.config.server.ApplicationRepository;
+import com.yahoo.vespa.config.server.TimeoutBudget;
 import com.yahoo.vespa.config.server.application.ApplicationVersions;
+import com.yahoo.vespa.config.server.application.CompressedApplicationInputStream;
+import com.yahoo.vespa.config.server.application.CompressedApplicationInputStreamTest;
 import com.yahoo.vespa.config.server.filedistribution.MockFileDistributionFactory;
 import com.yahoo.vespa.config.server.http.InvalidApplicationException;
 import com.yahoo.vespa.config.server.modelfactory.ModelFactoryRegistry;
@@ -36,6 +40,9 @@ import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -260,6 +267,43 @@ public class SessionRepositoryTest {
         assertFalse(sd.exists());
     }
 
+    @Test
+    public void require_that_compressed_application_package_is_moved_into_session_dir() throws Exception {
+        setup();
+
+        File tarFile = CompressedApplicationInputStreamTest.createTarFile(temporaryFolder.getRoot().toPath());
+        LocalSession session;
+        try (CompressedApplicationInputStream in = CompressedApplicationInputStream.createFromCompressedStream(
+                new FileInputStream(tarFile), "application/x-gzip", Long.MAX_VALUE)) {
+            session = sessionRepository.createSessionFromCompressedApplicationPackage(in,
+                                                                                applicationId,
+                                                                                new TimeoutBudget(Clock.systemUTC(), Duration.ofSeconds(60)),
+                                                                                new BaseDeployLogger());
+        }
+
+        ApplicationPackage applicationPackage = session.applicationPackage.get();
+        assertTrue(applicationPackage.getFile(Path.fromString("services.xml")).exists());
+        assertTrue(applicationPackage.getFile(Path.fromString("hosts.xml")).exists());
+        File sessionsDir = tenantRepository.getTenant(tenantName).getApplicationRepo().getTenantFileSystemDirs().sessionsPath();
+        assertEquals(List.of(String.valueOf(session.getSessionId())), List.of(sessionsDir.list()));
+    }
+
+    @Test
+    public void require_that_stale_upload_directories_are_deleted() throws Exception {
+        setup();
+
+        File sessionsDir = tenantRepository.getTenant(tenantName).getApplicationRepo().getTenantFileSystemDirs().sessionsPath();
+        File staleUpload = new File(sessionsDir, "upload123");
+        assertTrue(new File(staleUpload, "services.xml").mkdirs());
+        Files.setLastModifiedTime(staleUpload.toPath(), FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+        File ongoingUpload = new File(sessionsDir, "upload456");
+        assertTrue(ongoingUpload.mkdirs());
+
+        sessionRepository.deleteExpiredRemoteAndLocalSessions(session -> false, 10);
+        assertFalse(staleUpload.exists());
+        assertTrue(ongoingUpload.exists());
+    }
+
     ApplicationFile getSchema(Session session, String subDirectory) {
         return session.applicationPackage.get().getFile(Path.fromString(subDirectory).append("music.sd"));
     }
@@ -8,11 +8,13 @@ import com.yahoo.container.protect.ProcessTerminator;
 import com.yahoo.jdisc.Metric;
 import com.yahoo.text.Text;
 
+import java.util.Optional;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
@@ -77,9 +79,21 @@ public class ContainerThreadpoolImpl extends AbstractComponent implements AutoCl
         int minThreads = minThreads(config, cpus, hasRelThreads);
         int queueSize = queueSize(config, maxThreads, hasRelQueueSize);
 
-        log.config(Text.format("Threadpool '%s': min=%d, max=%d, queue=%s", name, minThreads, maxThreads, queueSizeToString(queueSize)));
-
         ThreadPoolMetric threadPoolMetric = new ThreadPoolMetric(metric, name);
+        Optional<InstrumentedExecutorService> virtualThreadExecutor = config.virtualThreads()
+                ? createVirtualThreadExecutor(name, maxThreads, queueSize, threadPoolMetric)
+                : Optional.empty();
+        InstrumentedExecutorService executor = virtualThreadExecutor.orElseGet(
+                () -> createPlatformThreadExecutor(config, name, minThreads, maxThreads, queueSize, threadPoolMetric));
+        threadpool = new ExecutorServiceWrapper(
+                executor, threadPoolMetric, processTerminator, config.maxThreadExecutionTimeSeconds() * 1000L,
+                name);
+    }
+
+    private static InstrumentedExecutorService createPlatformThreadExecutor(ContainerThreadpoolConfig config, String name,
+                                                                            int minThreads, int maxThreads, int queueSize,
+                                                                            ThreadPoolMetric threadPoolMetric) {
+        log.config(Text.format("Threadpool '%s': min=%d, max=%d, queue=%s", name, minThreads, maxThreads, queueSizeToString(queueSize)));
         WorkerCompletionTimingThreadPoolExecutor executor =
                 new WorkerCompletionTimingThreadPoolExecutor(minThreads, maxThreads,
                         (long) config.keepAliveTime() * 1000, TimeUnit.MILLISECONDS,
@@ -90,9 +104,19 @@ public class ContainerThreadpoolImpl extends AbstractComponent implements AutoCl
         // get the dreaded thread locals initialized even if they will never run.
         // That counters what we want to achieve with the Q that will prefer thread locality.
         executor.prestartAllCoreThreads();
-        threadpool = new ExecutorServiceWrapper(
-                executor, threadPoolMetric, processTerminator, config.maxThreadExecutionTimeSeconds() * 1000L,
-                name);
+        return executor;
+    }
+
+    /** Returns an executor running tasks in virtual threads, or empty if this JVM does not have them */
+    private static Optional<InstrumentedExecutorService> createVirtualThreadExecutor(String name, int maxThreads, int queueSize,
+                                                                                     ThreadPoolMetric threadPoolMetric) {
+        Optional<ThreadFactory> threadFactory = VirtualThreadExecutor.virtualThreadFactory(name);
+        if (threadFactory.isEmpty()) {
+            log.warning(Text.format("Threadpool '%s': Virtual threads are not available in this JVM, using platform threads", name));
+            return Optional.empty();
+        }
+        log.config(Text.format("Threadpool '%s': virtual threads, concurrency=%d, queue=%s", name, maxThreads, queueSizeToString(queueSize)));
+        return Optional.of(new VirtualThreadExecutor(threadFactory.get(), maxThreads, queueSize, threadPoolMetric));
     }
 
     @Override public Executor executor() { return threadpool; }
@@ -163,7 +187,7 @@ public class ContainerThreadpoolImpl extends AbstractComponent implements AutoCl
         );
     }
 
-    private String queueSizeToString(int queueSize) {
+    private static String queueSizeToString(int queueSize) {
         if (queueSize == Integer.MAX_VALUE) {
             return "unlimited";
         }
@@ -0,0 +1,32 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.container.handler.threadpool;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * An executor service exposing the state reported in thread pool metrics, and used to detect
+ * that no workers have been available for too long.
+ *
+ * @author agent
+ */
+interface InstrumentedExecutorService extends ExecutorService {
+
+    /** Returns the number of tasks currently running */
+    int activeCount();
+
+    /** Returns the current number of threads */
+    int poolSize();
+
+    /** Returns the max number of tasks which may run concurrently */
+    int maxPoolSize();
+
+    /** Returns the number of tasks waiting to run */
+    int queueSize();
+
+    /** Returns the max number of tasks which may wait to run */
+    int queueCapacity();
+
+    /** Returns the last time a task was assigned a thread to run on */
+    long lastThreadAssignmentTimeMillis();
+
+}
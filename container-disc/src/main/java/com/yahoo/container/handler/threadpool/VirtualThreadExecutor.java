@@ -0,0 +1,138 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.container.handler.threadpool;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor which runs each task in a new virtual thread, so that tasks blocking on I/O do not hold on to
+ * a platform thread. As threads are not pooled, concurrency is limited by semaphores instead:
+ * At most maxConcurrency tasks run at any time, and at most queueCapacity more are waiting for
+ * one of those to complete. Further tasks are rejected.
+ *
+ * @author agent
+ */
+class VirtualThreadExecutor extends AbstractExecutorService implements InstrumentedExecutorService {
+
+    private final ThreadFactory threadFactory;
+    private final ThreadPoolMetric metric;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final Semaphore admitted;
+    private final Semaphore running;
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    private final Object monitor = new Object();
+    private volatile boolean shutdown = false;
+    private volatile long lastThreadAssignmentTimeMillis = System.currentTimeMillis();
+
+    VirtualThreadExecutor(ThreadFactory threadFactory, int maxConcurrency, int queueCapacity, ThreadPoolMetric metric) {
+        this.threadFactory = threadFactory;
+        this.metric = metric;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.admitted = new Semaphore((int) Math.min(Integer.MAX_VALUE, (long) maxConcurrency + queueCapacity));
+        this.running = new Semaphore(maxConcurrency, true);
+    }
+
+    /** Returns a factory of virtual threads with the given name prefix, or empty if this JVM does not have them */
+    static Optional<ThreadFactory> virtualThreadFactory(String name) {
+        // Virtual threads are created reflectively, as this must also compile for, and run on, Java 17
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            return Optional.of((ThreadFactory) builderClass.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (shutdown) throw new RejectedExecutionException("Executor is shut down");
+        if ( ! admitted.tryAcquire())
+            throw new RejectedExecutionException("More than " + maxConcurrency + " tasks running and " +
+                                                 queueCapacity + " waiting");
+        Thread thread = threadFactory.newThread(() -> run(command));
+        threads.add(thread);
+        thread.start();
+    }
+
+    private void run(Runnable command) {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            completed();
+            return;
+        }
+        lastThreadAssignmentTimeMillis = System.currentTimeMillis();
+        try {
+            command.run();
+        } catch (RuntimeException | Error e) {
+            metric.reportUnhandledException(e);
+            throw e;
+        } finally {
+            running.release();
+            completed();
+        }
+    }
+
+    private void completed() {
+        threads.remove(Thread.currentThread());
+        admitted.release();
+        if (shutdown && threads.isEmpty()) {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() { shutdown = true; }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        threads.forEach(Thread::interrupt);
+        return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() { return shutdown; }
+
+    @Override
+    public boolean isTerminated() { return shutdown && threads.isEmpty(); }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (monitor) {
+            while ( ! isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+            }
+        }
+        return true;
+    }
+
+    @Override public int activeCount() { return maxConcurrency - running.availablePermits(); }
+
+    @Override public int poolSize() { return threads.size(); }
+
+    @Override public int maxPoolSize() { return maxConcurrency; }
+
+    @Override public int queueSize() { return Math.max(0, threads.size() - activeCount()); }
+
+    @Override public int queueCapacity() { return queueCapacity; }
+
+    @Override public long lastThreadAssignmentTimeMillis() { return lastThreadAssignmentTimeMillis; }
+
+}
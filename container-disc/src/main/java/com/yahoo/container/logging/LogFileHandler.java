@@ -23,7 +23,7 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Optional;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -38,6 +38,8 @@ import static java.util.logging.Level.FINE;
 
 /**
  * Implements log file naming/rotating logic for container logs.
+ * Records are queued in a bounded queue, and written by a single thread in batches of
+ * all records queued since the last batch, with a single flush check per batch.
  *
  * @author Bob Travis
  * @author bjorncs
@@ -46,11 +48,15 @@ class LogFileHandler <LOGTYPE> {
 
     enum Compression {NONE, GZIP, ZSTD}
 
+    /** The max number of operations handled in one batch by the log thread */
+    private static final int maxBatchSize = 1024;
+
     private final static Logger logger = Logger.getLogger(LogFileHandler.class.getName());
     private final BlockingQueue<Operation<LOGTYPE>> logQueue;
     final LogThread<LOGTYPE> logThread;
 
-    @FunctionalInterface private interface Pollable<T> { Operation<T> poll() throws InterruptedException; }
+    /** Moves the next available operations into the given list, waiting for a short while if none are available */
+    @FunctionalInterface private interface Pollable<T> { void poll(List<Operation<T>> batch) throws InterruptedException; }
 
     LogFileHandler(Compression compression, int bufferSize, String filePattern, long[] rotationTimes, String symlinkName,
                    int queueSize, long rotationSize, String threadName, LogWriter<LOGTYPE> logWriter, Clock clock) {
@@ -75,8 +81,11 @@ class LogFileHandler <LOGTYPE> {
     }
 
 
-    private Operation<LOGTYPE> poll() throws InterruptedException {
-        return logQueue.poll(100, TimeUnit.MILLISECONDS);
+    private void poll(List<Operation<LOGTYPE>> batch) throws InterruptedException {
+        Operation<LOGTYPE> first = logQueue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) return;
+        batch.add(first);
+        logQueue.drainTo(batch, maxBatchSize - 1);
     }
 
     /**
@@ -85,11 +94,11 @@ class LogFileHandler <LOGTYPE> {
      * @param r logrecord to publish
      */
     public void publish(LOGTYPE r) {
-        addOperation(new Operation<>(r));
+        addOperation(new Operation<>(r, false));
     }
 
     void publishAndWait(LOGTYPE r) {
-        addOperationAndWait(new Operation<>(r));
+        addOperationAndWait(new Operation<>(r, true));
     }
 
     public void flush() {
@@ -266,9 +275,15 @@ class LogFileHandler <LOGTYPE> {
         }
 
         private void handleLogOperations() throws InterruptedException {
+            List<Operation<LOGTYPE>> batch = new ArrayList<>(maxBatchSize);
             while (!isInterrupted()) {
-                Operation<LOGTYPE> r = operationProvider.poll();
-                if (r != null) {
+                operationProvider.poll(batch);
+                if (batch.isEmpty()) {
+                    flushIfOld(100, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                boolean published = false;
+                for (Operation<LOGTYPE> r : batch) {
                     if (r.type == Operation.Type.flush) {
                         internalFlush();
                     } else if (r.type == Operation.Type.close) {
@@ -277,12 +292,14 @@ class LogFileHandler <LOGTYPE> {
                         internalRotateNow();
                         lastFlush = System.nanoTime();
                     } else if (r.type == Operation.Type.log) {
-                        internalPublish(r.log.get());
-                        flushIfOld(3, TimeUnit.SECONDS);
+                        internalPublish(r.log);
+                        published = true;
                     }
-                    r.countDownLatch.countDown();
-                } else {
-                    flushIfOld(100, TimeUnit.MILLISECONDS);
+                    r.done();
+                }
+                batch.clear();
+                if (published) {
+                    flushIfOld(3, TimeUnit.SECONDS);
                 }
             }
         }
@@ -535,21 +552,30 @@ class LogFileHandler <LOGTYPE> {
 
         final Type type;
 
-        final Optional<LOGTYPE> log;
-        final CountDownLatch countDownLatch = new CountDownLatch(1);
+        /** The record to log, or null if this is not a log operation */
+        final LOGTYPE log;
+
+        /** The latch to count down when this is done, or null if nobody waits for this, as for most log operations */
+        final CountDownLatch countDownLatch;
 
         Operation(Type type) {
-            this(type, Optional.empty());
+            this(type, null, true);
         }
 
-        Operation(LOGTYPE log) {
-            this(Type.log, Optional.of(log));
+        Operation(LOGTYPE log, boolean waitedFor) {
+            this(Type.log, log, waitedFor);
         }
 
-        private Operation(Type type, Optional<LOGTYPE> log) {
+        private Operation(Type type, LOGTYPE log, boolean waitedFor) {
             this.type = type;
             this.log = log;
+            this.countDownLatch = waitedFor ? new CountDownLatch(1) : null;
+        }
+
+        void done() {
+            if (countDownLatch != null) countDownLatch.countDown();
         }
+
     }
 
     /** File output stream that signals to kernel to drop previous pages after write */
@@ -10,14 +10,17 @@ import com.yahoo.jdisc.Metric;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -119,6 +122,47 @@ public class ContainerThreadPoolImplTest {
         assertDoesNotThrow(() -> createPoolWithAbsoluteValues(metrics, 1, 1));
     }
 
+    @Test
+    void testVirtualThreadPoolRunsTasks() throws InterruptedException {
+        ContainerThreadpoolConfig config = new ContainerThreadpoolConfig(
+                new ContainerThreadpoolConfig.Builder().maxThreads(2).minThreads(2).queueSize(2).virtualThreads(true));
+        ContainerThreadPool threadPool = new ContainerThreadpoolImpl(config, new MetricMock(), new MockProcessTerminator(), CPUS);
+        FlipIt command = new FlipIt();
+        threadPool.executor().execute(command);
+        assertEquals(Receiver.MessageState.VALID, command.didItRun.get(60_000).first);
+        threadPool.close();
+        assertThrows(RejectedExecutionException.class, () -> threadPool.executor().execute(new FlipIt()));
+    }
+
+    @Test
+    void testVirtualThreadExecutorLimitsConcurrencyBySemaphores() throws InterruptedException {
+        // Platform threads are used here, as these limits do not depend on the kind of thread
+        VirtualThreadExecutor executor = new VirtualThreadExecutor(Executors.defaultThreadFactory(), 2, 1,
+                                                                   new ThreadPoolMetric(new MetricMock(), "test"));
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable task = () -> {
+            started.countDown();
+            try { release.await(); } catch (InterruptedException e) { throw new RuntimeException(e); }
+        };
+        executor.execute(task);
+        executor.execute(task);
+        executor.execute(task);
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(task));
+        assertTrue(started.await(60, TimeUnit.SECONDS));
+        assertEquals(2, executor.activeCount());
+        assertEquals(2, executor.maxPoolSize());
+        assertEquals(1, executor.queueSize());
+        assertEquals(1, executor.queueCapacity());
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(0, executor.activeCount());
+        assertEquals(0, executor.poolSize());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(task));
+    }
+
     private static class FlipIt implements Runnable {
         public final Receiver<Boolean> didItRun = new Receiver<>();
 
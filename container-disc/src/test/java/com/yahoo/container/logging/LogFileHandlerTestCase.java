@@ -18,6 +18,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Locale;
 import java.util.Date;
 import java.util.function.BiFunction;
@@ -82,6 +83,36 @@ public class LogFileHandlerTestCase {
         h.shutdown();
     }
 
+    @Test
+    @Timeout(60)
+    void testConcurrentLoggingWritesAllRecordsInOrderPerThread() throws IOException, InterruptedException {
+        File logFile = File.createTempFile("testLogFileG3.txt", null, temporaryFolder);
+        LogFileHandler<String> h = new LogFileHandler<>(Compression.NONE, BUFFER_SIZE, logFile.getAbsolutePath(), "0 5 ...", null, 2048, "thread-name", new StringLogWriter());
+
+        int threadCount = 8, recordsPerThread = 25000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < recordsPerThread; i++)
+                    h.publish(thread + " " + i);
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads)
+            thread.join();
+        h.flush();
+        h.shutdown();
+
+        List<String> lines = Files.readAllLines(logFile.toPath());
+        assertEquals(threadCount * recordsPerThread, lines.size());
+        int[] next = new int[threadCount];
+        for (String line : lines) {
+            String[] parts = line.split(" ");
+            assertEquals(next[Integer.parseInt(parts[0])]++, Integer.parseInt(parts[1]));
+        }
+    }
+
     @Test
     void testDeleteFileDuringLogging() throws IOException {
         File logFile = File.createTempFile("testLogFileG2.txt", null, temporaryFolder);
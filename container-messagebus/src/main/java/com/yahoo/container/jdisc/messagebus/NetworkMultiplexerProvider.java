@@ -44,6 +44,9 @@ public class NetworkMultiplexerProvider {
                                      .setNumTargetsPerSpec(mbusConfig.numconnectionspertarget())
                                      .setNumNetworkThreads(mbusConfig.numthreads())
                                      .setTransportEventsBeforeWakeup(mbusConfig.transport_events_before_wakeup())
+                                     .setMaxBatchMessages(mbusConfig.maxbatchmessages())
+                                     .setMaxBatchBytes(mbusConfig.maxbatchbytes())
+                                     .setMaxBatchDelaySecs(mbusConfig.maxbatchdelay())
                                      .setOptimization(RPCNetworkParams.Optimization.valueOf(mbusConfig.optimize_for().name()));
     }
 
@@ -17,28 +17,34 @@ public class Pong {
     private final Long activeDocuments;
     private final Long targetActiveDocuments;
     private final boolean isBlockingWrites;
+    private final Double load;
     private final ErrorMessage error;
 
     public Pong() {
-        this(null, null, false, null);
+        this(null, null, false, null, null);
     }
 
     public Pong(ErrorMessage error) {
-        this(null, null, false, error);
+        this(null, null, false, null, error);
     }
 
     public Pong(long activeDocuments, long targetActiveDocuments) {
-        this(activeDocuments, targetActiveDocuments, false, null);
+        this(activeDocuments, targetActiveDocuments, false, null, null);
     }
 
     public Pong(long activeDocuments, long targetActiveDocuments, boolean isBlockingWrites) {
-        this(activeDocuments, targetActiveDocuments, isBlockingWrites, null);
+        this(activeDocuments, targetActiveDocuments, isBlockingWrites, null, null);
     }
 
-    private Pong(Long activeDocuments, Long targetActiveDocuments, boolean isBlockingWrites, ErrorMessage error) {
+    public Pong(long activeDocuments, long targetActiveDocuments, boolean isBlockingWrites, double load) {
+        this(activeDocuments, targetActiveDocuments, isBlockingWrites, load, null);
+    }
+
+    private Pong(Long activeDocuments, Long targetActiveDocuments, boolean isBlockingWrites, Double load, ErrorMessage error) {
         this.activeDocuments = activeDocuments;
         this.targetActiveDocuments = targetActiveDocuments;
         this.isBlockingWrites = isBlockingWrites;
+        this.load = load;
         this.error = error;
     }
 
@@ -53,6 +59,12 @@ public class Pong {
     /** Returns true if the pinged node is currently blocking write operations due to being full */
     public boolean isBlockingWrites() { return isBlockingWrites; }
 
+    /**
+     * Returns the number of queries being matched or waiting to be, per query thread, in the backend
+     * responding in this Pong, if available. A value above 1 means queries are queueing up.
+     */
+    public Optional<Double> load() { return Optional.ofNullable(load); }
+
     /** Returns whether there is an error or not */
     public boolean badResponse() { return error != null; }
 
@@ -66,6 +78,7 @@ public class Pong {
         targetActiveDocuments().ifPresent(docCount -> m.append(" target active docs: ").append(docCount));
         if (isBlockingWrites)
             m.append(" blocking writes: true");
+        load().ifPresent(load -> m.append(" load: ").append(load));
         error().ifPresent(e -> m.append(" error: ").append(error));
         return m.toString();
     }
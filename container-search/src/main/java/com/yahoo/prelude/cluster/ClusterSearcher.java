@@ -261,7 +261,7 @@ public class ClusterSearcher extends Searcher {
             if (query.getTrace().isTraceable(3)) {
                 query.trace("Use global-phase from [" + schema + "] to re-rank " + rerankCount + " hits", 3);
             }
-            globalPhaseRanker.rerankHits(query, result, schemaName);
+            globalPhaseRanker.rerankHits(query, result, schemaName, wantOffset + wantHits);
             result.hits().trim(wantOffset, wantHits);
             query.setOffset(wantOffset);
             query.setHits(wantHits);
@@ -86,7 +86,10 @@ public abstract class DocsumField {
      */
     public abstract Object convert(Inspector value);
 
-    /** Returns whether this is the string field type. */
+    /** Returns whether this is a string field type, whose values can be used as UTF-8 directly. */
     boolean isString() { return false; }
 
+    /** Returns whether this is the tensor field type, whose values are tensors in serialized form. */
+    boolean isTensor() { return false; }
+
 }
@@ -552,6 +552,10 @@ public class FastHit extends Hit {
                         if (fieldType.isString()) {
                             byte[] utf8Value = value.asUtf8();
                             consumer.accept(name, utf8Value, 0, utf8Value.length);
+                        } else if (fieldType.isTensor()) {
+                            byte[] tensorData = value.asData();
+                            if (tensorData.length > 0)
+                                consumer.acceptTensor(name, tensorData);
                         } else {
                             Object convertedValue = fieldType.convert(value);
                             if (convertedValue != null)
@@ -27,4 +27,6 @@ public class FeatureDataField extends LongstringField {
         return new FeatureData(value);
     }
 
+    boolean isString() { return false; }
+
 }
@@ -17,4 +17,6 @@ public class LongstringField extends DocsumField {
         return value.asString("");
     }
 
+    boolean isString() { return true; }
+
 }
@@ -34,4 +34,6 @@ public class TensorField extends DocsumField {
         return TypedBinaryFormat.decode(Optional.empty(), GrowableByteBuffer.wrap(content));
     }
 
+    boolean isTensor() { return true; }
+
 }
@@ -25,28 +25,14 @@ public class DotProductItem extends WeightedSetItem {
         if (hasOnlyLongs()) {
             var builder = SearchProtocol.ItemDotProductOfLong.newBuilder();
             builder.setProperties(ToProtobuf.buildTermProperties(this, getIndexName()));
-            for (var it = getTokens(); it.hasNext();) {
-                var entry = it.next();
-                var weightedLong = SearchProtocol.PureWeightedLong.newBuilder()
-                        .setWeight(entry.getValue())
-                        .setValue((Long) entry.getKey())
-                        .build();
-                builder.addWeightedLongs(weightedLong);
-            }
+            addWeightedLongs(builder::addWeightedLongs);
             return SearchProtocol.QueryTreeItem.newBuilder()
                     .setItemDotProductOfLong(builder.build())
                     .build();
         } else {
             var builder = SearchProtocol.ItemDotProductOfString.newBuilder();
             builder.setProperties(ToProtobuf.buildTermProperties(this, getIndexName()));
-            for (var it = getTokens(); it.hasNext();) {
-                var entry = it.next();
-                var weightedString = SearchProtocol.PureWeightedString.newBuilder()
-                        .setWeight(entry.getValue())
-                        .setValue(entry.getKey().toString())
-                        .build();
-                builder.addWeightedStrings(weightedString);
-            }
+            addWeightedStrings(builder::addWeightedStrings);
             return SearchProtocol.QueryTreeItem.newBuilder()
                     .setItemDotProductOfString(builder.build())
                     .build();
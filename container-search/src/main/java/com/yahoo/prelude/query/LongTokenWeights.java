@@ -0,0 +1,82 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.prelude.query;
+
+import java.util.Arrays;
+
+/**
+ * A compact map from long tokens to int weights.
+ *
+ * @author agent
+ */
+final class LongTokenWeights extends TokenWeights {
+
+    private long[] tokens = new long[MIN_CAPACITY];
+
+    /** Returns the token at the given position, where positions are in insertion order */
+    public long token(int position) { return tokens[position]; }
+
+    /**
+     * Adds a token with a weight. If the token is present already, the max of the old and new weight is kept.
+     *
+     * @return the weight of the token after this
+     */
+    public int add(long token, int weight) {
+        int hash = Long.hashCode(token);
+        int slot = firstSlot(hash);
+        for (int position; (position = positionAt(slot)) >= 0; slot = nextSlot(slot)) {
+            if (tokens[position] == token) return keepMaxWeight(position, weight);
+        }
+        int position = insert(slot, hash, weight); // May replace the tokens array
+        tokens[position] = token;
+        return weight;
+    }
+
+    /** Returns the position of the given token, or -1 if it is not present */
+    public int positionOf(long token) {
+        for (int slot = firstSlot(Long.hashCode(token)), position; (position = positionAt(slot)) >= 0; slot = nextSlot(slot)) {
+            if (tokens[position] == token) return position;
+        }
+        return -1;
+    }
+
+    /** Returns a copy of the tokens in this, in insertion order */
+    public long[] tokens() { return Arrays.copyOf(tokens, size()); }
+
+    @Override
+    protected int hashAt(int position) { return Long.hashCode(tokens[position]); }
+
+    @Override
+    protected void resizeTokens(int capacity) { tokens = Arrays.copyOf(tokens, capacity); }
+
+    @Override
+    protected void copyTokens() { tokens = tokens.clone(); }
+
+    @Override
+    protected void moveToken(int from, int to) { tokens[to] = tokens[from]; }
+
+    @Override
+    public LongTokenWeights clone() { return (LongTokenWeights)super.clone(); }
+
+    /** Returns whether the other has the same tokens with the same weights, in any order */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if ( ! (o instanceof LongTokenWeights other)) return false;
+        if (size() != other.size()) return false;
+        for (int i = 0; i < size(); i++) {
+            int position = other.positionOf(tokens[i]);
+            if (position < 0 || other.weight(position) != weight(i)) return false;
+        }
+        return true;
+    }
+
+    /** Returns the hash code of a map with the same entries as this */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (int i = 0; i < size(); i++)
+            hashCode += Long.hashCode(tokens[i]) ^ weight(i);
+        return hashCode;
+    }
+
+}
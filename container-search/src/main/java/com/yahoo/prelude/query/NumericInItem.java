@@ -6,29 +6,31 @@ import com.yahoo.compress.IntegerCompressor;
 import com.yahoo.prelude.query.textualrepresentation.Discloser;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 /**
  * Class representing an IN operator with a set of 64-bit
- * integer values.
+ * integer values. The values are kept in a primitive array,
+ * which clones share until either is modified.
  *
  * @author toregge
  */
 public class NumericInItem extends InItem {
 
-    private Set<Long> tokens;
+    private LongTokenWeights tokens; // Weights are not used
 
     public NumericInItem(String indexName) {
         super(indexName);
-        tokens = new HashSet<>(1000);
+        tokens = new LongTokenWeights();
     }
 
     public NumericInItem(String indexName, Set<Long> tokens) {
-        super(indexName);
-        this.tokens = new HashSet<>(tokens);
+        this(indexName);
+        for (long token : tokens)
+            addToken(token);
     }
 
     @Override
@@ -47,8 +49,8 @@ public class NumericInItem extends InItem {
         super.encodeThis(buffer, context);
         IntegerCompressor.putCompressedPositiveNumber(tokens.size(), buffer);
         putString(getIndexName(), buffer);
-        for (var token : tokens) {
-            buffer.putLong(token);
+        for (int i = 0; i < tokens.size(); i++) {
+            buffer.putLong(tokens.token(i));
         }
     }
 
@@ -61,29 +63,36 @@ public class NumericInItem extends InItem {
     protected void appendBodyString(StringBuilder buffer) {
         buffer.append(getIndexName());
         buffer.append("{");
-        for (var token : tokens) {
-            buffer.append(token.toString());
+        for (long token : sortedTokens()) {
+            buffer.append(token);
             if (token < Integer.MIN_VALUE || token > Integer.MAX_VALUE) {
                 buffer.append("L");
             }
             buffer.append(",");
         }
-        if (!tokens.isEmpty()) {
+        if (tokens.size() > 0) {
             buffer.deleteCharAt(buffer.length() - 1); // remove extra ","
         }
         buffer.append("}");
     }
 
     public void addToken(long token) {
-        tokens.add(token);
+        tokens.add(token, 0);
     }
 
-    public Collection<Long> getTokens() { return Set.copyOf(tokens); }
+    public Collection<Long> getTokens() { return Set.of(Arrays.stream(tokens.tokens()).boxed().toArray(Long[]::new)); }
+
+    /** Returns the tokens of this in ascending order, for readability where performance is not important */
+    private long[] sortedTokens() {
+        long[] sorted = tokens.tokens();
+        Arrays.sort(sorted);
+        return sorted;
+    }
 
     @Override
     public void disclose(Discloser discloser) {
         super.disclose(discloser);
-        for (Long token : tokens)
+        for (long token : sortedTokens())
             discloser.addChild(new IntItem(token));
     }
 
@@ -104,7 +113,7 @@ public class NumericInItem extends InItem {
     @Override
     public NumericInItem clone() {
         NumericInItem clone = (NumericInItem)super.clone();
-        clone.tokens = new HashSet<>(tokens);
+        clone.tokens = tokens.clone();
         return clone;
     }
 
@@ -112,8 +121,8 @@ public class NumericInItem extends InItem {
     SearchProtocol.QueryTreeItem toProtobuf(SerializationContext context) {
         var builder = SearchProtocol.ItemNumericIn.newBuilder();
         builder.setProperties(ToProtobuf.buildTermProperties(this, getIndexName()));
-        for (Long token : tokens) {
-            builder.addNumbers(token);
+        for (int i = 0; i < tokens.size(); i++) {
+            builder.addNumbers(tokens.token(i));
         }
         return SearchProtocol.QueryTreeItem.newBuilder()
                 .setItemNumericIn(builder.build())
@@ -34,6 +34,12 @@ public class PureWeightedInteger extends PureWeightedItem  {
         buffer.putLong(value);
     }
 
+    /** Encodes an item with the given value and weight, without creating it */
+    static void encode(long value, int weight, ByteBuffer buffer) {
+        encodeHeader(ItemType.PURE_WEIGHTED_INTEGER, weight, buffer);
+        buffer.putLong(value);
+    }
+
     @Override
     public int getTermCount() {
         return 1;
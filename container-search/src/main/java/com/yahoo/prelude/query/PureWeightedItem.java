@@ -2,6 +2,7 @@
 package com.yahoo.prelude.query;
 
 import ai.vespa.searchlib.searchprotocol.protobuf.SearchProtocol;
+import com.yahoo.compress.IntegerCompressor;
 import com.yahoo.prelude.query.textualrepresentation.Discloser;
 
 import java.nio.ByteBuffer;
@@ -44,6 +45,20 @@ public abstract class PureWeightedItem extends Item {
         buffer.append(':').append(getWeight());
     }
 
+    /**
+     * Encodes what {@link #encodeThis} encodes before the value of a pure weighted item of the given type and weight.
+     * This allows items holding many values to encode them without creating an item for each.
+     */
+    static void encodeHeader(ItemType type, int weight, ByteBuffer buffer) {
+        byte FEAT_WEIGHT = 0b00100000;
+        if (weight == DEFAULT_WEIGHT) {
+            buffer.put((byte)type.code);
+        } else {
+            buffer.put((byte)(type.code | FEAT_WEIGHT));
+            IntegerCompressor.putCompressedNumber(weight, buffer);
+        }
+    }
+
     @Override
     public void disclose(Discloser discloser) {
         discloser.addProperty("weight", getWeight());
@@ -35,6 +35,12 @@ public class PureWeightedString extends PureWeightedItem  {
         putString(value, buffer);
     }
 
+    /** Encodes an item with the given value and weight, without creating it */
+    static void encode(String value, int weight, ByteBuffer buffer) {
+        encodeHeader(ItemType.PURE_WEIGHTED_STRING, weight, buffer);
+        putString(value, buffer);
+    }
+
     @Override
     public int getTermCount() {
         return 1;
@@ -0,0 +1,103 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.prelude.query;
+
+import java.util.Arrays;
+
+/**
+ * A compact map from string tokens to int weights.
+ *
+ * @author agent
+ */
+final class StringTokenWeights extends TokenWeights {
+
+    private String[] tokens = new String[MIN_CAPACITY];
+
+    /** Returns the token at the given position, where positions are in insertion order */
+    public String token(int position) { return tokens[position]; }
+
+    /**
+     * Adds a token with a weight. If the token is present already, the max of the old and new weight is kept.
+     *
+     * @return the weight of the token after this
+     */
+    public int add(String token, int weight) {
+        int hash = token.hashCode();
+        int slot = firstSlot(hash);
+        for (int position; (position = positionAt(slot)) >= 0; slot = nextSlot(slot)) {
+            if (tokens[position].equals(token)) return keepMaxWeight(position, weight);
+        }
+        int position = insert(slot, hash, weight); // May replace the tokens array
+        tokens[position] = token;
+        return weight;
+    }
+
+    /** Returns the position of the given token, or -1 if it is not present */
+    public int positionOf(String token) {
+        return positionAt(slotOf(token));
+    }
+
+    /**
+     * Removes the given token. This moves the last token to the position of the removed one.
+     *
+     * @return the weight of the removed token, or null if it was not present
+     */
+    public Integer remove(String token) {
+        int slot = slotOf(token);
+        int position = positionAt(slot);
+        if (position < 0) return null;
+        int weight = weight(position);
+        remove(slot);
+        tokens[size()] = null;
+        return weight;
+    }
+
+    /** Returns the slot of the given token, or the empty slot where it would be if it is not present */
+    private int slotOf(String token) {
+        int slot = firstSlot(token.hashCode());
+        for (int position; (position = positionAt(slot)) >= 0; slot = nextSlot(slot)) {
+            if (tokens[position].equals(token)) return slot;
+        }
+        return slot;
+    }
+
+    @Override
+    protected int hashAt(int position) { return tokens[position].hashCode(); }
+
+    @Override
+    protected void resizeTokens(int capacity) { tokens = Arrays.copyOf(tokens, capacity); }
+
+    @Override
+    protected void copyTokens() { tokens = tokens.clone(); }
+
+    @Override
+    protected void moveToken(int from, int to) {
+        tokens[to] = tokens[from];
+        tokens[from] = null;
+    }
+
+    @Override
+    public StringTokenWeights clone() { return (StringTokenWeights)super.clone(); }
+
+    /** Returns whether the other has the same tokens with the same weights, in any order */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if ( ! (o instanceof StringTokenWeights other)) return false;
+        if (size() != other.size()) return false;
+        for (int i = 0; i < size(); i++) {
+            int position = other.positionOf(tokens[i]);
+            if (position < 0 || other.weight(position) != weight(i)) return false;
+        }
+        return true;
+    }
+
+    /** Returns the hash code of a map with the same entries as this */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (int i = 0; i < size(); i++)
+            hashCode += tokens[i].hashCode() ^ weight(i);
+        return hashCode;
+    }
+
+}
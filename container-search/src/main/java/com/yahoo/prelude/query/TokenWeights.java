@@ -0,0 +1,151 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.prelude.query;
+
+import java.util.Arrays;
+
+/**
+ * Base class of the compact maps from tokens to weights used by items which may have very many tokens.
+ * The tokens and their weights are kept in primitive arrays, in insertion order, and are found through an
+ * open addressing hash table of their positions. Copies share these arrays until one of them is modified.
+ *
+ * @author agent
+ */
+abstract class TokenWeights implements Cloneable {
+
+    protected static final int MIN_CAPACITY = 8;
+
+    private int size = 0;
+    private int[] weights;
+    /** The position + 1 of each token, at the slot given by its hash, or 0 for empty slots */
+    private int[] slots;
+    private boolean shared = false;
+
+    TokenWeights() {
+        weights = new int[MIN_CAPACITY];
+        slots = new int[slotsFor(MIN_CAPACITY)];
+    }
+
+    /** Returns the number of tokens in this */
+    public int size() { return size; }
+
+    /** Returns the weight of the token at the given position */
+    public int weight(int position) { return weights[position]; }
+
+    /** Returns the hash of the token at the given position */
+    protected abstract int hashAt(int position);
+
+    /** Sets the number of tokens which can be held without resizing */
+    protected abstract void resizeTokens(int capacity);
+
+    /** Replaces the token arrays by copies, as they are shared with another instance */
+    protected abstract void copyTokens();
+
+    /** Moves the token at the given position to another, clearing the old position */
+    protected abstract void moveToken(int from, int to);
+
+    /** Returns the first slot to look for a token with the given hash in */
+    protected final int firstSlot(int hash) {
+        int spread = hash * 0x9E3779B9; // Spread bits, as tokens may differ only in their high bits
+        return (spread ^ (spread >>> 16)) & (slots.length - 1);
+    }
+
+    protected final int nextSlot(int slot) { return (slot + 1) & (slots.length - 1); }
+
+    /** Returns the position of the token at the given slot, or -1 if the slot is empty */
+    protected final int positionAt(int slot) { return slots[slot] - 1; }
+
+    /**
+     * Adds the weight of a token which is not present, with the given hash and empty slot, and returns
+     * the position where the subclass must then store the token.
+     */
+    protected final int insert(int slot, int hash, int weight) {
+        prepareWrite();
+        if (size == weights.length) {
+            grow();
+            slot = emptySlotFor(hash);
+        }
+        int position = size++;
+        weights[position] = weight;
+        slots[slot] = position + 1;
+        return position;
+    }
+
+    /** Sets the weight of the token at the given position to the max of its current weight and the given one */
+    protected final int keepMaxWeight(int position, int weight) {
+        if (weights[position] >= weight) return weights[position];
+        prepareWrite();
+        return weights[position] = weight;
+    }
+
+    /** Removes the token at the given slot */
+    protected final void remove(int slot) {
+        prepareWrite();
+        int position = positionAt(slot);
+        clearSlot(slot);
+        int last = size - 1;
+        if (position != last) { // Fill the hole with the last token, so tokens stay contiguous
+            int lastSlot = firstSlot(hashAt(last));
+            while (positionAt(lastSlot) != last)
+                lastSlot = nextSlot(lastSlot);
+            moveToken(last, position);
+            weights[position] = weights[last];
+            slots[lastSlot] = position + 1;
+        }
+        size--;
+    }
+
+    /** Empties the given slot, moving back later tokens in the same cluster as needed for them to be found */
+    private void clearSlot(int slot) {
+        int mask = slots.length - 1;
+        for (int next = nextSlot(slot); slots[next] != 0; next = nextSlot(next)) {
+            int home = firstSlot(hashAt(positionAt(next)));
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                slots[slot] = slots[next];
+                slot = next;
+            }
+        }
+        slots[slot] = 0;
+    }
+
+    private void grow() {
+        int capacity = weights.length * 2;
+        weights = Arrays.copyOf(weights, capacity);
+        resizeTokens(capacity);
+        slots = new int[slotsFor(capacity)];
+        for (int position = 0; position < size; position++)
+            slots[emptySlotFor(hashAt(position))] = position + 1;
+    }
+
+    private int emptySlotFor(int hash) {
+        int slot = firstSlot(hash);
+        while (slots[slot] != 0)
+            slot = nextSlot(slot);
+        return slot;
+    }
+
+    private void prepareWrite() {
+        if ( ! shared) return;
+        weights = weights.clone();
+        slots = slots.clone();
+        copyTokens();
+        shared = false;
+    }
+
+    /** Returns a power of two number of slots keeping the load factor at most 0.5 at the given capacity */
+    private static int slotsFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) * 2;
+    }
+
+    @Override
+    public TokenWeights clone() {
+        try {
+            TokenWeights clone = (TokenWeights)super.clone();
+            shared = true;
+            clone.shared = true;
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
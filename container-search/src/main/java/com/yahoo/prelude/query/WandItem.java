@@ -199,14 +199,7 @@ public class WandItem extends WeightedSetItem {
             builder.setTargetNumHits(resolvedTargetHits);
             builder.setScoreThreshold(scoreThreshold);
             builder.setThresholdBoostFactor(thresholdBoostFactor);
-            for (var it = getTokens(); it.hasNext();) {
-                var entry = it.next();
-                var weightedLong = SearchProtocol.PureWeightedLong.newBuilder()
-                        .setWeight(entry.getValue())
-                        .setValue((Long) entry.getKey())
-                        .build();
-                builder.addWeightedLongs(weightedLong);
-            }
+            addWeightedLongs(builder::addWeightedLongs);
             return SearchProtocol.QueryTreeItem.newBuilder()
                     .setItemLongWand(builder.build())
                     .build();
@@ -216,14 +209,7 @@ public class WandItem extends WeightedSetItem {
             builder.setTargetNumHits(resolvedTargetHits);
             builder.setScoreThreshold(scoreThreshold);
             builder.setThresholdBoostFactor(thresholdBoostFactor);
-            for (var it = getTokens(); it.hasNext();) {
-                var entry = it.next();
-                var weightedString = SearchProtocol.PureWeightedString.newBuilder()
-                        .setWeight(entry.getValue())
-                        .setValue(entry.getKey().toString())
-                        .build();
-                builder.addWeightedStrings(weightedString);
-            }
+            addWeightedStrings(builder::addWeightedStrings);
             return SearchProtocol.QueryTreeItem.newBuilder()
                     .setItemStringWand(builder.build())
                     .build();
@@ -2,13 +2,14 @@
 package com.yahoo.prelude.query;
 
 import ai.vespa.searchlib.searchprotocol.protobuf.SearchProtocol;
-import com.yahoo.collections.CopyOnWriteHashMap;
 import com.yahoo.compress.IntegerCompressor;
 import com.yahoo.prelude.query.textualrepresentation.Discloser;
 
 import java.nio.ByteBuffer;
+import java.util.AbstractMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 import static java.util.Objects.requireNonNullElse;
@@ -25,25 +26,35 @@ import static java.util.Objects.requireNonNullElse;
  * contain the weights of all the matched tokens in descending
  * order. Each matched weight will be represented as a standard
  * occurrence on position 0 in element 0.
+ *
+ * The tokens are kept in primitive arrays in the order they are added, with long tokens before string tokens,
+ * and clones share these until either is modified, as these sets may be very large.
  */
 public class WeightedSetItem extends SimpleTaggableItem {
 
     private String indexName;
-    private CopyOnWriteHashMap<Object, Integer> set;
+    private LongTokenWeights longTokens;
+    private StringTokenWeights stringTokens;
 
     /** Creates an empty weighted set; note you must provide an index name up front */
     public WeightedSetItem(String indexName) {
         this.indexName = requireNonNullElse(indexName, "");
-        set = new CopyOnWriteHashMap<>(1000);
+        longTokens = new LongTokenWeights();
+        stringTokens = new StringTokenWeights();
     }
 
     public WeightedSetItem(String indexName, Map<Object, Integer> map) {
-        this.indexName = requireNonNullElse(indexName, "");
-        set = new CopyOnWriteHashMap<>(map);
+        this(indexName);
+        for (Map.Entry<Object, Integer> entry : map.entrySet()) {
+            if (isInteger(entry.getKey()))
+                longTokens.add(((Number)entry.getKey()).longValue(), entry.getValue());
+            else
+                stringTokens.add(entry.getKey().toString(), entry.getValue());
+        }
     }
 
     public Integer addToken(long value, int weight) {
-        return addInternal(value, weight);
+        return longTokens.add(value, weight);
     }
 
     /**
@@ -55,17 +66,7 @@ public class WeightedSetItem extends SimpleTaggableItem {
      */
     public Integer addToken(String token, int weight) {
         if (token == null) throw new IllegalArgumentException("token must be a string");
-        return addInternal(token, weight);
-    }
-
-    private Integer addInternal(Object token, int weight) {
-        Integer newWeight = weight;
-        Integer oldWeight = set.put(token, newWeight);
-        if (oldWeight != null && oldWeight > newWeight) {
-            set.put(token, oldWeight);
-            return oldWeight;
-        }
-        return newWeight;
+        return stringTokens.add(token, weight);
     }
 
     /** Adds a token with weight 1. */
@@ -74,19 +75,32 @@ public class WeightedSetItem extends SimpleTaggableItem {
     }
 
     public Integer getTokenWeight(Object token) {
-        return set.get(token);
+        int position;
+        if (isInteger(token)) {
+            if ((position = longTokens.positionOf(((Number)token).longValue())) >= 0) return longTokens.weight(position);
+        }
+        else if (token instanceof String value) {
+            if ((position = stringTokens.positionOf(value)) >= 0) return stringTokens.weight(position);
+        }
+        return null;
+    }
+
+    /** Returns whether the given token is kept as a long token */
+    private static boolean isInteger(Object token) {
+        return token instanceof Long || token instanceof Integer;
     }
 
     public Integer removeToken(String token) {
-        return set.remove(token);
+        return stringTokens.remove(token);
     }
 
     public int getNumTokens() {
-        return set.size();
+        return longTokens.size() + stringTokens.size();
     }
 
+    /** Returns the tokens of this, with long tokens as Long and string tokens as String keys, and weights as values */
     public Iterator<Map.Entry<Object,Integer>> getTokens() {
-        return set.entrySet().iterator();
+        return new TokenIterator();
     }
 
     @Override
@@ -113,13 +127,10 @@ public class WeightedSetItem extends SimpleTaggableItem {
     protected void appendBodyString(StringBuilder buffer) {
         buffer.append(indexName);
         buffer.append("{");
-        for (Map.Entry<Object, Integer> entry : set.entrySet()) {
-            buffer.append("[");
-            buffer.append(entry.getValue());
-            buffer.append("]:\"");
-            buffer.append(entry.getKey());
-            buffer.append("\",");
-        }
+        for (int i = 0; i < longTokens.size(); i++)
+            buffer.append("[").append(longTokens.weight(i)).append("]:\"").append(longTokens.token(i)).append("\",");
+        for (int i = 0; i < stringTokens.size(); i++)
+            buffer.append("[").append(stringTokens.weight(i)).append("]:\"").append(stringTokens.token(i)).append("\",");
         buffer.deleteCharAt(buffer.length() - 1); // remove extra ","
         buffer.append("}");
     }
@@ -128,33 +139,26 @@ public class WeightedSetItem extends SimpleTaggableItem {
     public void disclose(Discloser discloser) {
         super.disclose(discloser);
         discloser.addProperty("index", indexName);
-        for (Map.Entry<Object, Integer> entry : set.entrySet())
-            discloser.addChild(asItem(entry));
+        for (int i = 0; i < longTokens.size(); i++)
+            discloser.addChild(new PureWeightedInteger(longTokens.token(i), longTokens.weight(i)));
+        for (int i = 0; i < stringTokens.size(); i++)
+            discloser.addChild(new PureWeightedString(stringTokens.token(i), stringTokens.weight(i)));
     }
 
     @Override
     public int encode(ByteBuffer buffer, SerializationContext context) {
         encodeThis(buffer, context);
-        int itemCount = 1;
-        for (Map.Entry<Object, Integer> entry : set.entrySet()) {
-            asItem(entry).encode(buffer, context);
-            itemCount++;
-        }
-        return itemCount;
-    }
-
-    private PureWeightedItem asItem(Map.Entry<Object, Integer> entry) {
-        Object key = entry.getKey();
-        if (key instanceof Long)
-            return new PureWeightedInteger((Long)key, entry.getValue());
-        else
-            return new PureWeightedString(key.toString(), entry.getValue());
+        for (int i = 0; i < longTokens.size(); i++)
+            PureWeightedInteger.encode(longTokens.token(i), longTokens.weight(i), buffer);
+        for (int i = 0; i < stringTokens.size(); i++)
+            PureWeightedString.encode(stringTokens.token(i), stringTokens.weight(i), buffer);
+        return 1 + getNumTokens();
     }
 
     @Override
     protected void encodeThis(ByteBuffer buffer, SerializationContext context) {
         super.encodeThis(buffer, context);
-        IntegerCompressor.putCompressedPositiveNumber(set.size(), buffer);
+        IntegerCompressor.putCompressedPositiveNumber(getNumTokens(), buffer);
         putString(indexName, buffer);
     }
 
@@ -166,7 +170,8 @@ public class WeightedSetItem extends SimpleTaggableItem {
     @Override
     public WeightedSetItem clone() {
         WeightedSetItem clone = (WeightedSetItem)super.clone();
-        clone.set = this.set.clone();
+        clone.longTokens = this.longTokens.clone();
+        clone.stringTokens = this.stringTokens.clone();
         return clone;
     }
 
@@ -176,13 +181,14 @@ public class WeightedSetItem extends SimpleTaggableItem {
         if ( ! super.equals(o)) return false;
         var other = (WeightedSetItem)o;
         if ( ! Objects.equals(this.indexName, other.indexName)) return false;
-        if ( ! Objects.equals(this.set, other.set)) return false;
+        if ( ! Objects.equals(this.longTokens, other.longTokens)) return false;
+        if ( ! Objects.equals(this.stringTokens, other.stringTokens)) return false;
         return true;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), indexName, set);
+        return Objects.hash(super.hashCode(), indexName, longTokens.hashCode() + stringTokens.hashCode());
     }
 
     /**
@@ -192,16 +198,30 @@ public class WeightedSetItem extends SimpleTaggableItem {
      * @return true if all tokens are Long values, false if any token is a String
      */
     protected boolean hasOnlyLongs() {
-        boolean hasLongs = false;
-        boolean hasStrings = false;
-        for (Object key : set.keySet()) {
-            if (key instanceof Long) {
-                hasLongs = true;
-            } else {
-                hasStrings = true;
-            }
-        }
-        return hasLongs && !hasStrings;
+        return longTokens.size() > 0 && stringTokens.size() == 0;
+    }
+
+    /** Adds the tokens of this to the given protobuf builder of weighted longs, which requires {@link #hasOnlyLongs} */
+    void addWeightedLongs(WeightedLongConsumer builder) {
+        for (int i = 0; i < longTokens.size(); i++)
+            builder.add(SearchProtocol.PureWeightedLong.newBuilder()
+                                                       .setWeight(longTokens.weight(i))
+                                                       .setValue(longTokens.token(i))
+                                                       .build());
+    }
+
+    /** Adds the tokens of this to the given protobuf builder of weighted strings, with long tokens as strings */
+    void addWeightedStrings(WeightedStringConsumer builder) {
+        for (int i = 0; i < longTokens.size(); i++)
+            builder.add(SearchProtocol.PureWeightedString.newBuilder()
+                                                         .setWeight(longTokens.weight(i))
+                                                         .setValue(Long.toString(longTokens.token(i)))
+                                                         .build());
+        for (int i = 0; i < stringTokens.size(); i++)
+            builder.add(SearchProtocol.PureWeightedString.newBuilder()
+                                                         .setWeight(stringTokens.weight(i))
+                                                         .setValue(stringTokens.token(i))
+                                                         .build());
     }
 
     @Override
@@ -209,30 +229,46 @@ public class WeightedSetItem extends SimpleTaggableItem {
         if (hasOnlyLongs()) {
             var builder = SearchProtocol.ItemWeightedSetOfLong.newBuilder();
             builder.setProperties(ToProtobuf.buildTermProperties(this, getIndexName()));
-            for (Map.Entry<Object, Integer> entry : set.entrySet()) {
-                var weightedLong = SearchProtocol.PureWeightedLong.newBuilder()
-                        .setWeight(entry.getValue())
-                        .setValue((Long) entry.getKey())
-                        .build();
-                builder.addWeightedLongs(weightedLong);
-            }
+            addWeightedLongs(builder::addWeightedLongs);
             return SearchProtocol.QueryTreeItem.newBuilder()
                     .setItemWeightedSetOfLong(builder.build())
                     .build();
         } else {
             var builder = SearchProtocol.ItemWeightedSetOfString.newBuilder();
             builder.setProperties(ToProtobuf.buildTermProperties(this, getIndexName()));
-            for (Map.Entry<Object, Integer> entry : set.entrySet()) {
-                var weightedString = SearchProtocol.PureWeightedString.newBuilder()
-                        .setWeight(entry.getValue())
-                        .setValue(entry.getKey().toString())
-                        .build();
-                builder.addWeightedStrings(weightedString);
-            }
+            addWeightedStrings(builder::addWeightedStrings);
             return SearchProtocol.QueryTreeItem.newBuilder()
                     .setItemWeightedSetOfString(builder.build())
                     .build();
         }
     }
 
+    interface WeightedLongConsumer {
+        void add(SearchProtocol.PureWeightedLong weightedLong);
+    }
+
+    interface WeightedStringConsumer {
+        void add(SearchProtocol.PureWeightedString weightedString);
+    }
+
+    /** Iterates over the tokens of this, creating an entry for each */
+    private class TokenIterator implements Iterator<Map.Entry<Object, Integer>> {
+
+        private int next = 0;
+
+        @Override
+        public boolean hasNext() { return next < getNumTokens(); }
+
+        @Override
+        public Map.Entry<Object, Integer> next() {
+            if ( ! hasNext()) throw new NoSuchElementException();
+            int position = next++;
+            if (position < longTokens.size())
+                return new AbstractMap.SimpleImmutableEntry<>(longTokens.token(position), longTokens.weight(position));
+            position -= longTokens.size();
+            return new AbstractMap.SimpleImmutableEntry<>(stringTokens.token(position), stringTokens.weight(position));
+        }
+
+    }
+
 }
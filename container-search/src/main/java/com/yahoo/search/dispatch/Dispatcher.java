@@ -55,12 +55,15 @@ public class Dispatcher extends AbstractComponent {
     private static final String TOP_K_PROBABILITY = "topKProbability";
     private static final String DOCSUM_RETRY_LIMIT = "docsumRetryLimit";
     private static final String DOCSUM_RETRY_FACTOR  = "docsumRetryFactor";
+    private static final String HEDGE_LATENCY_QUANTILE = "hedgeLatencyQuantile";
     private static final int MAX_GROUP_SELECTION_ATTEMPTS = 3;
 
     /** If set will control computation of how many hits will be fetched from each partition.*/
     public static final CompoundName topKProbability = CompoundName.from(DISPATCH + "." + TOP_K_PROBABILITY);
     public static final CompoundName docsumRetryLimit = CompoundName.from(DISPATCH + "." + DOCSUM_RETRY_LIMIT);
     public static final CompoundName docsumRetryFactor  = CompoundName.from(DISPATCH + "." + DOCSUM_RETRY_FACTOR);
+    /** If set will override the latency quantile of a node after which its query is hedged to another group, 0 to disable. */
+    public static final CompoundName hedgeLatencyQuantile = CompoundName.from(DISPATCH + "." + HEDGE_LATENCY_QUANTILE);
 
     private final InvokerFactoryFactory invokerFactories;
     private final DispatchConfig dispatchConfig;
@@ -110,6 +113,7 @@ public class Dispatcher extends AbstractComponent {
         argumentType.addField(new FieldDescription(TOP_K_PROBABILITY, FieldType.doubleType));
         argumentType.addField(new FieldDescription(DOCSUM_RETRY_LIMIT, FieldType.integerType));
         argumentType.addField(new FieldDescription(DOCSUM_RETRY_FACTOR, FieldType.doubleType));
+        argumentType.addField(new FieldDescription(HEDGE_LATENCY_QUANTILE, FieldType.doubleType));
         argumentType.freeze();
     }
 
@@ -242,6 +246,7 @@ public class Dispatcher extends AbstractComponent {
             case BEST_OF_RANDOM_2 -> LoadBalancer.Policy.BEST_OF_RANDOM_2;
             case ADAPTIVE,LATENCY_AMORTIZED_OVER_REQUESTS -> LoadBalancer.Policy.LATENCY_AMORTIZED_OVER_REQUESTS;
             case LATENCY_AMORTIZED_OVER_TIME -> LoadBalancer.Policy.LATENCY_AMORTIZED_OVER_TIME;
+            case LOAD_AWARE -> LoadBalancer.Policy.LOAD_AWARE;
         };
     }
     private static List<Node> toNodes(String clusterName, DispatchNodesConfig nodesConfig) {
@@ -349,8 +354,9 @@ public class Dispatcher extends AbstractComponent {
             if (invoker.isPresent()) {
                 query.trace(false, 2, "Dispatching to group ", group.id(), " after retries = ", i);
                 query.getModel().setSearchPath("/" + group.id());
-                invoker.get().teardown((success, time) -> loadBalancer.releaseGroup(group, success, time));
-                return invoker.get();
+                SearchInvoker hedged = invokerFactory.hedged(invoker.get(), searcher, query, group, maxHitsPerNode);
+                hedged.teardown((success, time) -> loadBalancer.releaseGroup(group, success, time));
+                return hedged;
             } else {
                 loadBalancer.releaseGroup(group, false, RequestDuration.of(Duration.ZERO));
                 rejected.add(group.id());
@@ -0,0 +1,135 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch;
+
+import com.yahoo.concurrent.Timer;
+import com.yahoo.search.Query;
+import com.yahoo.search.result.ErrorMessage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends a query to a single node, and if that has not answered successfully within a given delay, typically
+ * a high quantile of its recent latencies, sends the query also to a node holding the same content, and
+ * returns the result of whichever of the two answers successfully first.
+ * This cuts the tail latency caused by single slow nodes, e.g., during GC pauses or disk hiccups.
+ *
+ * @author agent
+ */
+class HedgedSearchInvoker extends SearchInvoker implements ResponseMonitor<SearchInvoker> {
+
+    private final Timer timer;
+    private final SearchInvoker primary;
+    private final Duration hedgeDelay;
+    private final Supplier<Optional<SearchInvoker>> hedges;
+    private final LinkedBlockingQueue<SearchInvoker> availableForProcessing;
+    private final List<SearchInvoker> invokers = new ArrayList<>(2);
+    private Query query;
+    private double contentShare;
+    private long hedgeAt;
+    private boolean hedged = false;
+
+    /**
+     * @param timer the timer to use to decide when to hedge
+     * @param primary the invoker of the node to query first
+     * @param hedgeDelay the time to wait for the primary before hedging
+     * @param hedges supplies an invoker of a node with the same content as that of the primary, if one is available
+     */
+    HedgedSearchInvoker(Timer timer, SearchInvoker primary, Duration hedgeDelay, Supplier<Optional<SearchInvoker>> hedges) {
+        super(primary.node());
+        this.timer = timer;
+        this.primary = primary;
+        this.hedgeDelay = hedgeDelay;
+        this.hedges = hedges;
+        this.availableForProcessing = newQueue();
+    }
+
+    @Override
+    protected Object sendSearchRequest(Query query, double contentShare, Object context) throws IOException {
+        this.query = query;
+        this.contentShare = contentShare;
+        this.hedgeAt = timer.milliTime() + hedgeDelay.toMillis();
+        send(primary, context);
+        return null;
+    }
+
+    private Object send(SearchInvoker invoker, Object context) throws IOException {
+        invokers.add(invoker);
+        invoker.setMonitor(this);
+        return invoker.sendSearchRequest(query, contentShare, context);
+    }
+
+    /** Sends the query also to another node, if one is available, and returns whether this was done */
+    private boolean hedge() throws IOException {
+        hedged = true;
+        Optional<SearchInvoker> hedge = hedges.get();
+        if (hedge.isEmpty()) return false;
+
+        query.trace(false, 2, "Hedging search to ", name(hedge.get()), " after waiting ",
+                    timer.milliTime() - hedgeAt + hedgeDelay.toMillis(), " ms for ", name(primary));
+        // The query is serialized again, as the remaining time is part of the request
+        send(hedge.get(), null);
+        return true;
+    }
+
+    @Override
+    protected InvokerResult getSearchResult() throws IOException {
+        InvokerResult firstError = null;
+        int outstanding = invokers.size();
+        try {
+            long timeLeft;
+            while (outstanding > 0 && (timeLeft = query.getTimeLeft()) > 0) {
+                long wait = hedged ? timeLeft : Math.min(timeLeft, Math.max(0, hedgeAt - timer.milliTime()));
+                SearchInvoker invoker = availableForProcessing.poll(wait, TimeUnit.MILLISECONDS);
+                if (invoker == null) {
+                    if ( ! hedged && hedge()) outstanding++;
+                    continue;
+                }
+                outstanding--;
+                InvokerResult result = invoker.getSearchResult();
+                if (result.getResult().hits().getError() == null)
+                    return result;
+
+                // Fall back to the error when no other node can answer successfully
+                if (firstError == null) firstError = result;
+                if ( ! hedged && hedge()) outstanding++;
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException("Interrupted while waiting for search results", e);
+        }
+        return firstError != null ? firstError
+                                  : errorResult(query, ErrorMessage.createTimeout("Timeout while waiting for " + name(primary)));
+    }
+
+    private static String name(SearchInvoker invoker) {
+        return invoker.distributionKey().map(key -> "node with distribution key " + key).orElse("unknown node");
+    }
+
+    @Override
+    protected void release() {
+        invokers.forEach(SearchInvoker::close);
+        invokers.clear();
+    }
+
+    @Override
+    public void responseAvailable(SearchInvoker from) {
+        availableForProcessing.add(from);
+    }
+
+    @Override
+    protected void setMonitor(ResponseMonitor<SearchInvoker> monitor) {
+        // never to be called
+    }
+
+    // For overriding in tests
+    protected LinkedBlockingQueue<SearchInvoker> newQueue() {
+        return new LinkedBlockingQueue<>();
+    }
+
+}
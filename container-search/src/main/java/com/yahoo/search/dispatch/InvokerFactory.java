@@ -12,7 +12,9 @@ import com.yahoo.search.result.Coverage;
 import com.yahoo.search.result.ErrorMessage;
 import com.yahoo.vespa.config.search.DispatchConfig;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -94,6 +96,33 @@ public abstract class InvokerFactory {
         }
     }
 
+    /**
+     * Returns the given invoker of a group, wrapped to also send the query to a node in another group if the node
+     * in this group is slow to answer, or the given invoker as-is if hedging is disabled, or not possible for this group.
+     * Hedging is only done for groups with a single node, as a single node of a larger group holds no content which is
+     * guaranteed to be held by a single node in another group.
+     */
+    SearchInvoker hedged(SearchInvoker invoker, VespaBackend searcher, Query query, Group group, int maxHits) {
+        double quantile = query.properties().getDouble(Dispatcher.hedgeLatencyQuantile, dispatchConfig.hedgeLatencyQuantile());
+        if (quantile <= 0 || quantile >= 1 || group.size() != 1 || cluster.size() < 2 || invoker.node().isEmpty()) return invoker;
+
+        Optional<Duration> delay = invoker.node().get().latencyQuantile(quantile);
+        if (delay.isEmpty()) return invoker;
+
+        return new HedgedSearchInvoker(Timer.monotonic, invoker, delay.get(),
+                                       () -> hedgeTarget(group, quantile).flatMap(node -> createNodeSearchInvoker(searcher, query, maxHits, node)));
+    }
+
+    /** Returns the working node in another single-node group with sufficient coverage which is expected to answer the fastest */
+    private Optional<Node> hedgeTarget(Group group, double quantile) {
+        Duration unknown = Duration.ofNanos(Long.MAX_VALUE);
+        return cluster.groups().stream()
+                      .filter(other -> other.id() != group.id() && other.size() == 1 && other.hasSufficientCoverage())
+                      .map(other -> other.nodes().get(0))
+                      .filter(node -> node.isWorking() == Boolean.TRUE)
+                      .min(Comparator.comparing(node -> node.latencyQuantile(quantile).orElse(unknown)));
+    }
+
     protected static SearchInvoker createCoverageErrorInvoker(List<Node> nodes, Set<Integer> failed) {
         StringBuilder down = new StringBuilder("Connection failure on nodes with distribution-keys: ");
         int count = 0;
@@ -34,7 +34,7 @@ public class LoadBalancer {
     private final Map<Integer, GroupStatus> scoreboard;
     private final GroupScheduler scheduler;
 
-    public enum Policy { ROUNDROBIN, LATENCY_AMORTIZED_OVER_REQUESTS, LATENCY_AMORTIZED_OVER_TIME, BEST_OF_RANDOM_2}
+    public enum Policy { ROUNDROBIN, LATENCY_AMORTIZED_OVER_REQUESTS, LATENCY_AMORTIZED_OVER_TIME, BEST_OF_RANDOM_2, LOAD_AWARE}
 
     public LoadBalancer(Collection<Group> groups, Policy policy) {
         this.scoreboard = new HashMap<>();
@@ -49,6 +49,7 @@ public class LoadBalancer {
             case BEST_OF_RANDOM_2: yield new BestOfRandom2(new Random(), scoreboard);
             case LATENCY_AMORTIZED_OVER_REQUESTS: yield new AdaptiveScheduler(AdaptiveScheduler.Type.REQUESTS, new Random(), scoreboard);
             case LATENCY_AMORTIZED_OVER_TIME: yield new AdaptiveScheduler(AdaptiveScheduler.Type.TIME, new Random(), scoreboard);
+            case LOAD_AWARE: yield new LoadAwareScheduler(new Random(), scoreboard);
         };
     }
 
@@ -343,4 +344,57 @@ public class LoadBalancer {
 
     }
 
+    /**
+     * Selects groups randomly, weighted inversely by both the queries this has in flight to each group, and the load
+     * most recently reported by the most loaded node in the group. The latter lets this react to a saturated node
+     * within a ping interval, also when the saturation is caused by other containers; the former compensates for the
+     * staleness of the reported load until the next ping.
+     */
+    static class LoadAwareScheduler implements GroupScheduler {
+
+        private final Random random;
+        private final Map<Integer, GroupStatus> scoreboard;
+
+        LoadAwareScheduler(Random random, Map<Integer, GroupStatus> scoreboard) {
+            this.random = random;
+            this.scoreboard = scoreboard;
+        }
+
+        static double weight(GroupStatus gs) {
+            return 1.0 / ((1 + gs.allocations) * (1 + gs.group.load()));
+        }
+
+        private Optional<GroupStatus> selectGroup(double needle, boolean requireCoverage, Set<Integer> rejected) {
+            List<GroupStatus> candidates = new ArrayList<>(scoreboard.size());
+            double[] weights = new double[scoreboard.size()];
+            double sum = 0;
+            for (GroupStatus gs : scoreboard.values()) {
+                if (rejected == null || !rejected.contains(gs.group.id())) {
+                    if (!requireCoverage || gs.group.hasSufficientCoverage()) {
+                        weights[candidates.size()] = weight(gs);
+                        sum += weights[candidates.size()];
+                        candidates.add(gs);
+                    }
+                }
+            }
+            double accum = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                accum += weights[i];
+                if (needle < accum / sum) {
+                    return Optional.of(candidates.get(i));
+                }
+            }
+            return candidates.isEmpty() ? Optional.empty() : Optional.of(candidates.get(candidates.size() - 1));
+        }
+
+        @Override
+        public Optional<GroupStatus> takeNextGroup(Set<Integer> rejectedGroups) {
+            double needle = random.nextDouble();
+            Optional<GroupStatus> gs = selectGroup(needle, true, rejectedGroups);
+            if (gs.isPresent()) return gs;
+            return selectGroup(needle, false, rejectedGroups); // any coverage better than none
+        }
+
+    }
+
 }
@@ -11,7 +11,15 @@ import com.yahoo.search.Query;
  */
 public interface CompressPayload {
 
-    Compressor.Compression compress(Query query, byte[] payload);
+    default Compressor.Compression compress(Query query, byte[] payload) {
+        return compress(query, payload, 0, payload.length);
+    }
+
+    /**
+     * Compresses the given range of the payload. The returned compression refers to the payload array itself
+     * if the data is not compressed and the range is the whole array.
+     */
+    Compressor.Compression compress(Query query, byte[] payload, int offset, int length);
 
     byte[] decompress(Client.ProtobufResponse response);
 
@@ -19,9 +19,9 @@ public class CompressService implements CompressPayload {
     private final Compressor compressor = new Compressor(CompressionType.LZ4, 5, 0.95, 256);
 
     @Override
-    public Compressor.Compression compress(Query query, byte[] payload) {
+    public Compressor.Compression compress(Query query, byte[] payload, int offset, int length) {
         CompressionType compression = CompressionType.valueOf(query.properties().getString(dispatchCompression, "LZ4").toUpperCase(Locale.ROOT));
-        return compressor.compress(compression, payload);
+        return compressor.compress(compression, payload, offset, length);
     }
 
     @Override
@@ -5,7 +5,9 @@ import ai.vespa.searchlib.searchprotocol.protobuf.SearchProtocol;
 import ai.vespa.searchlib.searchprotocol.protobuf.SearchProtocol.StringProperty;
 import ai.vespa.searchlib.searchprotocol.protobuf.SearchProtocol.TensorProperty;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.yahoo.compress.Compressor;
 import com.yahoo.data.access.helpers.MatchFeatureData;
 import com.yahoo.data.access.simple.Value;
 import com.yahoo.data.access.slime.SlimeAdapter;
@@ -36,8 +38,11 @@ import com.yahoo.searchlib.aggregation.Grouping;
 import com.yahoo.slime.BinaryFormat;
 import com.yahoo.vespa.objects.BufferSerializer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -80,8 +85,33 @@ public class ProtobufSerialization {
      */
     private static final ThreadLocal<Boolean> isProtobufAlsoSerialized = ThreadLocal.withInitial(() -> false);
 
-    static byte[] serializeSearchRequest(Query query, int hits, String nodeId, double contentShare, double requestTimeout, QrSearchersConfig qrSearchersConfig) {
-        return convertFromQuery(query, hits, nodeId, contentShare, requestTimeout, qrSearchersConfig).toByteArray();
+    /**
+     * Serializes the search request into the thread local buffer, and compresses it from there,
+     * such that the only array allocated for the request is the one holding the compressed payload,
+     * or the copy of the serialized request if it is not compressed.
+     */
+    static Compressor.Compression serializeAndCompressSearchRequest(Query query, int hits, String nodeId, double contentShare,
+                                                                   double requestTimeout, QrSearchersConfig qrSearchersConfig,
+                                                                   CompressPayload compressor) {
+        var request = convertFromQuery(query, hits, nodeId, contentShare, requestTimeout, qrSearchersConfig);
+        int size = request.getSerializedSize();
+        GrowableByteBuffer scratchPad = threadLocalBuffer.get();
+        scratchPad.clear();
+        if (scratchPad.capacity() < size)
+            scratchPad.grow(Math.max(size, scratchPad.capacity() * 2));
+        byte[] buffer = scratchPad.array();
+        int offset = scratchPad.arrayOffset();
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(buffer, offset, size);
+            request.writeTo(output);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed serializing search request", e);
+        }
+        Compressor.Compression compression = compressor.compress(query, buffer, offset, size);
+        if (compression.data() == buffer) // Not compressed, and filling the buffer, which is reused by the next request
+            return new Compressor.Compression(compression.type(), size, Arrays.copyOfRange(buffer, offset, offset + size));
+        return compression;
     }
 
     private static void convertSearchReplyErrors(Result target, List<SearchProtocol.Error> errors, boolean softTimeout, boolean annTimeout) {
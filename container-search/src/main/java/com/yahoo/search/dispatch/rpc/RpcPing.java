@@ -82,7 +82,10 @@ public class RpcPing implements Pinger, Client.ResponseReceiver {
                                                                          ", response is from id " + reply.getDistributionKey()));
         } else if (!reply.getOnline()) {
             return new Pong(ErrorMessage.createBackendCommunicationError("Node id " + node.key() + " reports being offline"));
-        } else {
+        } else if (reply.getQueryThreads() > 0) {
+            return new Pong(reply.getActiveDocs(), reply.getTargetActiveDocs(), reply.getIsBlockingWrites(),
+                            (double) reply.getPendingQueries() / reply.getQueryThreads());
+        } else { // Load is not reported
             return new Pong(reply.getActiveDocs(), reply.getTargetActiveDocs(), reply.getIsBlockingWrites());
         }
     }
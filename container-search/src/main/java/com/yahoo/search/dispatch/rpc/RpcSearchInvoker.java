@@ -12,6 +12,7 @@ import com.yahoo.search.dispatch.searchcluster.Node;
 import com.yahoo.search.result.ErrorMessage;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -35,6 +36,7 @@ public class RpcSearchInvoker extends SearchInvoker implements Client.ResponseRe
     private final QrSearchersConfig qrSearchersConfig;
 
     private Query query;
+    private long sentNanos;
 
     RpcSearchInvoker(VespaBackend searcher, CompressPayload compressor, Node node, RpcConnectionPool resourcePool, int maxHits, QrSearchersConfig qrSearchersConfig) {
         super(Optional.of(node));
@@ -68,6 +70,7 @@ public class RpcSearchInvoker extends SearchInvoker implements Client.ResponseRe
             return incomingContext;
         }
         SerializedQuery serializedQuery = getSerializedQuery(incomingContext, contentShare, timeout.request());
+        sentNanos = System.nanoTime();
         nodeConnection.request(RPC_METHOD,
                                serializedQuery.compressedPayload.type(),
                                serializedQuery.compressedPayload.uncompressedSize(),
@@ -113,6 +116,8 @@ public class RpcSearchInvoker extends SearchInvoker implements Client.ResponseRe
     }
 
     public void receive(Client.ResponseOrError<ProtobufResponse> response) {
+        if (response.error().isEmpty() || response.timeout()) // Other errors say nothing about the speed of the node
+            node.recordLatency(Duration.ofNanos(System.nanoTime() - sentNanos));
         responses.add(response);
         responseAvailable();
     }
@@ -125,11 +130,12 @@ public class RpcSearchInvoker extends SearchInvoker implements Client.ResponseRe
         if (incomingContext instanceof SerializedQuery serializedQuery
             && newSerializationWillBeSimilar(contentShare, serializedQuery))
             return serializedQuery;
-        return new SerializedQuery(compressor, query, contentShare,
-                                   ProtobufSerialization.serializeSearchRequest(query,
-                                                                                Math.min(query.getHits(), maxHits),
-                                                                                searcher.getServerId(), contentShare,
-                                                                                requestTimeout, qrSearchersConfig));
+        return new SerializedQuery(contentShare,
+                                   ProtobufSerialization.serializeAndCompressSearchRequest(query,
+                                                                                           Math.min(query.getHits(), maxHits),
+                                                                                           searcher.getServerId(), contentShare,
+                                                                                           requestTimeout, qrSearchersConfig,
+                                                                                           compressor));
     }
 
     private boolean newSerializationWillBeSimilar(double newContentShare, SerializedQuery serializedQuery) {
@@ -143,9 +149,9 @@ public class RpcSearchInvoker extends SearchInvoker implements Client.ResponseRe
         final double contentShare;
         final Compressor.Compression compressedPayload;
 
-        SerializedQuery(CompressPayload compressor, Query query, double contentShare, byte[] payload) {
+        SerializedQuery(double contentShare, Compressor.Compression compressedPayload) {
             this.contentShare = contentShare;
-            compressedPayload = compressor.compress(query, payload);
+            this.compressedPayload = compressedPayload;
         }
 
     }
@@ -113,6 +113,18 @@ public class Group {
      */
     long targetActiveDocuments() { return targetActiveDocuments; }
 
+    /**
+     * Returns the highest load reported by any working node in this group, as the most loaded node
+     * determines how fast the group can answer a query. This is updated for each ping response.
+     */
+    public double load() {
+        double load = 0;
+        for (Node node : nodes)
+            if (node.isWorking() != Boolean.FALSE)
+                load = Math.max(load, node.getLoad());
+        return load;
+    }
+
     /** Returns whether the nodes in the group have about the same number of documents */
     public boolean isBalanced() { return isBalanced; }
 
@@ -0,0 +1,43 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch.searchcluster;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The latencies of the most recent requests to a node, from which quantiles of its latency are estimated.
+ * Estimates are recomputed only after a number of new samples, as they are read for every query.
+ * This class is multithread safe.
+ *
+ * @author agent
+ */
+class LatencyHistory {
+
+    static final int windowSize = 256;
+    static final int minSamples = 64;
+    private static final int samplesPerEstimate = 16;
+
+    private final long[] samples = new long[windowSize];
+    private long count = 0;
+
+    private long[] sorted = new long[0];
+    private long sortedAtCount = 0;
+
+    synchronized void add(Duration latency) {
+        samples[(int) (count++ % windowSize)] = latency.toNanos();
+    }
+
+    /** Returns the estimated given quantile of recent latencies, or empty if there are too few samples */
+    synchronized Optional<Duration> quantile(double quantile) {
+        if (count < minSamples) return Optional.empty();
+        if (sorted.length == 0 || count - sortedAtCount >= samplesPerEstimate) {
+            sorted = Arrays.copyOf(samples, (int) Math.min(count, windowSize));
+            Arrays.sort(sorted);
+            sortedAtCount = count;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(quantile * sorted.length) - 1));
+        return Optional.of(Duration.ofNanos(sorted[index]));
+    }
+
+}
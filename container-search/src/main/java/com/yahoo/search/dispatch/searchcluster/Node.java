@@ -1,7 +1,9 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.search.dispatch.searchcluster;
 
+import java.time.Duration;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -24,8 +26,10 @@ public class Node {
     private final AtomicLong lastPong = new AtomicLong(0);
     private volatile long activeDocuments = 0;
     private volatile long targetActiveDocuments = 0;
+    private volatile double load = 0;
     private volatile boolean statusIsKnown = false;
     private volatile boolean working = true;
+    private final LatencyHistory latencies = new LatencyHistory();
 
     public Node(String clusterName, int key, String hostname, int group, boolean multipleGroups) {
         this.clusterName = clusterName;
@@ -94,6 +98,24 @@ public class Node {
     /** Returns the active documents on this node. If unknown, 0 is returned. */
     public long getActiveDocuments() { return activeDocuments; }
 
+    /** Updates the load reported by this node */
+    public void setLoad(double load) { this.load = load; }
+
+    /**
+     * Returns the number of queries being matched or waiting to be, per query thread, on this node,
+     * as reported in its last ping response. If unknown, 0 is returned.
+     */
+    public double getLoad() { return load; }
+
+    /** Records the latency of a search request to this node */
+    public void recordLatency(Duration latency) { latencies.add(latency); }
+
+    /**
+     * Returns the given quantile of the latency of recent search requests to this node,
+     * or empty if too few requests have been made to estimate it.
+     */
+    public Optional<Duration> latencyQuantile(double quantile) { return latencies.quantile(quantile); }
+
     /** Returns the target active documents on this node. If unknown, 0 is returned. */
     long getTargetActiveDocuments() { return targetActiveDocuments; }
 
@@ -115,7 +137,8 @@ public class Node {
     public String toString() {
         return "search node in cluster = " + clusterName + " key = " + key + " hostname = "+ hostname +
                " path = " + pathIndex + " in group " + group + " statusIsKnown = " + statusIsKnown + " working = " + working +
-               " activeDocs = " + getActiveDocuments() + " targetActiveDocs = " + getTargetActiveDocuments();
+               " activeDocs = " + getActiveDocuments() + " targetActiveDocs = " + getTargetActiveDocuments() +
+               " load = " + load;
     }
 
 }
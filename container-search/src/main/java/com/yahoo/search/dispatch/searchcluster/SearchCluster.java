@@ -312,6 +312,7 @@ public class SearchCluster implements NodeManager<Node> {
                     node.setActiveDocuments(pong.activeDocuments().get());
                     node.setTargetActiveDocuments(pong.targetActiveDocuments().get());
                 }
+                node.setLoad(pong.load().orElse(0.0)); // Forget the load if it is no longer reported
                 clusterMonitor.responded(node);
             }
         }
@@ -134,6 +134,8 @@ public class QueryProperties extends Properties {
         map.put(CompoundName.fromComponents(Ranking.RANKING, SecondPhase.SECOND_PHASE, SecondPhase.RANK_SCORE_DROP_LIMIT), GetterSetter.of(query -> query.getRanking().getSecondPhase().getRankScoreDropLimit(), (query, value) -> query.getRanking().getSecondPhase().setRankScoreDropLimit(asDouble(value, null))));
         map.put(CompoundName.fromComponents(Ranking.RANKING, GlobalPhase.GLOBAL_PHASE, GlobalPhase.RERANK_COUNT), GetterSetter.of(query -> query.getRanking().getGlobalPhase().getRerankCount(), (query, value) -> query.getRanking().getGlobalPhase().setRerankCount(asInteger(value, null))));
         map.put(CompoundName.fromComponents(Ranking.RANKING, GlobalPhase.GLOBAL_PHASE, GlobalPhase.RANK_SCORE_DROP_LIMIT), GetterSetter.of(query -> query.getRanking().getGlobalPhase().getRankScoreDropLimit(), (query, value) -> query.getRanking().getGlobalPhase().setRankScoreDropLimit(asDouble(value, null))));
+        map.put(CompoundName.fromComponents(Ranking.RANKING, GlobalPhase.GLOBAL_PHASE, GlobalPhase.UPPER_BOUND_SCALE), GetterSetter.of(query -> query.getRanking().getGlobalPhase().getUpperBoundScale(), (query, value) -> query.getRanking().getGlobalPhase().setUpperBoundScale(asDouble(value, null))));
+        map.put(CompoundName.fromComponents(Ranking.RANKING, GlobalPhase.GLOBAL_PHASE, GlobalPhase.UPPER_BOUND_BIAS), GetterSetter.of(query -> query.getRanking().getGlobalPhase().getUpperBoundBias(), (query, value) -> query.getRanking().getGlobalPhase().setUpperBoundBias(asDouble(value, null))));
         map.put(CompoundName.fromComponents(Ranking.RANKING, SoftTimeout.SOFTTIMEOUT, SoftTimeout.ENABLE), GetterSetter.of(query -> query.getRanking().getSoftTimeout().getEnable(), (query, value) -> query.getRanking().getSoftTimeout().setEnable(asBoolean(value, true))));
         map.put(CompoundName.fromComponents(Ranking.RANKING, SoftTimeout.SOFTTIMEOUT, SoftTimeout.FACTOR), GetterSetter.of(query -> query.getRanking().getSoftTimeout().getFactor(), (query, value) -> query.getRanking().getSoftTimeout().setFactor(asDouble(value, null))));
         map.put(CompoundName.fromComponents(Ranking.RANKING, SoftTimeout.SOFTTIMEOUT, SoftTimeout.TAILCOST), GetterSetter.of(query -> query.getRanking().getSoftTimeout().getTailcost(), (query, value) -> query.getRanking().getSoftTimeout().setTailcost(asDouble(value, null))));
@@ -21,6 +21,8 @@ public class GlobalPhase implements Cloneable {
     public static final String GLOBAL_PHASE = "globalPhase";
     public static final String RERANK_COUNT = "rerankCount";
     public static final String RANK_SCORE_DROP_LIMIT = "rankScoreDropLimit";
+    public static final String UPPER_BOUND_SCALE = "upperBoundScale";
+    public static final String UPPER_BOUND_BIAS = "upperBoundBias";
 
     static {
         argumentType = new QueryProfileType(GLOBAL_PHASE);
@@ -28,12 +30,16 @@ public class GlobalPhase implements Cloneable {
         argumentType.setBuiltin(true);
         argumentType.addField(new FieldDescription(RERANK_COUNT, FieldType.integerType));
         argumentType.addField(new FieldDescription(RANK_SCORE_DROP_LIMIT, FieldType.doubleType));
+        argumentType.addField(new FieldDescription(UPPER_BOUND_SCALE, FieldType.doubleType));
+        argumentType.addField(new FieldDescription(UPPER_BOUND_BIAS, FieldType.doubleType));
         argumentType.freeze();
     }
     public static QueryProfileType getArgumentType() { return argumentType; }
 
     private Integer rerankCount = null;
     private Double rankScoreDropLimit = null;
+    private Double upperBoundScale = null;
+    private Double upperBoundBias = null;
 
     /**
      * Sets the number of hits for which the global-phase function will be evaluated.
@@ -57,9 +63,31 @@ public class GlobalPhase implements Cloneable {
         return rankScoreDropLimit;
     }
 
+    /**
+     * Sets the scale of an upper bound on the global-phase score of each hit, given its score before global-phase:
+     * The global-phase score must be at most upperBoundScale * score + upperBoundBias.
+     * When set, global-phase evaluation stops as soon as none of the remaining hits can be among the hits returned.
+     *
+     * @throws IllegalArgumentException if the scale is negative, as the bound must not decrease with the score
+     */
+    public void setUpperBoundScale(double upperBoundScale) {
+        if (upperBoundScale < 0)
+            throw new IllegalArgumentException("upperBoundScale must be non-negative, but was " + upperBoundScale);
+        this.upperBoundScale = upperBoundScale;
+    }
+
+    /** Returns the upperBoundScale that will be used, or null if not set, meaning all hits will be reranked */
+    public Double getUpperBoundScale() { return upperBoundScale; }
+
+    /** Sets the bias of the upper bound on the global-phase score of each hit, see {@link #setUpperBoundScale} */
+    public void setUpperBoundBias(double upperBoundBias) { this.upperBoundBias = upperBoundBias; }
+
+    /** Returns the upperBoundBias that will be used, or null if not set, meaning 0 */
+    public Double getUpperBoundBias() { return upperBoundBias; }
+
     @Override
     public int hashCode() {
-        return Objects.hash(this.rerankCount, this.rankScoreDropLimit);
+        return Objects.hash(this.rerankCount, this.rankScoreDropLimit, this.upperBoundScale, this.upperBoundBias);
     }
 
     @Override
@@ -68,6 +96,8 @@ public class GlobalPhase implements Cloneable {
         if ( ! (o instanceof GlobalPhase other)) return false;
         if ( ! Objects.equals(this.rerankCount, other.rerankCount)) return false;
         if ( ! Objects.equals(this.rankScoreDropLimit, other.rankScoreDropLimit)) return false;
+        if ( ! Objects.equals(this.upperBoundScale, other.upperBoundScale)) return false;
+        if ( ! Objects.equals(this.upperBoundBias, other.upperBoundBias)) return false;
         return true;
     }
 
@@ -17,7 +17,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 
@@ -55,6 +57,10 @@ public class GlobalPhaseRanker {
     }
 
     static void rerankHitsImpl(GlobalPhaseSetup setup, Query query, Result result) {
+        rerankHitsImpl(setup, query, result, 0);
+    }
+
+    static void rerankHitsImpl(GlobalPhaseSetup setup, Query query, Result result, int topCount) {
         var mainSpec = setup.globalPhaseEvalSpec;
         var mainSrc = withQueryPrep(mainSpec.evalSource(), mainSpec.fromQuery(), setup.defaultValues, query);
         int rerankCount = resolveRerankCount(setup, query);
@@ -66,8 +72,12 @@ public class GlobalPhaseRanker {
             normalizers.add(new NormalizerContext(nSetup.name(), nSetup.supplier().get(), normEvalSrc, normSpec.fromMF()));
         }
         var rescorer = new HitRescorer(mainSrc, mainSpec.fromMF(), normalizers);
-        var reranker = new ResultReranker(rescorer, rerankCount);
+        var reranker = new ResultReranker(rescorer, rerankCount, topCount, resolveScoreUpperBound(query));
         reranker.rerankHits(result);
+        if (reranker.stoppedEarly() && query.getTrace().isTraceable(3)) {
+            query.trace("Global-phase stopped after " + reranker.rescoredCount() + " hits, as no later hit can be among the top " +
+                        topCount, 3);
+        }
         removeBelowRankScoreDropLimit(result, rankScoreDropLimit);
         hideImplicitMatchFeatures(result, setup.matchFeaturesToHide);
     }
@@ -91,9 +101,19 @@ public class GlobalPhaseRanker {
     }
 
     public void rerankHits(Query query, Result result, String schema) {
+        rerankHits(query, result, schema, 0);
+    }
+
+    /**
+     * Reranks the hits of the given result.
+     *
+     * @param topCount the number of top hits which will be returned, which is used to stop reranking early
+     *                 if the query sets an upper bound on global-phase scores, or 0 to rerank all hits
+     */
+    public void rerankHits(Query query, Result result, String schema, int topCount) {
         var setup = globalPhaseSetupFor(query, schema);
         if (setup.isPresent()) {
-            rerankHitsImpl(setup.get(), query, result);
+            rerankHitsImpl(setup.get(), query, result, topCount);
         }
     }
 
@@ -147,6 +167,15 @@ public class GlobalPhaseRanker {
         return setup.rerankCount;
     }
 
+    /** Returns the upper bound on the global-phase score of a hit given its current score, or null if not set */
+    private static DoubleUnaryOperator resolveScoreUpperBound(Query query) {
+        var globalPhase = query.getRanking().getGlobalPhase();
+        Double scale = globalPhase.getUpperBoundScale();
+        if (scale == null) return null;
+        double bias = Objects.requireNonNullElse(globalPhase.getUpperBoundBias(), 0.0);
+        return score -> scale * score + bias;
+    }
+
     private static double resolveRankScoreDropLimit(GlobalPhaseSetup setup, Query query) {
         if (setup == null) {
             // there is no global-phase at all (ignore override)
@@ -8,6 +8,8 @@ import com.yahoo.search.result.HitGroup;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.DoubleUnaryOperator;
 import java.util.logging.Logger;
 
 class ResultReranker {
@@ -16,14 +18,40 @@ class ResultReranker {
 
     private final HitRescorer hitRescorer;
     private final int rerankCount;
+    private final int topCount;
+    private final DoubleUnaryOperator scoreUpperBound;
     private final List<WrappedHit> hitsToRescore = new ArrayList<>();
     private final RangeAdjuster ranges = new RangeAdjuster();
+    private int rescoredCount = 0;
+    private boolean stoppedEarly = false;
 
     ResultReranker(HitRescorer hitRescorer, int rerankCount) {
+        this(hitRescorer, rerankCount, 0, null);
+    }
+
+    /**
+     * Creates a reranker which stops rescoring hits once none of the remaining ones can be among the top hits.
+     * Hits which are not rescored are rescaled like those beyond the rerank count,
+     * which places them below all rescored hits.
+     *
+     * @param topCount the number of top hits which must get the same scores as when rescoring all hits,
+     *                 or 0 to rescore all hits
+     * @param scoreUpperBound an upper bound on the rescored score of a hit given its current score, which must not
+     *                        decrease when the current score increases, or null to rescore all hits
+     */
+    ResultReranker(HitRescorer hitRescorer, int rerankCount, int topCount, DoubleUnaryOperator scoreUpperBound) {
         this.hitRescorer = hitRescorer;
         this.rerankCount = rerankCount;
+        this.topCount = topCount;
+        this.scoreUpperBound = scoreUpperBound;
     }
 
+    /** Returns the number of hits rescored by this */
+    int rescoredCount() { return rescoredCount; }
+
+    /** Returns whether this stopped rescoring before reaching the rerank count or the last hit */
+    boolean stoppedEarly() { return stoppedEarly; }
+
     void rerankHits(Result result) {
         gatherHits(result);
         runPreProcessing();
@@ -58,16 +86,29 @@ class ResultReranker {
     }
 
     private void runProcessing() {
+        boolean earlyTermination = topCount > 0 && scoreUpperBound != null;
+        PriorityQueue<Double> topScores = new PriorityQueue<>(); // the lowest of the top scores seen first
         int count = 0;
         for (var iterator = hitsToRescore.iterator(); count < rerankCount && iterator.hasNext(); ) {
             WrappedHit wrapped = iterator.next();
             double oldScore = wrapped.getScore();
+            // Hits are in descending order of their current score, so no later hit can have a higher bound
+            if (earlyTermination && topScores.size() == topCount && scoreUpperBound.applyAsDouble(oldScore) < topScores.peek()) {
+                stoppedEarly = true;
+                break;
+            }
             double newScore = hitRescorer.rescoreHit(wrapped);
             ranges.withInitialScore(oldScore);
             ranges.withFinalScore(newScore);
+            if (earlyTermination) {
+                topScores.add(newScore);
+                if (topScores.size() > topCount)
+                    topScores.poll();
+            }
             ++count;
             iterator.remove();
         }
+        rescoredCount = count;
     }
 
     private void runPostProcessing() {
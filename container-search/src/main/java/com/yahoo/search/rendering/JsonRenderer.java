@@ -51,6 +51,7 @@ import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorDataSource;
 import com.yahoo.tensor.TensorType;
 import com.yahoo.tensor.serialization.JsonFormat;
+import com.yahoo.tensor.serialization.TypedBinaryFormat;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -699,6 +700,29 @@ public class JsonRenderer extends AsynchronousSectionedRenderer<Result> {
             }
         }
 
+        @Override
+        public void acceptTensor(String name, byte[] tensorData) {
+            if (generator == null) { // Subclass which doesn't render to a generator; give it the tensor.
+                Hit.RawUtf8Consumer.super.acceptTensor(name, tensorData);
+                return;
+            }
+            Optional<DataSource> tensor = TypedBinaryFormat.asDataSource(tensorData, settings.tensorOptions);
+            if (tensor.isEmpty()) {
+                Hit.RawUtf8Consumer.super.acceptTensor(name, tensorData);
+                return;
+            }
+            try {
+                if (shouldRender(name, tensor.get())) {
+                    ensureFieldsField();
+                    generator().writeFieldName(name);
+                    tensor.get().emit(tensorDataSink());
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
         protected boolean shouldRender(String name, Object value) {
             if (settings.debugRendering) return true;
             if (name.startsWith(VESPA_HIDDEN_FIELD_PREFIX)) return false;
@@ -3,12 +3,14 @@ package com.yahoo.search.result;
 
 import com.yahoo.collections.ArraySet;
 import com.yahoo.component.provider.ListenableFreezableClass;
+import com.yahoo.io.GrowableByteBuffer;
 import com.yahoo.net.URI;
 import com.yahoo.prelude.hitfield.HitField;
 import com.yahoo.processing.Request;
 import com.yahoo.processing.response.Data;
 import com.yahoo.search.Query;
 import com.yahoo.search.Searcher;
+import com.yahoo.tensor.serialization.TypedBinaryFormat;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -17,6 +19,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.TreeMap;
@@ -703,6 +706,17 @@ public class Hit extends ListenableFreezableClass implements Data, Comparable<Hi
          */
         void accept(String fieldName, byte[] utf8Data, int offset, int length);
 
+        /**
+         * Called for tensor fields which are available in serialized form instead of accept(String, Object).
+         * This default implementation deserializes the tensor and passes it to accept(String, Object).
+         *
+         * @param fieldName the name of the field
+         * @param tensorData the tensor in {@link TypedBinaryFormat}. The receiver <b>must not</b> modify this data
+         */
+        default void acceptTensor(String fieldName, byte[] tensorData) {
+            accept(fieldName, TypedBinaryFormat.decode(Optional.empty(), GrowableByteBuffer.wrap(tensorData)));
+        }
+
     }
 
 }
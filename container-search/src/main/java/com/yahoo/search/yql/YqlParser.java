@@ -13,6 +13,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -237,6 +238,12 @@ public class YqlParser implements Parser {
     private static final CompoundName modelTypeProfile = CompoundName.fromComponents(Model.MODEL, Model.TYPE, QueryType.PROFILE);
     private static final CompoundName modelTypeIsYqlDefault = CompoundName.fromComponents(Model.MODEL, Model.TYPE, QueryType.IS_YQL_DEFAULT);
 
+    /** Programs longer than this are not cached, as they are unlikely to be templates */
+    private static final int MAX_CACHED_PROGRAM_LENGTH = 16 * 1024;
+    /** Large enough to hold the programs of an application */
+    private static final int MAX_CACHED_PROGRAMS = 1024;
+    private static final Map<String, OperatorNode<StatementOperator>> programCache = new ConcurrentHashMap<>();
+
     private final IndexFacts indexFacts;
     private final List<ConnectedItem> connectedItems = new ArrayList<>();
     private final List<VespaGroupingStep> groupingSteps = new ArrayList<>();
@@ -1182,12 +1189,7 @@ public class YqlParser implements Parser {
     }
 
     private OperatorNode<?> parseYqlProgram() {
-        OperatorNode<?> ast;
-        try {
-            ast = new ProgramParser().parse("query", currentlyParsing.getQuery());
-        } catch (Exception e) {
-            throw new IllegalInputException(e);
-        }
+        OperatorNode<?> ast = parseProgram(currentlyParsing.getQuery());
         assertHasOperator(ast, StatementOperator.PROGRAM);
         Preconditions.checkArgument(ast.getArguments().length == 1,
                                     "Expected only a single argument to the root node, got %s.",
@@ -1206,6 +1208,38 @@ public class YqlParser implements Parser {
         return ast;
     }
 
+    /**
+     * Returns the syntax tree of the given program. This is cached by the program text, as applications tend to
+     * use a few programs which differ only in the values of the parameters they refer to, and parameter
+     * references are kept in the tree, to be resolved while building the query tree of each query.
+     * The returned tree is shared, and must not be modified.
+     */
+    private static OperatorNode<StatementOperator> parseProgram(String program) {
+        OperatorNode<StatementOperator> ast = program != null ? programCache.get(program) : null;
+        if (ast != null) return ast;
+
+        try {
+            ast = new ProgramParser().parse("query", program);
+        } catch (Exception e) {
+            throw new IllegalInputException(e);
+        }
+        if (program.length() <= MAX_CACHED_PROGRAM_LENGTH) {
+            if (programCache.size() >= MAX_CACHED_PROGRAMS)
+                evictProgram();
+            programCache.put(program, ast);
+        }
+        return ast;
+    }
+
+    /** Removes some program from the cache. Which one is arbitrary, and concurrent puts may overshoot the bound slightly */
+    private static void evictProgram() {
+        Iterator<String> programs = programCache.keySet().iterator();
+        if (programs.hasNext()) {
+            programs.next();
+            programs.remove();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private OperatorNode<?> fetchPipe(OperatorNode<?> toScan) {
         OperatorNode<?> ast = toScan;
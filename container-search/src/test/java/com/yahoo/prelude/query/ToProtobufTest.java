@@ -545,8 +545,8 @@ public class ToProtobufTest {
                   "index": "myindex"
                 },
                 "weightedStrings": [
-                  {"weight": 200, "value": "bar"},
-                  {"weight": 100, "value": "foo"}
+                  {"weight": 100, "value": "foo"},
+                  {"weight": 200, "value": "bar"}
                 ]
               }
             }
@@ -566,8 +566,8 @@ public class ToProtobufTest {
                   "index": "myindex"
                 },
                 "weightedStrings": [
-                  {"weight": 200, "value": "bar"},
-                  {"weight": 100, "value": "foo"}
+                  {"weight": 100, "value": "foo"},
+                  {"weight": 200, "value": "bar"}
                 ]
               }
             }
@@ -590,8 +590,8 @@ public class ToProtobufTest {
                 "targetNumHits": 10,
                 "thresholdBoostFactor": 1.0,
                 "weightedStrings": [
-                  {"weight": 200, "value": "bar"},
-                  {"weight": 100, "value": "foo"}
+                  {"weight": 100, "value": "foo"},
+                  {"weight": 200, "value": "bar"}
                 ]
               }
             }
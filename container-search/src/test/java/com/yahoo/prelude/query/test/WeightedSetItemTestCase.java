@@ -3,16 +3,20 @@ package com.yahoo.prelude.query.test;
 
 import com.yahoo.prelude.query.FakeWSItem;
 import com.yahoo.prelude.query.Item;
+import com.yahoo.prelude.query.PureWeightedInteger;
 import com.yahoo.prelude.query.PureWeightedString;
 import com.yahoo.prelude.query.SerializationContext;
 import com.yahoo.prelude.query.WeightedSetItem;
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WeightedSetItemTestCase {
 
@@ -102,4 +106,75 @@ public class WeightedSetItemTestCase {
         }
     }
 
+    @Test
+    void testEncodingOfLongTokens() {
+        WeightedSetItem item = new WeightedSetItem("index");
+        item.addToken(7L, 100);
+        item.addToken(-3L, 1000);
+
+        var context = new SerializationContext(1.0);
+        ByteBuffer actual = ByteBuffer.allocate(128);
+        ByteBuffer expect = ByteBuffer.allocate(128);
+        expect.put((byte) 15).put((byte) 2);
+        Item.putString("index", expect);
+        new PureWeightedInteger(7L, 100).encode(expect, context);
+        new PureWeightedInteger(-3L, 1000).encode(expect, context);
+
+        assertEquals(3, item.encode(actual, context));
+        assertEquals(expect.flip(), actual.flip());
+    }
+
+    @Test
+    void testIntegerKeysAreNumericTokens() {
+        Map<Object, Integer> tokens = new LinkedHashMap<>();
+        tokens.put(7, 100);
+        tokens.put("foo", 200);
+        WeightedSetItem item = new WeightedSetItem("index", tokens);
+        assertEquals(Integer.valueOf(100), item.getTokenWeight(7));
+        assertEquals(Integer.valueOf(100), item.getTokenWeight(7L));
+        assertNull(item.getTokenWeight("7"));
+        assertEquals(Integer.valueOf(200), item.getTokenWeight("foo"));
+        assertEquals(7L, item.getTokens().next().getKey());
+    }
+
+    @Test
+    void testManyTokens() {
+        WeightedSetItem item = new WeightedSetItem("index");
+        WeightedSetItem reversed = new WeightedSetItem("index");
+        for (int i = 0; i < 10000; i++) {
+            item.addToken("t" + i, i);
+            reversed.addToken("t" + (9999 - i), 9999 - i);
+        }
+        assertEquals(10000, item.getNumTokens());
+        assertEquals(item, reversed);
+        assertEquals(item.hashCode(), reversed.hashCode());
+
+        for (int i = 0; i < 10000; i += 2)
+            assertEquals(Integer.valueOf(i), item.removeToken("t" + i));
+        assertEquals(5000, item.getNumTokens());
+        for (int i = 0; i < 10000; i++)
+            assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), item.getTokenWeight("t" + i));
+        assertNotEquals(item, reversed);
+    }
+
+    @Test
+    void testClonesAreIndependent() {
+        WeightedSetItem item = new WeightedSetItem("index");
+        item.addToken("foo", 10);
+        item.addToken(42L, 20);
+        WeightedSetItem clone = item.clone();
+        assertEquals(item, clone);
+
+        clone.addToken("bar", 30);
+        clone.addToken("foo", 40);
+        item.removeToken("foo");
+        assertEquals(3, clone.getNumTokens());
+        assertEquals(Integer.valueOf(40), clone.getTokenWeight("foo"));
+        assertEquals(Integer.valueOf(20), clone.getTokenWeight(42L));
+        assertEquals(1, item.getNumTokens());
+        assertNull(item.getTokenWeight("bar"));
+        assertTrue(item.getTokens().hasNext());
+        assertEquals(42L, item.getTokens().next().getKey());
+    }
+
 }
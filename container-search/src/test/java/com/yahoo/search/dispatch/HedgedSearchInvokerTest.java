@@ -0,0 +1,162 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch;
+
+import com.yahoo.concurrent.Timer;
+import com.yahoo.search.Query;
+import com.yahoo.search.Result;
+import com.yahoo.search.dispatch.searchcluster.Node;
+import com.yahoo.search.result.Coverage;
+import com.yahoo.search.result.ErrorMessage;
+import com.yahoo.test.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedList;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author agent
+ */
+public class HedgedSearchInvokerTest {
+
+    private final ManualClock clock = new ManualClock(Instant.now());
+    private final Query query = new TestQuery();
+    private final LinkedList<Event> expectedEvents = new LinkedList<>();
+    private final MockInvoker primary = new MockInvoker(0, new Coverage(100, 100, 1));
+    private final MockInvoker hedge = new MockInvoker(1, new Coverage(200, 200, 1));
+    private int hedgesRequested = 0;
+
+    @Test
+    void fastPrimaryIsNotHedged() throws IOException {
+        try (SearchInvoker invoker = createHedgedInvoker(Optional.of(hedge))) {
+            expectedEvents.add(new Event(100, 50, primary));
+            Result result = invoker.search(query, 1.0);
+            assertEquals(100, result.getCoverage(false).getDocs());
+            assertEquals(0, hedgesRequested);
+            assertTrue(expectedEvents.isEmpty());
+        }
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndFirstAnswerIsUsed() throws IOException {
+        try (SearchInvoker invoker = createHedgedInvoker(Optional.of(hedge))) {
+            expectedEvents.add(new Event(100, 100, null));
+            expectedEvents.add(new Event(4900, 20, hedge));
+            Result result = invoker.search(query, 1.0);
+            assertEquals(200, result.getCoverage(false).getDocs());
+            assertEquals(1, hedgesRequested);
+            assertEquals(10, hedge.hitsRequested);
+            assertTrue(expectedEvents.isEmpty());
+        }
+    }
+
+    @Test
+    void failingPrimaryIsHedgedImmediately() throws IOException {
+        MockInvoker failing = new MockInvoker(0) {
+            @Override protected InvokerResult getSearchResult() {
+                return errorResult(query, ErrorMessage.createBackendCommunicationError("Connection refused"));
+            }
+        };
+        try (SearchInvoker invoker = createHedgedInvoker(failing, Optional.of(hedge))) {
+            expectedEvents.add(new Event(100, 10, failing));
+            expectedEvents.add(new Event(4990, 30, hedge));
+            Result result = invoker.search(query, 1.0);
+            assertNull(result.hits().getError());
+            assertEquals(200, result.getCoverage(false).getDocs());
+            assertTrue(expectedEvents.isEmpty());
+        }
+    }
+
+    @Test
+    void primaryIsAwaitedWhenThereIsNothingToHedgeTo() throws IOException {
+        try (SearchInvoker invoker = createHedgedInvoker(Optional.empty())) {
+            expectedEvents.add(new Event(100, 100, null));
+            expectedEvents.add(new Event(4900, 200, primary));
+            Result result = invoker.search(query, 1.0);
+            assertEquals(100, result.getCoverage(false).getDocs());
+            assertEquals(1, hedgesRequested);
+            assertTrue(expectedEvents.isEmpty());
+        }
+    }
+
+    @Test
+    void nodeLatencyQuantileIsEstimatedFromRecentRequests() {
+        Node node = new Node("test", 0, "host", 0, true);
+        for (int i = 1; i < 64; i++)
+            node.recordLatency(Duration.ofMillis(i));
+        assertEquals(Optional.empty(), node.latencyQuantile(0.9), "Too few samples");
+
+        node.recordLatency(Duration.ofMillis(64));
+        assertEquals(Optional.of(Duration.ofMillis(58)), node.latencyQuantile(0.9));
+        assertEquals(Optional.of(Duration.ofMillis(64)), node.latencyQuantile(0.999));
+
+        for (int i = 0; i < 256; i++)
+            node.recordLatency(Duration.ofMillis(10));
+        assertEquals(Optional.of(Duration.ofMillis(10)), node.latencyQuantile(0.999));
+    }
+
+    private SearchInvoker createHedgedInvoker(Optional<SearchInvoker> hedgeTarget) {
+        return createHedgedInvoker(primary, hedgeTarget);
+    }
+
+    private SearchInvoker createHedgedInvoker(SearchInvoker primary, Optional<SearchInvoker> hedgeTarget) {
+        return new HedgedSearchInvoker(Timer.wrap(clock), primary, Duration.ofMillis(100),
+                                       () -> { hedgesRequested++; return hedgeTarget; }) {
+            @Override
+            protected LinkedBlockingQueue<SearchInvoker> newQueue() {
+                return new LinkedBlockingQueue<>() {
+                    @Override
+                    public SearchInvoker poll(long timeout, TimeUnit timeUnit) {
+                        return expectedEvents.removeFirst().process(timeout);
+                    }
+                };
+            }
+        };
+    }
+
+    private class Event {
+
+        final long expectedTimeout;
+        final long delay;
+        final SearchInvoker answering;
+
+        Event(long expectedTimeout, long delay, SearchInvoker answering) {
+            this.expectedTimeout = expectedTimeout;
+            this.delay = delay;
+            this.answering = answering;
+        }
+
+        SearchInvoker process(long timeout) {
+            assertEquals(expectedTimeout, timeout, "Expecting timeout to be " + expectedTimeout);
+            clock.advance(Duration.ofMillis(delay));
+            return answering;
+        }
+
+    }
+
+    private class TestQuery extends Query {
+
+        private final long start = clock.millis();
+
+        TestQuery() {
+            setTimeout(5000);
+            getTrace().setLevel(5);
+        }
+
+        @Override
+        public long getStartTime() { return start; }
+
+        @Override
+        public long getDurationTime() { return clock.millis() - start; }
+
+    }
+
+}
@@ -4,6 +4,7 @@ package com.yahoo.search.dispatch;
 import com.yahoo.search.dispatch.LoadBalancer.AdaptiveScheduler;
 import com.yahoo.search.dispatch.LoadBalancer.BestOfRandom2;
 import com.yahoo.search.dispatch.LoadBalancer.GroupStatus;
+import com.yahoo.search.dispatch.LoadBalancer.LoadAwareScheduler;
 import com.yahoo.search.dispatch.searchcluster.Group;
 import com.yahoo.search.dispatch.searchcluster.Node;
 import org.junit.jupiter.api.Test;
@@ -181,6 +182,33 @@ public class LoadBalancerTest {
         assertEquals(0, allocate(sched.takeNextGroup(null).get()).groupId());
     }
 
+    @Test
+    void requireLoadAwareSchedulerToAvoidLoadedGroups() {
+        Node n0 = new Node("test", 0, "test-node-host", 0, true);
+        Node n1 = new Node("test", 1, "test-node-host", 1, true);
+        Map<Integer, GroupStatus> scoreboard = new HashMap<>();
+        scoreboard.put(0, new GroupStatus(new Group(0, List.of(n0))));
+        scoreboard.put(1, new GroupStatus(new Group(1, List.of(n1))));
+        LoadAwareScheduler sched = new LoadAwareScheduler(sequence(0.1, 0.3, 0.3, 0.5), scoreboard);
+
+        // Equal weights when nothing is known
+        assertEquals(1.0, LoadAwareScheduler.weight(scoreboard.get(0)), delta);
+        assertEquals(0, sched.takeNextGroup(null).get().groupId());
+        assertEquals(0, sched.takeNextGroup(null).get().groupId());
+
+        // Node 0 reports 3 queries per thread, giving group 0 a fifth of the total weight
+        n0.setLoad(3);
+        assertEquals(0.25, LoadAwareScheduler.weight(scoreboard.get(0)), delta);
+        assertEquals(1, allocate(sched.takeNextGroup(null).get()).groupId());
+        assertEquals(1, allocate(sched.takeNextGroup(null).get()).groupId());
+
+        // Queries in flight from this container shift weight back to group 0
+        assertEquals(0.25, LoadAwareScheduler.weight(scoreboard.get(0)), delta);
+        assertEquals(1.0 / 3, LoadAwareScheduler.weight(scoreboard.get(1)), delta);
+        assertEquals(0, sched.takeNextGroup(null).get().groupId());
+        assertEquals(1, sched.takeNextGroup(Set.of(0)).get().groupId());
+    }
+
     private static int countRequestsToReach90p(Duration timeBetweenSample, Duration searchTime) {
         double p90 = 0.9*searchTime.toMillis()/1000.0;
         GroupStatus.Decayer decayer = new AdaptiveScheduler.DecayByTime(Duration.ofMillis(1), RequestDuration.of(Instant.EPOCH, Duration.ZERO));
@@ -4,6 +4,8 @@ package com.yahoo.search.dispatch.rpc;
 
 import ai.vespa.searchlib.searchprotocol.protobuf.SearchProtocol;
 import com.google.protobuf.ByteString;
+import com.yahoo.compress.CompressionType;
+import com.yahoo.compress.Compressor;
 import com.yahoo.container.QrSearchersConfig;
 import com.yahoo.document.GlobalId;
 import com.yahoo.document.idstring.IdString;
@@ -19,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.FutureTask;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -170,6 +173,26 @@ public class ProtobufSerializationTest {
         assertFalse(req.getProfiling().hasSecondPhase());
     }
 
+    @Test
+    void uncompressed_requests_are_not_overwritten_by_the_next_request_on_the_same_thread() throws Exception {
+        // A new thread starts with a small buffer, which then grows to exactly fit a request of more than twice its size
+        var task = new FutureTask<>(() -> List.of(serializeUncompressed("x".repeat(10000)),
+                                                  serializeUncompressed("y".repeat(10000))));
+        new Thread(task).start();
+        List<Compressor.Compression> requests = task.get();
+
+        assertEquals(CompressionType.NONE, requests.get(0).type());
+        assertEquals("x".repeat(10000), SearchProtocol.SearchRequest.parseFrom(requests.get(0).data()).getRankProperties(0).getValues(0));
+        assertEquals("y".repeat(10000), SearchProtocol.SearchRequest.parseFrom(requests.get(1).data()).getRankProperties(0).getValues(0));
+    }
+
+    private static Compressor.Compression serializeUncompressed(String property) {
+        Query query = new Query("?query=test&dispatch.compression=none&ranking.properties.p=" + property);
+        return ProtobufSerialization.serializeAndCompressSearchRequest(query, 10, "serverId", 1.0, 0.5,
+                                                                       new QrSearchersConfig.Builder().build(),
+                                                                       new CompressService());
+    }
+
     @Test
     void soft_timeout_errors_use_timeout_error_code() {
         Query q = new Query("search/?query=test");
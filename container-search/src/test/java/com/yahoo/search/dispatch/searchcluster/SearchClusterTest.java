@@ -21,6 +21,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 
 import static java.util.function.Function.identity;
@@ -355,6 +356,29 @@ public class SearchClusterTest {
         assertEquals(3, node.getLastReceivedPongId());
     }
 
+    @Test
+    void requireThatLoadIsResetWhenPongsNoLongerReportIt() {
+        Node node = new Node("test", 0, "n", 0, true);
+        AtomicReference<Pong> pong = new AtomicReference<>();
+        VipStatus vipStatus = new VipStatus(new QrSearchersConfig.Builder().searchcluster(new QrSearchersConfig.Searchcluster.Builder().name("test")).build(),
+                                            new ClustersStatus());
+        SearchCluster cluster = new SearchCluster("test", new AvailabilityPolicy(true, 100.0), List.of(node), vipStatus,
+                                                  (pinged, monitor, handler) -> () -> handler.handle(pong.get()));
+        ClusterMonitor<Node> monitor = new ClusterMonitor<>(cluster, false);
+        try {
+            pong.set(new Pong(1, 1, false, 3.0));
+            cluster.ping(monitor, node, Runnable::run);
+            assertEquals(3.0, node.getLoad());
+
+            pong.set(new Pong(1, 1));
+            cluster.ping(monitor, node, Runnable::run);
+            assertEquals(0.0, node.getLoad());
+        }
+        finally {
+            monitor.shutdown();
+        }
+    }
+
     @Test
     void requireThatEmptyGroupIsInBalance() {
         Group group = new Group(0, List.of());
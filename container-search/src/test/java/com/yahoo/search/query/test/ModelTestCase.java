@@ -2,8 +2,10 @@
 package com.yahoo.search.query.test;
 
 import com.yahoo.prelude.query.Item;
+import com.yahoo.prelude.query.WordItem;
 import com.yahoo.search.Query;
 import com.yahoo.search.query.Model;
+import com.yahoo.search.query.QueryTree;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +16,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -50,6 +54,37 @@ public class ModelTestCase {
         assertEquals("test1", r2.getQueryString());
     }
 
+    @Test
+    void testQueryTreeIsIndependentOfClones() {
+        Query q1 = new Query("?query=test1");
+        String original = q1.getModel().getQueryTree().toString();
+        Query q2 = q1.clone();
+        Query q3 = q1.clone();
+        q2.getModel().getQueryTree().setRoot(new WordItem("test2"));
+        assertEquals(original, q1.getModel().getQueryTree().toString());
+        assertEquals("test2", q2.getModel().getQueryTree().toString());
+        assertEquals(original, q3.getModel().getQueryTree().toString());
+        assertNotSame(q1.getModel().getQueryTree().getRoot(), q3.getModel().getQueryTree().getRoot());
+        q1.getModel().getQueryTree().setRoot(new WordItem("test3"));
+        assertEquals(original, q3.getModel().getQueryTree().toString());
+    }
+
+    @Test
+    void testQueryTreeReferencesFromBeforeCloningOnlyAffectTheOriginal() {
+        Query q1 = new Query("?query=test1");
+        QueryTree tree = q1.getModel().getQueryTree();
+        Item root = tree.getRoot();
+        String original = tree.toString();
+        int weight = root.getWeight();
+        Query q2 = q1.clone();
+        root.setWeight(weight + 1);
+        tree.and(new WordItem("test2"));
+        assertSame(tree, q1.getModel().getQueryTree());
+        assertNotEquals(original, q1.getModel().getQueryTree().toString());
+        assertEquals(original, q2.getModel().getQueryTree().toString());
+        assertEquals(weight, q2.getModel().getQueryTree().getRoot().getWeight());
+    }
+
     @Test
     void testSetQuery() {
         Query q1 = new Query("?query=test1");
@@ -35,6 +35,31 @@ public class RankFeaturesTestCase {
         assertEquals("b", p.get("string").get(0));
     }
 
+    @Test
+    void requireThatClonesAreIndependent() {
+        RankFeatures features = new RankFeatures(new Ranking(new Query()));
+        features.put("query(a)", 1.0);
+        Map<String, Object> featureMap = features.asMap();
+        RankFeatures featuresClone = features.clone();
+        features.put("query(b)", 2.0);
+        featureMap.put("query(d)", 4.0);
+        featuresClone.asMap().put("query(c)", 3.0);
+        assertEquals(Map.of("query(a)", 1.0, "query(b)", 2.0, "query(d)", 4.0), features.asMap());
+        assertEquals(Map.of("query(a)", 1.0, "query(c)", 3.0), featuresClone.asMap());
+
+        RankProperties properties = new RankProperties();
+        properties.put("a", "1");
+        Map<String, List<Object>> propertyMap = properties.asMap();
+        RankProperties propertiesClone = properties.clone();
+        propertiesClone.put("a", "2");
+        properties.put("b", "3");
+        propertyMap.get("a").add("4");
+        assertEquals(List.of("1", "4"), properties.get("a"));
+        assertEquals(List.of("3"), properties.get("b"));
+        assertEquals(List.of("1", "2"), propertiesClone.get("a"));
+        assertEquals(null, propertiesClone.get("b"));
+    }
+
     @Test
     void requireThatRankFeaturesUsingDoubleAndDoubleToStringEncodeTheSameWay() {
         RankFeatures withDouble = new RankFeatures(new Ranking(new Query()));
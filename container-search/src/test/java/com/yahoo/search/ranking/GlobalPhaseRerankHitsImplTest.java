@@ -245,6 +245,51 @@ public class GlobalPhaseRerankHitsImplTest {
         expect.verifyScores(result);
     }
 
+    @Test
+    void rerankingStopsWhenRemainingHitsCannotBeAmongTopHits() {
+        var setup = setup().eval(makeSumSpec(List.of(), List.of("bar"))).build();
+        var query = makeQuery(List.of());
+        query.getRanking().getGlobalPhase().setUpperBoundScale(1.0);
+        var factory = new HitFactory(List.of("bar"));
+        var result = makeResult(query, List.of(factory.create("a", 10, List.of(value("bar", 9))),
+                                               factory.create("b", 8, List.of(value("bar", 8))),
+                                               factory.create("c", 6, List.of(value("bar", 5))),
+                                               factory.create("d", 4, List.of(value("bar", 3)))));
+        // c and d keep their scores, as their bound is below the score of both a and b
+        var expect = Expect.make(List.of(hit("a", 9), hit("b", 8), hit("c", 6), hit("d", 4)));
+        GlobalPhaseRanker.rerankHitsImpl(setup, query, result, 2);
+        expect.verifyScores(result);
+    }
+
+    @Test
+    void rerankingContinuesWhileRemainingHitsCanBeAmongTopHits() {
+        var setup = setup().eval(makeSumSpec(List.of(), List.of("bar"))).build();
+        var query = makeQuery(List.of());
+        query.getRanking().getGlobalPhase().setUpperBoundScale(1.0);
+        query.getRanking().getGlobalPhase().setUpperBoundBias(10.0);
+        var factory = new HitFactory(List.of("bar"));
+        var result = makeResult(query, List.of(factory.create("a", 10, List.of(value("bar", 9))),
+                                               factory.create("b", 8, List.of(value("bar", 8))),
+                                               factory.create("c", 6, List.of(value("bar", 15))),
+                                               factory.create("d", 4, List.of(value("bar", 3)))));
+        var expect = Expect.make(List.of(hit("c", 15), hit("a", 9), hit("b", 8), hit("d", 3)));
+        GlobalPhaseRanker.rerankHitsImpl(setup, query, result, 2);
+        expect.verifyScores(result);
+    }
+
+    @Test
+    void rerankingDoesNotStopWithoutUpperBound() {
+        var setup = setup().eval(makeSumSpec(List.of(), List.of("bar"))).build();
+        var query = makeQuery(List.of());
+        var factory = new HitFactory(List.of("bar"));
+        var result = makeResult(query, List.of(factory.create("a", 10, List.of(value("bar", 9))),
+                                               factory.create("b", 8, List.of(value("bar", 8))),
+                                               factory.create("c", 6, List.of(value("bar", 5)))));
+        var expect = Expect.make(List.of(hit("a", 9), hit("b", 8), hit("c", 5)));
+        GlobalPhaseRanker.rerankHitsImpl(setup, query, result, 1);
+        expect.verifyScores(result);
+    }
+
     @Test
     void rankScoreDropLimitingWithDefaultRerankCount() {
         var incrementEval = new EvalIncrement(1.0);
@@ -22,6 +22,7 @@ import com.yahoo.prelude.Index;
 import com.yahoo.prelude.IndexFacts;
 import com.yahoo.prelude.IndexModel;
 import com.yahoo.prelude.SearchDefinition;
+import com.yahoo.prelude.fastsearch.DocsumDefinitionSet;
 import com.yahoo.prelude.fastsearch.FastHit;
 import com.yahoo.prelude.hitfield.JSONString;
 import com.yahoo.prelude.hitfield.RawData;
@@ -44,12 +45,15 @@ import com.yahoo.search.result.HitGroup;
 import com.yahoo.search.result.NanNumber;
 import com.yahoo.search.result.Relevance;
 import com.yahoo.search.result.StructuredData;
+import com.yahoo.search.schema.DocumentSummary;
+import com.yahoo.search.schema.Schema;
 import com.yahoo.search.searchchain.Execution;
 import com.yahoo.search.searchchain.testutil.DocumentSourceSearcher;
 import com.yahoo.search.statistics.ElapsedTimeTestCase;
 import com.yahoo.search.statistics.ElapsedTimeTestCase.CreativeTimeSource;
 import com.yahoo.search.statistics.ElapsedTimeTestCase.UselessSearcher;
 import com.yahoo.search.statistics.TimeTracker;
+import com.yahoo.slime.BinaryFormat;
 import com.yahoo.slime.Cursor;
 import com.yahoo.slime.Slime;
 import com.yahoo.slime.SlimeUtils;
@@ -71,6 +75,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
@@ -83,6 +89,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -405,6 +412,38 @@ public class JsonRendererTestCase {
         result3.hits().add(h);
         result3.setTotalHitCount(1L);
         assertEqualJson(expected, render(result3));
+
+        // Tensors in a summary are rendered from their serialized form
+        Result result4 = new Result(new Query("/?presentation.format.tensors=" + format));
+        result4.hits().add(createTensorSummaryHit());
+        result4.setTotalHitCount(1L);
+        assertEqualJson(expected, render(result4));
+    }
+
+    private static FastHit createTensorSummaryHit() {
+        var summary = new DocumentSummary.Builder("default");
+        for (String name : List.of("tensor_standard", "tensor_indexed", "tensor_single_mapped", "tensor_mixed"))
+            summary.add(new DocumentSummary.Field(name, "tensor"));
+        summary.add(new DocumentSummary.Field("summaryfeatures", "featuredata"));
+        var docsumDefinitions = new DocsumDefinitionSet(new Schema.Builder("test").add(summary.build()).build());
+
+        Slime slime = new Slime();
+        Cursor docsum = slime.setObject();
+        Cursor features = docsum.setObject("summaryfeatures");
+        for (Cursor fields : List.of(docsum, features)) {
+            fields.setData("tensor_standard", TypedBinaryFormat.encode(mmTensor()));
+            fields.setData("tensor_indexed", TypedBinaryFormat.encode(iiTensor()));
+            fields.setData("tensor_single_mapped", TypedBinaryFormat.encode(mTensor()));
+            fields.setData("tensor_mixed", TypedBinaryFormat.encode(miTensor()));
+        }
+        byte[] encoded = BinaryFormat.encode(slime);
+        ByteBuffer data = ByteBuffer.allocate(encoded.length + 4);
+        data.order(ByteOrder.LITTLE_ENDIAN).putInt(DocsumDefinitionSet.SLIME_MAGIC_ID);
+        data.order(ByteOrder.BIG_ENDIAN).put(encoded);
+
+        FastHit hit = new FastHit("tensors", 1.0);
+        assertNull(docsumDefinitions.lazyDecode("default", data.array(), hit));
+        return hit;
     }
 
     @Test
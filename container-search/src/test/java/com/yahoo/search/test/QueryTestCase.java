@@ -76,6 +76,7 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -675,6 +676,14 @@ public class QueryTestCase {
         q = new Query("?query=foo&" +
                       "ranking.globalPhase.rerankCount=42");
         assertEquals(42, q.getRanking().getGlobalPhase().getRerankCount());
+        assertNull(q.getRanking().getGlobalPhase().getUpperBoundScale());
+        q = new Query("?query=foo&" +
+                      "ranking.globalPhase.upperBoundScale=2.5&" +
+                      "ranking.globalPhase.upperBoundBias=-1");
+        assertEquals(2.5, q.getRanking().getGlobalPhase().getUpperBoundScale());
+        assertEquals(-1.0, q.getRanking().getGlobalPhase().getUpperBoundBias());
+        var globalPhase = q.getRanking().getGlobalPhase();
+        assertThrows(IllegalArgumentException.class, () -> globalPhase.setUpperBoundScale(-1));
     }
 
     @Test
@@ -2,8 +2,11 @@
 package com.yahoo.jdisc.application;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -17,10 +20,30 @@ public class BindingSet<T> implements Iterable<Map.Entry<UriPattern, T>>  {
 
     public static final String DEFAULT = "default";
 
-    private final Collection<Map.Entry<UriPattern, T>> bindings;
+    private static final int[] NONE = new int[0];
+
+    private final List<Map.Entry<UriPattern, T>> bindings;
+
+    /** The priority ordered indexes of the bindings requiring each first path segment */
+    private final Map<String, int[]> bindingsBySegment;
+
+    /** The priority ordered indexes of the bindings which accept any first path segment */
+    private final int[] anySegmentBindings;
 
     BindingSet(Collection<Map.Entry<UriPattern, T>> bindings) {
         this.bindings = sorted(bindings);
+        Map<String, List<Integer>> bySegment = new HashMap<>();
+        List<Integer> anySegment = new ArrayList<>();
+        for (int i = 0; i < this.bindings.size(); i++) {
+            String segment = this.bindings.get(i).getKey().requiredFirstPathSegment();
+            if (segment == null)
+                anySegment.add(i);
+            else
+                bySegment.computeIfAbsent(segment, __ -> new ArrayList<>()).add(i);
+        }
+        this.bindingsBySegment = new HashMap<>();
+        bySegment.forEach((segment, indexes) -> bindingsBySegment.put(segment, toArray(indexes)));
+        this.anySegmentBindings = toArray(anySegment);
     }
 
     /**
@@ -32,7 +55,16 @@ public class BindingSet<T> implements Iterable<Map.Entry<UriPattern, T>>  {
      * @return A {@link BindingMatch} object describing the match found, or null if not found.
      */
     public BindingMatch<T> match(URI uri) {
-        for (Map.Entry<UriPattern, T> entry : bindings) {
+        String segment = UriPattern.firstPathSegment(uri);
+        if (segment == null) return null; // Not matched by any pattern
+
+        // Only try the bindings which may match this first path segment, merged back into priority order
+        int[] bySegment = bindingsBySegment.getOrDefault(segment, NONE);
+        int[] anySegment = anySegmentBindings;
+        for (int i = 0, j = 0; i < bySegment.length || j < anySegment.length; ) {
+            int index = j == anySegment.length || (i < bySegment.length && bySegment[i] < anySegment[j])
+                        ? bySegment[i++] : anySegment[j++];
+            Map.Entry<UriPattern, T> entry = bindings.get(index);
             UriPattern pattern = entry.getKey();
             UriPattern.Match match = pattern.match(uri);
             if (match != null) {
@@ -66,8 +98,12 @@ public class BindingSet<T> implements Iterable<Map.Entry<UriPattern, T>>  {
         return bindings.iterator();
     }
 
-    private static <T> Collection<Map.Entry<UriPattern, T>> sorted(Collection<Map.Entry<UriPattern, T>> unsorted) {
+    private static <T> List<Map.Entry<UriPattern, T>> sorted(Collection<Map.Entry<UriPattern, T>> unsorted) {
         return unsorted.stream().sorted(Map.Entry.comparingByKey()).toList();
     }
 
+    private static int[] toArray(List<Integer> indexes) {
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
 }
@@ -88,6 +88,27 @@ public class UriPattern implements Comparable<UriPattern> {
         return new Match(schemeMatch, hostMatch, port > 0 ? 0 : uri.getPort(), pathMatch);
     }
 
+    /**
+     * Returns the first segment the path of a URI must have to match this, or null if this allows any first segment.
+     * This is used by {@link BindingSet} to avoid trying patterns which cannot match a given URI.
+     */
+    String requiredFirstPathSegment() {
+        if (path.parts.length == 0) return null; // Wildcard
+        String prefix = path.parts[0];
+        int end = prefix.indexOf('/');
+        if (end >= 0) return prefix.substring(0, end);
+        return path.parts.length == 1 ? prefix : null; // The segment is all of a verbatim path
+    }
+
+    /** Returns the first segment of the path of the given URI, as matched against patterns, or null if it has none */
+    static String firstPathSegment(URI uri) {
+        if ( ! uri.isAbsolute() || uri.getHost() == null) return null;
+        String path = uri.getRawPath();
+        int start = path.isEmpty() ? 0 : 1; // Strip leading '/', as when matching
+        int end = path.indexOf('/', start);
+        return path.substring(start, end < 0 ? path.length() : end);
+    }
+
     @Override
     public int hashCode() {
         return pattern.hashCode();
@@ -434,6 +434,34 @@ public class BindingSetTestCase {
 
     }
 
+    @Test
+    void requireThatMatchingResolvesTheSameBindingAsTryingAllInOrder() {
+        List<String> patterns = List.of("http://*/*", "*://*/a/*", "http://host/a", "http://host/a/*", "http://*/a*",
+                                        "http://*/ab/*", "http://host:80/*", "http://*:80/b/c", "http://*/b/*/c",
+                                        "http://host/*/c", "http://host/", "http://host/*", "http://*//x",
+                                        "ftp://*/a/b", "*://host/b", "http://*/a/b/*");
+        BindingRepository<String> repo = new BindingRepository<>();
+        for (String pattern : patterns)
+            repo.bind(pattern, pattern);
+        BindingSet<String> bindings = repo.activate();
+
+        List<String> uris = List.of("http://host", "http://host/", "http://host/a", "http://host/a/", "http://host/a/b",
+                                    "http://other/a/b/c", "http://host/ab", "http://host/ab/", "http://host/abc",
+                                    "http://host:80/b/c", "http://other:80/b/c", "http://host/b/x/c", "http://host/x/c",
+                                    "http://host//x", "ftp://host/a/b", "ftp://host/b", "ftp://host/c",
+                                    "https://host/a?query#fragment", "mailto:someone", "/relative/path");
+        for (String uri : uris) {
+            String expected = null;
+            for (Map.Entry<UriPattern, String> entry : bindings) {
+                if (entry.getKey().match(URI.create(uri)) != null) {
+                    expected = entry.getValue();
+                    break;
+                }
+            }
+            assertEquals(expected, bindings.resolve(URI.create(uri)), uri);
+        }
+    }
+
     @Test
     void requireThatToStringMethodWorks() {
         Map<UriPattern, RequestHandler> handlers = new LinkedHashMap<>();
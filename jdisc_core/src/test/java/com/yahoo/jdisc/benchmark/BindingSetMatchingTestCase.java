@@ -0,0 +1,75 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.jdisc.benchmark;
+
+import com.yahoo.jdisc.application.BindingRepository;
+import com.yahoo.jdisc.application.BindingSet;
+import com.yahoo.jdisc.application.UriPattern;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving bindings through {@link BindingSet#match(URI)} with trying every binding in priority order.
+ *
+ * @author agent
+ */
+public class BindingSetMatchingTestCase {
+
+    private static final int NUM_MATCHES = 10000;
+    private static long preventOptimization = 0;
+
+    @Test
+    void runMatchingMeasurements() {
+        System.err.format(Locale.ROOT, "%15s%15s%15s\n", "No. of Bindings", "linear (us)", "indexed (us)");
+        for (int numBindings : List.of(1, 10, 25, 50, 100, 250)) {
+            BindingRepository<Object> repo = new BindingRepository<>();
+            for (int binding = 0; binding < numBindings; ++binding) {
+                repo.bind("http://*/v" + binding + "/*", new Object());
+            }
+            repo.bind("http://*/status.html", new Object());
+            repo.bind("http://*:8080/*", new Object());
+            BindingSet<Object> bindings = repo.activate();
+
+            List<URI> uris = new ArrayList<>();
+            for (int binding = 0; binding < numBindings; ++binding) {
+                uris.add(URI.create("http://host/v" + binding + "/document?id=" + binding));
+            }
+            uris.add(URI.create("http://host:8080/other"));
+            measureLinear(bindings, uris); // warmup
+            measureIndexed(bindings, uris);
+
+            System.err.format(Locale.ROOT, "%15s%15d%15d\n", numBindings + " binding(s)",
+                              measureLinear(bindings, uris), measureIndexed(bindings, uris));
+        }
+        System.err.println(">>>>> " + preventOptimization);
+    }
+
+    private static long measureLinear(BindingSet<Object> bindings, List<URI> uris) {
+        long now = System.nanoTime();
+        for (int i = 0; i < NUM_MATCHES; ++i) {
+            URI uri = uris.get(i % uris.size());
+            for (Map.Entry<UriPattern, Object> entry : bindings) {
+                UriPattern.Match match = entry.getKey().match(uri);
+                if (match != null) {
+                    preventOptimization += match.groupCount();
+                    break;
+                }
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - now);
+    }
+
+    private static long measureIndexed(BindingSet<Object> bindings, List<URI> uris) {
+        long now = System.nanoTime();
+        for (int i = 0; i < NUM_MATCHES; ++i) {
+            preventOptimization += bindings.match(uris.get(i % uris.size())).groupCount();
+        }
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - now);
+    }
+
+}
@@ -18,6 +18,7 @@ public class MessageBusParams {
     private final List<Protocol> protocols = new ArrayList<>();
     private RetryPolicy retryPolicy;
     private int maxPendingCount;
+    private int numMessengerThreads;
     private MessagebusConfig config;
 
     /**
@@ -26,6 +27,7 @@ public class MessageBusParams {
     public MessageBusParams() {
         retryPolicy = new RetryTransientErrorsPolicy();
         maxPendingCount = 4096;
+        numMessengerThreads = 1;
         config = null;
     }
 
@@ -38,6 +40,7 @@ public class MessageBusParams {
         protocols.addAll(params.protocols);
         retryPolicy = params.retryPolicy;
         maxPendingCount = params.maxPendingCount;
+        numMessengerThreads = params.numMessengerThreads;
         config = params.config;
     }
 
@@ -124,6 +127,27 @@ public class MessageBusParams {
         return this;
     }
 
+    /**
+     * Returns the number of threads running messenger tasks, such as resending and sequenced sending.
+     *
+     * @return The number of threads.
+     */
+    public int getNumMessengerThreads() {
+        return numMessengerThreads;
+    }
+
+    /**
+     * Sets the number of threads running messenger tasks. Tasks for the same sequence id always run
+     * in the same thread, so sequencing guarantees hold for any number of threads.
+     *
+     * @param numThreads The number of threads to set, at least 1.
+     * @return This, to allow chaining.
+     */
+    public MessageBusParams setNumMessengerThreads(int numThreads) {
+        this.numMessengerThreads = numThreads;
+        return this;
+    }
+
     /**
      * Returns the maximum number of bytes allowed for pending messages.
      *
@@ -15,9 +15,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
 /**
- * <p>This class implements a single thread that is able to process arbitrary
+ * <p>This class implements a set of threads that are able to process arbitrary
  * tasks. Tasks are enqueued using the synchronized {@link #enqueue(Task)}
- * method, and are run in the order they were enqueued.</p>
+ * method, and are run in the order they were enqueued. Tasks enqueued with
+ * a key using {@link #enqueue(long, Task)} are run in the order they were
+ * enqueued relative to other tasks with the same key, while tasks with
+ * different keys may run concurrently in different threads.</p>
  *
  * @author Simon Thoresen Hult
  */
@@ -25,36 +28,47 @@ public final class Messenger implements Runnable {
 
     private static final Logger log = Logger.getLogger(Messenger.class.getName());
     private final AtomicBoolean destroyed = new AtomicBoolean(false);
-    private final List<Task> children = new ArrayList<>();
-    private final Queue<Task> queue = new ArrayDeque<>();
-
-    private final Thread thread;
+    private final Shard[] shards;
 
     public Messenger() {
-        thread = new Thread(this, "Messenger");
-        thread.setDaemon(true);
+        this(1);
+    }
+
+    /**
+     * <p>Creates a messenger with the given number of threads.</p>
+     *
+     * @param numThreads The number of threads to run tasks in, at least 1.
+     */
+    public Messenger(int numThreads) {
+        if (numThreads < 1) throw new IllegalArgumentException("Messenger must have at least 1 thread, not " + numThreads);
+        shards = new Shard[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            shards[i] = new Shard(numThreads == 1 ? "Messenger" : "Messenger-" + i);
+        }
     }
 
     /**
      * <p>Adds a recurrent task to this that is to be run for every iteration of
-     * the main loop. This task must be very light-weight as to not block the
-     * messenger. Note that this method is NOT thread-safe, so it should NOT be
-     * used after calling {@link #start()}.</p>
+     * the main loop of the first thread. This task must be very light-weight as
+     * to not block the messenger. Note that this method is NOT thread-safe, so it
+     * should NOT be used after calling {@link #start()}.</p>
      *
      * @param task The task to add.
      */
     void addRecurrentTask(Task task) {
-        children.add(task);
+        shards[0].children.add(task);
     }
 
     /**
-     * <p>Starts the internal thread. This must be done AFTER all recurrent
+     * <p>Starts the internal threads. This must be done AFTER all recurrent
      * tasks have been added.</p>
      *
      * @see #addRecurrentTask(Task)
      */
     public void start() {
-        thread.start();
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
     }
 
     /**
@@ -90,36 +104,61 @@ public final class Messenger implements Runnable {
     }
 
     /**
-     * <p>Enqueues the given task in the list of tasks that this worker is to
-     * process. If this thread has been destroyed previously, this method
+     * <p>Enqueues the given task in the list of tasks that the first thread of
+     * this is to process. If this has been destroyed previously, this method
      * invokes {@link Messenger.Task#destroy()}.</p>
      *
      * @param task The task to enqueue.
      */
     public void enqueue(Task task) {
+        enqueue(shards[0], task);
+    }
+
+    /**
+     * <p>Enqueues the given task in the list of tasks that the thread owning the
+     * given key is to process, e.g., the sequence id of a message. If this has
+     * been destroyed previously, this method invokes {@link Messenger.Task#destroy()}.</p>
+     *
+     * @param key  The key deciding which thread runs the task.
+     * @param task The task to enqueue.
+     */
+    public void enqueue(long key, Task task) {
+        enqueue(shards[(int) Long.remainderUnsigned(mix(key), shards.length)], task);
+    }
+
+    private void enqueue(Shard shard, Task task) {
         if (destroyed.get()) {
             task.destroy();
             return;
         }
-        synchronized (this) {
-            queue.offer(task);
-            if (queue.size() == 1) {
-                notify();
-            }
-        }
+        shard.enqueue(task);
+    }
+
+    /** Spreads keys which differ only in their high bits, like sequence ids made from hashes often do */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        return key ^ (key >>> 33);
     }
 
     /**
-     * <p>Handshakes with the internal thread. If this method is called using
-     * the messenger thread, this will deadlock.</p>
+     * <p>Handshakes with the internal threads. If this method is called using
+     * a messenger thread, it returns immediately, as waiting for other messenger
+     * threads from there could deadlock.</p>
      */
     public void sync() {
-        if (Thread.currentThread() == thread) {
-            return; // no need to wait for self
+        for (Shard shard : shards) {
+            if (Thread.currentThread() == shard.thread) {
+                return; // no need to wait for self
+            }
         }
-        SyncTask task = new SyncTask();
-        enqueue(task);
-        task.await();
+        List<SyncTask> tasks = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            SyncTask task = new SyncTask();
+            enqueue(shard, task);
+            tasks.add(task);
+        }
+        tasks.forEach(SyncTask::await);
     }
 
     /**
@@ -132,15 +171,14 @@ public final class Messenger implements Runnable {
      */
     public boolean destroy() {
         boolean done = false;
-        enqueue(TERMINATE);
+        for (Shard shard : shards) {
+            enqueue(shard, TERMINATE);
+        }
         if (!destroyed.getAndSet(true)) {
             try {
-                synchronized (this) {
-                    while (!queue.isEmpty()) {
-                        wait();
-                    }
+                for (Shard shard : shards) {
+                    shard.awaitTermination();
                 }
-                thread.join();
             } catch (InterruptedException e) {
                 // ignore
             }
@@ -149,57 +187,93 @@ public final class Messenger implements Runnable {
         return done;
     }
 
+    /** Runs the main loop of the first thread of this. */
     @Override
     public void run() {
-        long timeoutMS = SystemTimer.adjustTimeoutByDetectedHz(Duration.ofMillis(100)).toMillis();
-        while (true) {
-            Task task = null;
+        shards[0].run();
+    }
+
+    /** A thread with its own queue of tasks. */
+    private static class Shard implements Runnable {
+
+        private final List<Task> children = new ArrayList<>();
+        private final Queue<Task> queue = new ArrayDeque<>();
+        private final Thread thread;
+
+        Shard(String name) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        synchronized void enqueue(Task task) {
+            queue.offer(task);
+            if (queue.size() == 1) {
+                notify();
+            }
+        }
+
+        void awaitTermination() throws InterruptedException {
             synchronized (this) {
-                if (queue.isEmpty()) {
-                    try {
-                        if (children.isEmpty()) {
-                            wait();
-                        } else {
-                            wait(timeoutMS);
+                while (!queue.isEmpty()) {
+                    wait();
+                }
+            }
+            thread.join();
+        }
+
+        @Override
+        public void run() {
+            long timeoutMS = SystemTimer.adjustTimeoutByDetectedHz(Duration.ofMillis(100)).toMillis();
+            while (true) {
+                Task task = null;
+                synchronized (this) {
+                    if (queue.isEmpty()) {
+                        try {
+                            if (children.isEmpty()) {
+                                wait();
+                            } else {
+                                wait(timeoutMS);
+                            }
+                        } catch (InterruptedException e) {
+                            continue;
                         }
-                    } catch (InterruptedException e) {
-                        continue;
+                    }
+                    if (!queue.isEmpty()) {
+                        task = queue.poll();
                     }
                 }
-                if (!queue.isEmpty()) {
-                    task = queue.poll();
+                if (task == TERMINATE) {
+                    break;
                 }
-            }
-            if (task == TERMINATE) {
-                break;
-            }
-            if (task != null) {
-                try {
-                    task.run();
-                } catch (Exception e) {
-                    log.log(Level.SEVERE, "An exception was thrown while running " + task.getClass().getName(), e);
+                if (task != null) {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        log.log(Level.SEVERE, "An exception was thrown while running " + task.getClass().getName(), e);
+                    }
+                    try {
+                        task.destroy();
+                    } catch (Exception e) {
+                        log.warning("An exception was thrown while destroying " + task.getClass().getName() + ": " + e);
+                        log.warning("Someone, somewhere might have to wait indefinitely for something.");
+                    }
                 }
-                try {
-                    task.destroy();
-                } catch (Exception e) {
-                    log.warning("An exception was thrown while destroying " + task.getClass().getName() + ": " + e);
-                    log.warning("Someone, somewhere might have to wait indefinitely for something.");
+                for (Task child : children) {
+                    child.run();
                 }
             }
             for (Task child : children) {
-                child.run();
+                child.destroy();
             }
-        }
-        for (Task child : children) {
-            child.destroy();
-        }
-        synchronized (this) {
-            while (!queue.isEmpty()) {
-                Task task = queue.poll();
-                task.destroy();
+            synchronized (this) {
+                while (!queue.isEmpty()) {
+                    Task task = queue.poll();
+                    task.destroy();
+                }
+                notify();
             }
-            notify();
         }
+
     }
 
     /**
@@ -165,7 +165,8 @@ public class Sequencer implements MessageHandler, ReplyHandler {
             Boolean alreadySending = isSending.get();
             if (alreadySending && (msn != null)) {
                 // Dispatch in another thread to break possibly very long recursion.
-                msn.enqueue(new SequencedSendTask(msg));
+                // Messages with the same sequence id are dispatched by the same thread, to keep their order.
+                msn.enqueue(seqId, new SequencedSendTask(msg));
             } else {
                 isSending.set(Boolean.TRUE);
                 sequencedSend(msg);
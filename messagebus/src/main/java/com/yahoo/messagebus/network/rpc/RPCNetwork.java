@@ -56,7 +56,8 @@ import java.util.stream.Collectors;
 public class RPCNetwork implements Network, MethodHandler {
 
     private static final Logger log = Logger.getLogger(RPCNetwork.class.getName());
-    private static final Version REPORTED_VERSION = new Version(8, 310);
+    private static final Version REPORTED_VERSION = new Version(8, 311);
+    private static final Version BATCH_VERSION = new Version(8, 311); // Supports mbus.slime.batch
 
     private final AtomicBoolean destroyed = new AtomicBoolean(false);
     private final Identity identity;
@@ -67,6 +68,10 @@ public class RPCNetwork implements Network, MethodHandler {
     private final Mirror mirror;
     private final Register register;
     private final TreeMap<Version, RPCSendAdapter> sendAdapters = new TreeMap<>();
+    private final int maxBatchMessages;
+    private final int maxBatchBytes;
+    private final double maxBatchDelaySecs;
+    private RPCSendBatch sendBatch;
     private volatile NetworkOwner owner;
     private Version version = REPORTED_VERSION;
     private final SlobrokConfigSubscriber slobroksConfig;
@@ -101,6 +106,9 @@ public class RPCNetwork implements Network, MethodHandler {
         orb.setMaxOutputBufferSize(params.getMaxOutputBufferSize());
         targetPool = new RPCTargetPool(params.getConnectionExpireSecs(), params.getNumTargetsPerSpec());
         servicePool = new RPCServicePool(4096);
+        maxBatchMessages = params.getMaxBatchMessages();
+        maxBatchBytes = params.getMaxBatchBytes();
+        maxBatchDelaySecs = params.getMaxBatchDelaySecs();
 
         Method method = new Method("mbus.getVersion", "", "s", this);
         method.requireCapabilities(CapabilitySet.none());
@@ -204,7 +212,12 @@ public class RPCNetwork implements Network, MethodHandler {
         }
         this.owner = owner;
 
-        sendAdapters.put(new Version(6,149), new RPCSendV2(this));
+        RPCSendV2 sendV2 = new RPCSendV2(this);
+        sendAdapters.put(new Version(6,149), sendV2);
+        // Batches are always accepted, but only sent when enabled
+        sendBatch = new RPCSendBatch(this, sendV2, maxBatchMessages, maxBatchBytes, maxBatchDelaySecs);
+        if (maxBatchMessages > 1)
+            sendAdapters.put(BATCH_VERSION, sendBatch);
     }
 
     @Override
@@ -294,6 +307,9 @@ public class RPCNetwork implements Network, MethodHandler {
             register.shutdown();
             mirror.shutdown();
             listener.shutdown().join();
+            if (sendBatch != null) {
+                sendBatch.flushAll();
+            }
             orb.transport().shutdown().join();
             targetPool.flushTargets(true);
             executor.shutdown();
@@ -21,6 +21,9 @@ public class RPCNetworkParams {
     private double connectionExpireSecs = 30;
     private int numTargetsPerSpec = 1;
     private int numNetworkThreads = 2;
+    private int maxBatchMessages = 1;
+    private int maxBatchBytes = 64 * 1024;
+    private double maxBatchDelaySecs = 0.001;
 
     private int transportEventsBeforeWakeup = 1;
     public enum Optimization {LATENCY, THROUGHPUT}
@@ -48,6 +51,9 @@ public class RPCNetworkParams {
         maxOutputBufferSize = params.maxOutputBufferSize;
         numTargetsPerSpec = params.numTargetsPerSpec;
         numNetworkThreads = params.numNetworkThreads;
+        maxBatchMessages = params.maxBatchMessages;
+        maxBatchBytes = params.maxBatchBytes;
+        maxBatchDelaySecs = params.maxBatchDelaySecs;
         optimization = params.optimization;
     }
 
@@ -167,6 +173,50 @@ public class RPCNetworkParams {
         return numNetworkThreads;
     }
 
+    /**
+     * Sets the max number of messages to the same target to send in one request. Values larger than 1 enable
+     * batching of messages to targets which support it. Batching is disabled by default.
+     *
+     * @param maxBatchMessages The max number of messages per request.
+     * @return This, to allow chaining.
+     */
+    public RPCNetworkParams setMaxBatchMessages(int maxBatchMessages) {
+        this.maxBatchMessages = maxBatchMessages;
+        return this;
+    }
+    int getMaxBatchMessages() {
+        return maxBatchMessages;
+    }
+
+    /**
+     * Sets the number of message payload bytes to the same target after which they are sent without further delay,
+     * when batching is enabled.
+     *
+     * @param maxBatchBytes The max number of bytes to hold back.
+     * @return This, to allow chaining.
+     */
+    public RPCNetworkParams setMaxBatchBytes(int maxBatchBytes) {
+        this.maxBatchBytes = maxBatchBytes;
+        return this;
+    }
+    int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * Sets the max time a message is held back, waiting for others to the same target, when batching is enabled.
+     *
+     * @param maxBatchDelaySecs The max delay in seconds.
+     * @return This, to allow chaining.
+     */
+    public RPCNetworkParams setMaxBatchDelaySecs(double maxBatchDelaySecs) {
+        this.maxBatchDelaySecs = maxBatchDelaySecs;
+        return this;
+    }
+    double getMaxBatchDelaySecs() {
+        return maxBatchDelaySecs;
+    }
+
     public RPCNetworkParams setOptimization(Optimization optimization) {
         this.optimization = optimization;
         return this;
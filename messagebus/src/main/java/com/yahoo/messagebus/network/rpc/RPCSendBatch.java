@@ -0,0 +1,371 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.messagebus.network.rpc;
+
+import com.yahoo.component.Version;
+import com.yahoo.compress.CompressionType;
+import com.yahoo.compress.Compressor;
+import com.yahoo.jrt.DataValue;
+import com.yahoo.jrt.Int32Value;
+import com.yahoo.jrt.Int8Value;
+import com.yahoo.jrt.Method;
+import com.yahoo.jrt.MethodHandler;
+import com.yahoo.jrt.Request;
+import com.yahoo.jrt.RequestWaiter;
+import com.yahoo.jrt.Task;
+import com.yahoo.jrt.Values;
+import com.yahoo.messagebus.EmptyReply;
+import com.yahoo.messagebus.Error;
+import com.yahoo.messagebus.ErrorCode;
+import com.yahoo.messagebus.Message;
+import com.yahoo.messagebus.Protocol;
+import com.yahoo.messagebus.Reply;
+import com.yahoo.messagebus.ReplyHandler;
+import com.yahoo.messagebus.Trace;
+import com.yahoo.messagebus.TraceLevel;
+import com.yahoo.messagebus.routing.Hop;
+import com.yahoo.messagebus.routing.Route;
+import com.yahoo.messagebus.routing.RoutingNode;
+import com.yahoo.security.tls.Capability;
+import com.yahoo.slime.BinaryFormat;
+import com.yahoo.slime.Cursor;
+import com.yahoo.slime.Inspector;
+import com.yahoo.slime.Slime;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implements the request adapter for method "mbus.slime.batch", which sends multiple messages to the same target
+ * in one request, and gets all their replies back in one response. Messages to a target are held back until there
+ * are enough of them, or enough bytes, or the first of them has waited for the max delay. Each message and reply is
+ * encoded as with {@link RPCSendV2}, but the bodies of all the messages, and all the replies, are compressed together.
+ * Metadata headers are never compressed, as with {@link RPCSendV2}.
+ *
+ * @author agent
+ */
+public class RPCSendBatch implements MethodHandler, ReplyHandler, RequestWaiter, RPCSendAdapter {
+
+    private final static String METHOD_NAME = "mbus.slime.batch";
+    private final static String METHOD_PARAMS = "bixbix";
+    private final static String METHOD_RETURN = "bixbix";
+    private static final String ENTRIES_F = "entries";
+
+    private final RPCNetwork net;
+    private final RPCSendV2 single;
+    private final int maxMessages;
+    private final int maxBytes;
+    private final double maxDelaySecs;
+    private final Compressor compressor = new Compressor(CompressionType.LZ4, 3, 0.90, 1024);
+    private final Map<RPCTarget, OutgoingBatch> pending = new HashMap<>();
+    private final AtomicLong batchesSent = new AtomicLong();
+
+    /**
+     * @param net the network this sends through
+     * @param single the adapter used for messages which are not replied to, and for encoding and decoding
+     * @param maxMessages the max number of messages to send in one request
+     * @param maxBytes the number of message payload bytes after which a request is sent without further delay
+     * @param maxDelaySecs the max time a message is held back waiting for others to the same target
+     */
+    RPCSendBatch(RPCNetwork net, RPCSendV2 single, int maxMessages, int maxBytes, double maxDelaySecs) {
+        this.net = net;
+        this.single = single;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.maxDelaySecs = maxDelaySecs;
+        net.getSupervisor().addMethod(buildMethod());
+    }
+
+    private Method buildMethod() {
+        Method method = new Method(METHOD_NAME, METHOD_PARAMS, METHOD_RETURN, this)
+                .requireCapabilities(Capability.CONTAINER__DOCUMENT_API);
+        method.methodDesc("Send a batch of message bus requests and get their replies back.");
+        method.paramDesc(0, "header_encoding", "Encoding type of header.")
+                .paramDesc(1, "header_decodedSize", "Number of bytes after header decoding.")
+                .paramDesc(2, "header_payload", "Slime encoded header payload, with the metadata of each message.")
+                .paramDesc(3, "body_encoding", "Encoding type of body.")
+                .paramDesc(4, "body_decoded_size", "Number of bytes after body decoding.")
+                .paramDesc(5, "body_payload", "Slime encoded body payload, with each message.");
+        method.returnDesc(0, "header_encoding", "Encoding type of header.")
+                .returnDesc(1, "header_decoded_size", "Number of bytes after header decoding.")
+                .returnDesc(2, "header_payload", "Slime encoded header payload.")
+                .returnDesc(3, "body_encoding", "Encoding type of body.")
+                .returnDesc(4, "body_encoded_size", "Number of bytes after body decoding.")
+                .returnDesc(5, "body_payload", "Slime encoded body payload, with the reply to each message, in order.");
+        return method;
+    }
+
+    @Override
+    public void send(RoutingNode recipient, Version version, byte[] payload, long timeRemaining) {
+        Route route = new Route(recipient.getRoute());
+        Hop hop = route.removeHop(0);
+        if (hop.getIgnoreResult()) { // Nothing to wait for
+            single.send(recipient, version, payload, timeRemaining);
+            return;
+        }
+
+        RPCServiceAddress address = (RPCServiceAddress)recipient.getServiceAddress();
+        OutgoingMessage message = new OutgoingMessage(recipient, address, route, version, payload, timeRemaining);
+        OutgoingBatch full = null;
+        synchronized (pending) {
+            OutgoingBatch batch = pending.get(address.getTarget());
+            if (batch == null) {
+                batch = new OutgoingBatch(address.getTarget());
+                pending.put(address.getTarget(), batch);
+                if (maxMessages > 1) {
+                    OutgoingBatch delayed = batch;
+                    batch.timer = net.getSupervisor().transport().selectThread()
+                                     .createTask(() -> net.getExecutor().execute(() -> flush(delayed)));
+                    batch.timer.schedule(maxDelaySecs);
+                }
+            }
+            batch.add(message);
+            if (batch.messages.size() >= maxMessages || batch.bytes >= maxBytes) {
+                pending.remove(batch.target);
+                full = batch;
+            }
+        }
+        if (full != null)
+            send(full);
+    }
+
+    /** Sends the given batch, unless it has been sent already. */
+    private void flush(OutgoingBatch batch) {
+        synchronized (pending) {
+            if ( ! pending.remove(batch.target, batch)) return;
+        }
+        send(batch);
+    }
+
+    /** Sends all batches held back. */
+    void flushAll() {
+        List<OutgoingBatch> batches;
+        synchronized (pending) {
+            batches = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        batches.forEach(this::send);
+    }
+
+    /** Returns the number of batch requests sent so far. */
+    long batchesSent() { return batchesSent.get(); }
+
+    private void send(OutgoingBatch batch) {
+        if (batch.timer != null)
+            batch.timer.kill();
+
+        Request req = new Request(METHOD_NAME);
+        Values v = req.parameters();
+        Slime header = new Slime();
+        Cursor headers = header.setObject().setArray(ENTRIES_F);
+        Slime body = new Slime();
+        Cursor messages = body.setObject().setArray(ENTRIES_F);
+        // The request must time out with the message which expires first, taking the time held back into account
+        long now = System.nanoTime();
+        double timeout = Double.MAX_VALUE;
+        for (OutgoingMessage message : batch.messages) {
+            double timeRemaining = message.timeout - (now - message.queuedNanos) * 1e-9;
+            Message msg = message.recipient.getMessage();
+            RPCSendV2.encodeMetadata(headers.addObject(), msg);
+            RPCSendV2.encodeMessage(messages.addObject(), message.version, message.route, message.address, msg,
+                                    message.payload, message.trace.getLevel());
+            timeout = Math.min(timeout, timeRemaining);
+            if (message.trace.shouldTrace(TraceLevel.SEND_RECEIVE)) {
+                message.trace.trace(TraceLevel.SEND_RECEIVE,
+                        "Sending message (version " + message.version + ") from " + single.clientIdent() + " to '" +
+                        message.address.getServiceName() + "' with " + timeRemaining + " seconds timeout, " +
+                        "in a batch of " + batch.messages.size() + " messages.");
+            }
+        }
+        // The header is never compressed, see RPCSendV2
+        byte[] headerBlob = BinaryFormat.encode(header);
+        v.add(new Int8Value(CompressionType.NONE.getCode()));
+        v.add(new Int32Value(headerBlob.length));
+        v.add(new DataValue(headerBlob));
+        Compressor.Compression compressionResult = BinaryFormat.encode_and_compress(body, compressor);
+        v.add(new Int8Value(compressionResult.type().getCode()));
+        v.add(new Int32Value(compressionResult.uncompressedSize()));
+        v.add(new DataValue(compressionResult.data()));
+
+        req.setContext(batch);
+        batchesSent.incrementAndGet();
+        batch.target.getJRTTarget().invokeAsync(req, timeout, this);
+        req.discardParameters(); // allow garbage collection of request parameters
+    }
+
+    @Override
+    public void handleRequestDone(Request req) {
+        net.getExecutor().execute(() -> doRequestDone(req));
+    }
+
+    private void doRequestDone(Request req) {
+        OutgoingBatch batch = (OutgoingBatch)req.getContext();
+        Inspector replies = null;
+        if (req.checkReturnTypes(METHOD_RETURN)) {
+            Values ret = req.returnValues();
+            CompressionType compression = CompressionType.valueOf(ret.get(3).asInt8());
+            byte[] slimeBytes = compressor.decompress(ret.get(5).asData(), compression, ret.get(4).asInt32());
+            replies = BinaryFormat.decode(slimeBytes).get().field(ENTRIES_F);
+        }
+        for (int i = 0; i < batch.messages.size(); i++) {
+            OutgoingMessage message = batch.messages.get(i);
+            String serviceName = message.address.getServiceName();
+            Reply reply;
+            Error error = null;
+            if (replies == null) {
+                reply = new EmptyReply();
+                error = RPCSend.toError(req, serviceName, message.timeout);
+            } else if (i >= replies.entries()) {
+                reply = new EmptyReply();
+                error = new Error(ErrorCode.NETWORK_ERROR, "No reply to this message in the batch reply from '" +
+                                                           serviceName + "'");
+            } else {
+                reply = single.decodeReply(replies.entry(i), serviceName, message.trace);
+            }
+            if (message.trace.shouldTrace(TraceLevel.SEND_RECEIVE)) {
+                message.trace.trace(TraceLevel.SEND_RECEIVE,
+                        "Reply (type " + reply.getType() + ") received at " + single.clientIdent() + ".");
+            }
+            reply.getTrace().swap(message.trace);
+            if (error != null) {
+                reply.addError(error);
+            }
+            message.recipient.handleReply(reply);
+        }
+    }
+
+    @Override
+    public void invoke(Request request) {
+        request.detach();
+        net.getExecutor().execute(() -> doInvoke(request));
+    }
+
+    private void doInvoke(Request request) {
+        Values args = request.parameters();
+        Inspector headers = new Slime().get(); // No metadata unless present
+        if (args.get(1).asInt32() > 0 && CompressionType.valueOf(args.get(0).asInt8()) == CompressionType.NONE)
+            headers = BinaryFormat.decode(args.get(2).asData()).get().field(ENTRIES_F);
+        CompressionType compression = CompressionType.valueOf(args.get(3).asInt8());
+        byte[] slimeBytes = compressor.decompress(args.get(5).asData(), compression, args.get(4).asInt32());
+        Inspector messages = BinaryFormat.decode(slimeBytes).get().field(ENTRIES_F);
+
+        request.discardParameters(); // allow garbage collection of request parameters
+
+        IncomingBatch batch = new IncomingBatch(request, messages.entries());
+        if (batch.replies.length == 0) {
+            returnReplies(batch);
+            return;
+        }
+        for (int i = 0; i < batch.replies.length; i++) {
+            RPCSend.Params p = new RPCSend.Params();
+            RPCSendV2.decodeMessage(messages.entry(i), p);
+            p.metadataExtractor = RPCSendV2.decodeMetadata(headers.entry(i));
+            int index = i;
+            single.deliver(p, this, (version, protocol) -> new ReplyContext(batch, index, version, protocol));
+        }
+    }
+
+    @Override
+    public void handleReply(Reply reply) {
+        ReplyContext ctx = (ReplyContext)reply.getContext();
+        reply.setContext(null);
+        byte[] payload = single.encodeReply(reply, ctx.version, ctx.protocol);
+        if (ctx.batch.complete(ctx.index, reply, ctx.version, payload))
+            returnReplies(ctx.batch);
+    }
+
+    private void returnReplies(IncomingBatch batch) {
+        Values ret = batch.request.returnValues();
+        // No headers are encoded for replies, see RPCSendV2
+        ret.add(new Int8Value(CompressionType.NONE.getCode()));
+        ret.add(new Int32Value(0));
+        ret.add(new DataValue(new byte[0]));
+
+        Slime slime = new Slime();
+        Cursor replies = slime.setObject().setArray(ENTRIES_F);
+        for (int i = 0; i < batch.replies.length; i++) {
+            RPCSendV2.encodeReply(replies.addObject(), batch.replies[i], batch.versions[i], batch.payloads[i]);
+        }
+        Compressor.Compression compressionResult = BinaryFormat.encode_and_compress(slime, compressor);
+        ret.add(new Int8Value(compressionResult.type().getCode()));
+        ret.add(new Int32Value(compressionResult.uncompressedSize()));
+        ret.add(new DataValue(compressionResult.data()));
+        batch.request.returnRequest();
+    }
+
+    /** A message held back, or sent, in a batch. */
+    private static class OutgoingMessage {
+
+        final RoutingNode recipient;
+        final RPCServiceAddress address;
+        final Route route;
+        final Version version;
+        final byte[] payload;
+        final Trace trace;
+        final double timeout;
+        final long queuedNanos = System.nanoTime();
+
+        OutgoingMessage(RoutingNode recipient, RPCServiceAddress address, Route route, Version version, byte[] payload,
+                        long timeRemaining) {
+            this.recipient = recipient;
+            this.address = address;
+            this.route = route;
+            this.version = version;
+            this.payload = payload;
+            this.trace = new Trace(recipient.getTrace().getLevel());
+            this.timeout = timeRemaining * 0.001;
+        }
+
+    }
+
+    /** The messages to send to a target in one request. */
+    private static class OutgoingBatch {
+
+        final RPCTarget target;
+        final List<OutgoingMessage> messages = new ArrayList<>();
+        int bytes = 0;
+        Task timer = null;
+
+        OutgoingBatch(RPCTarget target) {
+            this.target = target;
+        }
+
+        void add(OutgoingMessage message) {
+            messages.add(message);
+            bytes += message.payload.length;
+        }
+
+    }
+
+    /** The messages received in one request, and the replies to them received so far. */
+    private static class IncomingBatch {
+
+        final Request request;
+        final Reply[] replies;
+        final Version[] versions;
+        final byte[][] payloads;
+        private int remaining;
+
+        IncomingBatch(Request request, int size) {
+            this.request = request;
+            this.replies = new Reply[size];
+            this.versions = new Version[size];
+            this.payloads = new byte[size][];
+            this.remaining = size;
+        }
+
+        /** Sets the reply to the message with the given index, and returns whether all messages are now replied to */
+        synchronized boolean complete(int index, Reply reply, Version version, byte[] payload) {
+            replies[index] = reply;
+            versions[index] = version;
+            payloads[index] = payload;
+            return --remaining == 0;
+        }
+
+    }
+
+    private record ReplyContext(IncomingBatch batch, int index, Version version, Protocol protocol) { }
+
+}
@@ -139,8 +139,20 @@ public class RPCSendV2 extends RPCSend {
         encodeHeaderMetadataIfPresent(v, msg);
 
         Slime slime = new Slime();
-        Cursor root = slime.setObject();
+        encodeMessage(slime.setObject(), version, route, address, msg, payload, traceLevel);
 
+        Compressor.Compression compressionResult = BinaryFormat.encode_and_compress(slime, compressor);
+
+        v.add(new Int8Value(compressionResult.type().getCode()));
+        v.add(new Int32Value(compressionResult.uncompressedSize()));
+        v.add(new DataValue(compressionResult.data()));
+
+        return req;
+    }
+
+    /** Encodes the given message, except its metadata, into the given slime object. */
+    static void encodeMessage(Cursor root, Version version, Route route, RPCServiceAddress address, Message msg,
+                              byte[] payload, int traceLevel) {
         root.setString(VERSION_F, version.toUtf8().getBytes());
         root.setString(ROUTE_F, route.toString());
         root.setString(SESSION_F, address.getSessionName());
@@ -150,14 +162,17 @@ public class RPCSendV2 extends RPCSend {
         root.setLong(TIMEREMAINING_F, msg.getTimeRemaining());
         root.setLong(TRACELEVEL_F, traceLevel);
         root.setData(BLOB_F, payload);
+    }
 
-        Compressor.Compression compressionResult = BinaryFormat.encode_and_compress(slime, compressor);
-
-        v.add(new Int8Value(compressionResult.type().getCode()));
-        v.add(new Int32Value(compressionResult.uncompressedSize()));
-        v.add(new DataValue(compressionResult.data()));
-
-        return req;
+    /** Encodes the metadata of the given message, if any, into the given slime object. */
+    static void encodeMetadata(Cursor root, Message msg) {
+        msg.injectMetadata(new MetadataInjector() {
+            Cursor kvs; // Set on first key
+            @Override public void injectKeyValue(String key, String value) {
+                if (kvs == null) kvs = root.setObject(KVS_F);
+                kvs.setString(key, value);
+            }
+        });
     }
 
     @Override
@@ -165,8 +180,11 @@ public class RPCSendV2 extends RPCSend {
         CompressionType compression = CompressionType.valueOf(ret.get(3).asInt8());
         byte[] slimeBytes = compressor.decompress(ret.get(5).asData(), compression, ret.get(4).asInt32());
         Slime slime = BinaryFormat.decode(slimeBytes);
-        Inspector root = slime.get();
+        return decodeReply(slime.get(), serviceName, trace);
+    }
 
+    /** Decodes a reply from the given slime object. */
+    Reply decodeReply(Inspector root, String serviceName, Trace trace) {
         Version version = new Version(new Utf8Array(root.field(VERSION_F).asUtf8()));
         byte[] payload = root.field(BLOB_F).asData();
 
@@ -207,14 +225,20 @@ public class RPCSendV2 extends RPCSend {
         if (hdrLen > 0 && (CompressionType.valueOf(args.get(0).asInt8()) == CompressionType.NONE)) {
             byte[] hdrBlob = args.get(2).asData();
             Slime hdrSlime = BinaryFormat.decode(hdrBlob);
-            Inspector root = hdrSlime.get();
-            Inspector kvs = root.field(KVS_F);
-            if (kvs.fields() > 0) {
-                return key -> {
-                    Inspector maybeVal = kvs.field(key);
-                    return (maybeVal.valid()) ? Optional.of(maybeVal.asString()) : Optional.empty();
-                };
-            }
+            return decodeMetadata(hdrSlime.get());
+        }
+        // No-op extractor that returns empty optional for all keys
+        return key -> Optional.empty();
+    }
+
+    /** Returns an extractor of the metadata in the given slime object. */
+    static MetadataExtractor decodeMetadata(Inspector root) {
+        Inspector kvs = root.field(KVS_F);
+        if (kvs.fields() > 0) {
+            return key -> {
+                Inspector maybeVal = kvs.field(key);
+                return (maybeVal.valid()) ? Optional.of(maybeVal.asString()) : Optional.empty();
+            };
         }
         // No-op extractor that returns empty optional for all keys
         return key -> Optional.empty();
@@ -226,7 +250,12 @@ public class RPCSendV2 extends RPCSend {
         CompressionType compression = CompressionType.valueOf(args.get(3).asInt8());
         byte[] slimeBytes = compressor.decompress(args.get(5).asData(), compression, args.get(4).asInt32());
         Slime slime = BinaryFormat.decode(slimeBytes);
-        Inspector root = slime.get();
+        decodeMessage(slime.get(), p);
+        return p;
+    }
+
+    /** Decodes the message in the given slime object, except its metadata, into the given parameters. */
+    static void decodeMessage(Inspector root, Params p) {
         p.version = new Version(new Utf8Array(root.field(VERSION_F).asUtf8()));
         p.route = root.field(ROUTE_F).asString();
         p.session = root.field(SESSION_F).asString();
@@ -236,7 +265,6 @@ public class RPCSendV2 extends RPCSend {
         p.protocolName = new Utf8Array(root.field(PROTOCOL_F).asUtf8());
         p.payload = root.field(BLOB_F).asData();
         p.traceLevel = (int)root.field(TRACELEVEL_F).asLong();
-        return p;
     }
 
     @Override
@@ -250,8 +278,17 @@ public class RPCSendV2 extends RPCSend {
         ret.add(new DataValue(new byte[0]));
 
         Slime slime = new Slime();
-        Cursor root = slime.setObject();
+        encodeReply(slime.setObject(), reply, version, payload);
 
+        Compressor.Compression compressionResult = BinaryFormat.encode_and_compress(slime, compressor);
+
+        ret.add(new Int8Value(compressionResult.type().getCode()));
+        ret.add(new Int32Value(compressionResult.uncompressedSize()));
+        ret.add(new DataValue(compressionResult.data()));
+    }
+
+    /** Encodes the given reply into the given slime object. */
+    static void encodeReply(Cursor root, Reply reply, Version version, byte[] payload) {
         root.setString(VERSION_F, version.toUtf8().getBytes());
         root.setDouble(RETRYDELAY_F, reply.getRetryDelay());
         root.setString(PROTOCOL_F, reply.getProtocol().getBytes());
@@ -272,12 +309,6 @@ public class RPCSendV2 extends RPCSend {
                 }
             }
         }
-
-        Compressor.Compression compressionResult = BinaryFormat.encode_and_compress(slime, compressor);
-
-        ret.add(new Int8Value(compressionResult.type().getCode()));
-        ret.add(new Int32Value(compressionResult.uncompressedSize()));
-        ret.add(new DataValue(compressionResult.data()));
     }
 
 }
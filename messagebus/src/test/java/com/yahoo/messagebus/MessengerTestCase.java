@@ -3,9 +3,17 @@ package com.yahoo.messagebus;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -95,6 +103,43 @@ public class MessengerTestCase {
         assertTrue(tryMessenger(msn));
     }
 
+    @Test
+    void requireThatTasksWithSameKeyRunInOrderInOneThread() throws InterruptedException {
+        Messenger msn = new Messenger(4);
+        msn.start();
+
+        int tasksPerKey = 100;
+        Map<Long, List<Integer>> runOrder = new ConcurrentHashMap<>();
+        Map<Long, Set<Thread>> runThreads = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(16 * tasksPerKey);
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (long key = 0; key < 16; key++) {
+                long taskKey = key;
+                int taskIndex = i;
+                msn.enqueue(key, new Messenger.Task() {
+                    @Override
+                    public void run() {
+                        runOrder.computeIfAbsent(taskKey, __ -> Collections.synchronizedList(new ArrayList<>())).add(taskIndex);
+                        runThreads.computeIfAbsent(taskKey, __ -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread());
+                    }
+
+                    @Override
+                    public void destroy() {
+                        done.countDown();
+                    }
+                });
+            }
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        msn.sync();
+        for (long key = 0; key < 16; key++) {
+            assertEquals(IntStream.range(0, tasksPerKey).boxed().toList(), runOrder.get(key));
+            assertEquals(1, runThreads.get(key).size());
+        }
+        assertTrue(runThreads.values().stream().flatMap(Set::stream).distinct().count() <= 4);
+        assertTrue(msn.destroy());
+    }
+
     private static boolean tryMessenger(Messenger msn) {
         MyTask task = new MyTask();
         msn.enqueue(task);
@@ -0,0 +1,130 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.messagebus.network.rpc;
+
+import com.yahoo.component.Version;
+import com.yahoo.jrt.ListenFailedException;
+import com.yahoo.jrt.slobrok.server.Slobrok;
+import com.yahoo.messagebus.DestinationSession;
+import com.yahoo.messagebus.DestinationSessionParams;
+import com.yahoo.messagebus.Message;
+import com.yahoo.messagebus.MessageBusParams;
+import com.yahoo.messagebus.Reply;
+import com.yahoo.messagebus.SourceSession;
+import com.yahoo.messagebus.SourceSessionParams;
+import com.yahoo.messagebus.network.Identity;
+import com.yahoo.messagebus.network.rpc.test.TestServer;
+import com.yahoo.messagebus.routing.Route;
+import com.yahoo.messagebus.test.Receptor;
+import com.yahoo.messagebus.test.SimpleMessage;
+import com.yahoo.messagebus.test.SimpleProtocol;
+import com.yahoo.messagebus.test.SimpleReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.UnknownHostException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author agent
+ */
+public class BatchSendTestCase {
+
+    Slobrok slobrok;
+    TestServer srcServer, dstServer;
+    SourceSession srcSession;
+    DestinationSession dstSession;
+
+    @BeforeEach
+    public void setUp() throws ListenFailedException, UnknownHostException {
+        slobrok = new Slobrok();
+        dstServer = new TestServer(
+                new MessageBusParams().addProtocol(new SimpleProtocol()),
+                new RPCNetworkParams().setIdentity(new Identity("dst")).setSlobrokConfigId(TestServer.getSlobrokConfig(slobrok)));
+        dstSession = dstServer.mb.createDestinationSession(
+                new DestinationSessionParams().setName("session").setMessageHandler(new Receptor()));
+    }
+
+    private void startSource(double maxBatchDelaySecs) throws ListenFailedException {
+        srcServer = new TestServer(
+                new MessageBusParams().addProtocol(new SimpleProtocol()),
+                new RPCNetworkParams().setSlobrokConfigId(TestServer.getSlobrokConfig(slobrok))
+                                      .setMaxBatchMessages(4).setMaxBatchDelaySecs(maxBatchDelaySecs));
+        srcSession = srcServer.mb.createSourceSession(
+                new SourceSessionParams().setTimeout(600.0).setReplyHandler(new Receptor()));
+        assertTrue(srcServer.waitSlobrok("dst/session", 1));
+    }
+
+    private RPCSendBatch batchAdapter() {
+        return (RPCSendBatch) srcServer.net.getSendAdapter(new Version(8, 311));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        slobrok.stop();
+        dstSession.destroy();
+        dstServer.destroy();
+        if (srcServer != null) {
+            srcSession.destroy();
+            srcServer.destroy();
+        }
+    }
+
+    @Test
+    void requireThatBatchingIsOnlyUsedWhenEnabled() throws ListenFailedException {
+        startSource(0.01);
+        assertTrue(srcServer.net.getSendAdapter(new Version(8, 310)) instanceof RPCSendV2);
+        assertTrue(srcServer.net.getSendAdapter(new Version(8, 311)) instanceof RPCSendBatch);
+        assertTrue(dstServer.net.getSendAdapter(new Version(8, 311)) instanceof RPCSendV2);
+    }
+
+    @Test
+    void requireThatFullBatchesAreSentWithoutDelay() throws ListenFailedException {
+        startSource(600); // Only full batches are sent during the test
+        int count = 8;
+        for (int i = 0; i < count; i++)
+            assertTrue(srcSession.send(new SimpleMessage("msg" + i), Route.parse("dst/session")).isAccepted());
+
+        replyToAll(count);
+        assertEquals(2, batchAdapter().batchesSent());
+    }
+
+    @Test
+    void requireThatBatchedMessagesGetTheirOwnReplies() throws ListenFailedException {
+        startSource(0.01);
+        int count = 10; // Two full batches, and one sent after the max delay
+        for (int i = 0; i < count; i++)
+            assertTrue(srcSession.send(new SimpleMessage("msg" + i), Route.parse("dst/session")).isAccepted());
+
+        replyToAll(count);
+        assertTrue(batchAdapter().batchesSent() >= 3);
+    }
+
+    private void replyToAll(int count) {
+        for (int i = 0; i < count; i++) {
+            Message msg = ((Receptor)dstSession.getMessageHandler()).getMessage(60);
+            assertNotNull(msg);
+            Reply reply = new SimpleReply("reply to " + ((SimpleMessage)msg).getValue());
+            reply.swapState(msg);
+            dstSession.reply(reply);
+        }
+
+        Set<String> received = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            Reply reply = ((Receptor)srcSession.getReplyHandler()).getReply(60);
+            assertNotNull(reply);
+            assertFalse(reply.hasErrors(), reply.toString());
+            String expected = "reply to " + ((SimpleMessage)reply.getMessage()).getValue();
+            assertEquals(expected, ((SimpleReply)reply).getValue());
+            received.add(expected);
+        }
+        assertEquals(count, received.size());
+    }
+
+}
@@ -34,6 +34,8 @@ class EmbeddedOnnxEvaluator implements OnnxEvaluator {
     private final Map<String, TensorType> inputTypes;
     private final Map<String, TensorType> outputTypes;
     private final Map<String, String> outputNameMapping;
+    private final TensorConverter.InputBuffersPool inputBuffers =
+            new TensorConverter.InputBuffersPool(Runtime.getRuntime().availableProcessors());
 
     EmbeddedOnnxEvaluator(EmbeddedOnnxRuntime.ReferencedOrtSession session, OrtEnvironment ortEnvironment) {
         this.session = session;
@@ -54,9 +56,10 @@ class EmbeddedOnnxEvaluator implements OnnxEvaluator {
     @Override
     public Tensor evaluate(Map<String, Tensor> inputs, String output, Duration timeout) {
         Map<String, OnnxTensor> onnxInputs = null;
+        var buffers = inputBuffers.acquire();
         try {
             output = mapToInternalName(output);
-            onnxInputs = TensorConverter.toOnnxTensors(inputs, ortEnvironment, session.instance());
+            onnxInputs = TensorConverter.toOnnxTensors(inputs, ortEnvironment, session.instance(), buffers);
             try (OrtSession.Result result = session.instance().run(onnxInputs, Collections.singleton(output))) {
                 return TensorConverter.toVespaTensor(result.get(0));
             }
@@ -66,6 +69,7 @@ class EmbeddedOnnxEvaluator implements OnnxEvaluator {
             if (onnxInputs != null) {
                 onnxInputs.values().forEach(OnnxTensor::close);
             }
+            inputBuffers.release(buffers);
         }
     }
     
@@ -73,8 +77,9 @@ class EmbeddedOnnxEvaluator implements OnnxEvaluator {
     @Override
     public Map<String, Tensor> evaluate(Map<String, Tensor> inputs, Duration timeout) {
         Map<String, OnnxTensor> onnxInputs = null;
+        var buffers = inputBuffers.acquire();
         try {
-            onnxInputs = TensorConverter.toOnnxTensors(inputs, ortEnvironment, session.instance());
+            onnxInputs = TensorConverter.toOnnxTensors(inputs, ortEnvironment, session.instance(), buffers);
             Map<String, Tensor> outputs = new HashMap<>();
             try (OrtSession.Result result = session.instance().run(onnxInputs)) {
                 for (Map.Entry<String, OnnxValue> output : result) {
@@ -89,6 +94,7 @@ class EmbeddedOnnxEvaluator implements OnnxEvaluator {
             if (onnxInputs != null) {
                 onnxInputs.values().forEach(OnnxTensor::close);
             }
+            inputBuffers.release(buffers);
         }
     }
     
@@ -116,6 +122,7 @@ class EmbeddedOnnxEvaluator implements OnnxEvaluator {
 
     @Override
     public void close() throws IllegalStateException {
+        inputBuffers.clear();
         try {
             session.close();
         } catch (OnnxRuntimeException e) {
@@ -128,6 +135,9 @@ class EmbeddedOnnxEvaluator implements OnnxEvaluator {
     // For unit testing
     OrtSession ortSession() { return session.instance(); }
 
+    // For unit testing
+    int idleInputBuffers() { return inputBuffers.idle(); }
+
     private String mapToInternalName(String outputName) {
         return outputNameMapping.getOrDefault(outputName, outputName);
     }
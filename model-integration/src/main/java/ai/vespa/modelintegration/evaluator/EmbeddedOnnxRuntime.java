@@ -12,9 +12,16 @@ import com.yahoo.jdisc.ResourceReference;
 import com.yahoo.text.Text;
 import com.yahoo.vespa.config.search.core.OnnxModelsConfig;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +41,7 @@ public class EmbeddedOnnxRuntime extends AbstractComponent implements OnnxRuntim
 
     private final Object monitor = new Object();
     private final Map<OrtSessionId, SharedOrtSession> sessions = new HashMap<>();
+    private final Map<ModelFile, Long> modelFileHashes = new ConcurrentHashMap<>();
     private final int gpusAvailable;
 
     // For test use only
@@ -77,6 +85,7 @@ public class EmbeddedOnnxRuntime extends AbstractComponent implements OnnxRuntim
                 }
             });
             sessions.clear();
+            modelFileHashes.clear();
         }
     }
 
@@ -145,7 +154,7 @@ public class EmbeddedOnnxRuntime extends AbstractComponent implements OnnxRuntim
     }
 
     private ReferencedOrtSession getOrCreateSession(ModelPathOrData model, OnnxEvaluatorOptions vespaOpts, boolean loadCuda) throws OrtException {
-        var sessionId = new OrtSessionId(model.calculateHash(), vespaOpts, loadCuda);
+        var sessionId = new OrtSessionId(modelHash(model), vespaOpts, loadCuda);
         synchronized (monitor) {
             var existingSession = sessions.get(sessionId);
             if (existingSession != null) {
@@ -164,6 +173,23 @@ public class EmbeddedOnnxRuntime extends AbstractComponent implements OnnxRuntim
         }
     }
 
+    /**
+     * Returns the hash of the given model. The hashes of model files are remembered while they have a session,
+     * such that large models used by several components are only read once to find their session.
+     */
+    private long modelHash(ModelPathOrData model) {
+        if (model.path().isEmpty()) return model.calculateHash();
+        try {
+            var path = Paths.get(model.path().get()).toAbsolutePath();
+            var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            var file = new ModelFile(path, attributes.size(), attributes.lastModifiedTime());
+            modelFileHashes.keySet().removeIf(other -> other.path().equals(path) && ! other.equals(file)); // Modified
+            return modelFileHashes.computeIfAbsent(file, key -> model.calculateHash());
+        } catch (IOException e) {
+            return model.calculateHash(); // Let hashing or session creation report the problem
+        }
+    }
+
     private OnnxEvaluatorOptions overrideOptions(OnnxEvaluatorOptions vespaOpts) {
         // Set GPU device required if GPU requested and GPUs are available on system
         if (gpusAvailable > 0 && vespaOpts.requestingGpu() && !vespaOpts.gpuDeviceRequired()) {
@@ -191,6 +217,8 @@ public class EmbeddedOnnxRuntime extends AbstractComponent implements OnnxRuntim
 
     int sessionsCached() { synchronized(monitor) { return sessions.size(); } }
 
+    int modelFileHashesCached() { return modelFileHashes.size(); }
+
     record ReferencedOrtSession(OrtSession instance, ResourceReference ref, boolean cudaLoaded) implements AutoCloseable {
         @Override public void close() { ref.close(); }
     }
@@ -198,10 +226,16 @@ public class EmbeddedOnnxRuntime extends AbstractComponent implements OnnxRuntim
     // Assumes options are never modified after being stored in `onnxSessions`
     private record OrtSessionId(long modelHash, OnnxEvaluatorOptions options, boolean loadCuda) {}
 
+    private record ModelFile(Path path, long size, FileTime lastModified) {}
+
     private record OrtEnvironmentResult(OrtEnvironment env, Throwable failure) {}
 
     private void removeSession(OrtSessionId id) {
-        synchronized (monitor) { sessions.remove(id); }
+        synchronized (monitor) {
+            sessions.remove(id);
+            if (sessions.keySet().stream().noneMatch(other -> other.modelHash() == id.modelHash()))
+                modelFileHashes.values().removeIf(hash -> hash == id.modelHash());
+        }
     }
 
     private class SharedOrtSession extends AbstractResource {
@@ -25,9 +25,12 @@ import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.LongBuffer;
 import java.nio.ShortBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -39,13 +42,25 @@ class TensorConverter {
 
     static Map<String, OnnxTensor> toOnnxTensors(Map<String, Tensor> tensorMap, OrtEnvironment env, OrtSession session)
         throws OrtException
+    {
+        return toOnnxTensors(tensorMap, env, session, new InputBuffers());
+    }
+
+    /**
+     * Converts the given tensors to ONNX tensors backed by the given buffers.
+     * The returned tensors must be closed before the buffers are used again.
+     */
+    static Map<String, OnnxTensor> toOnnxTensors(Map<String, Tensor> tensorMap, OrtEnvironment env, OrtSession session,
+                                                 InputBuffers buffers)
+        throws OrtException
     {
         Map<String, OnnxTensor> result = new HashMap<>();
+        int index = 0;
         for (String name : tensorMap.keySet()) {
             Tensor vespaTensor = tensorMap.get(name);
             name = toOnnxName(name, session.getInputInfo().keySet());
             TensorInfo onnxTensorInfo = toTensorInfo(session.getInputInfo().get(name).getInfo());
-            OnnxTensor onnxTensor = toOnnxTensor(vespaTensor, onnxTensorInfo, env);
+            OnnxTensor onnxTensor = toOnnxTensor(vespaTensor, onnxTensorInfo, env, buffers, index++);
             result.put(name, onnxTensor);
         }
         return result;
@@ -53,55 +68,118 @@ class TensorConverter {
 
     static OnnxTensor toOnnxTensor(Tensor vespaTensor, TensorInfo onnxTensorInfo, OrtEnvironment environment)
         throws OrtException
+    {
+        return toOnnxTensor(vespaTensor, onnxTensorInfo, environment, new InputBuffers(), 0);
+    }
+
+    static OnnxTensor toOnnxTensor(Tensor vespaTensor, TensorInfo onnxTensorInfo, OrtEnvironment environment,
+                                   InputBuffers buffers, int index)
+        throws OrtException
     {
         if ( ! (vespaTensor instanceof IndexedTensor tensor)) {
             throw new IllegalArgumentException("OnnxEvaluator currently only supports tensors with indexed dimensions");
         }
-        ByteBuffer buffer = ByteBuffer.allocateDirect((int)tensor.size() * onnxTensorInfo.type.size).order(ByteOrder.nativeOrder());
+        int size = (int)tensor.size();
+        ByteBuffer buffer = buffers.get(index, size * onnxTensorInfo.type.size);
         if (onnxTensorInfo.type == OnnxJavaType.FLOAT) {
-            for (int i = 0; i < tensor.size(); i++)
-                buffer.putFloat(tensor.getFloat(i));
-            return OnnxTensor.createTensor(environment, buffer.rewind().asFloatBuffer(), tensor.shape());
+            FloatBuffer floats = buffer.asFloatBuffer();
+            for (int i = 0; i < size; i++)
+                floats.put(i, tensor.getFloat(i));
+            return OnnxTensor.createTensor(environment, floats, tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.DOUBLE) {
-            for (int i = 0; i < tensor.size(); i++)
-                buffer.putDouble(tensor.get(i));
-            return OnnxTensor.createTensor(environment, buffer.rewind().asDoubleBuffer(), tensor.shape());
+            DoubleBuffer doubles = buffer.asDoubleBuffer();
+            for (int i = 0; i < size; i++)
+                doubles.put(i, tensor.get(i));
+            return OnnxTensor.createTensor(environment, doubles, tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.INT8) {
-            for (int i = 0; i < tensor.size(); i++)
+            for (int i = 0; i < size; i++)
                 buffer.put((byte) tensor.get(i));
             return OnnxTensor.createTensor(environment, buffer.rewind(), tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.INT16) {
-            for (int i = 0; i < tensor.size(); i++)
+            for (int i = 0; i < size; i++)
                 buffer.putShort((short) tensor.get(i));
             return OnnxTensor.createTensor(environment, buffer.rewind().asShortBuffer(), tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.INT32) {
-            for (int i = 0; i < tensor.size(); i++)
+            for (int i = 0; i < size; i++)
                 buffer.putInt((int) tensor.get(i));
             return OnnxTensor.createTensor(environment, buffer.rewind().asIntBuffer(), tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.INT64) {
-            for (int i = 0; i < tensor.size(); i++)
+            for (int i = 0; i < size; i++)
                 buffer.putLong((long) tensor.get(i));
             return OnnxTensor.createTensor(environment, buffer.rewind().asLongBuffer(), tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.FLOAT16) {
-            for (int i = 0; i < tensor.size(); i++) {
+            for (int i = 0; i < size; i++) {
                 buffer.putShort(Fp16Conversions.floatToFp16((float)tensor.get(i)));
             }
             return OnnxTensor.createTensor(environment, buffer.rewind(), tensor.shape(), OnnxJavaType.FLOAT16);
         }
         if (onnxTensorInfo.type == OnnxJavaType.BFLOAT16) {
-            for (int i = 0; i < tensor.size(); i++)
+            for (int i = 0; i < size; i++)
                 buffer.putShort(Fp16Conversions.floatToBf16((float)tensor.get(i)));
             return OnnxTensor.createTensor(environment, buffer.rewind(), tensor.shape(), OnnxJavaType.BFLOAT16);
         }
         throw new IllegalArgumentException("OnnxEvaluator does not currently support value type " + onnxTensorInfo.type);
     }
 
+    /**
+     * Direct buffers for the inputs of an evaluation, which may be reused by a later evaluation,
+     * as ONNX tensors over direct buffers use them without copying.
+     */
+    static class InputBuffers {
+
+        /** Larger buffers are allocated for each evaluation, to avoid holding on to much memory */
+        private static final int maxReusedBytes = 1 << 20;
+
+        private ByteBuffer[] buffers = new ByteBuffer[0];
+
+        /** Returns a cleared buffer in native order of the given number of bytes, for the input at the given index */
+        ByteBuffer get(int index, int bytes) {
+            if (bytes > maxReusedBytes) return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+            if (index >= buffers.length)
+                buffers = Arrays.copyOf(buffers, index + 1);
+            if (buffers[index] == null || buffers[index].capacity() < bytes)
+                buffers[index] = ByteBuffer.allocateDirect(Math.max(1024, Integer.highestOneBit(Math.max(1, bytes - 1)) << 1))
+                                           .order(ByteOrder.nativeOrder());
+            return buffers[index].clear().limit(bytes).slice().order(ByteOrder.nativeOrder());
+        }
+
+    }
+
+    /** A bounded pool of input buffers, which are not in use by any evaluation */
+    static class InputBuffersPool {
+
+        private final BlockingQueue<InputBuffers> idle;
+
+        InputBuffersPool(int maxIdle) {
+            idle = new ArrayBlockingQueue<>(maxIdle);
+        }
+
+        /** Returns idle buffers, or new ones if there are none */
+        InputBuffers acquire() {
+            InputBuffers buffers = idle.poll();
+            return buffers != null ? buffers : new InputBuffers();
+        }
+
+        /** Returns the given buffers to this, which drops them if this is full. They must not be in use anymore */
+        void release(InputBuffers buffers) {
+            idle.offer(buffers);
+        }
+
+        /** Drops all idle buffers */
+        void clear() {
+            idle.clear();
+        }
+
+        int idle() { return idle.size(); }
+
+    }
+
     interface Short2Float {
         float convert(short value);
     }
@@ -142,13 +220,18 @@ class TensorConverter {
         TensorInfo tensorInfo = onnxTensor.getInfo();
         TensorType type = toVespaType(onnxTensor.getInfo());
         DimensionSizes sizes = DimensionSizes.of(type);
-        IndexedTensor.BoundBuilder builder = (IndexedTensor.BoundBuilder) Tensor.Builder.of(type, sizes);
         long totalSizeAsLong = sizes.totalSize();
         if (totalSizeAsLong > Integer.MAX_VALUE) {
             throw new IllegalArgumentException("TotalSize=" + totalSizeAsLong + " currently limited at INTEGER.MAX_VALUE");
         }
 
         int totalSize = (int) totalSizeAsLong;
+        // Hand the values copied out by onnxruntime to the tensor when the value types match
+        if (tensorInfo.type == OnnxJavaType.FLOAT && type.valueType() == TensorType.Value.FLOAT)
+            return IndexedTensor.Builder.of(type, sizes, toArray(onnxTensor.getFloatBuffer(), totalSize)).build();
+        if (tensorInfo.type == OnnxJavaType.DOUBLE && type.valueType() == TensorType.Value.DOUBLE)
+            return IndexedTensor.Builder.of(type, sizes, toArray(onnxTensor.getDoubleBuffer(), totalSize)).build();
+        IndexedTensor.BoundBuilder builder = (IndexedTensor.BoundBuilder) Tensor.Builder.of(type, sizes);
         switch (tensorInfo.type) {
             case FLOAT -> extractTensor(onnxTensor.getFloatBuffer(), builder, totalSize);
             case DOUBLE -> extractTensor(onnxTensor.getDoubleBuffer(), builder, totalSize);
@@ -163,6 +246,24 @@ class TensorConverter {
         return builder.build();
     }
 
+    /** Returns the array backing the given buffer if it holds exactly the given number of values, or a copy */
+    private static float[] toArray(FloatBuffer buffer, int size) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 && buffer.array().length == size)
+            return buffer.array();
+        float[] values = new float[size];
+        buffer.get(values);
+        return values;
+    }
+
+    /** Returns the array backing the given buffer if it holds exactly the given number of values, or a copy */
+    private static double[] toArray(DoubleBuffer buffer, int size) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 && buffer.array().length == size)
+            return buffer.array();
+        double[] values = new double[size];
+        buffer.get(values);
+        return values;
+    }
+
     static Map<String, TensorType> toVespaTypes(Map<String, NodeInfo> infoMap) {
         return infoMap.entrySet().stream().collect(Collectors.toMap(e -> asValidName(e.getKey()),
                                                                     e -> toVespaType(e.getValue().getInfo())));
@@ -4,9 +4,12 @@ package ai.vespa.modelintegration.utils;
 import net.jpountz.xxhash.XXHashFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 
 /**
@@ -31,16 +34,13 @@ public record ModelPathOrData(Optional<String> path, Optional<byte[]> data) {
 
     public long calculateHash() {
         if (path.isPresent()) {
-            try (var hasher = XXHashFactory.fastestInstance().newStreamingHash64(0);
-                 var in = Files.newInputStream(Paths.get(path.get()))) {
-                byte[] buffer = new byte[8192];
-                int bytesRead;
-
-                while ((bytesRead = in.read(buffer)) != -1) {
-                    hasher.update(buffer, 0, bytesRead);
+            try (var channel = FileChannel.open(Paths.get(path.get()), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size <= Integer.MAX_VALUE) { // Hash the mapped file, rather than copying it to the heap in chunks
+                    var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    return XXHashFactory.fastestInstance().hash64().hash(buffer, 0, (int) size, 0);
                 }
-
-                return hasher.getValue();
+                return streamingHash(Channels.newInputStream(channel));
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
@@ -48,4 +48,15 @@ public record ModelPathOrData(Optional<String> path, Optional<byte[]> data) {
             return XXHashFactory.fastestInstance().hash64().hash(data.get(), 0, data.get().length, 0);
         }
     }
+
+    static long streamingHash(InputStream in) throws IOException {
+        try (var hasher = XXHashFactory.fastestInstance().newStreamingHash64(0)) {
+            byte[] buffer = new byte[1 << 20];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                hasher.update(buffer, 0, bytesRead);
+            }
+            return hasher.getValue();
+        }
+    }
 }
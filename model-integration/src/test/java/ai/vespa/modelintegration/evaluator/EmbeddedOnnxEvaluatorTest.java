@@ -20,6 +20,7 @@ import java.util.logging.Handler;
 import java.util.logging.LogRecord;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
@@ -54,6 +55,44 @@ public class EmbeddedOnnxEvaluatorTest {
         assertEquals(evaluator.evaluate(inputs, "output"), Tensor.from("tensor(d0[1],d1[1]):[1.3]"));
     }
 
+    @Test
+    public void testInputBuffersAreReusedAndReleased() {
+        var pool = new TensorConverter.InputBuffersPool(2);
+        var buffers1 = pool.acquire();
+        var buffers2 = pool.acquire();
+        var buffers3 = pool.acquire();
+        pool.release(buffers1);
+        pool.release(buffers2);
+        pool.release(buffers3);
+        assertEquals(2, pool.idle());
+        assertSame(buffers1, pool.acquire());
+        pool.clear();
+        assertEquals(0, pool.idle());
+
+        var buffers = new TensorConverter.InputBuffers();
+        buffers.get(0, 100).put(0, (byte) 7);
+        assertEquals(7, buffers.get(0, 200).get(0));
+        buffers.get(1, 2 << 20).put(0, (byte) 7);
+        assertEquals(0, buffers.get(1, 2 << 20).get(0)); // Too large to be kept
+    }
+
+    @Test
+    public void testEvaluatorReleasesInputBuffersOnClose() {
+        assumeTrue(OnnxRuntime.isRuntimeAvailable());
+        var runtime = EmbeddedOnnxRuntime.createTestInstance();
+        var evaluator = (EmbeddedOnnxEvaluator) runtime.evaluatorOf("src/test/models/onnx/simple/simple.onnx");
+        Map<String, Tensor> inputs = new HashMap<>();
+        inputs.put("query_tensor", Tensor.from("tensor(d0[1],d1[4]):[0.1, 0.2, 0.3, 0.4]"));
+        inputs.put("attribute_tensor", Tensor.from("tensor(d0[4],d1[1]):[0.1, 0.2, 0.3, 0.4]"));
+        inputs.put("bias_tensor", Tensor.from("tensor(d0[1],d1[1]):[1.0]"));
+
+        assertEquals(Tensor.from("tensor(d0[1],d1[1]):[1.3]"), evaluator.evaluate(inputs, "output"));
+        assertEquals(Tensor.from("tensor(d0[1],d1[1]):[1.3]"), evaluator.evaluate(inputs).get("output"));
+        assertEquals(1, evaluator.idleInputBuffers());
+        evaluator.close();
+        assertEquals(0, evaluator.idleInputBuffers());
+    }
+
     @Test
     public void testBatchDimension() {
         assumeTrue(OnnxRuntime.isRuntimeAvailable());
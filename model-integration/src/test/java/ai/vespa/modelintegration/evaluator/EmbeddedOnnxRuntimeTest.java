@@ -51,6 +51,25 @@ class EmbeddedOnnxRuntimeTest {
         assertClosed(session4);
     }
 
+    @Test
+    void remembers_model_file_hashes_while_their_sessions_are_active() {
+        assumeTrue(OnnxRuntime.isRuntimeAvailable());
+        var runtime = EmbeddedOnnxRuntime.createTestInstance();
+        String model1 = "src/test/models/onnx/simple/simple.onnx";
+        var evaluator1 = runtime.evaluatorOf(model1);
+        var evaluator2 = runtime.evaluatorOf(model1);
+        String model2 = "src/test/models/onnx/simple/matmul.onnx";
+        var evaluator3 = runtime.evaluatorOf(model2);
+        assertEquals(2, runtime.modelFileHashesCached());
+
+        evaluator1.close();
+        assertEquals(2, runtime.modelFileHashesCached());
+        evaluator2.close();
+        assertEquals(1, runtime.modelFileHashesCached());
+        evaluator3.close();
+        assertEquals(0, runtime.modelFileHashesCached());
+    }
+
     @Test
     void loads_model_from_byte_array() throws IOException {
         assumeTrue(OnnxRuntime.isRuntimeAvailable());
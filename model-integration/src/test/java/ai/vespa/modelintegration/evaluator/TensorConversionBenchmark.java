@@ -0,0 +1,79 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.modelintegration.evaluator;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.TensorInfo;
+import com.yahoo.tensor.IndexedTensor;
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
+
+import java.nio.FloatBuffer;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Microbenchmark of converting a float tensor to an ONNX input and an ONNX output back to a tensor,
+ * which is done for each evaluation of an ONNX model, with input buffers from a pool as in
+ * {@link EmbeddedOnnxEvaluator}, and with new buffers for each conversion.
+ *
+ * @author agent
+ */
+public class TensorConversionBenchmark {
+
+    private static final int RUNS = 100000;
+
+    private final OrtEnvironment environment = OrtEnvironment.getEnvironment();
+
+    public void benchmark(int size) throws OrtException {
+        Tensor tensor = randomTensor(size);
+        try (OnnxTensor output = OnnxTensor.createTensor(environment, FloatBuffer.wrap(randomValues(size)), new long[] { 1, size })) {
+            TensorInfo info = output.getInfo();
+            for (boolean pooled : new boolean[] { true, false }) {
+                TensorConverter.InputBuffersPool pool = new TensorConverter.InputBuffersPool(1);
+                convert(tensor, info, output, pool, pooled); // warmup
+                long startTime = System.nanoTime();
+                convert(tensor, info, output, pool, pooled);
+                long totalTime = System.nanoTime() - startTime;
+                System.out.printf(Locale.US, "Time per conversion of %d cells with %s buffers: %d nanoseconds\n",
+                                  size, pooled ? "pooled" : "new", totalTime / RUNS);
+            }
+        }
+    }
+
+    private double convert(Tensor tensor, TensorInfo info, OnnxTensor output,
+                           TensorConverter.InputBuffersPool pool, boolean pooled) throws OrtException {
+        double sum = 0;
+        for (int i = 0; i < RUNS; i++) {
+            TensorConverter.InputBuffers buffers = pooled ? pool.acquire() : new TensorConverter.InputBuffers();
+            try (OnnxTensor input = TensorConverter.toOnnxTensor(tensor, info, environment, buffers, 0)) {
+                sum += TensorConverter.toVespaTensor(output).sum().asDouble();
+            }
+            if (pooled)
+                pool.release(buffers);
+        }
+        return sum;
+    }
+
+    private static Tensor randomTensor(int size) {
+        TensorType type = new TensorType.Builder(TensorType.Value.FLOAT).indexed("d0", 1).indexed("d1", size).build();
+        return IndexedTensor.Builder.of(type, randomValues(size)).build();
+    }
+
+    private static float[] randomValues(int size) {
+        Random random = new Random(1);
+        float[] values = new float[size];
+        for (int i = 0; i < size; i++)
+            values[i] = random.nextFloat();
+        return values;
+    }
+
+    public static void main(String[] args) throws OrtException {
+        TensorConversionBenchmark benchmark = new TensorConversionBenchmark();
+        benchmark.benchmark(128);
+        benchmark.benchmark(1024);
+        benchmark.benchmark(16384);
+    }
+
+}
@@ -0,0 +1,45 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.modelintegration.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * @author agent
+ */
+class ModelPathOrDataTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void file_and_data_with_the_same_content_have_the_same_hash() throws IOException {
+        byte[] data = new byte[3 * (1 << 20) + 17]; // Spans several buffers when streamed
+        new Random(42).nextBytes(data);
+        Path model = tmpDir.resolve("model.onnx");
+        Files.write(model, data);
+
+        long hash = ModelPathOrData.of(data).calculateHash();
+        assertEquals(hash, ModelPathOrData.of(model.toString()).calculateHash());
+        assertEquals(hash, ModelPathOrData.streamingHash(new ByteArrayInputStream(data)));
+
+        data[data.length - 1]++;
+        assertNotEquals(hash, ModelPathOrData.of(data).calculateHash());
+    }
+
+    @Test
+    void empty_file_has_the_hash_of_no_data() throws IOException {
+        Path model = Files.createFile(tmpDir.resolve("empty.onnx"));
+        assertEquals(ModelPathOrData.of(new byte[0]).calculateHash(), ModelPathOrData.of(model.toString()).calculateHash());
+    }
+
+}
@@ -72,6 +72,16 @@ public:
      */
     const vespalib::ThreadExecutor& get_executor() const { return _executor; }
 
+    /**
+     * Returns the number of search requests being matched or waiting to be.
+     */
+    uint32_t num_pending_searches() const { return _executor.num_pending_tasks(); }
+
+    /**
+     * Returns the number of search requests which may be matched concurrently.
+     */
+    uint32_t num_search_threads() const { return _executor.getNumThreads(); }
+
     /**
      * Closes the request handler interface. This will prevent any more data
      * from entering this object, allowing you to flush all pending operations
@@ -804,6 +804,8 @@ std::unique_ptr<MonitorReply> Proton::ping(std::unique_ptr<MonitorRequest>, Moni
         auto docs = getNumActiveDocs();
         ret.activeDocs = docs.active;
         ret.targetActiveDocs = docs.target_active;
+        ret.pending_queries = _matchEngine->num_pending_searches();
+        ret.query_threads = _matchEngine->num_search_threads();
     } else {
         ret.timestamp = 0;
         ret.activeDocs = 0;
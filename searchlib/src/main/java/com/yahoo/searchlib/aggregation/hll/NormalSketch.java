@@ -67,6 +67,15 @@ public class NormalSketch extends Sketch<NormalSketch>  {
         }
     }
 
+    /**
+     * Aggregates the hash values of the given sparse sketch.
+     *
+     * @param sketch Sparse sketch
+     */
+    public void aggregate(SparseSketch sketch) {
+        sketch.forEach(this::aggregate);
+    }
+
     /**
      * Aggregates the hash value.
      *
@@ -34,7 +34,7 @@ public class SketchMerger {
         dest.merge(other);
         if (dest.size() > HyperLogLog.SPARSE_SKETCH_CONVERSION_THRESHOLD) {
             NormalSketch newSketch = new NormalSketch();
-            newSketch.aggregate(dest.data());
+            newSketch.aggregate(dest);
             return newSketch;
         }
         return dest;
@@ -46,9 +46,8 @@ public class SketchMerger {
     }
 
     private NormalSketch mergeNormalWithSparse(NormalSketch dest, SparseSketch other) {
-        NormalSketch newSketch = new NormalSketch();
-        newSketch.aggregate(other.data());
-        dest.merge(newSketch);
+        // Aggregating is a pairwise maximum too, so there is no need to build a normal sketch from the sparse one first
+        dest.aggregate(other);
         return dest;
     }
 
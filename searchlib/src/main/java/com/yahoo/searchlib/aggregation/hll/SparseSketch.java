@@ -4,16 +4,27 @@ package com.yahoo.searchlib.aggregation.hll;
 import com.yahoo.vespa.objects.Deserializer;
 import com.yahoo.vespa.objects.Serializer;
 
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
 
+/**
+ * Sketch holding the distinct hash values themselves, used until there are so many that a {@link NormalSketch}
+ * is smaller. The values are kept in an open addressing hash table of primitive ints.
+ */
 public class SparseSketch extends Sketch<SparseSketch> {
 
     public static final int classId = registerClass(0x4000 + 171, SparseSketch.class, SparseSketch::new);
-    private final HashSet<Integer> values = new HashSet<>();
+
+    private static final int EMPTY = 0; // The zero value is tracked separately, by containsZero
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] table = new int[INITIAL_CAPACITY];
+    private boolean containsZero = false;
+    private int size = 0;
 
     @Override
     public void merge(SparseSketch other) {
-        values.addAll(other.values);
+        other.forEach(this::aggregate);
     }
 
     /**
@@ -35,7 +46,56 @@ public class SparseSketch extends Sketch<SparseSketch> {
      */
     @Override
     public void aggregate(int hash) {
-        values.add(hash);
+        if (hash == EMPTY) {
+            if ( ! containsZero) {
+                containsZero = true;
+                size++;
+            }
+            return;
+        }
+        int mask = table.length - 1;
+        for (int i = index(hash, mask); ; i = (i + 1) & mask) {
+            if (table[i] == hash) return;
+            if (table[i] == EMPTY) {
+                table[i] = hash;
+                if (++size > table.length / 2) grow();
+                return;
+            }
+        }
+    }
+
+    private void grow() {
+        int[] old = table;
+        table = new int[old.length * 2];
+        int mask = table.length - 1;
+        for (int hash : old) {
+            if (hash == EMPTY) continue;
+            int i = index(hash, mask);
+            while (table[i] != EMPTY) i = (i + 1) & mask;
+            table[i] = hash;
+        }
+    }
+
+    private boolean contains(int hash) {
+        if (hash == EMPTY) return containsZero;
+        int mask = table.length - 1;
+        for (int i = index(hash, mask); table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == hash) return true;
+        }
+        return false;
+    }
+
+    private static int index(int hash, int mask) {
+        int spread = hash * 0x9E3779B9; // Spread bits, as values may differ only in their high bits
+        return (spread ^ (spread >>> 16)) & mask;
+    }
+
+    /** Calls the given consumer with each distinct hash value in this, in no particular order. */
+    public void forEach(IntConsumer consumer) {
+        if (containsZero) consumer.accept(EMPTY);
+        for (int hash : table) {
+            if (hash != EMPTY) consumer.accept(hash);
+        }
     }
 
     /**
@@ -50,19 +110,19 @@ public class SparseSketch extends Sketch<SparseSketch> {
     @Override
     protected void onSerialize(Serializer buf) {
         super.onSerialize(buf);
-        buf.putInt(null, values.size());
-        for (int value : values) {
-            buf.putInt(null, value);
-        }
+        buf.putInt(null, size);
+        forEach(value -> buf.putInt(null, value));
     }
 
     @Override
     protected void onDeserialize(Deserializer buf) {
         super.onDeserialize(buf);
-        values.clear();
         int nElements = buf.getInt(null);
+        table = new int[Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, nElements)) * 4)];
+        containsZero = false;
+        size = 0;
         for (int i = 0; i < nElements; i++) {
-            values.add(buf.getInt(null));
+            aggregate(buf.getInt(null));
         }
     }
 
@@ -71,12 +131,17 @@ public class SparseSketch extends Sketch<SparseSketch> {
         return classId;
     }
 
-    public HashSet<Integer> data() {
+    /** Returns the distinct hash values in this, in ascending order. */
+    public int[] data() {
+        int[] values = new int[size];
+        int[] index = { 0 };
+        forEach(value -> values[index[0]++] = value);
+        Arrays.sort(values);
         return values;
     }
 
     public int size() {
-        return values.size();
+        return size;
     }
 
     @Override
@@ -86,20 +151,28 @@ public class SparseSketch extends Sketch<SparseSketch> {
 
         SparseSketch sketch = (SparseSketch) o;
 
-        if (!values.equals(sketch.values)) return false;
+        if (size != sketch.size) return false;
+        if (containsZero != sketch.containsZero) return false;
+        for (int hash : table) {
+            if (hash != EMPTY && ! sketch.contains(hash)) return false;
+        }
 
         return true;
     }
 
     @Override
     public int hashCode() {
-        return values.hashCode();
+        int hashCode = 0;
+        for (int hash : table) {
+            hashCode += hash; // Independent of the order of the values, like that of a set
+        }
+        return hashCode;
     }
 
     @Override
     public String toString() {
         return "SparseSketch{" +
-                "values=" + values +
+                "values=" + Arrays.toString(data()) +
                 '}';
     }
 }
@@ -57,7 +57,7 @@ public class HyperLogLogPrecisionBenchmark {
         }
         if (sparse.size() > HyperLogLog.SPARSE_SKETCH_CONVERSION_THRESHOLD) {
             NormalSketch normal = new NormalSketch();
-            normal.aggregate(sparse.data());
+            normal.aggregate(sparse);
             return estimator.estimateCount(normal);
         } else {
             return estimator.estimateCount(sparse);
@@ -0,0 +1,80 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.searchlib.aggregation.hll;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * This benchmark measures the time spent merging the sketches of many groups from many content nodes,
+ * as is done for unique count estimates in grouping results, using sketches filled like those of
+ * {@link HyperLogLogPrecisionBenchmark}.
+ */
+public class SketchMergeBenchmark {
+
+    private static final int GROUPS = 2000;
+    private static final int NODES = 100;
+    private static final int ITERATIONS = 10;
+
+    private static final SketchMerger merger = new SketchMerger();
+    private static final Random random = new Random(424242);
+
+    public static void main(String[] args) {
+        System.out.println("Unique count per node; Sketch type; Merges; Time per merge (ns)");
+        for (int values : new int[] { 16, 128, 1024, 16384 }) {
+            List<Sketch<?>> sketches = createSketches(values);
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                long start = System.nanoTime();
+                long merges = mergeAll(sketches);
+                long elapsed = System.nanoTime() - start;
+                if (iteration == ITERATIONS - 1)
+                    System.out.printf(Locale.US, "%d; %s; %d; %.1f\n", values, sketches.get(0).getClass().getSimpleName(),
+                                      merges, elapsed / (double) merges);
+            }
+        }
+    }
+
+    private static List<Sketch<?>> createSketches(int values) {
+        List<Sketch<?>> sketches = new ArrayList<>(NODES);
+        for (int node = 0; node < NODES; node++) {
+            SparseSketch sparse = new SparseSketch();
+            while (sparse.size() < values) {
+                sparse.aggregate(random.nextInt());
+            }
+            if (sparse.size() > HyperLogLog.SPARSE_SKETCH_CONVERSION_THRESHOLD) {
+                NormalSketch normal = new NormalSketch();
+                normal.aggregate(sparse);
+                sketches.add(normal);
+            } else {
+                sketches.add(sparse);
+            }
+        }
+        return sketches;
+    }
+
+    /** Merges the sketches of all nodes, once per group, into a copy of the first, like grouping result merging does */
+    private static long mergeAll(List<Sketch<?>> sketches) {
+        long merges = 0;
+        for (int group = 0; group < GROUPS; group++) {
+            Sketch<?> merged = copy(sketches.get(0));
+            for (int node = 1; node < NODES; node++) {
+                merged = merger.merge(merged, sketches.get(node));
+                merges++;
+            }
+        }
+        return merges;
+    }
+
+    private static Sketch<?> copy(Sketch<?> sketch) {
+        if (sketch instanceof NormalSketch normal) {
+            NormalSketch copy = new NormalSketch();
+            copy.merge(normal);
+            return copy;
+        }
+        SparseSketch copy = new SparseSketch();
+        copy.merge((SparseSketch) sketch);
+        return copy;
+    }
+
+}
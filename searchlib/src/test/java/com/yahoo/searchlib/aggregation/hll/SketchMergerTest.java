@@ -39,8 +39,8 @@ public class SketchMergerTest {
         assertEquals(result.getClass(), NormalSketch.class);
 
         List<Integer> unionOfSketchData = new ArrayList<>();
-        unionOfSketchData.addAll(s1.data());
-        unionOfSketchData.addAll(s2.data());
+        for (int value : s1.data()) unionOfSketchData.add(value);
+        for (int value : s2.data()) unionOfSketchData.add(value);
         Integer[] expectedValues = unionOfSketchData.toArray(new Integer[unionOfSketchData.size()]);
         SketchUtils.assertSketchContains(result, expectedValues);
     }
@@ -4,10 +4,9 @@ package com.yahoo.searchlib.aggregation.hll;
 import com.yahoo.vespa.objects.BufferSerializer;
 import org.junit.Test;
 
-import java.util.HashSet;
-
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertNotEquals;
 
 public class SparseSketchTest {
 
@@ -23,11 +22,28 @@ public class SparseSketchTest {
 
         s1.merge(s2);
 
-        HashSet<Integer> data = s1.data();
         assertEquals(3, s1.size());
-        assertTrue(data.contains(42));
-        assertTrue(data.contains(1337));
-        assertTrue(data.contains(9001));
+        assertArrayEquals(new int[] { 42, 1337, 9001 }, s1.data());
+    }
+
+    @Test
+    public void requireThatAllValuesAreRetainedWhenGrowing() {
+        SparseSketch s1 = new SparseSketch();
+        SparseSketch s2 = new SparseSketch();
+        int[] expected = new int[1001];
+        for (int i = 0; i <= 1000; i++) {
+            s1.aggregate((i - 500) << 20); // Values differing only in the high bits, including 0
+            s2.aggregate((500 - i) << 20);
+            expected[i] = (i - 500) << 20;
+        }
+        s1.aggregate(0);
+        assertEquals(1001, s1.size());
+        assertArrayEquals(expected, s1.data());
+        assertEquals(s1, s2);
+        assertEquals(s1.hashCode(), s2.hashCode());
+
+        s2.aggregate(1);
+        assertNotEquals(s1, s2);
     }
 
 
@@ -36,6 +52,7 @@ public class SparseSketchTest {
         SparseSketch from = new SparseSketch();
         from.aggregate(42);
         from.aggregate(1337);
+        from.aggregate(0);
 
         SparseSketch to = new SparseSketch();
 
@@ -57,6 +74,7 @@ public class SparseSketchTest {
         s2.aggregate(42);
         s2.aggregate(1337);
 
-        assertEquals(s1.data(), s2.data());
+        assertArrayEquals(s1.data(), s2.data());
+        assertEquals(s1, s2);
     }
 }
@@ -644,6 +644,14 @@ TEST_F(MonitorReplyTest, require_that_is_blocking_writes_is_converted) {
     EXPECT_TRUE(proto.is_blocking_writes());
 }
 
+TEST_F(MonitorReplyTest, require_that_query_load_is_converted) {
+    reply.pending_queries = 17;
+    reply.query_threads = 8;
+    convert();
+    EXPECT_EQ(proto.pending_queries(), 17);
+    EXPECT_EQ(proto.query_threads(), 8);
+}
+
 //-----------------------------------------------------------------------------
 
 GTEST_MAIN_RUN_ALL_TESTS()
@@ -5,7 +5,8 @@
 namespace search::engine {
 
 MonitorReply::MonitorReply()
-    : activeDocs(0), targetActiveDocs(0), distribution_key(-1), timestamp(), is_blocking_writes(false) {
+    : activeDocs(0), targetActiveDocs(0), distribution_key(-1), timestamp(), pending_queries(0), query_threads(0),
+      is_blocking_writes(false) {
 }
 
 } // namespace search::engine
@@ -11,6 +11,8 @@ struct MonitorReply {
     uint64_t targetActiveDocs;
     int32_t  distribution_key;
     uint32_t timestamp;
+    uint32_t pending_queries;
+    uint32_t query_threads;
     bool     is_blocking_writes;
 
     MonitorReply();
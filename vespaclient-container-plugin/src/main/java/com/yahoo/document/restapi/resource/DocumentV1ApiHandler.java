@@ -27,6 +27,7 @@ import com.yahoo.document.json.DocumentOperationType;
 import com.yahoo.document.json.JsonReader;
 import com.yahoo.document.json.ParsedDocumentOperation;
 import com.yahoo.document.restapi.DocumentOperationExecutorConfig;
+import com.yahoo.document.select.DocumentSelector;
 import com.yahoo.document.select.parser.ParseException;
 import com.yahoo.documentapi.AckToken;
 import com.yahoo.documentapi.AsyncParameters;
@@ -80,6 +81,7 @@ import java.nio.ByteBuffer;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -133,6 +135,7 @@ public final class DocumentV1ApiHandler extends AbstractRequestHandler {
 
     private static final Duration defaultTimeout = Duration.ofSeconds(180); // Match document API default timeout.
     private static final Duration handlerTimeout = Duration.ofMillis(100); // Extra time to allow for handler, JDisc and jetty to complete.
+    private static final int maxParallelSlices = 64;
 
     private static final Logger log = Logger.getLogger(DocumentV1ApiHandler.class.getName());
     private static final Parser<Integer> integerParser = Integer::parseInt;
@@ -177,6 +180,7 @@ public final class DocumentV1ApiHandler extends AbstractRequestHandler {
     private static final String STREAM = "stream";
     private static final String SLICES = "slices";
     private static final String SLICE_ID = "sliceId";
+    private static final String PARALLEL_SLICES = "parallelSlices";
     private static final String DRY_RUN = "dryRun";
     private static final String FROM_TIMESTAMP = "fromTimestamp";
     private static final String TO_TIMESTAMP = "toTimestamp";
@@ -407,7 +411,18 @@ public final class DocumentV1ApiHandler extends AbstractRequestHandler {
         disallow(request, DRY_RUN);
         enqueueAndDispatch(request, handler, 0, () -> {
             boolean streamed = getProperty(request, STREAM, booleanParser).orElse(false);
+            Optional<Integer> parallelSlices = parseParallelSlices(request, streamed);
             VisitorParameters parameters = parseGetParameters(request, path, streamed);
+            if (parallelSlices.isPresent()) {
+                List<VisitorParameters> slices = new ArrayList<>(List.of(parameters));
+                while (slices.size() < parallelSlices.get())
+                    slices.add(parseGetParameters(request, path, streamed));
+
+                return () -> {
+                    visitSlicesAndWrite(request, slices, handler);
+                    return true; // VisitorSession has its own throttle handling.
+                };
+            }
             return () -> {
                 visitAndWrite(request, parameters, handler, streamed);
                 return true; // VisitorSession has its own throttle handling.
@@ -1101,8 +1116,23 @@ public final class DocumentV1ApiHandler extends AbstractRequestHandler {
         return parameters;
     }
 
+    /** Returns the number of slices to visit in parallel for a single streamed response, if this is requested. */
+    private static Optional<Integer> parseParallelSlices(HttpRequest request, boolean streamed) {
+        Optional<Integer> parallelSlices = getProperty(request, PARALLEL_SLICES, integerParser);
+        if (parallelSlices.isEmpty()) return parallelSlices;
+
+        if ( ! streamed) {
+            throw new IllegalArgumentException("'" + PARALLEL_SLICES + "' requires '" + STREAM + "' to be set");
+        }
+        disallow(request, SLICES, SLICE_ID);
+        if (parallelSlices.get() <= 0 || parallelSlices.get() > maxParallelSlices) {
+            throw new IllegalArgumentException(PARALLEL_SLICES + " must be between 1 and " + maxParallelSlices);
+        }
+        return parallelSlices;
+    }
+
     private VisitorParameters parseParameters(HttpRequest request, DocumentPath path) {
-        disallow(request, CONCURRENCY, FIELD_SET, ROUTE, WANTED_DOCUMENT_COUNT);
+        disallow(request, CONCURRENCY, FIELD_SET, ROUTE, WANTED_DOCUMENT_COUNT, PARALLEL_SLICES);
         requireProperty(request, SELECTION);
         VisitorParameters parameters = parseCommonParameters(request, path, Optional.of(requireProperty(request, CLUSTER)));
         parameters.setThrottlePolicy(new DynamicThrottlePolicy().setMinWindowSize(1).setWindowSizeIncrement(1));
@@ -1130,7 +1160,9 @@ public final class DocumentV1ApiHandler extends AbstractRequestHandler {
 
         getProperty(request, TRACELEVEL, integerParser).ifPresent(parameters::setTraceLevel);
 
-        getProperty(request, CONTINUATION, ProgressToken::fromSerializedString).ifPresent(parameters::setResumeToken);
+        if ( ! request.parameters().containsKey(PARALLEL_SLICES)) { // Sliced continuations are resolved per slice.
+            getProperty(request, CONTINUATION, ProgressToken::fromSerializedString).ifPresent(parameters::setResumeToken);
+        }
         parameters.setPriority(DocumentProtocol.Priority.NORMAL_4);
 
         getProperty(request, FROM_TIMESTAMP, unsignedLongParser).ifPresent(parameters::setFromTimestamp);
@@ -1249,7 +1281,99 @@ public final class DocumentV1ApiHandler extends AbstractRequestHandler {
     }
 
     private void visitAndWrite(HttpRequest request, VisitorParameters parameters, ResponseHandler handler, boolean streamed) {
-        visit(request, parameters, streamed, true, handler, new VisitCallback() {
+        visit(request, parameters, streamed, true, handler, writingCallback(streamed));
+    }
+
+    /**
+     * Visits each of the given parameters as one slice of the whole, in parallel visitor sessions, and streams the
+     * interleaved output of all of these as a single response. Documents from all slices share the flow control of that
+     * response, while the continuation token returned spans all slices, and must be used with the same number of slices.
+     */
+    private void visitSlicesAndWrite(HttpRequest request, List<VisitorParameters> slices, ResponseHandler handler) {
+        List<Optional<String>> continuations;
+        List<Optional<ProgressToken>> progress;
+        SlicedVisitResponse response;
+        try {
+            // Continuation tokens and selection are validated before the response is committed, so errors are bad requests.
+            continuations = SlicedVisitResponse.parseContinuation(getProperty(request, CONTINUATION), slices.size());
+            progress = parseSliceProgress(continuations);
+            new DocumentSelector(slices.get(0).getDocumentSelection());
+            response = new SlicedVisitResponse(createStreamableJsonResponse(request, handler, true), continuations);
+            response.start();
+        } catch (ParseException e) {
+            badRequest(request, new IllegalArgumentException(e), handler);
+            return;
+        } catch (IllegalArgumentException e) {
+            badRequest(request, e, handler);
+            return;
+        } catch (IOException e) {
+            log.log(FINE, "Failed writing response", e);
+            return;
+        }
+
+        List<VisitorControlHandler> started = new ArrayList<>();
+        for (int sliceId = 0; sliceId < slices.size(); sliceId++) {
+            StreamableJsonResponse slice = response.slice(sliceId);
+            try {
+                if (SlicedVisitResponse.isFinished(continuations.get(sliceId))) {
+                    slice.writeEpilogueContinuation(VisitorContinuation.FINISHED);
+                    slice.close();
+                    continue;
+                }
+                VisitorParameters parameters = slices.get(sliceId);
+                parameters.slice(slices.size(), sliceId);
+                progress.get(sliceId).ifPresent(parameters::setResumeToken);
+                started.add(visit(request, parameters, true, true, slice, writingCallback(true)));
+            } catch (Exception e) {
+                // The OK status is already written, so the error must go in the response, which is closed when all slices are.
+                String message = "Failed starting visit of slice " + sliceId + ": " + Exceptions.toMessageString(e);
+                log.log(FINE, message, e);
+                failSlices(response, continuations, progress, sliceId, message);
+                started.forEach(VisitorControlHandler::abort);
+                return;
+            }
+        }
+    }
+
+    /** Closes the given slice, and all following ones, with the given error message, and the progress they were to resume from. */
+    private static void failSlices(SlicedVisitResponse response, List<Optional<String>> continuations,
+                                   List<Optional<ProgressToken>> progress, int firstSliceId, String message) {
+        for (int sliceId = firstSliceId; sliceId < continuations.size(); sliceId++) {
+            Optional<String> continuation = continuations.get(sliceId);
+            Optional<ProgressToken> token = progress.get(sliceId);
+            StreamableJsonResponse slice = response.slice(sliceId);
+            loggingException(() -> {
+                try (slice) {
+                    slice.writeMessage(message, StreamableJsonResponse.MessageSeverity.ERROR);
+                    if (SlicedVisitResponse.isFinished(continuation))
+                        slice.writeEpilogueContinuation(VisitorContinuation.FINISHED);
+                    else if (token.isPresent())
+                        slice.writeEpilogueContinuation(continuationFromToken(token.get()));
+                }
+            });
+        }
+    }
+
+    /** Returns the progress to resume each slice from, which is empty for slices which are new or already finished. */
+    private static List<Optional<ProgressToken>> parseSliceProgress(List<Optional<String>> continuations) {
+        List<Optional<ProgressToken>> progress = new ArrayList<>(continuations.size());
+        for (int sliceId = 0; sliceId < continuations.size(); sliceId++) {
+            Optional<String> continuation = continuations.get(sliceId);
+            if (continuation.isEmpty() || SlicedVisitResponse.isFinished(continuation)) {
+                progress.add(Optional.empty());
+                continue;
+            }
+            try {
+                progress.add(Optional.of(ProgressToken.fromSerializedString(continuation.get())));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid continuation token for slice " + sliceId, e);
+            }
+        }
+        return progress;
+    }
+
+    private VisitCallback writingCallback(boolean streamed) {
+        return new VisitCallback() {
             @Override public void onStart(StreamableJsonResponse response, boolean fullyApplied) throws IOException {
                 if (streamed) {
                     response.commit(Response.Status.OK, fullyApplied, false);
@@ -1281,7 +1405,7 @@ public final class DocumentV1ApiHandler extends AbstractRequestHandler {
             @Override public void onEnd(StreamableJsonResponse response) throws IOException {
                 response.writeDocumentsArrayEnd();
             }
-        });
+        };
     }
 
     private void visitWithRemote(HttpRequest request, VisitorParameters parameters, ResponseHandler handler) {
@@ -1333,151 +1457,157 @@ public final class DocumentV1ApiHandler extends AbstractRequestHandler {
         return new ProgressToken(sourceToken.serialize());
     }
 
-    @SuppressWarnings("fallthrough")
     private void visit(HttpRequest request, VisitorParameters parameters, boolean streaming, boolean fullyApplied,
                        ResponseHandler handler, VisitCallback callback) {
         try {
-            StreamableJsonResponse response = createStreamableJsonResponse(request, handler, streaming);
-            Phaser phaser = new Phaser(2); // Synchronize this thread (dispatch) with the visitor callback thread.
-            AtomicReference<String> error = new AtomicReference<>(); // Set if error occurs during processing of visited documents.
-            callback.onStart(response, fullyApplied);
-            final AtomicLong locallyReceivedDocCount = new AtomicLong(0);
-            VisitorControlHandler controller = new VisitorControlHandler() {
-                final ScheduledFuture<?> abort = streaming ? visitDispatcher.schedule(this::abort, visitTimeout(request), MILLISECONDS) : null;
-                final AtomicReference<VisitorSession> session = new AtomicReference<>();
-                ProgressToken initialProgress = parameters.getResumeToken(); // may be null
-                @Override public void setSession(VisitorControlSession session) { // Workaround for broken session API ಠ_ಠ
-                    super.setSession(session);
-                    if (session instanceof VisitorSession visitorSession) {
-                        // If no initial progress was provided (i.e. this is the first visit of potentially many)
-                        // we must remember the progress token implicitly created by the visitor session during
-                        // its bootstrap, as this token will represent the completely unfinished visit state.
-                        // This is because a session failure prior to receiving even a single bucket will not provide
-                        // us with an onProgress control handler callback, nor will the VisitorParameters have a
-                        // token. If we then don't remember the session's bootstrap token, we won't have a token
-                        // to communicate to the client, and the client may erroneously believe that visiting has
-                        // fully completed.
-                        if (initialProgress == null) {
-                            // The session has not yet been started when setSession() is invoked, so this is thread safe.
-                            initialProgress = cloneProgressToken(visitorSession.getProgress());
-                        }
-                        this.session.set(visitorSession);
+            visit(request, parameters, streaming, fullyApplied, createStreamableJsonResponse(request, handler, streaming), callback);
+        } catch (ParseException e) {
+            badRequest(request, new IllegalArgumentException(e), handler);
+        } catch (IOException e) {
+            log.log(FINE, "Failed writing response", e);
+        }
+    }
+
+    /** Starts visiting with the given parameters, writing to the given response, and returns the control handler of the visit. */
+    @SuppressWarnings("fallthrough")
+    private VisitorControlHandler visit(HttpRequest request, VisitorParameters parameters, boolean streaming, boolean fullyApplied,
+                                        StreamableJsonResponse response, VisitCallback callback) throws ParseException, IOException {
+        Phaser phaser = new Phaser(2); // Synchronize this thread (dispatch) with the visitor callback thread.
+        AtomicReference<String> error = new AtomicReference<>(); // Set if error occurs during processing of visited documents.
+        callback.onStart(response, fullyApplied);
+        final AtomicLong locallyReceivedDocCount = new AtomicLong(0);
+        VisitorControlHandler controller = new VisitorControlHandler() {
+            final ScheduledFuture<?> abort = streaming ? visitDispatcher.schedule(this::abort, visitTimeout(request), MILLISECONDS) : null;
+            final AtomicReference<VisitorSession> session = new AtomicReference<>();
+            ProgressToken initialProgress = parameters.getResumeToken(); // may be null
+            @Override public void setSession(VisitorControlSession session) { // Workaround for broken session API ಠ_ಠ
+                super.setSession(session);
+                if (session instanceof VisitorSession visitorSession) {
+                    // If no initial progress was provided (i.e. this is the first visit of potentially many)
+                    // we must remember the progress token implicitly created by the visitor session during
+                    // its bootstrap, as this token will represent the completely unfinished visit state.
+                    // This is because a session failure prior to receiving even a single bucket will not provide
+                    // us with an onProgress control handler callback, nor will the VisitorParameters have a
+                    // token. If we then don't remember the session's bootstrap token, we won't have a token
+                    // to communicate to the client, and the client may erroneously believe that visiting has
+                    // fully completed.
+                    if (initialProgress == null) {
+                        // The session has not yet been started when setSession() is invoked, so this is thread safe.
+                        initialProgress = cloneProgressToken(visitorSession.getProgress());
                     }
+                    this.session.set(visitorSession);
                 }
-                void writeCurrentProgressTokenToResponse() throws IOException {
-                    ProgressToken progress = getProgress() != null ? getProgress() : initialProgress;
-                    if (progress != null) {
-                        if (progress.isFinished()) {
-                            response.writeEpilogueContinuation(VisitorContinuation.FINISHED);
-                        } else {
-                            response.writeEpilogueContinuation(continuationFromToken(progress));
-                        }
+            }
+            void writeCurrentProgressTokenToResponse() throws IOException {
+                ProgressToken progress = getProgress() != null ? getProgress() : initialProgress;
+                if (progress != null) {
+                    if (progress.isFinished()) {
+                        response.writeEpilogueContinuation(VisitorContinuation.FINISHED);
+                    } else {
+                        response.writeEpilogueContinuation(continuationFromToken(progress));
                     }
                 }
-                @Override public void onDone(CompletionCode code, String message) {
-                    super.onDone(code, message);
-                    loggingException(() -> {
-                        try (response) {
-                            callback.onEnd(response);
-
-                            // Locally tracked document count is only correct if we have a local data handler.
-                            // Otherwise, we have to report the statistics received transitively from the content nodes.
-                            long statsDocCount = (getVisitorStatistics() != null ? getVisitorStatistics().getDocumentsVisited() : 0);
-                            response.writeDocumentCount(parameters.getLocalDataHandler() != null ? locallyReceivedDocCount.get() : statsDocCount);
-
-                            if (session.get() != null) {
-                                response.writeTrace(session.get().getTrace());
-                            }
-                            int status = Status.INTERNAL_SERVER_ERROR;
-                            switch (code) {
-                                case TIMEOUT: // Intentional fallthrough.
-                                case ABORTED:
-                                    if (error.get() == null && ! hasVisitedAnyBuckets() && parameters.getVisitInconsistentBuckets()) {
-                                        response.writeMessage("No buckets visited within timeout of " +
-                                                              parameters.getSessionTimeoutMs() + "ms (request timeout -5s)",
-                                                              StreamableJsonResponse.MessageSeverity.INFO); // Timeout here is not an error
-                                        status = Response.Status.GATEWAY_TIMEOUT;
-                                        if (streaming) {
-                                            // When we're streaming output, we can't communicate timeouts via HTTP
-                                            // response codes since we've already sent all headers. We have no real
-                                            // choice but to emit the current progress token and letting the client
-                                            // try again. We can't _not_ do this, as the absence of a continuation
-                                            // token would make it appear as if visiting has completed successfully.
-                                            writeCurrentProgressTokenToResponse();
-                                        }
-                                        break;
-                                    }
-                                case SUCCESS:
-                                    if (error.get() == null) {
-                                        writeCurrentProgressTokenToResponse();
-                                        status = Response.Status.OK;
-                                        break;
-                                    }
-                                default:
-                                    response.writeMessage(error.get() != null ? error.get() : message != null ? message : "Visiting failed",
-                                                          StreamableJsonResponse.MessageSeverity.ERROR);
+            }
+            @Override public void onDone(CompletionCode code, String message) {
+                super.onDone(code, message);
+                loggingException(() -> {
+                    try (response) {
+                        callback.onEnd(response);
+
+                        // Locally tracked document count is only correct if we have a local data handler.
+                        // Otherwise, we have to report the statistics received transitively from the content nodes.
+                        long statsDocCount = (getVisitorStatistics() != null ? getVisitorStatistics().getDocumentsVisited() : 0);
+                        response.writeDocumentCount(parameters.getLocalDataHandler() != null ? locallyReceivedDocCount.get() : statsDocCount);
+
+                        if (session.get() != null) {
+                            response.writeTrace(session.get().getTrace());
+                        }
+                        int status = Status.INTERNAL_SERVER_ERROR;
+                        switch (code) {
+                            case TIMEOUT: // Intentional fallthrough.
+                            case ABORTED:
+                                if (error.get() == null && ! hasVisitedAnyBuckets() && parameters.getVisitInconsistentBuckets()) {
+                                    response.writeMessage("No buckets visited within timeout of " +
+                                                          parameters.getSessionTimeoutMs() + "ms (request timeout -5s)",
+                                                          StreamableJsonResponse.MessageSeverity.INFO); // Timeout here is not an error
+                                    status = Response.Status.GATEWAY_TIMEOUT;
                                     if (streaming) {
-                                        // Always attempt to write a continuation token regardless of error state when
-                                        // streaming. See timeout/aborted rationale above as to why we must do this.
+                                        // When we're streaming output, we can't communicate timeouts via HTTP
+                                        // response codes since we've already sent all headers. We have no real
+                                        // choice but to emit the current progress token and letting the client
+                                        // try again. We can't _not_ do this, as the absence of a continuation
+                                        // token would make it appear as if visiting has completed successfully.
                                         writeCurrentProgressTokenToResponse();
                                     }
-                            }
-                            if ( ! streaming) {
-                                response.commit(status, fullyApplied, false);
-                            }
+                                    break;
+                                }
+                            case SUCCESS:
+                                if (error.get() == null) {
+                                    writeCurrentProgressTokenToResponse();
+                                    status = Response.Status.OK;
+                                    break;
+                                }
+                            default:
+                                response.writeMessage(error.get() != null ? error.get() : message != null ? message : "Visiting failed",
+                                                      StreamableJsonResponse.MessageSeverity.ERROR);
+                                if (streaming) {
+                                    // Always attempt to write a continuation token regardless of error state when
+                                    // streaming. See timeout/aborted rationale above as to why we must do this.
+                                    writeCurrentProgressTokenToResponse();
+                                }
                         }
-                    });
-                    if (abort != null) {
-                        abort.cancel(false); // Avoid keeping scheduled future alive if this completes in any other fashion.
-                    }
-                    visitDispatcher.execute(() -> {
-                        phaser.arriveAndAwaitAdvance(); // We may get here while dispatching thread is still putting us in the map.
-                        visits.remove(this).destroy();
-                    });
-                }
-                @Override public void onProgress(ProgressToken token) {
-                    super.onProgress(token);
-                    if (streaming) {
-                        loggingException(() -> response.reportUpdatedContinuation(() -> continuationFromToken(token)));
-                    }
-                }
-            };
-            if (parameters.getRemoteDataHandler() == null) {
-                parameters.setLocalDataHandler(new VisitorDataHandler() {
-                    @Override public void onMessage(Message m, AckToken token) {
-                        Document document = null;
-                        DocumentId removeId = null;
-                        long persistedTimestamp = 0;
-                        if (m instanceof PutDocumentMessage put) {
-                            document = put.getDocumentPut().getDocument();
-                            persistedTimestamp = put.getPersistedTimestamp();
-                        } else if (parameters.visitRemoves() && m instanceof RemoveDocumentMessage remove) {
-                            removeId = remove.getDocumentId();
-                            persistedTimestamp = remove.getPersistedTimestamp();
-                        } else {
-                            throw new UnsupportedOperationException("Got unsupported message type: " + m.getClass().getName());
+                        if ( ! streaming) {
+                            response.commit(status, fullyApplied, false);
                         }
-                        locallyReceivedDocCount.getAndAdd(1);
-                        callback.onDocument(response,
-                                            document,
-                                            removeId,
-                                            persistedTimestamp,
-                                            () -> ack(token),
-                                            errorMessage -> {
-                                                error.set(errorMessage);
-                                                controller.abort();
-                                            });
                     }
                 });
+                if (abort != null) {
+                    abort.cancel(false); // Avoid keeping scheduled future alive if this completes in any other fashion.
+                }
+                visitDispatcher.execute(() -> {
+                    phaser.arriveAndAwaitAdvance(); // We may get here while dispatching thread is still putting us in the map.
+                    visits.remove(this).destroy();
+                });
             }
-            parameters.setControlHandler(controller);
-            visits.put(controller, access.createVisitorSession(parameters));
-            phaser.arriveAndDeregister();
-        } catch (ParseException e) {
-            badRequest(request, new IllegalArgumentException(e), handler);
-        } catch (IOException e) {
-            log.log(FINE, "Failed writing response", e);
+            @Override public void onProgress(ProgressToken token) {
+                super.onProgress(token);
+                if (streaming) {
+                    loggingException(() -> response.reportUpdatedContinuation(() -> continuationFromToken(token)));
+                }
+            }
+        };
+        if (parameters.getRemoteDataHandler() == null) {
+            parameters.setLocalDataHandler(new VisitorDataHandler() {
+                @Override public void onMessage(Message m, AckToken token) {
+                    Document document = null;
+                    DocumentId removeId = null;
+                    long persistedTimestamp = 0;
+                    if (m instanceof PutDocumentMessage put) {
+                        document = put.getDocumentPut().getDocument();
+                        persistedTimestamp = put.getPersistedTimestamp();
+                    } else if (parameters.visitRemoves() && m instanceof RemoveDocumentMessage remove) {
+                        removeId = remove.getDocumentId();
+                        persistedTimestamp = remove.getPersistedTimestamp();
+                    } else {
+                        throw new UnsupportedOperationException("Got unsupported message type: " + m.getClass().getName());
+                    }
+                    locallyReceivedDocCount.getAndAdd(1);
+                    callback.onDocument(response,
+                                        document,
+                                        removeId,
+                                        persistedTimestamp,
+                                        () -> ack(token),
+                                        errorMessage -> {
+                                            error.set(errorMessage);
+                                            controller.abort();
+                                        });
+                }
+            });
         }
+        parameters.setControlHandler(controller);
+        visits.put(controller, access.createVisitorSession(parameters));
+        phaser.arriveAndDeregister();
+        return controller;
     }
 
     // ------------------------------------------------ Helpers ------------------------------------------------
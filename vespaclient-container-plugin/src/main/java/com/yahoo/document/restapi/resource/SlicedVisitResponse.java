@@ -0,0 +1,197 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.restapi.resource;
+
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentId;
+import com.yahoo.document.restapi.resource.StreamableJsonResponse.MessageSeverity;
+import com.yahoo.jdisc.Response;
+import com.yahoo.jdisc.handler.CompletionHandler;
+import com.yahoo.messagebus.Trace;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Multiplexes the output of several sliced visitor sessions into a single streaming response.
+ * Each slice writes through its own view, see {@link #slice(int)}; documents and removals go straight
+ * through to the shared response, and thus share its flow control against the HTTP content channel,
+ * while the per-slice prologue and epilogue are absorbed, and aggregated into a single epilogue when
+ * the last slice is closed.</p>
+ *
+ * <p>Continuation tokens of the individual slices are combined into a single, opaque token, where
+ * the slice tokens are separated by {@code '.'}, and slices which are already finished are empty.
+ * This token must be passed back with the same number of slices to resume the visit.</p>
+ *
+ * @author agent
+ */
+class SlicedVisitResponse {
+
+    private static final char SEPARATOR = '.';
+    private static final String FINISHED = "";
+
+    private final StreamableJsonResponse response;
+    private final String[] tokens;
+    private final double[] percentFinished;
+    private final boolean[] done;
+    private int remaining;
+    private long documentCount = 0;
+    private Trace trace = null;
+    private String message = null;
+    private MessageSeverity severity = null;
+
+    /** Creates a new sliced response writing to the given response, resuming from the given per-slice tokens, if any. */
+    SlicedVisitResponse(StreamableJsonResponse response, List<Optional<String>> continuations) {
+        this.response = response;
+        this.tokens = new String[continuations.size()];
+        this.percentFinished = new double[continuations.size()];
+        this.done = new boolean[continuations.size()];
+        this.remaining = continuations.size();
+        for (int i = 0; i < tokens.length; i++)
+            tokens[i] = continuations.get(i).orElse(null);
+    }
+
+    /**
+     * Parses the given combined continuation token into one token per slice, where a slice token is absent if visiting
+     * should start from scratch, and {@link #FINISHED} if the slice is already done.
+     */
+    static List<Optional<String>> parseContinuation(Optional<String> continuation, int slices) {
+        if (continuation.isEmpty())
+            return Collections.nCopies(slices, Optional.empty());
+
+        String[] parts = continuation.get().split(Pattern.quote(String.valueOf(SEPARATOR)), -1);
+        if (parts.length != slices)
+            throw new IllegalArgumentException("Continuation token for " + parts.length + " slices cannot be used with " + slices + " slices");
+
+        List<Optional<String>> tokens = new ArrayList<>(slices);
+        for (String part : parts) tokens.add(Optional.of(part));
+        return tokens;
+    }
+
+    /** Returns whether the given slice token, as returned by {@link #parseContinuation}, denotes a finished slice. */
+    static boolean isFinished(Optional<String> token) {
+        return token.isPresent() && token.get().equals(FINISHED);
+    }
+
+    /** Commits the shared response and writes its prologue; this must be called before any slice is started. */
+    void start() throws IOException {
+        response.commit(Response.Status.OK, true, false);
+        response.writeDocumentsArrayStart();
+    }
+
+    /** Returns the view of this to pass to the visit of the given slice. */
+    StreamableJsonResponse slice(int sliceId) {
+        return new Slice(sliceId);
+    }
+
+    private synchronized void update(int sliceId, VisitorContinuation continuation) {
+        tokens[sliceId] = continuation.hasRemaining() ? continuation.token() : FINISHED;
+        percentFinished[sliceId] = continuation.percentFinished();
+    }
+
+    /** Returns the combined continuation of all slices, or empty if any slice has yet to report its progress. */
+    private synchronized Optional<VisitorContinuation> continuation() {
+        StringJoiner joiner = new StringJoiner(String.valueOf(SEPARATOR));
+        boolean finished = true;
+        for (String token : tokens) {
+            if (token == null) return Optional.empty();
+            finished &= token.equals(FINISHED);
+            joiner.add(token);
+        }
+        return Optional.of(finished ? VisitorContinuation.FINISHED
+                                    : new VisitorContinuation(joiner.toString(), Arrays.stream(percentFinished).average().orElse(0)));
+    }
+
+    private synchronized void message(String message, MessageSeverity severity) {
+        if (this.severity == null || severity.compareTo(this.severity) > 0) {
+            this.message = message;
+            this.severity = severity;
+        }
+    }
+
+    private synchronized void documentCount(long count) { documentCount += count; }
+
+    private synchronized void trace(Trace trace) {
+        if (this.trace == null && trace != null && ! trace.getRoot().isEmpty()) this.trace = trace;
+    }
+
+    /** Marks the given slice as done, and writes the epilogue and closes the shared response if this was the last one. */
+    private void close(int sliceId) throws IOException {
+        long documentCount;
+        Trace trace;
+        String message;
+        MessageSeverity severity;
+        synchronized (this) {
+            if (done[sliceId]) return;
+            done[sliceId] = true;
+            if (--remaining > 0) return;
+
+            documentCount = this.documentCount;
+            trace = this.trace;
+            message = this.message;
+            severity = this.severity;
+        }
+        try (response) {
+            response.writeDocumentsArrayEnd();
+            response.writeDocumentCount(documentCount);
+            response.writeTrace(trace);
+            if (message != null)
+                response.writeMessage(message, severity);
+
+            // Every slice writes an epilogue continuation when streaming; if one still didn't, we cannot claim completion.
+            Optional<VisitorContinuation> continuation = continuation();
+            if (continuation.isPresent())
+                response.writeEpilogueContinuation(continuation.get());
+            else if (message == null)
+                response.writeMessage("Progress of some slices is unknown; visiting must be restarted", MessageSeverity.ERROR);
+        }
+    }
+
+    /** Per-slice view of the shared response, which forwards only the operations that make sense to interleave. */
+    private class Slice implements StreamableJsonResponse {
+
+        private final int sliceId;
+
+        private Slice(int sliceId) { this.sliceId = sliceId; }
+
+        @Override public void commit(int status, boolean fullyApplied, boolean ignoredOperation) { } // Done in start().
+        @Override public void writeDocumentsArrayStart() { } // Done in start().
+        @Override public void writeDocumentsArrayEnd() { } // Done when the last slice closes.
+
+        @Override
+        public void writeDocumentValue(Document document, CompletionHandler completionHandler) throws IOException {
+            response.writeDocumentValue(document, completionHandler);
+        }
+
+        @Override
+        public void writeDocumentRemoval(DocumentId id, CompletionHandler completionHandler) throws IOException {
+            response.writeDocumentRemoval(id, completionHandler);
+        }
+
+        @Override
+        public void reportUpdatedContinuation(Supplier<VisitorContinuation> continuationSupplier) throws IOException {
+            update(sliceId, continuationSupplier.get());
+            Optional<VisitorContinuation> continuation = continuation();
+            if (continuation.isPresent())
+                response.reportUpdatedContinuation(continuation::get);
+        }
+
+        @Override
+        public void writeEpilogueContinuation(VisitorContinuation continuation) {
+            update(sliceId, continuation);
+        }
+
+        @Override public void writeTrace(Trace trace) { trace(trace); }
+        @Override public void writeMessage(String message, MessageSeverity severity) { message(message, severity); }
+        @Override public void writeDocumentCount(long count) { documentCount(count); }
+        @Override public void close() throws IOException { SlicedVisitResponse.this.close(sliceId); }
+
+    }
+
+}
@@ -1327,6 +1327,120 @@ public class DocumentV1ApiTest {
         driver.close();
     }
 
+    @Test
+    void parallel_slices_are_streamed_as_one_response_with_combined_continuation() {
+        var driver = new RequestHandlerTestDriver(handler);
+        var tokens = List.of(new AckToken(null), new AckToken(null));
+        access.expect(tokens);
+        access.expect(parameters -> {
+            assertEquals(2, parameters.getSlices());
+            int sliceId = parameters.getSliceId();
+            parameters.getLocalDataHandler().onMessage(new PutDocumentMessage(new DocumentPut(sliceId == 0 ? doc1 : doc2)), tokens.get(sliceId));
+            if (sliceId == 0) parameters.getControlHandler().onProgress(makeCompleteProgressToken());
+            parameters.getControlHandler().onDone(VisitorControlHandler.CompletionCode.SUCCESS, "done");
+        });
+        var request = driver.createRequest("http://localhost/document/v1?cluster=content&stream=true&parallelSlices=2", HttpRequest.Method.GET);
+        var response = driver.sendRequest(request, "");
+        assertSameJson(String.format(Locale.ROOT, """
+                       {
+                         "pathId": "/document/v1",
+                         "documents": [
+                           {
+                             "id": "id:space:music::one",
+                             "fields": {
+                               "artist": "Tom Waits",
+                               "embedding": { "type": "tensor(x[3])", "values": [1.0,2.0,3.0] }
+                             }
+                           },
+                           {
+                             "id": "id:space:music:n=1:two",
+                             "fields": {
+                               "artist": "Asa-Chan & Jun-Ray",
+                               "embedding": { "type": "tensor(x[3])", "values": [4.0,5.0,6.0] }
+                             }
+                           }
+                         ],
+                         "documentCount": 2,
+                         "continuation": ".%s"
+                       }""", makeIncompleteProgressToken().serializeToString()), response.readAll());
+        assertEquals(200, response.getStatus());
+        driver.close();
+    }
+
+    @Test
+    void parallel_slices_resume_from_combined_continuation() {
+        var driver = new RequestHandlerTestDriver(handler);
+        var progress = makePartiallyCompleteProgressToken();
+        access.expect(parameters -> {
+            assertEquals(1, parameters.getSliceId()); // Slice 0 is already finished
+            assertEquals(progress.serializeToString(), parameters.getResumeToken().serializeToString());
+            parameters.getControlHandler().onDone(VisitorControlHandler.CompletionCode.SUCCESS, "done");
+        });
+        var request = driver.createRequest(String.format(Locale.ROOT, "http://localhost/document/v1?cluster=content&stream=true&parallelSlices=2&continuation=.%s",
+                                                         progress.serializeToString()), HttpRequest.Method.GET);
+        var response = driver.sendRequest(request, "");
+        assertSameJson(String.format(Locale.ROOT, """
+                       {
+                         "pathId": "/document/v1",
+                         "documents": [],
+                         "documentCount": 0,
+                         "continuation": ".%s"
+                       }""", progress.serializeToString()), response.readAll());
+        assertEquals(200, response.getStatus());
+
+        response = driver.sendRequest("http://localhost/document/v1?cluster=content&stream=true&parallelSlices=3&continuation=.");
+        assertSameJson("""
+                       {
+                         "pathId": "/document/v1",
+                         "message": "Continuation token for 2 slices cannot be used with 3 slices"
+                       }""", response.readAll());
+        assertEquals(400, response.getStatus());
+        driver.close();
+    }
+
+    @Test
+    void parallel_slices_with_malformed_continuation_are_rejected() {
+        var driver = new RequestHandlerTestDriver(handler);
+        var response = driver.sendRequest("http://localhost/document/v1?cluster=content&stream=true&parallelSlices=2&continuation=.AAAA");
+        Inspector root = SlimeUtils.jsonToSlime(response.readAll()).get();
+        assertEquals(400, response.getStatus());
+        assertEquals("/document/v1", root.field("pathId").asString());
+        assertTrue(root.field("message").asString().startsWith("Invalid continuation token for slice 1"), root.field("message").asString());
+        assertFalse(root.field("documents").valid());
+        driver.close();
+    }
+
+    @Test
+    void parallel_slices_response_is_completed_with_error_when_a_slice_fails_to_start() {
+        var driver = new RequestHandlerTestDriver(handler);
+        var tokens = List.of(new AckToken(null));
+        access.expect(tokens);
+        access.expect(parameters -> {
+            if (parameters.getSliceId() > 0) throw new IllegalStateException("no more sessions");
+            parameters.getLocalDataHandler().onMessage(new PutDocumentMessage(new DocumentPut(doc1)), tokens.get(0));
+            parameters.getControlHandler().onDone(VisitorControlHandler.CompletionCode.SUCCESS, "done");
+        });
+        var request = driver.createRequest("http://localhost/document/v1?cluster=content&stream=true&parallelSlices=3", HttpRequest.Method.GET);
+        var response = driver.sendRequest(request, "");
+        assertSameJson("""
+                       {
+                         "pathId": "/document/v1",
+                         "documents": [
+                           {
+                             "id": "id:space:music::one",
+                             "fields": {
+                               "artist": "Tom Waits",
+                               "embedding": { "type": "tensor(x[3])", "values": [1.0,2.0,3.0] }
+                             }
+                           }
+                         ],
+                         "documentCount": 1,
+                         "message": "Failed starting visit of slice 1: no more sessions"
+                       }""", response.readAll());
+        assertEquals(200, response.getStatus());
+        driver.close();
+    }
+
     @Test
     public void batch_update_rewrites_tas_condition_with_timestamp_predicate_if_provided_by_backend() {
         var driver = new RequestHandlerTestDriver(handler); // try-with-resources hangs the test on assertion failure, which isn't optimal
@@ -0,0 +1,108 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.restapi.resource;
+
+import com.yahoo.document.DocumentId;
+import com.yahoo.document.restapi.resource.StreamableJsonResponse.MessageSeverity;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author agent
+ */
+public class SlicedVisitResponseTest {
+
+    @Test
+    void testContinuationParsing() {
+        assertEquals(List.of(Optional.empty(), Optional.empty()), SlicedVisitResponse.parseContinuation(Optional.empty(), 2));
+        List<Optional<String>> tokens = SlicedVisitResponse.parseContinuation(Optional.of("AAA..BBB"), 3);
+        assertEquals(List.of(Optional.of("AAA"), Optional.of(""), Optional.of("BBB")), tokens);
+        assertFalse(SlicedVisitResponse.isFinished(tokens.get(0)));
+        assertTrue(SlicedVisitResponse.isFinished(tokens.get(1)));
+        assertFalse(SlicedVisitResponse.isFinished(Optional.empty()));
+        assertEquals("Continuation token for 3 slices cannot be used with 2 slices",
+                     assertThrows(IllegalArgumentException.class,
+                                  () -> SlicedVisitResponse.parseContinuation(Optional.of("AAA..BBB"), 2)).getMessage());
+    }
+
+    @Test
+    void testSlicesAreAggregatedIntoSingleEpilogue() throws IOException {
+        StreamableJsonResponse response = mock(StreamableJsonResponse.class);
+        SlicedVisitResponse sliced = new SlicedVisitResponse(response, SlicedVisitResponse.parseContinuation(Optional.empty(), 3));
+        sliced.start();
+        StreamableJsonResponse first = sliced.slice(0), second = sliced.slice(1), third = sliced.slice(2);
+
+        first.commit(200, true, false);
+        second.writeDocumentsArrayStart();
+        first.writeDocumentRemoval(new DocumentId("id:ns:music::one"), null);
+        second.writeDocumentRemoval(new DocumentId("id:ns:music::two"), null);
+        verify(response).writeDocumentRemoval(eq(new DocumentId("id:ns:music::one")), any());
+        verify(response).writeDocumentRemoval(eq(new DocumentId("id:ns:music::two")), any());
+
+        // No combined continuation can be reported until all slices have reported one.
+        first.reportUpdatedContinuation(() -> new VisitorContinuation("AAA", 20));
+        second.reportUpdatedContinuation(() -> new VisitorContinuation("BBB", 40));
+        verify(response, never()).reportUpdatedContinuation(any());
+
+        first.writeDocumentsArrayEnd();
+        first.writeDocumentCount(1);
+        first.writeEpilogueContinuation(VisitorContinuation.FINISHED);
+        first.close();
+        first.close(); // Closing twice is harmless.
+        second.writeDocumentCount(1);
+        second.writeMessage("No buckets visited", MessageSeverity.INFO);
+        second.writeEpilogueContinuation(new VisitorContinuation("BBB", 50));
+        second.close();
+        third.writeDocumentCount(0);
+        third.writeMessage("Oops", MessageSeverity.ERROR);
+        third.writeEpilogueContinuation(new VisitorContinuation("CCC", 0));
+        verify(response, never()).writeDocumentsArrayEnd();
+        verify(response, never()).close();
+
+        third.close();
+        InOrder order = inOrder(response);
+        order.verify(response).commit(eq(200), eq(true), eq(false));
+        order.verify(response).writeDocumentsArrayStart();
+        order.verify(response).writeDocumentsArrayEnd();
+        order.verify(response).writeDocumentCount(2);
+        order.verify(response).writeMessage("Oops", MessageSeverity.ERROR);
+        order.verify(response).writeEpilogueContinuation(new VisitorContinuation(".BBB.CCC", 50));
+        order.verify(response).close();
+        verify(response).commit(anyInt(), eq(true), eq(false));
+        verify(response).writeDocumentCount(anyLong());
+    }
+
+    @Test
+    void testFinishedSlicesGiveFinishedContinuation() throws IOException {
+        StreamableJsonResponse response = mock(StreamableJsonResponse.class);
+        SlicedVisitResponse sliced = new SlicedVisitResponse(response, SlicedVisitResponse.parseContinuation(Optional.of(".AAA"), 2));
+        sliced.start();
+        StreamableJsonResponse first = sliced.slice(0), second = sliced.slice(1);
+        first.writeEpilogueContinuation(VisitorContinuation.FINISHED);
+        first.close();
+        second.reportUpdatedContinuation(() -> new VisitorContinuation("BBB", 40));
+        verify(response).reportUpdatedContinuation(any());
+        second.writeEpilogueContinuation(VisitorContinuation.FINISHED);
+        second.close();
+        verify(response).writeEpilogueContinuation(VisitorContinuation.FINISHED);
+        verify(response, never()).writeMessage(any(), any());
+        verify(response).close();
+    }
+
+}
@@ -27,6 +27,7 @@ public class FeederOptions {
     private String route = "default";
     private int traceLevel;
     private int mbusPort;
+    private int numMessengerThreads = 1;
     private DocumentProtocol.Priority priority = DocumentProtocol.Priority.NORMAL_3;
 
     /** Constructs an options object with all default values. */
@@ -44,6 +45,7 @@ public class FeederOptions {
         setTimeout(config.timeout());
         setTraceLevel(config.tracelevel());
         setMessageBusPort(config.mbusport());
+        setNumMessengerThreads(config.nummessengerthreads());
         setMaxFeedRate(config.maxfeedrate());
     }
 
@@ -111,6 +113,14 @@ public class FeederOptions {
         this.mbusPort = mbusPort;
     }
 
+    int getNumMessengerThreads() {
+        return numMessengerThreads;
+    }
+
+    private void setNumMessengerThreads(int numMessengerThreads) {
+        this.numMessengerThreads = numMessengerThreads;
+    }
+
     public void setPriority(DocumentProtocol.Priority priority) {
         this.priority = priority;
     }
@@ -164,6 +174,7 @@ public class FeederOptions {
                ", route='" + route + '\'' +
                ", traceLevel=" + traceLevel +
                ", mbusPort=" + mbusPort +
+               ", numMessengerThreads=" + numMessengerThreads +
                ", priority=" + priority.name() +
                '}';
     }
@@ -178,6 +189,7 @@ public class FeederOptions {
         if (maxPendingDocs != that.maxPendingDocs) return false;
         if (maxFeedRate != that.maxFeedRate) return false;
         if (mbusPort != that.mbusPort) return false;
+        if (numMessengerThreads != that.numMessengerThreads) return false;
         if (retryEnabled != that.retryEnabled) return false;
         if (Double.compare(that.timeout, timeout) != 0) return false;
         if (traceLevel != that.traceLevel) return false;
@@ -201,6 +213,7 @@ public class FeederOptions {
         result = 31 * result + (route != null ? route.hashCode() : 0);
         result = 31 * result + traceLevel;
         result = 31 * result + mbusPort;
+        result = 31 * result + numMessengerThreads;
         result = 31 * result + (priority != null ? priority.hashCode() : 0);
         return result;
     }
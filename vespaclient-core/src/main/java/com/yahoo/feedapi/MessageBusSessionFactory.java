@@ -25,6 +25,7 @@ public class MessageBusSessionFactory implements SessionFactory {
         this.processor = processor;
         MessageBusParams params = new MessageBusParams();
         params.setTraceLevel(processor.getFeederOptions().getTraceLevel());
+        params.getMessageBusParams().setNumMessengerThreads(processor.getFeederOptions().getNumMessengerThreads());
         RPCNetworkParams rpcNetworkParams = processor.getFeederOptions().getNetworkParams();
         if (slobroksConfig != null) // not set: will subscribe
             rpcNetworkParams.setSlobroksConfig(slobroksConfig);
@@ -79,6 +79,7 @@ public class Arguments {
                 "  --dumpDocuments <filename>    Specify a file where documents in the put are serialized.\n" +
                 "  --priority arg                Specify priority of sent messages (see documentation for priority values)\n" +
                 "  --numthreads arg              Specify how many threads to use for sending. Default is 1.\n" +
+                "  --messengerthreads arg (=1)   The number of messagebus threads resending and sequencing operations.\n" +
                 "  --create-if-non-existent      Enable setting of create-if-non-existent to true on all document updates in the given xml feed.\n" +
                 "  -v [ --verbose ]              Enable verbose output of progress.\n");
     }
@@ -146,6 +147,8 @@ public class Arguments {
                 priority = getParam(args, arg);
             } else if ("--numthreads".equals(arg)) {
                 numThreads = Integer.parseInt(getParam(args, arg));
+            } else if ("--messengerthreads".equals(arg)) {
+                feederConfigBuilder.nummessengerthreads(Integer.parseInt(getParam(args, arg)));
             } else {
                 files.add(arg);
             }
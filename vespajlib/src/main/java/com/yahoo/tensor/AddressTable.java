@@ -0,0 +1,186 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.tensor;
+
+import com.yahoo.tensor.impl.TensorAddressAny;
+
+import java.util.Arrays;
+
+/**
+ * A compact set of tensor addresses of the same size, used to hold the mapped addresses of sparse tensors.
+ * The addresses are kept in insertion order as rows of interned labels in a single array,
+ * and are found through an open addressing hash table of their positions.
+ * This avoids having an address object and a hash entry per cell.
+ *
+ * @author agent
+ */
+final class AddressTable {
+
+    private static final int MIN_CAPACITY = 8;
+
+    /** The number of labels in each address */
+    private final int rank;
+    private int size = 0;
+    private int capacity;
+    /** The labels of the address at each position, in rows of rank labels */
+    private Label[] labels;
+    /** The position + 1 of each address, at the slot given by its hash, or 0 for empty slots */
+    private int[] slots;
+
+    AddressTable(int rank, int expectedSize) {
+        this.rank = rank;
+        this.capacity = Math.max(MIN_CAPACITY, expectedSize);
+        this.labels = new Label[capacity * rank];
+        this.slots = new int[slotsFor(capacity)];
+    }
+
+    private AddressTable(int rank, int size, Label[] labels, int[] slots) {
+        this.rank = rank;
+        this.size = size;
+        this.capacity = size;
+        this.labels = labels;
+        this.slots = slots;
+    }
+
+    /** Returns the number of addresses in this */
+    int size() { return size; }
+
+    /** Returns the number of labels in each address of this */
+    int rank() { return rank; }
+
+    /** Returns the label in the given dimension of the address at the given position */
+    Label label(int position, int dimension) { return labels[position * rank + dimension]; }
+
+    /** Returns the address at the given position as a new address object */
+    TensorAddress address(int position) {
+        return TensorAddressAny.ofUnsafe(Arrays.copyOfRange(labels, position * rank, (position + 1) * rank));
+    }
+
+    /** Returns the position of the given address, or -1 if it is not present */
+    int indexOf(TensorAddress address) {
+        if (address.size() != rank) return -1;
+        return indexOf(address, null);
+    }
+
+    /**
+     * Returns the position of the address made up of the given dimensions of the given address,
+     * or -1 if it is not present.
+     *
+     * @param dimensions the dimension in the given address of each label in addresses of this,
+     *                   or null if they are the same
+     */
+    int indexOf(TensorAddress address, int[] dimensions) {
+        for (int slot = firstSlot(hashOf(address, dimensions)); slots[slot] != 0; slot = nextSlot(slot)) {
+            int position = slots[slot] - 1;
+            if (equalsAt(position, address, dimensions)) return position;
+        }
+        return -1;
+    }
+
+    /** Returns the position of the address at the given position in the other table, or -1 if it is not present */
+    int indexOf(AddressTable other, int otherPosition) {
+        if (other.rank != rank) return -1;
+        for (int slot = firstSlot(other.hashAt(otherPosition)); slots[slot] != 0; slot = nextSlot(slot)) {
+            int position = slots[slot] - 1;
+            if (equalsAt(position, other, otherPosition)) return position;
+        }
+        return -1;
+    }
+
+    /** Adds the given address if it is not already present, and returns its position */
+    int add(TensorAddress address) {
+        if (address.size() != rank)
+            throw new IllegalArgumentException(address + " does not have " + rank + " labels");
+        return add(address, null);
+    }
+
+    /**
+     * Adds the address made up of the given dimensions of the given address if it is not already present,
+     * and returns its position. The address was added if the returned position is the size of this
+     * before this call.
+     *
+     * @param dimensions the dimension in the given address of each label in addresses of this,
+     *                   or null if they are the same
+     */
+    int add(TensorAddress address, int[] dimensions) {
+        int hash = hashOf(address, dimensions);
+        int slot = firstSlot(hash);
+        for (; slots[slot] != 0; slot = nextSlot(slot)) {
+            int position = slots[slot] - 1;
+            if (equalsAt(position, address, dimensions)) return position;
+        }
+        if (size == capacity) {
+            grow();
+            slot = emptySlotFor(hash);
+        }
+        int position = size++;
+        for (int i = 0; i < rank; i++)
+            labels[position * rank + i] = address.objectLabel(dimensions == null ? i : dimensions[i]);
+        slots[slot] = position + 1;
+        return position;
+    }
+
+    /** Returns a copy of this which only uses as much memory as needed for its current addresses */
+    AddressTable trimmedCopy() {
+        return new AddressTable(rank, size, Arrays.copyOf(labels, size * rank), slots.clone());
+    }
+
+    /** Returns the hash of the given labels of an address, which is the same as that of an address object */
+    private int hashOf(TensorAddress address, int[] dimensions) {
+        int hash = 1;
+        for (int i = 0; i < rank; i++)
+            hash = 31 * hash + address.objectLabel(dimensions == null ? i : dimensions[i]).hashCode();
+        return hash;
+    }
+
+    /** Returns the hash of the address at the given position, which is the same as that of an address object */
+    private int hashAt(int position) {
+        int hash = 1;
+        for (int i = position * rank, end = i + rank; i < end; i++)
+            hash = 31 * hash + labels[i].hashCode();
+        return hash;
+    }
+
+    private boolean equalsAt(int position, TensorAddress address, int[] dimensions) {
+        int start = position * rank;
+        for (int i = 0; i < rank; i++)
+            if (labels[start + i].asNumeric() != address.objectLabel(dimensions == null ? i : dimensions[i]).asNumeric())
+                return false;
+        return true;
+    }
+
+    private boolean equalsAt(int position, AddressTable other, int otherPosition) {
+        int start = position * rank;
+        int otherStart = otherPosition * rank;
+        for (int i = 0; i < rank; i++)
+            if (labels[start + i].asNumeric() != other.labels[otherStart + i].asNumeric()) return false;
+        return true;
+    }
+
+    private int firstSlot(int hash) {
+        int spread = hash * 0x9E3779B9;
+        return (spread ^ (spread >>> 16)) & (slots.length - 1);
+    }
+
+    private int nextSlot(int slot) { return (slot + 1) & (slots.length - 1); }
+
+    private int emptySlotFor(int hash) {
+        int slot = firstSlot(hash);
+        while (slots[slot] != 0)
+            slot = nextSlot(slot);
+        return slot;
+    }
+
+    private void grow() {
+        capacity = Math.max(MIN_CAPACITY, size * 2);
+        labels = Arrays.copyOf(labels, capacity * rank);
+        slots = new int[slotsFor(capacity)];
+        for (int position = 0; position < size; position++)
+            slots[emptySlotFor(hashAt(position))] = position + 1;
+    }
+
+    /** Returns a power of two number of slots keeping the load factor at most 0.5 at the given capacity */
+    private static int slotsFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) * 2;
+    }
+
+}
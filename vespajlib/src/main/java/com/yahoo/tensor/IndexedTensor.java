@@ -785,6 +785,12 @@ public abstract class IndexedTensor implements Tensor {
         @Override
         public Double getValue() { return value; }
 
+        @Override
+        public float getFloatValue() { return (float)value; }
+
+        @Override
+        public double getDoubleValue() { return value; }
+
         @Override
         public Cell detach() {
             return new Cell(getKey(), value);
@@ -3,12 +3,15 @@ package com.yahoo.tensor;
 
 import com.google.common.collect.ImmutableMap;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
- * A sparse implementation of a tensor backed by a Map of cells to values.
+ * A sparse implementation of a tensor. The cell addresses are kept as rows of interned labels
+ * in an address table, and the cell values in an array in the same order.
  *
  * @author bratseth
  */
@@ -16,41 +19,107 @@ public class MappedTensor implements Tensor {
 
     private final TensorType type;
 
-    private final ImmutableMap<TensorAddress, Double> cells;
+    private final AddressTable addresses;
+    private final double[] values;
+
+    /** The cells as a map, created on first use */
+    private volatile Map<TensorAddress, Double> cells = null;
 
     /** Creates a sparse tensor. The cell addresses must match the type. */
-    private MappedTensor(TensorType type, Map<TensorAddress, Double> cells) {
+    private MappedTensor(TensorType type, AddressTable addresses, double[] values) {
         this.type = type;
-        this.cells = ImmutableMap.copyOf(cells);
+        this.addresses = addresses;
+        this.values = values;
     }
 
     @Override
     public TensorType type() { return type; }
 
     @Override
-    public long size() { return cells.size(); }
+    public long size() { return addresses.size(); }
 
     /** Once we can store more cells than an int we should drop this. */
     @Override
-    public int sizeAsInt() { return cells.size(); }
+    public int sizeAsInt() { return addresses.size(); }
 
     @Override
-    public double get(TensorAddress address) { return cells.getOrDefault(address, 0.0); }
+    public double get(TensorAddress address) {
+        int index = addresses.indexOf(address);
+        return index < 0 ? 0.0 : values[index];
+    }
 
     @Override
-    public boolean has(TensorAddress address) { return cells.containsKey(address); }
+    public boolean has(TensorAddress address) { return addresses.indexOf(address) >= 0; }
 
     @Override
-    public Double getAsDouble(TensorAddress address) { return cells.get(address); }
+    public Double getAsDouble(TensorAddress address) {
+        int index = addresses.indexOf(address);
+        return index < 0 ? null : values[index];
+    }
+
+    /** Returns the index of the cell with the given address, or -1 if it is not present. Only exposed for internal use. */
+    public int indexOf(TensorAddress address) { return addresses.indexOf(address); }
+
+    /**
+     * Returns the index of the cell in this with the same address as the cell at the given index in the given tensor,
+     * or -1 if it is not present. Both tensors must have the same dimensions. Only exposed for internal use.
+     */
+    public int indexOf(MappedTensor other, int otherIndex) { return addresses.indexOf(other.addresses, otherIndex); }
+
+    /** Returns the address of the cell at the given index, in the order of the cell iterator. Only exposed for internal use. */
+    public TensorAddress addressAt(int index) { return addresses.address(index); }
+
+    /** Returns the label in the given dimension of the cell at the given index. Only exposed for internal use. */
+    public String labelAt(int index, int dimension) { return addresses.label(index, dimension).asString(); }
+
+    /** Returns the value of the cell at the given index, in the order of the cell iterator. Only exposed for internal use. */
+    public double valueAt(int index) { return values[index]; }
 
     @Override
-    public Iterator<Cell> cellIterator() { return new CellIteratorAdaptor(cells.entrySet().iterator()); }
+    public Iterator<Cell> cellIterator() {
+        return new Iterator<>() {
+            int index = 0;
+
+            @Override
+            public boolean hasNext() { return index < values.length; }
+
+            @Override
+            public Cell next() {
+                if ( ! hasNext()) throw new NoSuchElementException("No cell at " + index);
+                Cell cell = new Cell(addresses.address(index), values[index]);
+                index++;
+                return cell;
+            }
+        };
+    }
 
     @Override
-    public Iterator<Double> valueIterator() { return cells.values().iterator(); }
+    public Iterator<Double> valueIterator() {
+        return new Iterator<>() {
+            int index = 0;
+
+            @Override
+            public boolean hasNext() { return index < values.length; }
+
+            @Override
+            public Double next() {
+                if ( ! hasNext()) throw new NoSuchElementException("No cell at " + index);
+                return values[index++];
+            }
+        };
+    }
 
     @Override
-    public Map<TensorAddress, Double> cells() { return cells; }
+    public Map<TensorAddress, Double> cells() {
+        Map<TensorAddress, Double> cells = this.cells;
+        if (cells == null) {
+            ImmutableMap.Builder<TensorAddress, Double> builder = ImmutableMap.builderWithExpectedSize(values.length);
+            for (int i = 0; i < values.length; i++)
+                builder.put(addresses.address(i), values[i]);
+            this.cells = cells = builder.build();
+        }
+        return cells;
+    }
 
     @Override
     public Tensor withType(TensorType other) {
@@ -58,24 +127,28 @@ public class MappedTensor implements Tensor {
             throw new IllegalArgumentException("MappedTensor.withType: types are not compatible. Current type: '" +
                     this.type + "', requested type: '" + type.toString() + "'");
         }
-        return new MappedTensor(other, cells);
+        return new MappedTensor(other, addresses, values);
     }
 
     @Override
     public Tensor remove(Set<TensorAddress> addresses) {
-        Tensor.Builder builder = Tensor.Builder.of(type());
-        for (Iterator<Tensor.Cell> i = cellIterator(); i.hasNext(); ) {
-            Tensor.Cell cell = i.next();
-            TensorAddress address = cell.getKey();
+        Builder builder = new Builder(type(), sizeAsInt());
+        for (int i = 0; i < values.length; i++) {
+            TensorAddress address = this.addresses.address(i);
             if ( ! addresses.contains(address)) {
-                builder.cell(address, cell.getValue());
+                builder.cell(address, values[i]);
             }
         }
         return builder.build();
     }
 
     @Override
-    public int hashCode() { return cells.hashCode(); }
+    public int hashCode() {
+        int hashCode = 0; // The same as that of a map of the cells
+        for (int i = 0; i < values.length; i++)
+            hashCode += addresses.address(i).hashCode() ^ Double.hashCode(values[i]);
+        return hashCode;
+    }
 
     @Override
     public String toString() { return toString(true, true); }
@@ -101,12 +174,15 @@ public class MappedTensor implements Tensor {
     public static class Builder implements Tensor.Builder {
 
         private final TensorType type;
-        private final ImmutableMap.Builder<TensorAddress, Double> cells = new ImmutableMap.Builder<>();
+        private AddressTable addresses;
+        private double[] values;
 
-        public static Builder of(TensorType type) { return new Builder(type); }
+        public static Builder of(TensorType type) { return new Builder(type, 0); }
 
-        private Builder(TensorType type) {
+        private Builder(TensorType type, int expectedSize) {
             this.type = type;
+            this.addresses = new AddressTable(type.rank(), expectedSize);
+            this.values = new double[Math.max(8, expectedSize)];
         }
 
         public CellBuilder cell() {
@@ -123,7 +199,13 @@ public class MappedTensor implements Tensor {
 
         @Override
         public Builder cell(TensorAddress address, double value) {
-            cells.put(address, value);
+            int size = addresses.size();
+            int index = addresses.add(address);
+            if (index < size)
+                throw new IllegalArgumentException("Multiple values for " + address + " in a tensor of type " + type);
+            if (index == values.length)
+                values = Arrays.copyOf(values, values.length * 2);
+            values[index] = value;
             return this;
         }
 
@@ -134,32 +216,12 @@ public class MappedTensor implements Tensor {
 
         @Override
         public Builder cell(double value, long... labels) {
-            cells.put(TensorAddress.of(labels), value);
-            return this;
+            return cell(TensorAddress.of(labels), value);
         }
 
         @Override
         public MappedTensor build() {
-            return new MappedTensor(type, cells.build());
-        }
-
-    }
-
-    private static class CellIteratorAdaptor implements Iterator<Cell> {
-
-        private final Iterator<Map.Entry<TensorAddress, Double>> adaptedIterator;
-
-        private CellIteratorAdaptor(Iterator<Map.Entry<TensorAddress, Double>> adaptedIterator) {
-            this.adaptedIterator = adaptedIterator;
-        }
-
-        @Override
-        public boolean hasNext() { return adaptedIterator.hasNext(); }
-
-        @Override
-        public Cell next() {
-            Map.Entry<TensorAddress, Double> entry = adaptedIterator.next();
-            return new Cell(entry.getKey(), entry.getValue());
+            return new MappedTensor(type, addresses.trimmedCopy(), Arrays.copyOf(values, addresses.size()));
         }
 
     }
@@ -2,15 +2,15 @@
 
 package com.yahoo.tensor;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
@@ -50,15 +50,39 @@ public class MixedTensor implements Tensor {
         }
     }
 
-    /** only exposed for internal use; subject to change without notice */
-    public List<DenseSubspace> getInternalDenseSubspaces() { return index.denseSubspaces; }
+    /**
+     * Returns a list of the dense subspaces of this, where each subspace is created when it is accessed.
+     * only exposed for internal use; subject to change without notice
+     */
+    public List<DenseSubspace> getInternalDenseSubspaces() {
+        return new AbstractList<>() {
+            @Override
+            public DenseSubspace get(int subspace) {
+                Objects.checkIndex(subspace, size());
+                int start = subspace * index.denseSubspaceSize;
+                return new DenseSubspace(sparseAddresses.address(subspace),
+                                         Arrays.copyOfRange(values, start, start + index.denseSubspaceSize));
+            }
 
-    /** An index structure over the cell list */
+            @Override
+            public int size() { return denseSubspaceCount(); }
+        };
+    }
+
+    /** Shape information of this */
     private final Index index;
 
-    private MixedTensor(TensorType type, Index index) {
+    /** The sparse address of each dense subspace */
+    private final AddressTable sparseAddresses;
+
+    /** The values of all dense subspaces, in the order of their sparse addresses */
+    private final double[] values;
+
+    private MixedTensor(TensorType type, Index index, AddressTable sparseAddresses, double[] values) {
         this.type = type;
         this.index = index;
+        this.sparseAddresses = sparseAddresses;
+        this.values = values;
     }
 
     /** Returns the tensor type */
@@ -67,34 +91,52 @@ public class MixedTensor implements Tensor {
 
     /** Returns the size of the tensor measured in number of cells */
     @Override
-    public long size() { return index.denseSubspaces.size() * index.denseSubspaceSize; }
+    public long size() { return values.length; }
 
     /** Returns the value at the given address */
     @Override
     public double get(TensorAddress address) {
-        var block = index.blockOf(address);
-        int denseOffset = index.denseOffsetOf(address);
-        if (block == null || denseOffset < 0 || denseOffset >= block.cells.length) {
-            return 0.0;
-        }
-        return block.cells[denseOffset];
+        int valueIndex = valueIndexOf(address);
+        return valueIndex < 0 ? 0.0 : values[valueIndex];
     }
 
     @Override
     public Double getAsDouble(TensorAddress address) {
-        var block = index.blockOf(address);
-        int denseOffset = index.denseOffsetOf(address);
-        if (block == null || denseOffset < 0 || denseOffset >= block.cells.length) {
-            return null;
-        }
-        return block.cells[denseOffset];
+        int valueIndex = valueIndexOf(address);
+        return valueIndex < 0 ? null : values[valueIndex];
     }
 
     @Override
     public boolean has(TensorAddress address) {
-        var block = index.blockOf(address);
+        return valueIndexOf(address) >= 0;
+    }
+
+    /** Returns the index into values of the given address, or -1 if it is not present */
+    private int valueIndexOf(TensorAddress address) {
+        if (address.size() != type.rank())
+            throw new IllegalArgumentException("Tensor type of " + address + " is not the same size as " + type);
+        int subspace = sparseAddresses.indexOf(address, index.mappedDimensionIndexes);
         int denseOffset = index.denseOffsetOf(address);
-        return (block != null && denseOffset >= 0 && denseOffset < block.cells.length);
+        if (subspace < 0 || denseOffset < 0 || denseOffset >= index.denseSubspaceSize) {
+            return -1;
+        }
+        return subspace * index.denseSubspaceSize + denseOffset;
+    }
+
+    /** Returns the number of dense subspaces in this. Only exposed for internal use. */
+    public int denseSubspaceCount() { return sparseAddresses.size(); }
+
+    /** Returns the sparse address of the given dense subspace. Only exposed for internal use. */
+    public TensorAddress sparseAddressAt(int subspace) { return sparseAddresses.address(subspace); }
+
+    /** Returns the label in the given mapped dimension of the sparse address of the given dense subspace. Only exposed for internal use. */
+    public String sparseLabelAt(int subspace, int mappedDimension) {
+        return sparseAddresses.label(subspace, mappedDimension).asString();
+    }
+
+    /** Returns the value at the given offset in the given dense subspace. Only exposed for internal use. */
+    public double valueAt(int subspace, int denseOffset) {
+        return values[subspace * index.denseSubspaceSize + denseOffset];
     }
 
     /**
@@ -108,29 +150,30 @@ public class MixedTensor implements Tensor {
     public Iterator<Cell> cellIterator() {
         return new Iterator<>() {
 
-            final Iterator<DenseSubspace> blockIterator = index.denseSubspaces.iterator();
             final int[] labels = new int[index.indexedDimensions.size()];
-            DenseSubspace currentBlock = null;
+            int subspace = -1;
+            TensorAddress sparseAddress = null;
             int currOffset = index.denseSubspaceSize;
             int prevOffset = -1;
 
             @Override
             public boolean hasNext() {
-                return (currOffset < index.denseSubspaceSize || blockIterator.hasNext());
+                return (currOffset < index.denseSubspaceSize || subspace + 1 < denseSubspaceCount());
             }
 
             @Override
             public Cell next() {
                 if (currOffset == index.denseSubspaceSize) {
-                    currentBlock = blockIterator.next();
+                    if ( ! hasNext()) throw new NoSuchElementException("No more cells in " + type);
+                    sparseAddress = sparseAddresses.address(++subspace);
                     currOffset = 0;
                 }
                 if (currOffset != prevOffset) { // Optimization for index.denseSubspaceSize == 1
                     index.denseOffsetToAddress(currOffset, labels);
                 }
-                TensorAddress fullAddr = currentBlock.sparseAddress.fullAddressOf(index.type.dimensions(), labels);
+                TensorAddress fullAddr = sparseAddress.fullAddressOf(index.type.dimensions(), labels);
                 prevOffset = currOffset;
-                double value = currentBlock.cells[currOffset++];
+                double value = values[subspace * index.denseSubspaceSize + currOffset++];
                 return new Cell(fullAddr, value);
             }
         };
@@ -144,22 +187,17 @@ public class MixedTensor implements Tensor {
     public Iterator<Double> valueIterator() {
         return new Iterator<>() {
 
-            final Iterator<DenseSubspace> blockIterator = index.denseSubspaces.iterator();
-            double[] currentBlock = null;
-            int currOffset = index.denseSubspaceSize;
+            int valueIndex = 0;
 
             @Override
             public boolean hasNext() {
-                return (currOffset < index.denseSubspaceSize || blockIterator.hasNext());
+                return valueIndex < values.length;
             }
 
             @Override
             public Double next() {
-                if (currOffset == index.denseSubspaceSize) {
-                    currentBlock = blockIterator.next().cells;
-                    currOffset = 0;
-                }
-                return currentBlock[currOffset++];
+                if ( ! hasNext()) throw new NoSuchElementException("No more values in " + type);
+                return values[valueIndex++];
             }
         };
     }
@@ -181,22 +219,29 @@ public class MixedTensor implements Tensor {
             throw new IllegalArgumentException("MixedTensor.withType: types are not compatible. Current type: '" +
                                                this.type + "', requested type: '" + type + "'");
         }
-        return new MixedTensor(other, index);
+        return new MixedTensor(other, index, sparseAddresses, values);
     }
 
     @Override
     public Tensor remove(Set<TensorAddress> addresses) {
-        var indexBuilder = new Index.Builder(type);
-        for (var block : index.denseSubspaces) {
-            if ( ! addresses.contains(block.sparseAddress)) {  // assumption: addresses only contain the sparse part
-                indexBuilder.addBlock(block);
+        var builder = new BoundBuilder(type, denseSubspaceCount());
+        for (int subspace = 0; subspace < denseSubspaceCount(); subspace++) {
+            TensorAddress sparseAddress = sparseAddresses.address(subspace);
+            if ( ! addresses.contains(sparseAddress)) {  // assumption: addresses only contain the sparse part
+                builder.block(sparseAddress, values, subspace * index.denseSubspaceSize);
             }
         }
-        return new MixedTensor(type, indexBuilder.build());
+        return builder.build();
     }
 
     @Override
-    public int hashCode() { return Objects.hash(type, index.denseSubspaces); }
+    public int hashCode() {
+        int subspacesHashCode = 1; // The same as that of a list of the dense subspaces
+        for (int subspace = 0; subspace < denseSubspaceCount(); subspace++)
+            subspacesHashCode = 31 * subspacesHashCode + Objects.hash(sparseAddresses.address(subspace),
+                                                                      values[subspace * index.denseSubspaceSize]);
+        return Objects.hash(type, subspacesHashCode);
+    }
 
     @Override
     public String toString() {
@@ -238,7 +283,7 @@ public class MixedTensor implements Tensor {
      * Base class for building mixed tensors.
      */
     public abstract static class Builder implements Tensor.Builder {
-        static final int INITIAL_HASH_CAPACITY = 1000;
+        static final int INITIAL_CAPACITY = 8;
 
         final TensorType type;
 
@@ -250,9 +295,9 @@ public class MixedTensor implements Tensor {
         public static Builder of(TensorType type) {
             //TODO Wire in expected map size to avoid expensive resize
             if (type.hasIndexedUnboundDimensions()) {
-                return new UnboundBuilder(type, INITIAL_HASH_CAPACITY);
+                return new UnboundBuilder(type, INITIAL_CAPACITY);
             } else {
-                return new BoundBuilder(type, INITIAL_HASH_CAPACITY);
+                return new BoundBuilder(type, INITIAL_CAPACITY);
             }
         }
 
@@ -289,33 +334,47 @@ public class MixedTensor implements Tensor {
      */
     public static class BoundBuilder extends Builder {
 
-        /** For each sparse partial address, hold a dense subspace */
-        private final Map<TensorAddress, double[]> denseSubspaceMap;
-        private final Index.Builder indexBuilder;
         private final Index index;
         private final TensorType denseSubtype;
+        /** The sparse address of each dense subspace */
+        private final AddressTable sparseAddresses;
+        /** The values of each dense subspace, in the order of the sparse addresses */
+        private double[] values;
 
         private BoundBuilder(TensorType type, int expectedSize) {
             super(type);
-            denseSubspaceMap = new LinkedHashMap<>(expectedSize, 0.5f);
-            indexBuilder = new Index.Builder(type);
-            index = indexBuilder.index();
+            index = new Index(type);
             denseSubtype = new TensorType(type.valueType(),
                                           type.dimensions().stream().filter(TensorType.Dimension::isIndexed).toList());
+            sparseAddresses = new AddressTable(index.mappedDimensions.size(), expectedSize);
+            values = new double[index.denseSubspaceSize * 8];
         }
 
         public long denseSubspaceSize() {
             return index.denseSubspaceSize();
         }
 
-        private double[] denseSubspace(TensorAddress sparseAddress) {
-            return denseSubspaceMap.computeIfAbsent(sparseAddress, (key) -> new double[(int)denseSubspaceSize()]);
+        /**
+         * Returns the index into values where the dense subspace of the given address starts,
+         * adding the subspace if it is not present.
+         *
+         * @param mappedDimensionIndexes the indexes of the mapped dimensions in the given address,
+         *                               or null if it is a sparse address
+         */
+        private int denseSubspaceStart(TensorAddress address, int[] mappedDimensionIndexes) {
+            int subspaces = sparseAddresses.size();
+            int subspace = mappedDimensionIndexes == null ? sparseAddresses.add(address)
+                                                          : sparseAddresses.add(address, mappedDimensionIndexes);
+            int start = subspace * index.denseSubspaceSize;
+            if (subspace == subspaces && start == values.length)
+                values = Arrays.copyOf(values, values.length * 2);
+            return start;
         }
 
         public IndexedTensor.DirectIndexBuilder denseSubspaceBuilder(TensorAddress sparseAddress) {
-            double[] values = new double[(int)denseSubspaceSize()];
-            denseSubspaceMap.put(sparseAddress, values);
-            return new DenseSubspaceBuilder(denseSubtype, values);
+            int start = denseSubspaceStart(sparseAddress, null);
+            Arrays.fill(values, start, start + index.denseSubspaceSize, 0.0);
+            return new DenseSubspaceBuilder(denseSubtype, this, start);
         }
 
         @Override
@@ -325,10 +384,13 @@ public class MixedTensor implements Tensor {
 
         @Override
         public Tensor.Builder cell(TensorAddress address, double value) {
-            TensorAddress sparsePart = address.mappedPartialAddress(index.sparseType, index.type.dimensions());
+            if (address.size() != type.rank())
+                throw new IllegalArgumentException("Tensor type of " + address + " is not the same size as " + type);
             int denseOffset = index.denseOffsetOf(address);
-            double[] denseSubspace = denseSubspace(sparsePart);
-            denseSubspace[denseOffset] = value;
+            if (denseOffset < 0)
+                throw new IllegalArgumentException(address + " is not within the bounds of " + type);
+            int start = denseSubspaceStart(address, index.mappedDimensionIndexes);
+            values[start + denseOffset] = value;
             return this;
         }
 
@@ -337,27 +399,24 @@ public class MixedTensor implements Tensor {
             if (values.length < denseSubspaceSize)
                 throw new IllegalArgumentException("Block should have " + denseSubspaceSize +
                                                    " values, but has only " + values.length);
-            double[] denseSubspace = denseSubspace(sparsePart);
-            System.arraycopy(values, 0, denseSubspace, 0, denseSubspaceSize);
+            return block(sparsePart, values, 0);
+        }
+
+        private Tensor.Builder block(TensorAddress sparsePart, double[] values, int offset) {
+            int start = denseSubspaceStart(sparsePart, null);
+            System.arraycopy(values, offset, this.values, start, index.denseSubspaceSize);
             return this;
         }
 
         @Override
         public MixedTensor build() {
-            // TODO: This can be solved more efficiently with a single map.
-            Set<Map.Entry<TensorAddress, double[]>> entrySet = denseSubspaceMap.entrySet();
-            for (Map.Entry<TensorAddress, double[]> entry : entrySet) {
-                TensorAddress sparsePart = entry.getKey();
-                double[] denseSubspace = entry.getValue();
-                var block = new DenseSubspace(sparsePart, denseSubspace);
-                indexBuilder.addBlock(block);
-            }
-            return new MixedTensor(type, indexBuilder.build());
+            return new MixedTensor(type, index, sparseAddresses.trimmedCopy(),
+                                   Arrays.copyOf(values, sparseAddresses.size() * index.denseSubspaceSize));
         }
 
         public static BoundBuilder of(TensorType type) {
             // TODO: Wire in expected map size to avoid expensive resize
-            return new BoundBuilder(type, INITIAL_HASH_CAPACITY);
+            return new BoundBuilder(type, INITIAL_CAPACITY);
         }
     }
 
@@ -371,12 +430,14 @@ public class MixedTensor implements Tensor {
      */
     private static class UnboundBuilder extends Builder {
 
-        private final Map<TensorAddress, Double> cells;
+        private final AddressTable addresses;
+        private double[] values;
         private final long[] dimensionBounds;
 
         private UnboundBuilder(TensorType type, int expectedSize) {
             super(type);
-            cells = new LinkedHashMap<>(expectedSize, 0.5f);
+            addresses = new AddressTable(type.rank(), expectedSize);
+            values = new double[Math.max(8, expectedSize)];
             dimensionBounds = new long[type.dimensions().size()];
         }
 
@@ -387,7 +448,10 @@ public class MixedTensor implements Tensor {
 
         @Override
         public Tensor.Builder cell(TensorAddress address, double value) {
-            cells.put(address, value);
+            int index = addresses.add(address);
+            if (index == values.length)
+                values = Arrays.copyOf(values, values.length * 2);
+            values[index] = value;
             trackBounds(address);
             return this;
         }
@@ -395,9 +459,9 @@ public class MixedTensor implements Tensor {
         @Override
         public MixedTensor build() {
             TensorType boundType = createBoundType();
-            BoundBuilder builder = new BoundBuilder(boundType, cells.size());
-            for (Map.Entry<TensorAddress, Double> cell : cells.entrySet()) {
-                builder.cell(cell.getKey(), cell.getValue());
+            BoundBuilder builder = new BoundBuilder(boundType, addresses.size());
+            for (int i = 0; i < addresses.size(); i++) {
+                builder.cell(addresses.address(i), values[i]);
             }
             return builder.build();
         }
@@ -427,27 +491,24 @@ public class MixedTensor implements Tensor {
 
         public static UnboundBuilder of(TensorType type) {
             //TODO Wire in expected map size to avoid expensive resize
-            return new UnboundBuilder(type, INITIAL_HASH_CAPACITY);
+            return new UnboundBuilder(type, INITIAL_CAPACITY);
         }
     }
 
     /**
-     * An immutable index into a list of cells.
-     * Contains additional information required
-     * for handling mixed tensor addresses.
+     * Information about the shape of a mixed tensor type
+     * required for handling mixed tensor addresses.
      * Assumes indexed dimensions are bound.
      */
     private static class Index {
 
         private final TensorType type;
-        private final TensorType sparseType;
         private final TensorType denseType;
         private final List<TensorType.Dimension> mappedDimensions;
         private final List<TensorType.Dimension> indexedDimensions;
+        /** The index in the type of each mapped dimension */
+        private final int[] mappedDimensionIndexes;
         private final int[] indexedDimensionsSize;
-
-        private ImmutableMap<TensorAddress, Integer> sparseMap;
-        private List<DenseSubspace> denseSubspaces;
         private final int denseSubspaceSize;
 
         static private int computeDSS(List<TensorType.Dimension> dimensions) {
@@ -463,6 +524,9 @@ public class MixedTensor implements Tensor {
             this.type = type;
             this.mappedDimensions = type.dimensions().stream().filter(d -> !d.isIndexed()).toList();
             this.indexedDimensions = type.dimensions().stream().filter(TensorType.Dimension::isIndexed).toList();
+            this.mappedDimensionIndexes = new int[mappedDimensions.size()];
+            for (int i = 0; i < mappedDimensions.size(); i++)
+                mappedDimensionIndexes[i] = type.indexOfDimensionAsInt(mappedDimensions.get(i).name());
             this.indexedDimensionsSize = new int[indexedDimensions.size()];
             for (int i = 0; i < indexedDimensions.size(); i++) {
                 long dimensionSize = indexedDimensions.get(i).size().orElseThrow(() ->
@@ -470,7 +534,6 @@ public class MixedTensor implements Tensor {
                 indexedDimensionsSize[i] = (int)dimensionSize;
             }
 
-            this.sparseType = createPartialType(type.valueType(), mappedDimensions);
             this.denseType = createPartialType(type.valueType(), indexedDimensions);
             this.denseSubspaceSize = computeDSS(this.indexedDimensions);
             if (this.denseSubspaceSize < 1) {
@@ -478,15 +541,7 @@ public class MixedTensor implements Tensor {
             }
         }
 
-        private DenseSubspace blockOf(TensorAddress address) {
-            TensorAddress sparsePart = address.mappedPartialAddress(sparseType, type.dimensions());
-            Integer blockNum = sparseMap.get(sparsePart);
-            if (blockNum == null || blockNum >= denseSubspaces.size()) {
-                return null;
-            }
-            return denseSubspaces.get(blockNum);
-        }
-
+        /** Returns the offset of the given address in its dense subspace, or -1 if any indexed label is out of bounds */
         private int denseOffsetOf(TensorAddress address) {
             long innerSize = 1;
             long offset = 0;
@@ -494,9 +549,11 @@ public class MixedTensor implements Tensor {
                 TensorType.Dimension dimension = type.dimensions().get(i);
                 if (dimension.isIndexed()) {
                     long label = address.numericLabel(i);
-                    offset += label * innerSize;
-                    innerSize *= dimension.size().orElseThrow(() ->
+                    long size = dimension.size().orElseThrow(() ->
                             new IllegalArgumentException("Unknown size of indexed dimension."));
+                    if (label < 0 || label >= size) return -1;
+                    offset += label * innerSize;
+                    innerSize *= size;
                 }
             }
             return (int) offset;
@@ -538,7 +595,9 @@ public class MixedTensor implements Tensor {
 
             // Exactly 1 mapped dimension
             StringBuilder b = new StringBuilder("{");
-            var cellEntries = new ArrayList<>(sparseMap.entrySet());
+            var cellEntries = new ArrayList<Map.Entry<TensorAddress, Integer>>(tensor.denseSubspaceCount());
+            for (int subspace = 0; subspace < tensor.denseSubspaceCount(); subspace++)
+                cellEntries.add(Map.entry(tensor.sparseAddressAt(subspace), subspace));
             cellEntries.sort(Map.Entry.comparingByKey());
             int cellsWritten = 0;
             for (int index = 0; index < cellEntries.size() && cellsWritten < maxCells; index++) {
@@ -589,51 +648,21 @@ public class MixedTensor implements Tensor {
         }
 
         private double getDouble(int subspaceIndex, int denseOffset, MixedTensor tensor) {
-            return tensor.index.denseSubspaces.get(subspaceIndex).cells[denseOffset];
+            return tensor.valueAt(subspaceIndex, denseOffset);
         }
 
-        private static class Builder {
-
-            private final Index index;
-            private final ImmutableMap.Builder<TensorAddress, Integer> builder = new ImmutableMap.Builder<>();
-            private final ImmutableList.Builder<DenseSubspace> listBuilder = new ImmutableList.Builder<>();
-            private int count = 0;
-
-            Builder(TensorType type) {
-                index = new Index(type);
-            }
-
-            void addBlock(DenseSubspace block) {
-                if (block.cells.length != index.denseSubspaceSize) {
-                    throw new IllegalStateException("dense subspace size mismatch, expected " + index.denseSubspaceSize
-                            + " cells, but got: " + block.cells.length);
-                }
-                builder.put(block.sparseAddress, count++);
-                listBuilder.add(block);
-            }
-
-            Index build() {
-                index.sparseMap = builder.build();
-                index.denseSubspaces = listBuilder.build();
-                return index;
-            }
-
-            Index index() {
-                return index;
-            }
-        }
     }
 
-    private record DenseSubspaceBuilder(TensorType type, double[] values) implements IndexedTensor.DirectIndexBuilder {
+    private record DenseSubspaceBuilder(TensorType type, BoundBuilder builder, int start) implements IndexedTensor.DirectIndexBuilder {
 
         @Override
         public void cellByDirectIndex(long index, double value) {
-            values[(int) index] = value;
+            builder.values[start + (int) index] = value;
         }
 
         @Override
         public void cellByDirectIndex(long index, float value) {
-            values[(int) index] = value;
+            builder.values[start + (int) index] = value;
         }
 
     }
@@ -512,10 +512,10 @@ public interface Tensor {
         public Double getValue() { return value; }
 
         /** Returns the value as a float */
-        public float getFloatValue() { return getValue().floatValue(); }
+        public float getFloatValue() { return (float)value; }
 
         /** Returns the value as a double */
-        public double getDoubleValue() { return getValue(); }
+        public double getDoubleValue() { return value; }
 
         @Override
         public Double setValue(Double value) {
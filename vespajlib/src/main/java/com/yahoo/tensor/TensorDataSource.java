@@ -7,6 +7,7 @@ import com.yahoo.tensor.serialization.JsonFormat;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.function.LongToDoubleFunction;
 
 /**
  * Emits tensor data to a DataSink, allowing format-agnostic tensor rendering.
@@ -101,49 +102,59 @@ public class TensorDataSource implements DataSource {
             throw new IllegalStateException("Single dimension encoding requires exactly one dimension");
 
         sink.startObject();
-        tensor.cells().forEach((address, value) -> {
-                sink.fieldName(address.label(0));
-                emitValue(value, tensor.type().valueType(), sink);
-            });
+        for (int i = 0; i < tensor.sizeAsInt(); i++) {
+            sink.fieldName(tensor.labelAt(i, 0));
+            emitValue(tensor.valueAt(i), tensor.type().valueType(), sink);
+        }
         sink.endObject();
     }
 
     private void emitDenseValues(IndexedTensor tensor, DataSink sink)  {
+        emitDenseValues(tensor.dimensionSizes(), tensor.type().valueType(), tensor::get, sink);
+    }
+
+    private void emitDenseValues(DimensionSizes sizes, TensorType.Value valueType,
+                                 LongToDoubleFunction values, DataSink sink)  {
         sink.startArray();
-        emitDenseValuesRecursive(tensor, sink, new long[tensor.dimensionSizes().dimensions()], 0);
+        if (sizes.dimensions() == 0)
+            emitValue(values.applyAsDouble(0), valueType, sink);
+        else
+            emitDenseValuesRecursive(sizes, valueType, values, sink, 0, 0);
         sink.endArray();
     }
 
-    private void emitDenseValuesRecursive(IndexedTensor tensor, DataSink sink, long[] indexes, int dimension)  {
-        DimensionSizes sizes = tensor.dimensionSizes();
-        if (indexes.length == 0) {
-            emitValue(tensor.get(0), tensor.type().valueType(), sink);
-        } else {
-            for (indexes[dimension] = 0; indexes[dimension] < sizes.size(dimension); ++indexes[dimension]) {
-                if (dimension < (sizes.dimensions() - 1)) {
-                    sink.startArray();
-                    emitDenseValuesRecursive(tensor, sink, indexes, dimension + 1);
-                    sink.endArray();
-                } else {
-                    emitValue(tensor.get(indexes), tensor.type().valueType(), sink);
-                }
+    /** Emits the values from the given index in the standard value order and returns the index of the next value */
+    private long emitDenseValuesRecursive(DimensionSizes sizes, TensorType.Value valueType,
+                                          LongToDoubleFunction values, DataSink sink, int dimension, long valueIndex)  {
+        for (long i = 0; i < sizes.size(dimension); i++) {
+            if (dimension < (sizes.dimensions() - 1)) {
+                sink.startArray();
+                valueIndex = emitDenseValuesRecursive(sizes, valueType, values, sink, dimension + 1, valueIndex);
+                sink.endArray();
+            } else {
+                emitValue(values.applyAsDouble(valueIndex++), valueType, sink);
             }
         }
+        return valueIndex;
+    }
+
+    private void emitDenseSubspace(MixedTensor tensor, int subspace, TensorType denseSubType,
+                                   DimensionSizes denseSizes, DataSink sink)  {
+        if (options.hexForDensePart()) {
+            sink.stringValue(asHexString((int) tensor.denseSubspaceSize(), denseSubType.valueType(),
+                                         i -> tensor.valueAt(subspace, i), i -> (float) tensor.valueAt(subspace, i)));
+        } else {
+            emitDenseValues(denseSizes, denseSubType.valueType(), i -> tensor.valueAt(subspace, (int) i), sink);
+        }
     }
 
     private void emitLabeledBlocks(MixedTensor tensor, DataSink sink)  {
         sink.startObject();
         TensorType denseSubType = tensor.type().indexedSubtype();
-        for (var subspace : tensor.getInternalDenseSubspaces()) {
-            String label = subspace.sparseAddress.label(0);
-            sink.fieldName(label);
-            if (options.hexForDensePart()) {
-                sink.stringValue(asHexString(subspace.cells.length, denseSubType.valueType(),
-                                             i -> subspace.cells[i], i -> (float) subspace.cells[i]));
-            } else {
-                IndexedTensor denseSubspace = IndexedTensor.Builder.of(denseSubType, subspace.cells).build();
-                emitDenseValues(denseSubspace, sink);
-            }
+        DimensionSizes denseSizes = DimensionSizes.of(denseSubType);
+        for (int subspace = 0; subspace < tensor.denseSubspaceCount(); subspace++) {
+            sink.fieldName(tensor.sparseLabelAt(subspace, 0));
+            emitDenseSubspace(tensor, subspace, denseSubType, denseSizes, sink);
         }
         sink.endObject();
     }
@@ -154,26 +165,21 @@ public class TensorDataSource implements DataSource {
                 .filter(TensorType.Dimension::isMapped)
                 .toList();
         TensorType denseSubType = tensor.type().indexedSubtype();
+        DimensionSizes denseSizes = DimensionSizes.of(denseSubType);
 
-        for (var subspace : tensor.getInternalDenseSubspaces()) {
+        for (int subspace = 0; subspace < tensor.denseSubspaceCount(); subspace++) {
             sink.startObject();
 
             sink.fieldName("address");
             sink.startObject();
             for (int i = 0; i < mappedDimensions.size(); i++) {
                 sink.fieldName(mappedDimensions.get(i).name());
-                sink.stringValue(subspace.sparseAddress.label(i));
+                sink.stringValue(tensor.sparseLabelAt(subspace, i));
             }
             sink.endObject();
 
             sink.fieldName("values");
-            if (options.hexForDensePart()) {
-                sink.stringValue(asHexString(subspace.cells.length, denseSubType.valueType(),
-                                             i -> subspace.cells[i], i -> (float) subspace.cells[i]));
-            } else {
-                IndexedTensor denseSubspace = IndexedTensor.Builder.of(denseSubType, subspace.cells).build();
-                emitDenseValues(denseSubspace, sink);
-            }
+            emitDenseSubspace(tensor, subspace, denseSubType, denseSizes, sink);
             sink.endObject();
         }
         sink.endArray();
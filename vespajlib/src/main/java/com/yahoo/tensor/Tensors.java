@@ -77,12 +77,14 @@ public class Tensors {
             }
         }
         else if (tensor instanceof MixedTensor mixed) {
-            for (var denseSubspace : mixed.getInternalDenseSubspaces()) {
-                for (int i = 0; i < denseSubspace.cells.length; ) {
-                    var packedAddress = denseSubspace.sparseAddress.fullAddressOf(mixed.type().dimensions(), new int[]{i / 8});
+            int denseSubspaceSize = (int)mixed.denseSubspaceSize();
+            for (int subspace = 0; subspace < mixed.denseSubspaceCount(); subspace++) {
+                var sparseAddress = mixed.sparseAddressAt(subspace);
+                for (int i = 0; i < denseSubspaceSize; ) {
+                    var packedAddress = sparseAddress.fullAddressOf(mixed.type().dimensions(), new int[]{i / 8});
                     int packedValue = 0;
-                    for (int j = 0; j < 8 && i < denseSubspace.cells.length; j++)
-                        packedValue = packInto(packedValue, denseSubspace.cells[i], j, i++);
+                    for (int j = 0; j < 8 && i < denseSubspaceSize; j++)
+                        packedValue = packInto(packedValue, mixed.valueAt(subspace, i), j, i++);
                     builder.cell(packedAddress, (byte)packedValue);
                 }
             }
@@ -4,6 +4,7 @@ package com.yahoo.tensor.functions;
 import com.google.common.collect.Sets;
 import com.yahoo.tensor.DimensionSizes;
 import com.yahoo.tensor.IndexedTensor;
+import com.yahoo.tensor.MappedTensor;
 import com.yahoo.tensor.PartialAddress;
 import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorAddress;
@@ -118,16 +119,16 @@ public class Join<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMETYP
 
     private static Tensor indexedVectorJoin(IndexedTensor a, IndexedTensor b, TensorType type, DoubleBinaryOperator combinator) {
         int joinedRank = (int)Math.min(a.dimensionSizes().size(0), b.dimensionSizes().size(0));
-        Iterator<Double> aIterator = a.valueIterator();
-        Iterator<Double> bIterator = b.valueIterator();
-        IndexedTensor.Builder builder = IndexedTensor.Builder.of(type, new DimensionSizes.Builder(1).set(0, joinedRank).build());
+        var builder = (IndexedTensor.BoundBuilder)IndexedTensor.Builder.of(type, new DimensionSizes.Builder(1).set(0, joinedRank).build());
         for (int i = 0; i < joinedRank; i++)
-            builder.cell(combinator.applyAsDouble(aIterator.next(), bIterator.next()), i);
+            builder.cellByDirectIndex(i, combinator.applyAsDouble(a.get(i), b.get(i)));
         return builder.build();
     }
 
     /** When both tensors have the same dimensions, at most one cell matches a cell in the other tensor */
     private static Tensor singleSpaceJoin(Tensor a, Tensor b, TensorType joinedType, DoubleBinaryOperator combinator) {
+        if (a instanceof MappedTensor aMapped && b instanceof MappedTensor bMapped)
+            return mappedSingleSpaceJoin(aMapped, bMapped, joinedType, combinator);
         Tensor.Builder builder = Tensor.Builder.of(joinedType);
         for (Iterator<Tensor.Cell> i = a.cellIterator(); i.hasNext(); ) {
             Map.Entry<TensorAddress, Double> aCell = i.next();
@@ -140,6 +141,17 @@ public class Join<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMETYP
         return builder.build();
     }
 
+    /** Joins mapped tensors with the same dimensions by looking up the labels of each cell directly */
+    private static Tensor mappedSingleSpaceJoin(MappedTensor a, MappedTensor b, TensorType joinedType, DoubleBinaryOperator combinator) {
+        Tensor.Builder builder = Tensor.Builder.of(joinedType);
+        for (int i = 0; i < a.sizeAsInt(); i++) {
+            int bIndex = b.indexOf(a, i);
+            if (bIndex >= 0)
+                builder.cell(a.addressAt(i), combinator.applyAsDouble(a.valueAt(i), b.valueAt(bIndex)));
+        }
+        return builder.build();
+    }
+
     /** Join a tensor into a superspace */
     private static Tensor subspaceJoin(Tensor subspace, Tensor superspace, TensorType joinedType, boolean reversedArgumentOrder, DoubleBinaryOperator combinator) {
         if (subspace instanceof IndexedTensor && superspace instanceof IndexedTensor)
@@ -162,7 +174,7 @@ public class Join<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMETYP
 
         for (Iterator<IndexedTensor.SubspaceIterator> i = superspace.subspaceIterator(superDimensionNames, joinedSizes); i.hasNext(); ) {
             IndexedTensor.SubspaceIterator subspaceInSuper = i.next();
-            joinSubspaces(subspace.valueIterator(), subspace.size(),
+            joinSubspaces(subspace, subspace.size(),
                     subspaceInSuper, subspaceInSuper.size(),
                     reversedArgumentOrder, builder, combinator);
         }
@@ -170,7 +182,7 @@ public class Join<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMETYP
         return builder.build();
     }
 
-    private static void joinSubspaces(Iterator<Double> subspace, long subspaceSize,
+    private static void joinSubspaces(IndexedTensor subspace, long subspaceSize,
                                       Iterator<Tensor.Cell> superspace, long superspaceSize,
                                       boolean reversedArgumentOrder, IndexedTensor.Builder builder,
                                       DoubleBinaryOperator combinator) {
@@ -178,12 +190,12 @@ public class Join<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMETYP
         if (reversedArgumentOrder) {
             for (int i = 0; i < joinedLength; i++) {
                 Tensor.Cell supercell = superspace.next();
-                builder.cell(supercell, combinator.applyAsDouble(supercell.getValue(), subspace.next()));
+                builder.cell(supercell, combinator.applyAsDouble(supercell.getDoubleValue(), subspace.get(i)));
             }
         } else {
             for (int i = 0; i < joinedLength; i++) {
                 Tensor.Cell supercell = superspace.next();
-                builder.cell(supercell, combinator.applyAsDouble(subspace.next(), supercell.getValue()));
+                builder.cell(supercell, combinator.applyAsDouble(subspace.get(i), supercell.getDoubleValue()));
             }
         }
     }
@@ -208,14 +220,14 @@ public class Join<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMETYP
         int[] subspaceIndexes = subspaceIndexes(superspace.type(), subspace.type());
         Tensor.Builder builder = Tensor.Builder.of(joinedType);
         for (Iterator<Tensor.Cell> i = superspace.cellIterator(); i.hasNext(); ) {
-            Map.Entry<TensorAddress, Double> supercell = i.next();
+            Tensor.Cell supercell = i.next();
             TensorAddress subaddress = supercell.getKey().partialCopy(subspaceIndexes);
             Double subspaceValue = subspace.getAsDouble(subaddress);
             if (subspaceValue != null) {
                 builder.cell(supercell.getKey(),
                         reversedArgumentOrder
-                                ? combinator.applyAsDouble(supercell.getValue(), subspaceValue)
-                                : combinator.applyAsDouble(subspaceValue, supercell.getValue()));
+                                ? combinator.applyAsDouble(supercell.getDoubleValue(), subspaceValue)
+                                : combinator.applyAsDouble(subspaceValue, supercell.getDoubleValue()));
             }
         }
         return builder.build();
@@ -269,7 +281,7 @@ public class Join<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMETYP
                 for (IndexedTensor.SubspaceIterator bSubspace = b.cellIterator(matchingBCells, bIterateSize); bSubspace.hasNext(); ) {
                     Tensor.Cell bCell = bSubspace.next();
                     TensorAddress joinedAddress = joinAddresses(aCell.getKey(), aToIndexes, bCell.getKey(), bToIndexes, joinedType);
-                    double joinedValue = combinator.applyAsDouble(aCell.getValue(), bCell.getValue());
+                    double joinedValue = combinator.applyAsDouble(aCell.getDoubleValue(), bCell.getDoubleValue());
                     builder.cell(joinedAddress, joinedValue);
                 }
             }
@@ -353,8 +365,8 @@ public class Join<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMETYP
                                                               bCell.getKey(), bIndexesInJoined, joinedType);
                 if (combinedAddress == null) continue; // not combinable
                 double combinedValue = swapTensors ?
-                        combinator.applyAsDouble(bCell.getValue(), aCell.getValue()) :
-                        combinator.applyAsDouble(aCell.getValue(), bCell.getValue());
+                        combinator.applyAsDouble(bCell.getDoubleValue(), aCell.getDoubleValue()) :
+                        combinator.applyAsDouble(aCell.getDoubleValue(), bCell.getDoubleValue());
                 builder.cell(combinedAddress, combinedValue);
             }
         }
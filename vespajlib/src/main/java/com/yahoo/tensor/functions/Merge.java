@@ -2,6 +2,7 @@
 package com.yahoo.tensor.functions;
 
 import com.yahoo.tensor.IndexedTensor;
+import com.yahoo.tensor.MappedTensor;
 import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorAddress;
 import com.yahoo.tensor.TensorType;
@@ -99,24 +100,39 @@ public class Merge<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMETY
         long bSize = b.dimensionSizes().size(0);
         long mergedSize = Math.max(aSize, bSize);
         long sharedSize = Math.min(aSize, bSize);
-        Iterator<Double> aIterator = a.valueIterator();
-        Iterator<Double> bIterator = b.valueIterator();
         IndexedTensor.Builder builder = IndexedTensor.Builder.of(type);
         for (long i = 0; i < sharedSize; i++)
-            builder.cell(combinator.applyAsDouble(aIterator.next(), bIterator.next()), i);
-        Iterator<Double> largestIterator = aSize > bSize ? aIterator : bIterator;
+            builder.cell(combinator.applyAsDouble(a.get(i), b.get(i)), i);
+        IndexedTensor largest = aSize > bSize ? a : b;
         for (long i = sharedSize; i < mergedSize; i++)
-            builder.cell(largestIterator.next(), i);
+            builder.cell(largest.get(i), i);
         return builder.build();
     }
 
     private static Tensor generalMerge(Tensor a, Tensor b, TensorType mergedType, DoubleBinaryOperator combinator) {
+        if (a instanceof MappedTensor aMapped && b instanceof MappedTensor bMapped &&
+            a.type().dimensionNames().equals(b.type().dimensionNames()))
+            return mappedMerge(aMapped, bMapped, mergedType, combinator);
         Tensor.Builder builder = Tensor.Builder.of(mergedType);
         addCellsOf(a, b, builder, combinator);
         addCellsOf(b, a, builder, null);
         return builder.build();
     }
 
+    /** Merges mapped tensors with the same dimensions by looking up the labels of each cell directly */
+    private static Tensor mappedMerge(MappedTensor a, MappedTensor b, TensorType mergedType, DoubleBinaryOperator combinator) {
+        Tensor.Builder builder = Tensor.Builder.of(mergedType);
+        for (int i = 0; i < a.sizeAsInt(); i++) {
+            int bIndex = b.indexOf(a, i);
+            builder.cell(a.addressAt(i), bIndex < 0 ? a.valueAt(i) : combinator.applyAsDouble(a.valueAt(i), b.valueAt(bIndex)));
+        }
+        for (int i = 0; i < b.sizeAsInt(); i++) {
+            if (a.indexOf(b, i) < 0)
+                builder.cell(b.addressAt(i), b.valueAt(i));
+        }
+        return builder.build();
+    }
+
     private static void addCellsOf(Tensor a, Tensor b, Tensor.Builder builder, DoubleBinaryOperator combinator) {
         for (Iterator<Tensor.Cell> i = a.cellIterator(); i.hasNext(); ) {
             Map.Entry<TensorAddress, Double> aCell = i.next();
@@ -4,6 +4,7 @@ package com.yahoo.tensor.functions;
 import com.yahoo.tensor.DimensionSizes;
 import com.yahoo.tensor.DirectIndexedAddress;
 import com.yahoo.tensor.IndexedTensor;
+import com.yahoo.tensor.MappedTensor;
 import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorAddress;
 import com.yahoo.tensor.TensorType;
@@ -189,10 +190,10 @@ public class Reduce<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMET
         // But the upside is larger than the downside.
         Map<TensorAddress, ValueAggregator> aggregatingCells = new HashMap<>(argument.sizeAsInt());
         for (Iterator<Tensor.Cell> i = argument.cellIterator(); i.hasNext(); ) {
-            Map.Entry<TensorAddress, Double> cell = i.next();
+            Tensor.Cell cell = i.next();
             TensorAddress reducedAddress = cell.getKey().partialCopy(indexesToKeep);
             ValueAggregator aggr = aggregatingCells.computeIfAbsent(reducedAddress, (key) ->ValueAggregator.ofType(aggregator));
-            aggr.aggregate(cell.getValue());
+            aggr.aggregate(cell.getDoubleValue());
         }
         Tensor.Builder reducedBuilder = Tensor.Builder.of(reducedType);
         for (Map.Entry<TensorAddress, ValueAggregator> aggregatingCell : aggregatingCells.entrySet())
@@ -226,8 +227,18 @@ public class Reduce<NAMETYPE extends Name> extends PrimitiveTensorFunction<NAMET
 
     private static Tensor reduceAllGeneral(Tensor argument, Aggregator aggregator) {
         ValueAggregator valueAggregator = ValueAggregator.ofType(aggregator);
-        for (Iterator<Double> i = argument.valueIterator(); i.hasNext(); )
-            valueAggregator.aggregate(i.next());
+        if (argument instanceof IndexedTensor indexed) {
+            for (long i = 0; i < indexed.size(); i++)
+                valueAggregator.aggregate(indexed.get(i));
+        }
+        else if (argument instanceof MappedTensor mapped) {
+            for (int i = 0; i < mapped.sizeAsInt(); i++)
+                valueAggregator.aggregate(mapped.valueAt(i));
+        }
+        else {
+            for (Iterator<Double> i = argument.valueIterator(); i.hasNext(); )
+                valueAggregator.aggregate(i.next());
+        }
         return Tensor.Builder.of(TensorType.empty).cell(valueAggregator.aggregatedValue()).build();
     }
 
@@ -0,0 +1,149 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.tensor.serialization;
+
+import com.yahoo.data.disclosure.DataSink;
+import com.yahoo.data.disclosure.DataSource;
+import com.yahoo.io.GrowableByteBuffer;
+import com.yahoo.tensor.TensorType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Emits a tensor serialized in the dense binary format to a DataSink, reading cell values directly from
+ * the serialized data rather than decoding into a tensor first. The output is the same as that of a
+ * {@link com.yahoo.tensor.TensorDataSource} for the decoded tensor.
+ *
+ * @author agent
+ */
+class DenseBinaryDataSource implements DataSource {
+
+    private static final byte[] hexDigits = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final TensorType type;
+    private final long[] sizes;
+    private final int cellSize;
+    private final GrowableByteBuffer buffer;
+    private final int cellsStart;
+    private final JsonFormat.EncodeOptions options;
+    private final boolean wrapAndType;
+
+    /** Creates a data source of the dense tensor in the given buffer, which is positioned at the start of its dimensions */
+    DenseBinaryDataSource(TensorType.Value valueType, GrowableByteBuffer buffer, JsonFormat.EncodeOptions options) {
+        TensorType.Builder builder = new TensorType.Builder(valueType);
+        int dimensionCount = buffer.getInt1_4Bytes();
+        for (int i = 0; i < dimensionCount; i++)
+            builder.indexed(buffer.getUtf8String(), buffer.getInt1_4Bytes());
+        this.type = builder.build();
+        this.sizes = new long[dimensionCount];
+        for (int i = 0; i < dimensionCount; i++)
+            this.sizes[i] = type.dimensions().get(i).size().get();
+        this.cellSize = switch (valueType) {
+            case DOUBLE -> 8;
+            case FLOAT -> 4;
+            case BFLOAT16 -> 2;
+            case INT8 -> 1;
+        };
+        this.buffer = buffer;
+        this.cellsStart = buffer.position();
+        this.options = options;
+        this.wrapAndType = ! options.directValues();
+        long cellBytes = totalSize() * cellSize;
+        if (cellBytes > buffer.remaining())
+            throw new IllegalArgumentException("Expected " + cellBytes + " bytes of cell data for " + type +
+                                               ", but only " + buffer.remaining() + " bytes remain");
+    }
+
+    @Override
+    public void emit(DataSink sink) {
+        buffer.position(cellsStart);
+        if (wrapAndType) {
+            sink.startObject();
+            sink.fieldName("type");
+            sink.stringValue(type.toString());
+        }
+        if (options.shortForm()) {
+            startField("values", sink);
+            if (options.hexForDensePart())
+                sink.stringValue(asHexString());
+            else
+                emitDenseValues(sink, 0);
+        } else {
+            startField("cells", sink);
+            emitCells(sink);
+        }
+        if (wrapAndType) {
+            sink.endObject();
+        }
+    }
+
+    private void emitDenseValues(DataSink sink, int dimension) {
+        sink.startArray();
+        if (sizes.length == 0)
+            emitNextValue(sink);
+        for (long i = 0; dimension < sizes.length && i < sizes[dimension]; i++) {
+            if (dimension < sizes.length - 1)
+                emitDenseValues(sink, dimension + 1);
+            else
+                emitNextValue(sink);
+        }
+        sink.endArray();
+    }
+
+    private void emitCells(DataSink sink) {
+        long[] indexes = new long[sizes.length];
+        sink.startArray();
+        for (long cell = 0, totalSize = totalSize(); cell < totalSize; cell++) {
+            sink.startObject();
+            sink.fieldName("address");
+            sink.startObject();
+            for (int i = 0; i < indexes.length; i++) {
+                sink.fieldName(type.dimensions().get(i).name());
+                sink.stringValue(String.valueOf(indexes[i]));
+            }
+            sink.endObject();
+            sink.fieldName("value");
+            emitNextValue(sink);
+            sink.endObject();
+
+            // Increment the last dimension fastest, as the cells are serialized in that order
+            for (int i = indexes.length - 1; i >= 0 && ++indexes[i] == sizes[i]; i--)
+                indexes[i] = 0;
+        }
+        sink.endArray();
+    }
+
+    private void emitNextValue(DataSink sink) {
+        switch (type.valueType()) {
+            case DOUBLE -> sink.doubleValue(buffer.getDouble());
+            case FLOAT -> sink.floatValue(buffer.getFloat());
+            case BFLOAT16 -> sink.floatValue(TypedBinaryFormat.floatFromBFloat16Bits(buffer.getShort()));
+            case INT8 -> sink.byteValue(buffer.get());
+        }
+    }
+
+    /** Cells are serialized big-endian, so the hex string is simply that of the serialized cell data */
+    private byte[] asHexString() {
+        int length = (int) totalSize() * cellSize;
+        byte[] result = new byte[2 * length];
+        for (int i = 0; i < length; i++) {
+            int b = buffer.get() & 0xFF;
+            result[2 * i] = hexDigits[b >>> 4];
+            result[2 * i + 1] = hexDigits[b & 0xF];
+        }
+        return result;
+    }
+
+    private long totalSize() {
+        long size = 1;
+        for (long dimensionSize : sizes)
+            size *= dimensionSize;
+        return size;
+    }
+
+    private void startField(String fieldName, DataSink sink) {
+        if (wrapAndType) {
+            sink.fieldName(fieldName);
+        }
+    }
+
+}
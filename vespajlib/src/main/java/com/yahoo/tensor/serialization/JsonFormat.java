@@ -22,6 +22,7 @@ import java.util.Locale;
 import com.yahoo.tensor.TensorType;
 import java.util.Iterator;
 import java.util.function.Function;
+import java.util.function.LongToDoubleFunction;
 
 /**
  * Writes tensors on the JSON format used in Vespa tensor document fields:
@@ -141,7 +142,8 @@ public class JsonFormat {
     private static void encodeSingleDimensionCells(MappedTensor tensor, Cursor cells) {
         if (tensor.type().dimensions().size() > 1)
             throw new IllegalStateException("JSON encode of mapped tensor can only contain a single dimension");
-        tensor.cells().forEach((k,v) -> setValue(k.label(0), v, tensor.type().valueType(), cells));
+        for (int i = 0; i < tensor.sizeAsInt(); i++)
+            setValue(tensor.labelAt(i, 0), tensor.valueAt(i), tensor.type().valueType(), cells);
     }
 
     private static void encodeAddress(TensorType type, TensorAddress address, Cursor addressObject) {
@@ -213,42 +215,53 @@ public class JsonFormat {
     }
 
     private static void encodeDenseValues(IndexedTensor tensor, Cursor target) {
-        encodeValues(tensor, target, new long[tensor.dimensionSizes().dimensions()], 0);
+        encodeDenseValues(tensor.dimensionSizes(), tensor.type().valueType(), tensor::get, target);
     }
 
-    private static void encodeValues(IndexedTensor tensor, Cursor cursor, long[] indexes, int dimension) {
-        DimensionSizes sizes = tensor.dimensionSizes();
-        if (indexes.length == 0) {
-            addValue(tensor.get(0), tensor.type().valueType(), cursor);
-        } else {
-            for (indexes[dimension] = 0; indexes[dimension] < sizes.size(dimension); ++indexes[dimension]) {
-                if (dimension < (sizes.dimensions() - 1)) {
-                    encodeValues(tensor, cursor.addArray(), indexes, dimension + 1);
-                } else {
-                    addValue(tensor.get(indexes), tensor.type().valueType(), cursor);
-                }
+    private static void encodeDenseValues(DimensionSizes sizes, TensorType.Value valueType,
+                                          LongToDoubleFunction values, Cursor target) {
+        if (sizes.dimensions() == 0)
+            addValue(values.applyAsDouble(0), valueType, target);
+        else
+            encodeValues(sizes, valueType, values, target, 0, 0);
+    }
+
+    /**
+     * Encodes the values from the given index in the standard value order, which is the order of the nested arrays,
+     * and returns the index of the next value
+     */
+    private static long encodeValues(DimensionSizes sizes, TensorType.Value valueType, LongToDoubleFunction values,
+                                     Cursor cursor, int dimension, long valueIndex) {
+        for (long i = 0; i < sizes.size(dimension); i++) {
+            if (dimension < (sizes.dimensions() - 1)) {
+                valueIndex = encodeValues(sizes, valueType, values, cursor.addArray(), dimension + 1, valueIndex);
+            } else {
+                addValue(values.applyAsDouble(valueIndex++), valueType, cursor);
             }
         }
+        return valueIndex;
     }
 
-    private static void encodeLabeledSubspace(String label, MixedTensor.DenseSubspace subspace, TensorType denseSubType, Cursor cursor, boolean hexForDensePart) {
+    private static void encodeLabeledSubspace(String label, MixedTensor tensor, int subspace,
+                                              TensorType denseSubType, DimensionSizes denseSizes,
+                                              Cursor cursor, boolean hexForDensePart) {
         if (hexForDensePart) {
-            cursor.setString(label, asHexString(subspace.cells.length,
+            cursor.setString(label, asHexString((int)tensor.denseSubspaceSize(),
                                                 denseSubType.valueType(),
-                                                i -> subspace.cells[i],
-                                                i -> (float)subspace.cells[i]));
+                                                i -> tensor.valueAt(subspace, i),
+                                                i -> (float)tensor.valueAt(subspace, i)));
         } else {
-            IndexedTensor denseSubspace = IndexedTensor.Builder.of(denseSubType, subspace.cells).build();
             var target = cursor.setArray(label);
-            encodeDenseValues(denseSubspace, target);
+            encodeDenseValues(denseSizes, denseSubType.valueType(), i -> tensor.valueAt(subspace, (int)i), target);
         }
     }
 
     private static void encodeLabeledBlocks(MixedTensor tensor, Cursor cursor, boolean hexForDensePart) {
         TensorType denseSubType = tensor.type().indexedSubtype();
-        for (var subspace : tensor.getInternalDenseSubspaces()) {
-            String label = subspace.sparseAddress.label(0);
-            encodeLabeledSubspace(label, subspace, denseSubType, cursor, hexForDensePart);
+        DimensionSizes denseSizes = DimensionSizes.of(denseSubType);
+        for (int subspace = 0; subspace < tensor.denseSubspaceCount(); subspace++) {
+            String label = tensor.sparseLabelAt(subspace, 0);
+            encodeLabeledSubspace(label, tensor, subspace, denseSubType, denseSizes, cursor, hexForDensePart);
         }
     }
 
@@ -259,13 +272,14 @@ public class JsonFormat {
         if (mappedDimensions.isEmpty()) {
             throw new IllegalArgumentException("Should be ensured by caller");
         }
-        // Create tensor type for mapped dimensions subtype
-        TensorType mappedSubType = new TensorType.Builder(mappedDimensions).build();
         TensorType denseSubType = tensor.type().indexedSubtype();
-        for (var subspace : tensor.getInternalDenseSubspaces()) {
+        DimensionSizes denseSizes = DimensionSizes.of(denseSubType);
+        for (int subspace = 0; subspace < tensor.denseSubspaceCount(); subspace++) {
             Cursor block = cursor.addObject();
-            encodeAddress(mappedSubType, subspace.sparseAddress, block.setObject("address"));
-            encodeLabeledSubspace("values", subspace, denseSubType, block, hexForDensePart);
+            Cursor address = block.setObject("address");
+            for (int i = 0; i < mappedDimensions.size(); i++)
+                address.setString(mappedDimensions.get(i).name(), tensor.sparseLabelAt(subspace, i));
+            encodeLabeledSubspace("values", tensor, subspace, denseSubType, denseSizes, block, hexForDensePart);
         }
     }
 
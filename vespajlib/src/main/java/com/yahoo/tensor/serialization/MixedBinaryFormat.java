@@ -11,7 +11,7 @@ import com.yahoo.tensor.TensorType;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -63,26 +63,25 @@ class MixedBinaryFormat implements BinaryFormat {
     private void encodeCells(GrowableByteBuffer buffer, MixedTensor tensor) {
         switch (serializationValueType) {
             case DOUBLE: encodeCells(buffer, tensor, buffer::putDouble); break;
-            case FLOAT: encodeCells(buffer, tensor, (val) -> buffer.putFloat(val.floatValue())); break;
+            case FLOAT: encodeCells(buffer, tensor, (val) -> buffer.putFloat((float)val)); break;
             case BFLOAT16: encodeCells(buffer, tensor, (val) ->
-                    buffer.putShort(TypedBinaryFormat.bFloat16BitsFromFloat(val.floatValue()))); break;
-            case INT8: encodeCells(buffer, tensor, (val) -> buffer.put(((byte)val.floatValue()))); break;
+                    buffer.putShort(TypedBinaryFormat.bFloat16BitsFromFloat((float)val))); break;
+            case INT8: encodeCells(buffer, tensor, (val) -> buffer.put(((byte)(float)val))); break;
         }
     }
 
-    private void encodeCells(GrowableByteBuffer buffer, MixedTensor tensor, Consumer<Double> consumer) {
-        List<TensorType.Dimension> sparseDimensions = tensor.type().dimensions().stream().filter(d -> !d.isIndexed()).toList();
-        long denseSubspaceSize = tensor.denseSubspaceSize();
-        var denseSubspaces = tensor.getInternalDenseSubspaces();
-        if (sparseDimensions.size() > 0) {
-            buffer.putInt1_4Bytes(denseSubspaces.size());
+    private void encodeCells(GrowableByteBuffer buffer, MixedTensor tensor, DoubleConsumer consumer) {
+        int sparseDimensions = (int)tensor.type().dimensions().stream().filter(d -> !d.isIndexed()).count();
+        int denseSubspaceSize = (int)tensor.denseSubspaceSize();
+        if (sparseDimensions > 0) {
+            buffer.putInt1_4Bytes(tensor.denseSubspaceCount());
         }
-        for (var subspace : denseSubspaces) {
-            for (int index = 0; index < subspace.sparseAddress.size(); index++) {
-                buffer.putUtf8String(subspace.sparseAddress.label(index));
+        for (int subspace = 0; subspace < tensor.denseSubspaceCount(); subspace++) {
+            for (int index = 0; index < sparseDimensions; index++) {
+                buffer.putUtf8String(tensor.sparseLabelAt(subspace, index));
             }
-            for (double val : subspace.cells) {
-                consumer.accept(val);
+            for (int offset = 0; offset < denseSubspaceSize; offset++) {
+                consumer.accept(tensor.valueAt(subspace, offset));
             }
         }
     }
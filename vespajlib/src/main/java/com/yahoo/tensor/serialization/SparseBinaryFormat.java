@@ -2,6 +2,7 @@
 package com.yahoo.tensor.serialization;
 
 import com.yahoo.io.GrowableByteBuffer;
+import com.yahoo.tensor.MappedTensor;
 import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorAddress;
 import com.yahoo.tensor.TensorType;
@@ -9,7 +10,7 @@ import com.yahoo.tensor.TensorType;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 import java.util.function.Supplier;
 
 /**
@@ -51,18 +52,27 @@ class SparseBinaryFormat implements BinaryFormat {
         buffer.putInt1_4Bytes(tensor.sizeAsInt()); // XXX: Size truncation
         switch (serializationValueType) {
             case DOUBLE: encodeCells(buffer, tensor, buffer::putDouble); break;
-            case FLOAT: encodeCells(buffer, tensor, (val) -> buffer.putFloat(val.floatValue())); break;
+            case FLOAT: encodeCells(buffer, tensor, (val) -> buffer.putFloat((float)val)); break;
             case BFLOAT16: encodeCells(buffer, tensor, (val) ->
-                    buffer.putShort(TypedBinaryFormat.bFloat16BitsFromFloat(val.floatValue()))); break;
-            case INT8: encodeCells(buffer, tensor, (val) -> buffer.put((byte)(val.floatValue()))); break;
+                    buffer.putShort(TypedBinaryFormat.bFloat16BitsFromFloat((float)val))); break;
+            case INT8: encodeCells(buffer, tensor, (val) -> buffer.put((byte)((float)val))); break;
         }
     }
 
-    private void encodeCells(GrowableByteBuffer buffer, Tensor tensor, Consumer<Double> consumer) {
+    private void encodeCells(GrowableByteBuffer buffer, Tensor tensor, DoubleConsumer consumer) {
+        if (tensor instanceof MappedTensor mapped) { // Encode directly from the labels, without creating addresses
+            int rank = mapped.type().rank();
+            for (int i = 0; i < mapped.sizeAsInt(); i++) {
+                for (int dimension = 0; dimension < rank; dimension++)
+                    buffer.putUtf8String(mapped.labelAt(i, dimension));
+                consumer.accept(mapped.valueAt(i));
+            }
+            return;
+        }
         for (Iterator<Tensor.Cell> i = tensor.cellIterator(); i.hasNext(); ) {
             Tensor.Cell cell = i.next();
             encodeAddress(buffer, cell.getKey());
-            consumer.accept(cell.getValue());
+            consumer.accept(cell.getDoubleValue());
         }
     }
 
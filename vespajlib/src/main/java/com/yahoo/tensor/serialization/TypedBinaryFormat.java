@@ -1,6 +1,7 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.tensor.serialization;
 
+import com.yahoo.data.disclosure.DataSource;
 import com.yahoo.io.GrowableByteBuffer;
 import com.yahoo.tensor.MixedTensor;
 import com.yahoo.tensor.Tensor;
@@ -54,6 +55,25 @@ public class TypedBinaryFormat {
         return decoder.decode(type, buffer);
     }
 
+    /**
+     * Returns a data source emitting some serialized tensor in the same way as a {@link com.yahoo.tensor.TensorDataSource}
+     * of the decoded tensor, if this can be done directly from the serialized data.
+     * This is currently supported for dense tensors only, and avoids creating a tensor just to render it.
+     *
+     * @param data the serialized tensor, which must not be modified while the returned data source is in use
+     * @param options the options to use when emitting the tensor
+     * @return a data source emitting the tensor, or empty if the data must be decoded to a tensor first
+     * @throws IllegalArgumentException if the tensor data was invalid
+     */
+    public static Optional<DataSource> asDataSource(byte[] data, JsonFormat.EncodeOptions options) {
+        GrowableByteBuffer buffer = GrowableByteBuffer.wrap(data);
+        return switch (decodeFormatType(buffer)) {
+            case DENSE_BINARY_FORMAT_TYPE -> Optional.of(new DenseBinaryDataSource(TensorType.Value.DOUBLE, buffer, options));
+            case DENSE_BINARY_FORMAT_WITH_CELLTYPE -> Optional.of(new DenseBinaryDataSource(decodeValueType(buffer), buffer, options));
+            default -> Optional.empty();
+        };
+    }
+
     private static BinaryFormat getFormatEncoder(GrowableByteBuffer buffer, Tensor tensor) {
         boolean hasMappedDimensions = tensor.type().hasMappedDimensions();
         boolean hasIndexedDimensions = tensor.type().hasIndexedDimensions();
@@ -6,7 +6,11 @@ import org.junit.Test;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Basic tensor tests. Tensor operations are tested in EvaluationTestCase
@@ -39,6 +43,18 @@ public class MappedTensorTestCase {
         assertEquals("tensor(x{}):{0:1.0, 1:2.0}", tensor.toString());
     }
 
+    @Test
+    public void testCellsMapIsCreatedOnce() {
+        TensorType type = new TensorType.Builder().mapped("x").build();
+        Tensor tensor = Tensor.Builder.of(type).
+                cell().label("x", "0").value(1).
+                cell().label("x", "1").value(2).build();
+        var cells = tensor.cells();
+        assertEquals(2, cells.size());
+        assertEquals(2.0, cells.get(TensorAddress.ofLabels("1")), 0.0);
+        assertSame(cells, tensor.cells());
+    }
+
     @Test
     public void testTwoDimensionalBuilding() {
         TensorType type = new TensorType.Builder().mapped("x").mapped("y").build();
@@ -49,4 +65,37 @@ public class MappedTensorTestCase {
         assertEquals("tensor(x{},y{}):{{x:0,y:0}:1.0, {x:1,y:0}:2.0}", tensor.toString());
     }
 
+    @Test
+    public void testManyCells() {
+        TensorType type = new TensorType.Builder().mapped("x").mapped("y").build();
+        Tensor.Builder builder = Tensor.Builder.of(type);
+        for (int i = 0; i < 1000; i++)
+            builder.cell().label("x", "x" + i).label("y", String.valueOf(i % 3)).value(i);
+        Tensor tensor = builder.build();
+        assertEquals(1000, tensor.size());
+        assertEquals(123.0, tensor.get(TensorAddress.ofLabels("x123", "0")), 0.0);
+        assertEquals(0.0, tensor.get(TensorAddress.ofLabels("x123", "1")), 0.0);
+        assertTrue(tensor.has(TensorAddress.ofLabels("x999", "0")));
+        assertFalse(tensor.has(TensorAddress.ofLabels("x999", "1")));
+        assertNull(tensor.getAsDouble(TensorAddress.ofLabels("x1000", "1")));
+        assertEquals(999 * 1000 / 2, tensor.sum().asDouble(), 0.0);
+        assertEquals(tensor, Tensor.from(tensor.toString()));
+
+        Tensor.Cell first = tensor.cellIterator().next();
+        assertEquals(TensorAddress.ofLabels("x0", "0"), first.getKey());
+        assertEquals(0.0, first.getValue(), 0.0);
+    }
+
+    @Test
+    public void testMultipleValuesForTheSameAddress() {
+        TensorType type = new TensorType.Builder().mapped("x").build();
+        try {
+            Tensor.Builder.of(type).cell().label("x", "a").value(1).cell().label("x", "a").value(2).build();
+            fail("Expected exception");
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("Multiple values for cell address (a) in a tensor of type tensor(x{})", e.getMessage());
+        }
+    }
+
 }
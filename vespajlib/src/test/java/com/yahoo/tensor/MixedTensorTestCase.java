@@ -13,6 +13,7 @@ import java.util.stream.StreamSupport;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Basic mixed tensor tests. Tensor operations are tested in EvaluationTestCase
@@ -31,6 +32,24 @@ public class MixedTensorTestCase {
         assertEquals("tensor(x{},y[3]):{}", Tensor.from("tensor(x{},y[3]):{}").toString());
     }
 
+    @Test
+    public void testIndexedLabelOutOfBoundsIsRejected() {
+        TensorType type = new TensorType.Builder().mapped("x").indexed("y", 2).build();
+        Tensor.Builder builder = Tensor.Builder.of(type).
+                cell().label("x", "a").label("y", 0).value(1).
+                cell().label("x", "b").label("y", 1).value(2);
+        try {
+            builder.cell().label("x", "a").label("y", 3).value(3);
+            fail("Expected exception");
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("cell address (a,3) is not within the bounds of tensor(x{},y[2])", e.getMessage());
+        }
+        Tensor tensor = builder.build();
+        assertEquals(2.0, tensor.get(TensorAddress.ofLabels("b", "1")), 0.0);
+        assertEquals(0.0, tensor.get(TensorAddress.ofLabels("a", "3")), 0.0);
+    }
+
     @Test
     public void testScalar() {
         TensorType type = new TensorType.Builder().build();
@@ -185,4 +204,26 @@ public class MixedTensorTestCase {
         assertEquals("tensor(x[3]):[4.0, 5.0, 6.0]", indexedTensors.get("key2").toString());
     }
 
+    @Test
+    public void testManyDenseSubspaces() {
+        TensorType type = new TensorType.Builder().mapped("key").indexed("x", 2).build();
+        MixedTensor.BoundBuilder builder = MixedTensor.BoundBuilder.of(type);
+        IndexedTensor.DirectIndexBuilder first = builder.denseSubspaceBuilder(TensorAddress.ofLabels("first"));
+        for (int i = 0; i < 100; i++)
+            builder.block(TensorAddress.ofLabels("key" + i), new double[] { i, -i });
+        first.cellByDirectIndex(1, 7.0); // Still written to the right subspace after others are added
+        MixedTensor tensor = builder.build();
+
+        assertEquals(101, tensor.denseSubspaceCount());
+        assertEquals(202, tensor.size());
+        assertEquals(7.0, tensor.get(TensorAddress.ofLabels("first", "1")), 0.0);
+        assertEquals(-42.0, tensor.get(TensorAddress.ofLabels("key42", "1")), 0.0);
+        assertEquals(0.0, tensor.get(TensorAddress.ofLabels("key100", "1")), 0.0);
+        assertTrue(tensor.has(TensorAddress.ofLabels("key99", "0")));
+        assertEquals(TensorAddress.ofLabels("key0"), tensor.sparseAddressAt(1));
+        assertEquals("key0", tensor.getInternalDenseSubspaces().get(1).sparseAddress.label(0));
+        assertEquals(7.0, tensor.getInternalDenseSubspaces().get(0).cells[1], 0.0);
+        assertEquals(tensor, Tensor.from(tensor.toString()));
+    }
+
 }
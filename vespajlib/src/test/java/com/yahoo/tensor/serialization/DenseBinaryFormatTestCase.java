@@ -1,15 +1,20 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.tensor.serialization;
 
+import com.yahoo.data.disclosure.slime.SlimeDataSink;
 import com.yahoo.io.GrowableByteBuffer;
+import com.yahoo.slime.SlimeUtils;
 import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorDataSource;
 import com.yahoo.tensor.TensorType;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -40,6 +45,22 @@ public class DenseBinaryFormatTestCase {
         }
     }
 
+    @Test
+    public void testDataSourceFromSerializedData() {
+        List<JsonFormat.EncodeOptions> allOptions = List.of(new JsonFormat.EncodeOptions(false, false, false),
+                                                            new JsonFormat.EncodeOptions(true, false, false),
+                                                            new JsonFormat.EncodeOptions(true, true, false),
+                                                            new JsonFormat.EncodeOptions(true, false, true));
+        for (JsonFormat.EncodeOptions options : allOptions) {
+            assertDataSource("tensor(x[3]):[1.0, 2.0, 3.0]", options);
+            assertDataSource("tensor<float>(x[2],y[3]):[[1, 2, 3], [4, 5, 6]]", options);
+            assertDataSource("tensor<bfloat16>(x[2]):[1.5, -2.5]", options);
+            assertDataSource("tensor<int8>(x[2],y[1],z[2]):[[[-1, 2]], [[7, 127]]]", options);
+        }
+        assertTrue(TypedBinaryFormat.asDataSource(TypedBinaryFormat.encode(Tensor.from("tensor(x{}):{a:1.0}")),
+                                                  new JsonFormat.EncodeOptions()).isEmpty());
+    }
+
     @Test
     public void requireThatDefaultSerializationFormatDoesNotChange() {
         byte[] encodedTensor = new byte[]{2, // binary format type
@@ -122,5 +143,12 @@ public class DenseBinaryFormatTestCase {
         assertEquals(tensor, decodedTensor);
     }
 
-}
+    private void assertDataSource(String tensorString, JsonFormat.EncodeOptions options) {
+        Tensor tensor = Tensor.from(tensorString);
+        var source = TypedBinaryFormat.asDataSource(TypedBinaryFormat.encode(tensor), options).get();
+        String expected = SlimeUtils.toJson(SlimeDataSink.buildSlime(new TensorDataSource(tensor, options)));
+        assertEquals(expected, SlimeUtils.toJson(SlimeDataSink.buildSlime(source)));
+        assertEquals("Data source can be emitted repeatedly", expected, SlimeUtils.toJson(SlimeDataSink.buildSlime(source)));
+    }
 
+}
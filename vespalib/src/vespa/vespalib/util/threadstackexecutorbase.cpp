@@ -165,6 +165,11 @@ size_t ThreadStackExecutorBase::num_idle_workers() const {
     return _workers.size();
 }
 
+uint32_t ThreadStackExecutorBase::num_pending_tasks() const {
+    std::unique_lock guard(_lock);
+    return _taskCount;
+}
+
 ExecutorStats ThreadStackExecutorBase::getStats() {
     std::unique_lock guard(_lock);
     ExecutorStats    stats = _stats;
@@ -176,6 +176,12 @@ public:
      **/
     size_t num_idle_workers() const;
 
+    /**
+     * Returns the number of accepted tasks which are not yet completed,
+     * i.e., both those running and those waiting to be run.
+     **/
+    uint32_t num_pending_tasks() const;
+
     ExecutorStats getStats() override;
 
     Task::UP execute(Task::UP task) override;
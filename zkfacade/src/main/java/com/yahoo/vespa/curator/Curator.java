@@ -204,6 +204,9 @@ public class Curator extends AbstractComponent implements AutoCloseable {
         return new NodeCacheWrapper(framework(), path, dataIsCompressed);
     }
 
+    /** Returns the maximum number of bytes in a single request to ZooKeeper, and thus in a single node */
+    public long juteMaxBuffer() { return juteMaxBuffer; }
+
     /** A convenience method which returns whether the given path exists */
     public boolean exists(Path path) {
         try {
@@ -0,0 +1,201 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.curator.transaction;
+
+import com.yahoo.path.Path;
+import com.yahoo.vespa.curator.Curator;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes data to many nodes using as few ZooKeeper requests as possible, instead of the several requests
+ * per node done by {@link Curator#set}. Nodes, and any missing parents, are created if they do not exist,
+ * and have their data set otherwise. Which nodes exist is found with a single request per parent node.
+ * <p>
+ * The writes are committed as multi-operation transactions, each kept below the maximum request size of
+ * ZooKeeper (jute.maxbuffer). Unlike a {@link CuratorTransaction}, the writes of a batch are therefore
+ * not applied atomically as a whole, but one chunk at a time, in the order they were added. Pending writes
+ * are committed as soon as adding another would make them larger than a chunk, so a batch never holds
+ * much more data than a single request.
+ * <p>
+ * This is not thread safe.
+ *
+ * @author agent
+ */
+public class CuratorWriteBatch {
+
+    /** An estimate of the size of a single operation in a request, in addition to its path and data */
+    private static final int operationOverhead = 64;
+
+    private final Curator curator;
+    private final long maxChunkSize;
+
+    /** The data to write to each path, in the order first added, or null to just create the path */
+    private final Map<Path, byte[]> writes = new LinkedHashMap<>();
+
+    /** The estimated size of the pending writes */
+    private long pendingSize = 0;
+
+    private int writeCount = 0;
+    private int operationCount = 0;
+    private int requestCount = 0;
+
+    /** Creates a batch where each transaction has at most half the maximum request size of the given curator */
+    public CuratorWriteBatch(Curator curator) {
+        this(curator, curator.juteMaxBuffer() / 2);
+    }
+
+    CuratorWriteBatch(Curator curator, long maxChunkSize) {
+        this.curator = curator;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * Adds writing the given data to the given path, replacing any write to the same path already in this.
+     *
+     * @throws IllegalArgumentException if the data is larger than allowed for a single node
+     */
+    public CuratorWriteBatch set(Path path, byte[] data) {
+        if (data.length > curator.juteMaxBuffer())
+            throw new IllegalArgumentException("Cannot not set data at " + path.getAbsolute() + ", " +
+                                               data.length + " bytes is too much, max number of bytes allowed per node is " +
+                                               curator.juteMaxBuffer());
+        add(path, data);
+        return this;
+    }
+
+    /** Adds creating the given path with no data, unless it exists or is written by this already */
+    public CuratorWriteBatch create(Path path) {
+        if ( ! writes.containsKey(path))
+            add(path, null);
+        return this;
+    }
+
+    /** Adds the given write, committing the pending writes first if this would make them larger than a chunk */
+    private void add(Path path, byte[] data) {
+        if (writes.containsKey(path))
+            pendingSize -= sizeOf(path, writes.get(path));
+        else if (pendingSize + sizeOf(path, data) > maxChunkSize && ! writes.isEmpty())
+            commit();
+        writes.put(path, data);
+        pendingSize += sizeOf(path, data);
+    }
+
+    /** Returns the number of paths written by this which are not yet committed */
+    public int size() { return writes.size(); }
+
+    /** Returns the number of paths written by the commits of this so far */
+    public int writeCount() { return writeCount; }
+
+    /** Returns the number of ZooKeeper operations done by the commits of this so far */
+    public int operationCount() { return operationCount; }
+
+    /** Returns the number of ZooKeeper requests done by the commits of this so far */
+    public int requestCount() { return requestCount; }
+
+    /** Discards the writes added to this which are not yet committed */
+    public void clear() {
+        writes.clear();
+        pendingSize = 0;
+    }
+
+    /**
+     * Writes everything added to this to ZooKeeper, and clears it.
+     *
+     * @throws IllegalStateException if committing fails, in which case some of the writes may have been done
+     */
+    public void commit() {
+        if (writes.isEmpty()) return;
+
+        int paths = writes.size();
+        List<Write> resolved = new ArrayList<>();
+        try {
+            Resolver resolver = new Resolver();
+            for (Map.Entry<Path, byte[]> write : writes.entrySet())
+                resolver.resolve(write.getKey(), write.getValue(), resolved);
+        }
+        finally {
+            clear();
+        }
+
+        List<CuratorOperation> chunk = new ArrayList<>();
+        long chunkSize = 0;
+        for (Write write : resolved) {
+            if (chunkSize + write.size() > maxChunkSize && ! chunk.isEmpty()) {
+                commit(chunk);
+                chunk.clear();
+                chunkSize = 0;
+            }
+            chunk.add(write.operation());
+            chunkSize += write.size();
+        }
+        commit(chunk);
+        writeCount += paths;
+    }
+
+    @SuppressWarnings("deprecation")
+    private void commit(List<CuratorOperation> chunk) {
+        if (chunk.isEmpty()) return;
+        try {
+            org.apache.curator.framework.api.transaction.CuratorTransaction transaction = curator.framework().inTransaction();
+            for (CuratorOperation operation : chunk)
+                transaction = operation.and(transaction);
+            ((CuratorTransactionFinal) transaction).commit();
+            operationCount += chunk.size();
+            requestCount++;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to commit " + chunk.size() + " operations, starting with " + chunk.get(0), e);
+        }
+    }
+
+    private static long sizeOf(Path path, byte[] data) {
+        return path.getAbsolute().length() + (data == null ? 0 : data.length) + operationOverhead;
+    }
+
+    private record Write(CuratorOperation operation, long size) { }
+
+    /** Resolves writes to the operations needed, based on which paths exist and which are created by earlier writes */
+    private class Resolver {
+
+        /** The names of the existing children of each path looked up, which is empty for paths which do not exist */
+        private final Map<Path, Set<String>> existingChildren = new HashMap<>();
+        private final Set<Path> created = new HashSet<>();
+
+        void resolve(Path path, byte[] data, List<Write> resolved) {
+            ensureExists(path.getParentPath(), resolved);
+            if (created.contains(path) || exists(path)) {
+                if (data != null)
+                    resolved.add(new Write(CuratorOperations.setData(path.getAbsolute(), data), sizeOf(path, data)));
+            }
+            else {
+                resolved.add(new Write(CuratorOperations.create(path.getAbsolute(), data == null ? new byte[0] : data),
+                                       sizeOf(path, data)));
+                created.add(path);
+            }
+        }
+
+        private void ensureExists(Path path, List<Write> resolved) {
+            if (path.isRoot() || created.contains(path) || exists(path)) return;
+
+            ensureExists(path.getParentPath(), resolved);
+            resolved.add(new Write(CuratorOperations.create(path.getAbsolute(), new byte[0]), sizeOf(path, null)));
+            created.add(path);
+        }
+
+        private boolean exists(Path path) {
+            if (path.isRoot()) return true;
+            Path parent = path.getParentPath();
+            if (created.contains(parent)) return false; // Children of new paths are created by this as well
+            return existingChildren.computeIfAbsent(parent, __ -> new HashSet<>(curator.getChildren(parent)))
+                                   .contains(path.getName());
+        }
+
+    }
+
+}
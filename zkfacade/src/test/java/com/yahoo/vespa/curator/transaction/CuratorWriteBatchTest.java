@@ -0,0 +1,120 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.curator.transaction;
+
+import com.yahoo.path.Path;
+import com.yahoo.text.Utf8;
+import com.yahoo.vespa.curator.mock.MockCurator;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class CuratorWriteBatchTest {
+
+    private final MockCurator curator = new MockCurator();
+
+    @Test
+    public void testWritesToNewAndExistingNodes() {
+        curator.set(Path.fromString("/a/existing"), Utf8.toBytes("old"));
+
+        CuratorWriteBatch batch = new CuratorWriteBatch(curator);
+        batch.set(Path.fromString("/a/existing"), Utf8.toBytes("new"))
+             .set(Path.fromString("/a/b/c/new"), Utf8.toBytes("data"))
+             .create(Path.fromString("/a/b/empty"))
+             .create(Path.fromString("/a"));
+        assertEquals(4, batch.size());
+        batch.commit();
+
+        assertEquals(0, batch.size());
+        assertEquals(4, batch.writeCount());
+        assertEquals(1, batch.requestCount());
+        assertEquals(5, batch.operationCount()); // set existing, create /a/b, /a/b/c, /a/b/c/new and /a/b/empty
+        assertData("new", "/a/existing");
+        assertData("data", "/a/b/c/new");
+        assertData("", "/a/b/empty");
+        assertEquals(List.of("a"), curator.getChildren(Path.createRoot()));
+    }
+
+    @Test
+    public void testLastWriteToPathWins() {
+        CuratorWriteBatch batch = new CuratorWriteBatch(curator);
+        batch.set(Path.fromString("/a"), Utf8.toBytes("first"))
+             .set(Path.fromString("/a"), Utf8.toBytes("second"))
+             .create(Path.fromString("/a"));
+        batch.commit();
+
+        assertEquals(1, batch.operationCount());
+        assertData("second", "/a");
+    }
+
+    @Test
+    public void testWritesAreSplitIntoSeveralRequests() {
+        CuratorWriteBatch batch = new CuratorWriteBatch(curator, 1000);
+        for (int i = 0; i < 10; i++)
+            batch.set(Path.fromString("/dir/node" + i), new byte[300]);
+        batch.commit();
+
+        assertEquals(11, batch.operationCount());
+        assertEquals(5, batch.requestCount());
+        assertEquals(10, curator.getChildren(Path.fromString("/dir")).size());
+
+        batch.set(Path.fromString("/dir/node0"), Utf8.toBytes("updated")).commit();
+        assertEquals(12, batch.operationCount());
+        assertEquals(6, batch.requestCount());
+        assertData("updated", "/dir/node0");
+    }
+
+    @Test
+    public void testPendingWritesAreCommittedWhenLargerThanAChunk() {
+        CuratorWriteBatch batch = new CuratorWriteBatch(curator, 1000);
+        batch.set(Path.fromString("/dir/node0"), new byte[300])
+             .set(Path.fromString("/dir/node1"), new byte[300]);
+        assertEquals(0, batch.requestCount());
+
+        batch.set(Path.fromString("/dir/node2"), new byte[300]);
+        assertEquals(1, batch.requestCount());
+        assertEquals(2, batch.writeCount());
+        assertEquals(1, batch.size());
+        assertEquals(Set.of("node0", "node1"), Set.copyOf(curator.getChildren(Path.fromString("/dir"))));
+
+        batch.commit();
+        assertEquals(3, batch.writeCount());
+        assertEquals(3, curator.getChildren(Path.fromString("/dir")).size());
+    }
+
+    @Test
+    public void testClearDiscardsPendingWrites() {
+        CuratorWriteBatch batch = new CuratorWriteBatch(curator);
+        batch.set(Path.fromString("/a"), Utf8.toBytes("data"));
+        batch.clear();
+        assertEquals(0, batch.size());
+
+        batch.commit();
+        assertEquals(0, batch.operationCount());
+        assertTrue(curator.getChildren(Path.createRoot()).isEmpty());
+    }
+
+    @Test
+    public void testDataLargerThanNodeLimitIsRejected() {
+        try {
+            new CuratorWriteBatch(curator).set(Path.fromString("/large"), new byte[(int) curator.juteMaxBuffer() + 1]);
+            fail("Expected exception");
+        }
+        catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Cannot not set data at /large"));
+        }
+    }
+
+    private void assertData(String expected, String path) {
+        assertArrayEquals(Utf8.toBytes(expected), curator.getData(Path.fromString(path)).get());
+    }
+
+}